@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -312,6 +312,42 @@ public class DebugPlugin extends Plugin {
 	 */
 	public static final String ATTR_MERGE_OUTPUT = PI_DEBUG_CORE + ".ATTR_MERGE_OUTPUT"; //$NON-NLS-1$
 
+	/**
+	 * Launch configuration and launch attribute - a string specifying a file
+	 * system path the standard and error output of launched processes is
+	 * written to. {@link RuntimeProcess} copies the unmodified output bytes of
+	 * its system process to this file without decoding them. This also works
+	 * if output is not captured for the console (see
+	 * {@link #ATTR_CAPTURE_OUTPUT}).
+	 * <p>
+	 * The launch configuration attribute may contain variables which are
+	 * substituted when the configuration is launched. If a process captures its
+	 * output to file it sets a process attribute with this key and the absolute
+	 * path of the file as value.
+	 * </p>
+	 * <p>
+	 * Value of this constant is the same as the value of the
+	 * <code>IDebugUIConstants.ATTR_CAPTURE_IN_FILE</code> constant.
+	 * </p>
+	 *
+	 * @since 3.16
+	 */
+	public static final String ATTR_CAPTURE_IN_FILE = "org.eclipse.debug.ui.ATTR_CAPTURE_IN_FILE"; //$NON-NLS-1$
+
+	/**
+	 * Launch configuration and launch attribute - a boolean value indicating
+	 * whether output is appended to the file specified by
+	 * {@link #ATTR_CAPTURE_IN_FILE} instead of overwriting it. Default value is
+	 * <code>false</code>.
+	 * <p>
+	 * Value of this constant is the same as the value of the
+	 * <code>IDebugUIConstants.ATTR_APPEND_TO_FILE</code> constant.
+	 * </p>
+	 *
+	 * @since 3.16
+	 */
+	public static final String ATTR_APPEND_TO_FILE = "org.eclipse.debug.ui.ATTR_APPEND_TO_FILE"; //$NON-NLS-1$
+
 	/**
 	 * Boolean preference key (value
 	 * <code>org.eclipse.debug.core.PREF_DELETE_CONFIGS_ON_PROJECT_DELETE</code>)
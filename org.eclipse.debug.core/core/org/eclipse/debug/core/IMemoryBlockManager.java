@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2008 IBM Corporation and others.
+ * Copyright (c) 2004, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -97,4 +97,17 @@ public interface IMemoryBlockManager {
 	 */
 	IMemoryBlock[] getMemoryBlocks(IMemoryBlockRetrieval source);
 
+	/**
+	 * Runs the given runnable, which may add and remove memory blocks. The
+	 * registered memory block listeners are notified once of all memory
+	 * blocks it removed and once of all memory blocks it added, after it
+	 * completes, rather than for each change. Only the changes made by the
+	 * calling thread are batched; listeners are notified of changes made by
+	 * other threads meanwhile as usual.
+	 *
+	 * @param runnable the runnable adding and removing memory blocks
+	 * @since 3.16
+	 */
+	void runBatch(Runnable runnable);
+
 }
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.io.IOException;
+
+/**
+ * Extension to a streams proxy that allows writing binary data to the
+ * standard input stream of a proxy's process.
+ * <p>
+ * Clients should implement this interface, in addition to
+ * <code>IStreamsProxy2</code>, if they can accept input as raw bytes. This
+ * avoids decoding and re-encoding input which is already available in the
+ * process's encoding, e.g. text pasted into a console.
+ * </p>
+ *
+ * @since 3.16
+ */
+public interface IBinaryStreamsProxy extends IStreamsProxy2 {
+
+	/**
+	 * Writes the given bytes to the standard input stream of this proxy's
+	 * process. The data may be queued and written at a later time if the
+	 * stream is blocked.
+	 *
+	 * @param data the data to write
+	 * @param offset start offset in <code>data</code>
+	 * @param length number of bytes to write
+	 * @throws IOException if this method fails to write the data
+	 */
+	void write(byte[] data, int offset, int length) throws IOException;
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * Optional extension to {@link IMemoryBlockExtension} which retrieves memory
+ * as {@link PackedMemory}, i.e. as arrays of values and flags rather than as
+ * one {@link MemoryByte} object per byte. Clients displaying large ranges of
+ * memory use this interface when available and adapt the result of
+ * {@link IMemoryBlockExtension#getBytesFromAddress(BigInteger, long)}
+ * otherwise.
+ * <p>
+ * Clients may optionally implement this interface when providing
+ * implementations of {@link IMemoryBlockExtension}.
+ * </p>
+ *
+ * @since 3.16
+ * @see PackedMemory#fromMemoryBytes(MemoryByte[])
+ */
+public interface IPackedMemoryBlockExtension extends IMemoryBlockExtension {
+
+	/**
+	 * Returns bytes from this memory block based on the given address and the
+	 * addressable size of this memory block, with the same semantics as
+	 * {@link IMemoryBlockExtension#getBytesFromAddress(BigInteger, long)}.
+	 * <p>
+	 * The caller may change the flags of the returned memory, so
+	 * implementations must not return memory they keep using.
+	 * </p>
+	 *
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units is the number of addressable units of memory to retrieve
+	 * @return the bytes from this memory block based on the given address and
+	 *         number of units. The length of the memory returned must be
+	 *         equal to <code>units</code> * <code>getAddressableSize()</code>.
+	 * @throws DebugException if unable to retrieve the specified bytes due to
+	 *             a failure communicating with the target
+	 */
+	PackedMemory getPackedBytesFromAddress(BigInteger address, long units) throws DebugException;
+}
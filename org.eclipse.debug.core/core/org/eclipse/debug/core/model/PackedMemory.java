@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A range of memory bytes stored as an array of values and a parallel array
+ * of attribute flags, rather than as one {@link MemoryByte} object per byte.
+ * The flags use the bit masks defined by {@link MemoryByte}.
+ * <p>
+ * When all bytes of a range have the same flags, which is the common case
+ * for memory retrieved from a target, the flags are stored as a single value
+ * and only expanded to an array when the flags of a single byte are changed.
+ * </p>
+ * <p>
+ * A packed memory may be a view on a part of the arrays of another packed
+ * memory, see {@link #slice(int, int)}. Changes to the flags of a view are
+ * visible in the packed memory it was created from, and vice versa. Views
+ * share the single value of uniform flags as well, so slicing does not expand
+ * the flags to an array.
+ * </p>
+ * <p>
+ * Clients may instantiate this class. This class is not intended to be
+ * subclassed. This class is not thread safe.
+ * </p>
+ *
+ * @since 3.16
+ * @see IPackedMemoryBlockExtension
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PackedMemory {
+
+	/**
+	 * Flags of all bytes of the values array, shared by a packed memory and
+	 * its views.
+	 */
+	private static final class Flags {
+		/**
+		 * Flags of each byte, or <code>null</code> if all bytes have the
+		 * uniform flags.
+		 */
+		byte[] fArray;
+		byte fUniform;
+
+		Flags(byte[] array, byte uniform) {
+			fArray = array;
+			fUniform = uniform;
+		}
+	}
+
+	private final byte[] fValues;
+	private final Flags fFlags;
+	private final int fOffset;
+	private final int fLength;
+
+	/**
+	 * Constructs a packed memory with the given values and flags. The arrays
+	 * are not copied.
+	 *
+	 * @param values values of the bytes
+	 * @param flags attributes of the bytes, must have the same length as
+	 *            <code>values</code>
+	 */
+	public PackedMemory(byte[] values, byte[] flags) {
+		this(values, flags, (byte) 0, 0, values.length);
+		if (flags.length != values.length) {
+			throw new IllegalArgumentException("Flags and values differ in length"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Constructs a packed memory with the given values, where all bytes have
+	 * the same attributes. The values are not copied.
+	 *
+	 * @param values values of the bytes
+	 * @param flags attributes of every byte
+	 */
+	public PackedMemory(byte[] values, byte flags) {
+		this(values, null, flags, 0, values.length);
+	}
+
+	/**
+	 * Constructs a packed memory of the given length whose bytes have a value
+	 * of 0 and no attributes, i.e. are not readable.
+	 *
+	 * @param length number of bytes
+	 */
+	public PackedMemory(int length) {
+		this(new byte[length], (byte) 0);
+	}
+
+	private PackedMemory(byte[] values, byte[] flags, byte uniformFlags, int offset, int length) {
+		this(values, new Flags(flags, uniformFlags), offset, length);
+	}
+
+	private PackedMemory(byte[] values, Flags flags, int offset, int length) {
+		fValues = values;
+		fFlags = flags;
+		fOffset = offset;
+		fLength = length;
+	}
+
+	/**
+	 * Creates a packed memory from the values and flags of the given memory
+	 * bytes. Used to adapt memory blocks which only provide
+	 * {@link MemoryByte} arrays.
+	 *
+	 * @param bytes memory bytes
+	 * @return packed memory with the values and flags of the memory bytes
+	 */
+	public static PackedMemory fromMemoryBytes(MemoryByte[] bytes) {
+		byte[] values = new byte[bytes.length];
+		byte[] flags = null;
+		byte uniformFlags = bytes.length > 0 ? bytes[0].getFlags() : 0;
+		for (int i = 0; i < bytes.length; i++) {
+			values[i] = bytes[i].getValue();
+			byte byteFlags = bytes[i].getFlags();
+			if (flags == null && byteFlags != uniformFlags) {
+				flags = new byte[bytes.length];
+				Arrays.fill(flags, 0, i, uniformFlags);
+			}
+			if (flags != null) {
+				flags[i] = byteFlags;
+			}
+		}
+		return new PackedMemory(values, flags, uniformFlags, 0, values.length);
+	}
+
+	/**
+	 * Returns the number of bytes.
+	 *
+	 * @return the number of bytes
+	 */
+	public int length() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the value of the byte at the given index.
+	 *
+	 * @param index zero-based index of the byte
+	 * @return the value of the byte
+	 */
+	public byte getValue(int index) {
+		checkIndex(index);
+		return fValues[fOffset + index];
+	}
+
+	/**
+	 * Returns the attributes of the byte at the given index as a bit mask.
+	 *
+	 * @param index zero-based index of the byte
+	 * @return the attributes of the byte
+	 */
+	public byte getFlags(int index) {
+		checkIndex(index);
+		return fFlags.fArray == null ? fFlags.fUniform : fFlags.fArray[fOffset + index];
+	}
+
+	/**
+	 * Sets the attributes of the byte at the given index.
+	 *
+	 * @param index zero-based index of the byte
+	 * @param flags bit mask of attributes
+	 */
+	public void setFlags(int index, byte flags) {
+		checkIndex(index);
+		if (fFlags.fArray == null) {
+			if (flags == fFlags.fUniform) {
+				return;
+			}
+			expandFlags();
+		}
+		fFlags.fArray[fOffset + index] = flags;
+	}
+
+	/**
+	 * Turns the given attributes on or off for all bytes.
+	 *
+	 * @param mask bit mask of the attributes to change
+	 * @param on whether to turn the attributes on or off
+	 */
+	public void setFlags(byte mask, boolean on) {
+		if (fFlags.fArray == null) {
+			if (fOffset == 0 && fLength == fValues.length) {
+				fFlags.fUniform = (byte) (on ? fFlags.fUniform | mask : fFlags.fUniform & ~mask);
+				return;
+			}
+			// the other bytes of the values keep their flags
+			expandFlags();
+		}
+		byte[] flags = fFlags.fArray;
+		for (int i = fOffset; i < fOffset + fLength; i++) {
+			flags[i] = (byte) (on ? flags[i] | mask : flags[i] & ~mask);
+		}
+	}
+
+	/**
+	 * Returns whether all bytes have the same attributes.
+	 *
+	 * @return whether all bytes have the same attributes
+	 */
+	public boolean hasUniformFlags() {
+		return fFlags.fArray == null;
+	}
+
+	/**
+	 * Returns a read-only buffer on the values of the bytes. The buffer is
+	 * not a copy, its position is 0 and its limit is {@link #length()}.
+	 *
+	 * @return a read-only buffer on the values
+	 */
+	public ByteBuffer getValues() {
+		return ByteBuffer.wrap(fValues, fOffset, fLength).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Copies values and flags to the given arrays.
+	 *
+	 * @param index zero-based index of the first byte to copy
+	 * @param values array to copy the values to
+	 * @param flags array to copy the flags to, or <code>null</code> to only
+	 *            copy the values
+	 * @param destIndex index of the first byte in the arrays
+	 * @param length number of bytes to copy
+	 */
+	public void copyTo(int index, byte[] values, byte[] flags, int destIndex, int length) {
+		checkRange(index, length);
+		System.arraycopy(fValues, fOffset + index, values, destIndex, length);
+		if (flags != null) {
+			if (fFlags.fArray == null) {
+				Arrays.fill(flags, destIndex, destIndex + length, fFlags.fUniform);
+			} else {
+				System.arraycopy(fFlags.fArray, fOffset + index, flags, destIndex, length);
+			}
+		}
+	}
+
+	/**
+	 * Returns a view on a range of the bytes, which shares the values and
+	 * flags with this packed memory.
+	 *
+	 * @param index zero-based index of the first byte of the range
+	 * @param length number of bytes in the range
+	 * @return a view on the range
+	 */
+	public PackedMemory slice(int index, int length) {
+		checkRange(index, length);
+		return new PackedMemory(fValues, fFlags, fOffset + index, length);
+	}
+
+	/**
+	 * Returns a copy of this packed memory which does not share its arrays.
+	 *
+	 * @return a copy of this packed memory
+	 */
+	public PackedMemory copy() {
+		byte[] values = Arrays.copyOfRange(fValues, fOffset, fOffset + fLength);
+		if (fFlags.fArray == null) {
+			return new PackedMemory(values, fFlags.fUniform);
+		}
+		return new PackedMemory(values, Arrays.copyOfRange(fFlags.fArray, fOffset, fOffset + fLength));
+	}
+
+	/**
+	 * Creates a memory byte with the value and flags of the byte at the given
+	 * index. Changes to the memory byte are not reflected in this packed
+	 * memory.
+	 *
+	 * @param index zero-based index of the byte
+	 * @return a new memory byte
+	 */
+	public MemoryByte getMemoryByte(int index) {
+		return new MemoryByte(getValue(index), getFlags(index));
+	}
+
+	/**
+	 * Creates memory bytes with the values and flags of a range of bytes.
+	 * Changes to the memory bytes are not reflected in this packed memory.
+	 *
+	 * @param index zero-based index of the first byte of the range
+	 * @param length number of bytes in the range
+	 * @return new memory bytes
+	 */
+	public MemoryByte[] toMemoryBytes(int index, int length) {
+		checkRange(index, length);
+		MemoryByte[] bytes = new MemoryByte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = new MemoryByte(fValues[fOffset + index + i], fFlags.fArray == null ? fFlags.fUniform : fFlags.fArray[fOffset + index + i]);
+		}
+		return bytes;
+	}
+
+	private void expandFlags() {
+		// expanded for all views sharing the flags
+		fFlags.fArray = new byte[fValues.length];
+		Arrays.fill(fFlags.fArray, fFlags.fUniform);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= fLength) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+	}
+
+	private void checkRange(int index, int length) {
+		if (index < 0 || length < 0 || index + length > fLength) {
+			throw new IndexOutOfBoundsException(index + "+" + length); //$NON-NLS-1$
+		}
+	}
+}
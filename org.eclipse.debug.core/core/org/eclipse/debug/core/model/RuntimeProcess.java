@@ -14,9 +14,14 @@
 package org.eclipse.debug.core.model;
 
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -287,7 +292,8 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 	 * @return streams proxy
 	 */
 	protected IStreamsProxy createStreamsProxy() {
-		if (!fCaptureOutput) {
+		FileChannel captureChannel = openCaptureFile();
+		if (!fCaptureOutput && captureChannel == null) {
 			return new NullStreamsProxy(getSystemProcess());
 		}
 		String encoding = getLaunch().getAttribute(DebugPlugin.ATTR_CONSOLE_ENCODING);
@@ -299,7 +305,33 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 				DebugPlugin.log(e);
 			}
 		}
-		return new StreamsProxy(getSystemProcess(), charset);
+		return new StreamsProxy(getSystemProcess(), charset, captureChannel, fCaptureOutput);
+	}
+
+	/**
+	 * Opens the file the process output should be captured to if the launch
+	 * specifies one with {@link DebugPlugin#ATTR_CAPTURE_IN_FILE}. If the file
+	 * was opened the {@link DebugPlugin#ATTR_CAPTURE_IN_FILE} attribute of this
+	 * process is set to the absolute file path.
+	 *
+	 * @return channel to write process output to or <code>null</code> if output
+	 *         is not captured to file
+	 */
+	private FileChannel openCaptureFile() {
+		String captureFile = getLaunch().getAttribute(DebugPlugin.ATTR_CAPTURE_IN_FILE);
+		if (captureFile == null) {
+			return null;
+		}
+		File file = new File(captureFile);
+		boolean append = Boolean.parseBoolean(getLaunch().getAttribute(DebugPlugin.ATTR_APPEND_TO_FILE));
+		try {
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+			setAttribute(DebugPlugin.ATTR_CAPTURE_IN_FILE, file.getAbsolutePath());
+			return channel;
+		} catch (IOException | InvalidPathException e) {
+			DebugPlugin.log(e);
+			return null;
+		}
 	}
 
 	/**
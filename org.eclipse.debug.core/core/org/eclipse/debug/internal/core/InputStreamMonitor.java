@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,7 +17,6 @@ package org.eclipse.debug.internal.core;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
-import java.util.Vector;
 
 import org.eclipse.debug.core.DebugPlugin;
 
@@ -26,7 +25,9 @@ import org.eclipse.debug.core.DebugPlugin;
  * queueing output if the stream is blocked.
  *
  * The input stream monitor writes to system in via
- * an output stream.
+ * an output stream. Queued input is kept as bytes in a ring buffer and
+ * written in batches, so a large amount of input (e.g. a big paste into the
+ * console) does not cause a write and flush for every single chunk.
  */
 public class InputStreamMonitor {
 
@@ -35,9 +36,30 @@ public class InputStreamMonitor {
 	 */
 	private OutputStream fStream;
 	/**
-	 * The queue of output.
+	 * Initial size of the input buffer.
 	 */
-	private Vector<String> fQueue;
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+	/**
+	 * Maximum number of bytes written to the stream in one call.
+	 */
+	private static final int MAX_WRITE_SIZE = 65536;
+	/**
+	 * Ring buffer of queued input not yet written to the stream. Guarded by
+	 * {@link #fLock}.
+	 */
+	private byte[] fBuffer = new byte[INITIAL_BUFFER_SIZE];
+	/**
+	 * Index of the first queued byte in {@link #fBuffer}.
+	 */
+	private int fHead;
+	/**
+	 * Number of queued bytes in {@link #fBuffer}.
+	 */
+	private int fSize;
+	/**
+	 * Buffer used by the writer thread to transfer queued bytes to the stream.
+	 */
+	private byte[] fWriteBuffer;
 	/**
 	 * The thread which writes to the stream.
 	 */
@@ -75,7 +97,6 @@ public class InputStreamMonitor {
 	 */
 	public InputStreamMonitor(OutputStream stream, Charset charset) {
 		fStream = stream;
-		fQueue = new Vector<>();
 		fLock = new Object();
 		fCharset = charset;
 	}
@@ -101,12 +122,72 @@ public class InputStreamMonitor {
 	 * @param text text to append
 	 */
 	public void write(String text) {
-		synchronized(fLock) {
-			fQueue.add(text);
+		byte[] data = fCharset != null ? text.getBytes(fCharset) : text.getBytes();
+		write(data, 0, data.length);
+	}
+
+	/**
+	 * Appends the given bytes to the stream, or queues the bytes to be written
+	 * at a later time if the stream is blocked.
+	 *
+	 * @param data the data to append
+	 * @param offset start offset in data
+	 * @param length number of bytes to append
+	 */
+	public void write(byte[] data, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		synchronized (fLock) {
+			ensureCapacity(fSize + length);
+			int tail = (fHead + fSize) % fBuffer.length;
+			int firstPart = Math.min(length, fBuffer.length - tail);
+			System.arraycopy(data, offset, fBuffer, tail, firstPart);
+			System.arraycopy(data, offset + firstPart, fBuffer, 0, length - firstPart);
+			fSize += length;
 			fLock.notifyAll();
 		}
 	}
 
+	/**
+	 * Grows the ring buffer so it can hold at least the given number of bytes.
+	 * Must be called while holding {@link #fLock}.
+	 *
+	 * @param capacity the required capacity
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= fBuffer.length) {
+			return;
+		}
+		byte[] newBuffer = new byte[Math.max(capacity, fBuffer.length * 2)];
+		int copied = drain(newBuffer, 0, fSize);
+		fBuffer = newBuffer;
+		fHead = 0;
+		fSize = copied;
+	}
+
+	/**
+	 * Removes up to <code>length</code> bytes from the ring buffer and copies
+	 * them into the given array. Must be called while holding {@link #fLock}.
+	 *
+	 * @param target the array to copy to
+	 * @param offset start offset in target
+	 * @param length maximum number of bytes to remove
+	 * @return the number of bytes removed
+	 */
+	private int drain(byte[] target, int offset, int length) {
+		int count = Math.min(length, fSize);
+		int firstPart = Math.min(count, fBuffer.length - fHead);
+		System.arraycopy(fBuffer, fHead, target, offset, firstPart);
+		System.arraycopy(fBuffer, 0, target, offset + firstPart, count - firstPart);
+		fHead = (fHead + count) % fBuffer.length;
+		fSize -= count;
+		if (fSize == 0) {
+			fHead = 0;
+		}
+		return count;
+	}
+
 	/**
 	 * Starts a thread which writes the stream.
 	 */
@@ -147,18 +228,32 @@ public class InputStreamMonitor {
 	}
 
 	/**
-	 * Write the text in the queue to the stream.
+	 * Write the queued input to the stream. All input available at the time
+	 * of the call is written in chunks and the stream is flushed once after the
+	 * queue has been emptied.
 	 */
 	protected void writeNext() {
-		while (!fQueue.isEmpty() && !fClosed) {
-			String text = fQueue.firstElement();
-			fQueue.removeElementAt(0);
+		if (fWriteBuffer == null) {
+			fWriteBuffer = new byte[MAX_WRITE_SIZE];
+		}
+		boolean written = false;
+		while (!fClosed) {
+			int length;
+			synchronized (fLock) {
+				length = drain(fWriteBuffer, 0, fWriteBuffer.length);
+			}
+			if (length == 0) {
+				break;
+			}
+			try {
+				fStream.write(fWriteBuffer, 0, length);
+				written = true;
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+		}
+		if (written && !fClosed) {
 			try {
-				if (fCharset != null) {
-					fStream.write(text.getBytes(fCharset));
-				} else {
-					fStream.write(text.getBytes());
-				}
 				fStream.flush();
 			} catch (IOException e) {
 				DebugPlugin.log(e);
@@ -168,7 +263,7 @@ public class InputStreamMonitor {
 			synchronized(fLock) {
 				// Queue could receive more input between last empty check and
 				// lock acquire. See https://bugs.eclipse.org/550834
-				if (fQueue.isEmpty()) {
+				if (fSize == 0) {
 					fLock.wait();
 				}
 			}
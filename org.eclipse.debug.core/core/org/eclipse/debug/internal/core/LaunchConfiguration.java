@@ -49,6 +49,7 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
@@ -760,6 +761,17 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 				launch.setAttribute(DebugPlugin.ATTR_CAPTURE_OUTPUT, null);
 			}
 			launch.setAttribute(DebugPlugin.ATTR_CONSOLE_ENCODING, getLaunchManager().getEncoding(this));
+			String captureFile = getAttribute(DebugPlugin.ATTR_CAPTURE_IN_FILE, (String) null);
+			if (captureFile != null) {
+				try {
+					captureFile = VariablesPlugin.getDefault().getStringVariableManager().performStringSubstitution(captureFile);
+					launch.setAttribute(DebugPlugin.ATTR_CAPTURE_IN_FILE, captureFile);
+					launch.setAttribute(DebugPlugin.ATTR_APPEND_TO_FILE, Boolean.toString(getAttribute(DebugPlugin.ATTR_APPEND_TO_FILE, false)));
+				} catch (CoreException e) {
+					// output is not captured to file but launch can continue
+					DebugPlugin.log(e);
+				}
+			}
 			if (register) {
 				getLaunchManager().addLaunch(launch);
 			}
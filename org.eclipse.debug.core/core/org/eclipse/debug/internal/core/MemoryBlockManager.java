@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,8 +17,16 @@
 package org.eclipse.debug.internal.core;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugException;
@@ -35,13 +43,61 @@ import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
 /**
  * Implementation of IMemoryBlockManager
  * The manager is responsible to manage all memory blocks in the workbench.
+ * <p>
+ * Memory blocks are indexed by debug target and by memory block retrieval.
+ * Changes are made under a lock and publish new arrays of the memory blocks,
+ * so that the memory blocks can be read concurrently without locking.
+ * </p>
  *
  * @since 3.1
  */
 public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetListener {
 
-	private ArrayList<IMemoryBlockListener> listeners = new ArrayList<>();
-	private ArrayList<IMemoryBlock> memoryBlocks = new ArrayList<>();
+	private static final IMemoryBlock[] EMPTY = new IMemoryBlock[0];
+
+	/**
+	 * Key of the memory blocks without debug target or retrieval, as the
+	 * indexes do not allow <code>null</code> keys.
+	 */
+	private static final Object NO_KEY = new Object();
+
+	private ListenerList<IMemoryBlockListener> listeners = new ListenerList<>();
+
+	private final Object fLock = new Object();
+
+	/**
+	 * All memory blocks in the order they were added, with the keys of their
+	 * debug target and retrieval. Guarded by {@link #fLock}.
+	 */
+	private Map<IMemoryBlock, Object[]> memoryBlocks = new LinkedHashMap<>();
+	private final Map<Object, Set<IMemoryBlock>> fTargetIndex = new HashMap<>();
+	private final Map<Object, Set<IMemoryBlock>> fRetrievalIndex = new HashMap<>();
+
+	/**
+	 * Arrays of the memory blocks for readers, replaced on each change. The
+	 * array of all memory blocks is <code>null</code> until it is read after
+	 * a change.
+	 */
+	private volatile IMemoryBlock[] fAllMemoryBlocks = EMPTY;
+	private final Map<Object, IMemoryBlock[]> fMemoryBlocksByTarget = new ConcurrentHashMap<>();
+	private final Map<Object, IMemoryBlock[]> fMemoryBlocksByRetrieval = new ConcurrentHashMap<>();
+
+	/**
+	 * Memory blocks added and removed by a thread within
+	 * {@link #runBatch(Runnable)}, whose notifications are deferred until the
+	 * batch completes.
+	 */
+	private static class Batch {
+		private int fDepth;
+		private final List<IMemoryBlock> fAdded = new ArrayList<>();
+		private final List<IMemoryBlock> fRemoved = new ArrayList<>();
+	}
+
+	/**
+	 * The batch of the current thread, only batching the changes made by that
+	 * thread.
+	 */
+	private final ThreadLocal<Batch> fBatch = new ThreadLocal<>();
 
 	private static final int ADDED = 0;
 	private static final int REMOVED = 1;
@@ -81,12 +137,13 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 		 * @param update type of change
 		 */
 		public void notify(IMemoryBlock[] memBlocks, int update) {
-			if (listeners != null) {
+			ListenerList<IMemoryBlockListener> currentListeners = listeners;
+			if (currentListeners != null) {
 				fType = update;
-				Object[] copiedListeners= listeners.toArray(new IMemoryBlockListener[listeners.size()]);
-				for (Object copiedListener : copiedListeners) {
-					fListener = (IMemoryBlockListener) copiedListener;
-					fMemoryBlocks = memBlocks;
+				fMemoryBlocks = memBlocks;
+				// the listener list is copy on write, iterating needs no copy
+				for (IMemoryBlockListener listener : currentListeners) {
+					fListener = listener;
 					SafeRunner.run(this);
 				}
 			}
@@ -98,9 +155,6 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 	/**
 	 * Returns the <code>MemoryBlockNotifier</code>
 	 * @return the <code>MemoryBlockNotifier</code>
-	 *
-	 * TODO consider using only one of these, and sync where needed,
-	 * this way we are not creating a new every single time.
 	 */
 	private MemoryBlockNotifier getMemoryBlockNotifier() {
 		return new MemoryBlockNotifier();
@@ -108,48 +162,89 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 
 	@Override
 	public void addMemoryBlocks(IMemoryBlock[] mem) {
-		if (memoryBlocks == null) {
-			return;
-		}
 		if (mem == null) {
 			DebugPlugin.logMessage("Null argument passed into IMemoryBlockManager.addMemoryBlock", null); //$NON-NLS-1$
 			return;
 		}
 
 		if(mem.length > 0) {
+			// ask the memory blocks for their keys before taking the lock
+			Object[][] keys = new Object[mem.length][];
+			for (int i = 0; i < mem.length; i++) {
+				if (mem[i] != null) {
+					keys[i] = new Object[] { getTargetKey(mem[i]), getRetrievalKey(mem[i]) };
+				}
+			}
 			ArrayList<IMemoryBlock> newMemoryBlocks = new ArrayList<>();
-			for (IMemoryBlock m : mem) {
-				// do not allow duplicates
-				if (!memoryBlocks.contains(m)) {
-					newMemoryBlocks.add(m);
-					memoryBlocks.add(m);
-					// add listener for the first memory block added
-					if (memoryBlocks.size() == 1) {
-						DebugPlugin.getDefault().addDebugEventListener(this);
+			synchronized (fLock) {
+				if (memoryBlocks == null) {
+					return;
+				}
+				Set<Object> targets = new LinkedHashSet<>();
+				Set<Object> retrievals = new LinkedHashSet<>();
+				for (int i = 0; i < mem.length; i++) {
+					// do not allow duplicates
+					if (keys[i] != null && memoryBlocks.putIfAbsent(mem[i], keys[i]) == null) {
+						newMemoryBlocks.add(mem[i]);
+						fTargetIndex.computeIfAbsent(keys[i][0], k -> new LinkedHashSet<>()).add(mem[i]);
+						fRetrievalIndex.computeIfAbsent(keys[i][1], k -> new LinkedHashSet<>()).add(mem[i]);
+						targets.add(keys[i][0]);
+						retrievals.add(keys[i][1]);
 					}
 				}
+				if (newMemoryBlocks.isEmpty()) {
+					return;
+				}
+				// add listener for the first memory block added
+				if (memoryBlocks.size() == newMemoryBlocks.size()) {
+					DebugPlugin.getDefault().addDebugEventListener(this);
+				}
+				publish(targets, retrievals);
+			}
+			Batch batch = fBatch.get();
+			if (batch != null) {
+				batch.fAdded.addAll(newMemoryBlocks);
+			} else {
+				notifyListeners(newMemoryBlocks.toArray(new IMemoryBlock[newMemoryBlocks.size()]), ADDED);
 			}
-			notifyListeners(newMemoryBlocks.toArray(new IMemoryBlock[newMemoryBlocks.size()]), ADDED);
 		}
 	}
 
 	@Override
 	public void removeMemoryBlocks(IMemoryBlock[] memBlocks) {
-		if (memoryBlocks == null) {
-			return;
-		}
 		if (memBlocks == null){
 			DebugPlugin.logMessage("Null argument passed into IMemoryBlockManager.removeMemoryBlock", null); //$NON-NLS-1$
 			return;
 		}
 
 		if(memBlocks.length > 0) {
-			for (IMemoryBlock memBlock : memBlocks) {
-				memoryBlocks.remove(memBlock);
+			ArrayList<IMemoryBlock> removedMemoryBlocks = new ArrayList<>();
+			synchronized (fLock) {
+				if (memoryBlocks == null) {
+					return;
+				}
+				Set<Object> targets = new LinkedHashSet<>();
+				Set<Object> retrievals = new LinkedHashSet<>();
+				for (IMemoryBlock memBlock : memBlocks) {
+					Object[] keys = memBlock == null ? null : memoryBlocks.remove(memBlock);
+					if (keys != null) {
+						removedMemoryBlocks.add(memBlock);
+						fTargetIndex.get(keys[0]).remove(memBlock);
+						fRetrievalIndex.get(keys[1]).remove(memBlock);
+						targets.add(keys[0]);
+						retrievals.add(keys[1]);
+					}
+				}
+				if (removedMemoryBlocks.isEmpty()) {
+					return;
+				}
 				// remove listener after the last memory block has been removed
 				if (memoryBlocks.isEmpty()) {
 					DebugPlugin.getDefault().removeDebugEventListener(this);
 				}
+				publish(targets, retrievals);
+			}
+			for (IMemoryBlock memBlock : removedMemoryBlocks) {
 				if (memBlock instanceof IMemoryBlockExtension) {
 					try {
 						((IMemoryBlockExtension) memBlock).dispose();
@@ -158,10 +253,87 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 					}
 				}
 			}
-			notifyListeners(memBlocks, REMOVED);
+			Batch batch = fBatch.get();
+			if (batch != null) {
+				for (IMemoryBlock memBlock : removedMemoryBlocks) {
+					// listeners never learnt of blocks added in the batch
+					if (!batch.fAdded.remove(memBlock)) {
+						batch.fRemoved.add(memBlock);
+					}
+				}
+			} else {
+				notifyListeners(removedMemoryBlocks.toArray(new IMemoryBlock[removedMemoryBlocks.size()]), REMOVED);
+			}
 		}
 	}
 
+	@Override
+	public void runBatch(Runnable runnable) {
+		Batch batch = fBatch.get();
+		if (batch == null) {
+			batch = new Batch();
+			fBatch.set(batch);
+		}
+		batch.fDepth++;
+		try {
+			runnable.run();
+		} finally {
+			if (--batch.fDepth == 0) {
+				fBatch.remove();
+				if (!batch.fRemoved.isEmpty()) {
+					notifyListeners(batch.fRemoved.toArray(new IMemoryBlock[batch.fRemoved.size()]), REMOVED);
+				}
+				if (!batch.fAdded.isEmpty()) {
+					notifyListeners(batch.fAdded.toArray(new IMemoryBlock[batch.fAdded.size()]), ADDED);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Publishes new arrays of the memory blocks of the given debug targets
+	 * and retrievals, and marks the array of all memory blocks as stale. Must
+	 * be called holding {@link #fLock}.
+	 */
+	private void publish(Set<Object> targets, Set<Object> retrievals) {
+		fAllMemoryBlocks = null;
+		for (Object target : targets) {
+			publish(fTargetIndex, fMemoryBlocksByTarget, target);
+		}
+		for (Object retrieval : retrievals) {
+			publish(fRetrievalIndex, fMemoryBlocksByRetrieval, retrieval);
+		}
+	}
+
+	private static void publish(Map<Object, Set<IMemoryBlock>> index, Map<Object, IMemoryBlock[]> arrays, Object key) {
+		Set<IMemoryBlock> blocks = index.get(key);
+		if (blocks.isEmpty()) {
+			index.remove(key);
+			arrays.remove(key);
+		} else {
+			arrays.put(key, blocks.toArray(new IMemoryBlock[blocks.size()]));
+		}
+	}
+
+	private static Object getTargetKey(IMemoryBlock block) {
+		IDebugTarget target = block.getDebugTarget();
+		return target == null ? NO_KEY : target;
+	}
+
+	private static Object getRetrievalKey(IMemoryBlock block) {
+		IMemoryBlockRetrieval retrieval;
+		if (block instanceof IMemoryBlockExtension) {
+			retrieval = ((IMemoryBlockExtension) block).getMemoryBlockRetrieval();
+		} else {
+			retrieval = block.getAdapter(IMemoryBlockRetrieval.class);
+			// standard memory block always uses the debug target as the memory block retrieval
+			if (retrieval == null) {
+				retrieval = block.getDebugTarget();
+			}
+		}
+		return retrieval == null ? NO_KEY : retrieval;
+	}
+
 	@Override
 	public void addListener(IMemoryBlockListener listener) {
 
@@ -172,9 +344,7 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 			DebugPlugin.logMessage("Null argument passed into IMemoryBlockManager.addListener", null); //$NON-NLS-1$
 			return;
 		}
-		if (!listeners.contains(listener)) {
-			listeners.add(listener);
-		}
+		listeners.add(listener);
 	}
 
 	@Override
@@ -187,48 +357,36 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 			DebugPlugin.logMessage("Null argument passed into IMemoryBlockManager.removeListener", null); //$NON-NLS-1$
 			return;
 		}
-		if (listeners.contains(listener)) {
-			listeners.remove(listener);
-		}
+		listeners.remove(listener);
 	}
 
 	@Override
 	public IMemoryBlock[] getMemoryBlocks() {
-		return memoryBlocks.toArray(new IMemoryBlock[memoryBlocks.size()]);
+		IMemoryBlock[] blocks = fAllMemoryBlocks;
+		if (blocks == null) {
+			synchronized (fLock) {
+				if (fAllMemoryBlocks == null) {
+					fAllMemoryBlocks = memoryBlocks == null ? EMPTY : memoryBlocks.keySet().toArray(new IMemoryBlock[memoryBlocks.size()]);
+				}
+				blocks = fAllMemoryBlocks;
+			}
+		}
+		return blocks.clone();
 	}
 
 	@Override
 	public IMemoryBlock[] getMemoryBlocks(IDebugTarget debugTarget) {
-		ArrayList<IMemoryBlock> memoryBlocksList = new ArrayList<>();
-		for (IMemoryBlock block : memoryBlocks) {
-			if (block.getDebugTarget() == debugTarget) {
-				memoryBlocksList.add(block);
-			}
-		}
-		return memoryBlocksList.toArray(new IMemoryBlock[memoryBlocksList.size()]);
+		return getMemoryBlocks(fMemoryBlocksByTarget, debugTarget);
 	}
 
 	@Override
 	public IMemoryBlock[] getMemoryBlocks(IMemoryBlockRetrieval retrieve) {
-		ArrayList<IMemoryBlock> memoryBlocksList = new ArrayList<>();
-		for (IMemoryBlock block : memoryBlocks) {
-			if (block instanceof IMemoryBlockExtension) {
-				if (((IMemoryBlockExtension) block).getMemoryBlockRetrieval() == retrieve) {
-					memoryBlocksList.add(block);
-				}
-			}
-			else {
-				IMemoryBlockRetrieval mbRetrieval = block.getAdapter(IMemoryBlockRetrieval.class);
-				// standard memory block always uses the debug target as the memory block retrieval
-				if (mbRetrieval == null) {
-					mbRetrieval = block.getDebugTarget();
-				}
-				if (mbRetrieval == retrieve) {
-					memoryBlocksList.add(block);
-				}
-			}
-		}
-		return memoryBlocksList.toArray(new IMemoryBlock[memoryBlocksList.size()]);
+		return getMemoryBlocks(fMemoryBlocksByRetrieval, retrieve);
+	}
+
+	private static IMemoryBlock[] getMemoryBlocks(Map<Object, IMemoryBlock[]> index, Object key) {
+		IMemoryBlock[] blocks = index.get(key == null ? NO_KEY : key);
+		return blocks == null ? EMPTY : blocks.clone();
 	}
 
 	/**
@@ -242,9 +400,12 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 
 	@Override
 	public void handleDebugEvents(DebugEvent[] events) {
-		for (DebugEvent event : events) {
-			handleDebugEvent(event);
-		}
+		// remove the memory blocks of all targets terminated at once
+		runBatch(() -> {
+			for (DebugEvent event : events) {
+				handleDebugEvent(event);
+			}
+		});
 	}
 
 	/**
@@ -277,9 +438,16 @@ public class MemoryBlockManager implements IMemoryBlockManager, IDebugEventSetLi
 			listeners = null;
 		}
 
-		if (memoryBlocks != null) {
-			memoryBlocks.clear();
-			memoryBlocks = null;
+		synchronized (fLock) {
+			if (memoryBlocks != null) {
+				memoryBlocks.clear();
+				memoryBlocks = null;
+			}
+			fTargetIndex.clear();
+			fRetrievalIndex.clear();
+			fAllMemoryBlocks = EMPTY;
+			fMemoryBlocksByTarget.clear();
+			fMemoryBlocksByRetrieval.clear();
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,9 +15,12 @@
 package org.eclipse.debug.internal.core;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -66,6 +69,28 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	private static final int BUFFER_SIZE= 8192;
 
+	/**
+	 * The size of the read buffer if content is only captured and not decoded
+	 */
+	private static final int CAPTURE_BUFFER_SIZE = 65536;
+
+	/**
+	 * The unbuffered stream being monitored.
+	 */
+	private final InputStream fRawStream;
+
+	/**
+	 * Channel which receives a copy of all bytes read from the monitored stream
+	 * or <code>null</code> if content is not captured.
+	 */
+	private volatile WritableByteChannel fCaptureChannel;
+
+	/**
+	 * Whether read content is decoded and reported to listeners. If
+	 * <code>false</code> content is only copied to {@link #fCaptureChannel}.
+	 */
+	private final boolean fDecode;
+
 	/**
 	 * Whether or not this monitor has been killed.
 	 * When the monitor is killed, it stops reading
@@ -87,7 +112,31 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 * @param charset stream charset or <code>null</code> for system default
 	 */
 	public OutputStreamMonitor(InputStream stream, Charset charset) {
-		fStream = new BufferedInputStream(stream, 8192);
+		this(stream, charset, null, true);
+	}
+
+	/**
+	 * Creates an output stream monitor on the given stream (connected to system
+	 * out or err) which copies the unmodified stream content to the given
+	 * channel.
+	 * <p>
+	 * Content is copied before it is decoded. If <code>decode</code> is
+	 * <code>false</code> content is not decoded at all and listeners are never
+	 * notified. This allows to capture process output at disk speed without
+	 * anyone consuming it as text.
+	 * </p>
+	 *
+	 * @param stream input stream to read from
+	 * @param charset stream charset or <code>null</code> for system default
+	 * @param captureChannel channel to copy the stream content to or
+	 *            <code>null</code>. The channel is not closed by this monitor.
+	 * @param decode whether to decode stream content and notify listeners
+	 */
+	public OutputStreamMonitor(InputStream stream, Charset charset, WritableByteChannel captureChannel, boolean decode) {
+		fRawStream = stream;
+		fCaptureChannel = captureChannel;
+		fDecode = decode || captureChannel == null;
+		fStream = new BufferedInputStream(captureChannel != null ? new CapturingInputStream(stream) : stream, 8192);
 		fCharset = charset;
 		fContents= new StringBuilder();
 		fDone = new AtomicBoolean(false);
@@ -145,7 +194,11 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 
 	private void read() {
 		try {
-			internalRead();
+			if (fDecode) {
+				internalRead();
+			} else {
+				captureRead();
+			}
 		} finally {
 			fDone.set(true);
 		}
@@ -209,6 +262,59 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		}
 	}
 
+	/**
+	 * Continually reads from the stream and copies the content to the capture
+	 * channel without decoding it.
+	 */
+	private void captureRead() {
+		final byte[] bytes = new byte[CAPTURE_BUFFER_SIZE];
+		try {
+			int read = 0;
+			while (read >= 0 && !fKilled) {
+				read = fRawStream.read(bytes);
+				if (read > 0) {
+					capture(bytes, 0, read);
+				}
+			}
+		} catch (IOException e) {
+			if (!fKilled) {
+				DebugPlugin.log(e);
+			}
+		} finally {
+			try {
+				fRawStream.close();
+			} catch (IOException e) {
+				// ignore, already done reading
+			}
+		}
+	}
+
+	/**
+	 * Copy content to the capture channel. Capturing is stopped if writing to
+	 * the channel fails.
+	 *
+	 * @param bytes buffer with content to copy
+	 * @param offset offset of content in buffer
+	 * @param length length of content
+	 */
+	private void capture(byte[] bytes, int offset, int length) {
+		final WritableByteChannel channel = fCaptureChannel;
+		if (channel == null) {
+			return;
+		}
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			fCaptureChannel = null;
+			if (!fKilled) {
+				DebugPlugin.log(e);
+			}
+		}
+	}
+
 	protected void kill() {
 		fKilled= true;
 	}
@@ -258,6 +364,42 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		return fDone.get();
 	}
 
+	/**
+	 * Stream which copies everything read through it to the capture channel.
+	 */
+	private class CapturingInputStream extends FilterInputStream {
+
+		CapturingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			if (b >= 0) {
+				capture(new byte[] { (byte) b }, 0, 1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int read = super.read(b, off, len);
+			if (read > 0) {
+				capture(b, off, read);
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// skipped content must still be captured
+			final byte[] bytes = new byte[(int) Math.min(n, BUFFER_SIZE)];
+			final int read = read(bytes, 0, bytes.length);
+			return Math.max(read, 0);
+		}
+	}
+
 	class ContentNotifier implements ISafeRunnable {
 
 		private IStreamListener fListener;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,11 @@ package org.eclipse.debug.internal.core;
 
 
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IBinaryStreamsProxy;
 import org.eclipse.debug.core.model.IStreamMonitor;
 import org.eclipse.debug.core.model.IStreamsProxy;
 import org.eclipse.debug.core.model.IStreamsProxy2;
@@ -25,7 +28,7 @@ import org.eclipse.debug.core.model.IStreamsProxy2;
  * Standard implementation of a streams proxy for IStreamsProxy.
  */
 
-public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
+public class StreamsProxy implements IStreamsProxy, IStreamsProxy2, IBinaryStreamsProxy {
 	/**
 	 * The monitor for the output stream (connected to standard out of the process)
 	 */
@@ -44,6 +47,11 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 	 * <code>false</code> by default.
 	 */
 	private boolean fClosed;
+	/**
+	 * Channel receiving the unmodified standard out and standard error content
+	 * of the process or <code>null</code> if output is not captured.
+	 */
+	private WritableByteChannel fCaptureChannel;
 
 	/**
 	 * Creates a <code>StreamsProxy</code> on the streams of the given system
@@ -52,13 +60,32 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 	 * @param process system process to create a streams proxy on
 	 * @param charset the process's charset or <code>null</code> if default
 	 */
-	@SuppressWarnings("resource")
 	public StreamsProxy(Process process, Charset charset) {
+		this(process, charset, null, true);
+	}
+
+	/**
+	 * Creates a <code>StreamsProxy</code> on the streams of the given system
+	 * process which copies the process's standard out and standard error bytes
+	 * unmodified to the given channel.
+	 *
+	 * @param process system process to create a streams proxy on
+	 * @param charset the process's charset or <code>null</code> if default
+	 * @param captureChannel channel to copy process output to or
+	 *            <code>null</code>. The channel is closed together with this
+	 *            proxy.
+	 * @param decode whether process output is decoded and reported through the
+	 *            stream monitors. Only has an effect if a capture channel is
+	 *            given.
+	 */
+	@SuppressWarnings("resource")
+	public StreamsProxy(Process process, Charset charset, WritableByteChannel captureChannel, boolean decode) {
 		if (process == null) {
 			return;
 		}
-		fOutputMonitor = new OutputStreamMonitor(process.getInputStream(), charset);
-		fErrorMonitor = new OutputStreamMonitor(process.getErrorStream(), charset);
+		fCaptureChannel = captureChannel;
+		fOutputMonitor = new OutputStreamMonitor(process.getInputStream(), charset, captureChannel, decode);
+		fErrorMonitor = new OutputStreamMonitor(process.getErrorStream(), charset, captureChannel, decode);
 		fInputMonitor = new InputStreamMonitor(process.getOutputStream(), charset);
 		fOutputMonitor.startMonitoring();
 		fErrorMonitor.startMonitoring();
@@ -91,6 +118,20 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 			fOutputMonitor.close();
 			fErrorMonitor.close();
 			fInputMonitor.close();
+			closeCaptureChannel();
+		}
+	}
+
+	/**
+	 * Closes the capture channel if any.
+	 */
+	private void closeCaptureChannel() {
+		if (fCaptureChannel != null) {
+			try {
+				fCaptureChannel.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
 		}
 	}
 
@@ -124,6 +165,7 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 		fOutputMonitor.kill();
 		fErrorMonitor.kill();
 		fInputMonitor.close();
+		closeCaptureChannel();
 	}
 
 	@Override
@@ -145,6 +187,15 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 		}
 	}
 
+	@Override
+	public void write(byte[] data, int offset, int length) throws IOException {
+		if (!isClosed(false)) {
+			fInputMonitor.write(data, offset, length);
+		} else {
+			throw new IOException();
+		}
+	}
+
 	@Override
 	public void closeInputStream() throws IOException {
 		if (!isClosed(false)) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2018 IBM Corporation and others.
+ * Copyright (c) 2013, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,9 +30,19 @@ import org.eclipse.debug.examples.internal.memory.core.SampleThread;
  * Sample engine for sample deug adapter This engine randomly generates content
  * for a memory block. To get to this engine, call
  * {@link SampleDebugTarget#getEngine()};
+ * <p>
+ * The engine can act as a synthetic target for measuring the memory view: the
+ * size of its address space, the latency of each request for memory and the
+ * share of the memory that changes on each resume can be configured.
+ * </p>
  */
 public class SampleEngine {
 
+	/**
+	 * Share of the retrieved memory which changes on each resume by default.
+	 */
+	public static final double DEFAULT_MUTATION_RATE = 0.05;
+
 	Random fRandom = new Random();
 	byte[] fMemory;
 	Hashtable<BigInteger, SampleMemoryUnit> memoryBlockTable;
@@ -42,6 +52,70 @@ public class SampleEngine {
 
 	Random random = new Random();
 
+	/**
+	 * Number of addressable units of the target, <code>null</code> for the
+	 * whole address space.
+	 */
+	private volatile BigInteger fAddressSpaceSize;
+	private volatile long fLatency;
+	private volatile double fMutationRate = DEFAULT_MUTATION_RATE;
+
+	/**
+	 * Sets the number of addressable units of the target. Memory at higher
+	 * addresses is not readable.
+	 *
+	 * @param size number of addressable units, <code>null</code> for the
+	 *            whole address space
+	 */
+	public void setAddressSpaceSize(BigInteger size) {
+		fAddressSpaceSize = size;
+	}
+
+	/**
+	 * @return number of addressable units of the target, <code>null</code> for
+	 *         the whole address space
+	 */
+	public BigInteger getAddressSpaceSize() {
+		return fAddressSpaceSize;
+	}
+
+	/**
+	 * Sets the time each request for memory takes, as a remote target would.
+	 *
+	 * @param latency latency in milliseconds
+	 */
+	public void setLatency(long latency) {
+		fLatency = latency;
+	}
+
+	/**
+	 * @return latency of each request for memory in milliseconds
+	 */
+	public long getLatency() {
+		return fLatency;
+	}
+
+	/**
+	 * Sets the share of the retrieved memory which changes on each resume.
+	 *
+	 * @param rate a value between 0 and 1
+	 */
+	public void setMutationRate(double rate) {
+		fMutationRate = Math.max(0, Math.min(1, rate));
+	}
+
+	/**
+	 * @return share of the retrieved memory which changes on each resume
+	 */
+	public double getMutationRate() {
+		return fMutationRate;
+	}
+
+	private boolean isInAddressSpace(BigInteger address) {
+		BigInteger size = fAddressSpaceSize;
+		return address.signum() >= 0 && (size == null || address.compareTo(size) < 0);
+	}
+
 	/**
 	 * Allow debug adapters to get memory from an address
 	 *
@@ -51,29 +125,17 @@ public class SampleEngine {
 	 * @throws RuntimeException
 	 */
 	synchronized public MemoryByte[] getBytesFromAddress(BigInteger address, long length) throws RuntimeException {
+		if (fLatency > 0) {
+			try {
+				Thread.sleep(fLatency);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
 
 		if (memoryBlockTable == null) {
 			// create new memoryBlock table
 			memoryBlockTable = new Hashtable<>();
-			byte[] bytes = new byte[(int) length * getAddressableSize()];
-			BigInteger addressKey = address;
-
-			random.nextBytes(bytes);
-
-			for (int i = 0; i < bytes.length; i = i + getAddressableSize()) {
-				addressKey = addressKey.add(BigInteger.valueOf(1));
-
-				MemoryByte[] byteUnit = new MemoryByte[getAddressableSize()];
-				for (int j = 0; j < getAddressableSize(); j++) {
-					MemoryByte oneByte = new MemoryByte(bytes[i + j]);
-					oneByte.setBigEndian(isBigEndian(addressKey));
-					oneByte.setWritable(isWritable(addressKey));
-					oneByte.setReadable(isReadable(addressKey));
-					byteUnit[j] = oneByte;
-				}
-				SampleMemoryUnit unit = new SampleMemoryUnit(byteUnit);
-				memoryBlockTable.put(addressKey, unit);
-			}
 		}
 
 		MemoryByte[] returnBytes = new MemoryByte[(int) length * getAddressableSize()];
@@ -81,6 +143,15 @@ public class SampleEngine {
 
 		for (int i = 0; i < returnBytes.length; i = i + getAddressableSize()) {
 			addressKey = address.add(BigInteger.valueOf(i / getAddressableSize()));
+
+			// memory outside of the address space is not kept
+			if (!isInAddressSpace(addressKey)) {
+				for (int j = 0; j < getAddressableSize(); j++) {
+					returnBytes[i + j] = new MemoryByte((byte) 0, (byte) 0);
+				}
+				continue;
+			}
+
 			SampleMemoryUnit temp = (memoryBlockTable.get(addressKey));
 
 			// if memoryBlock does not already exist in the table, generate a
@@ -129,7 +200,9 @@ public class SampleEngine {
 
 	/**
 	 * Convenience function to cause changes in a memoryBlock block. Changes
-	 * could result from running the program, changing a variable, etc.
+	 * could result from running the program, changing a variable, etc. Each
+	 * unit retrieved so far changes with the probability of the mutation
+	 * rate.
 	 */
 	synchronized public void changeValue() {
 		if (memoryBlockTable == null) {
@@ -137,15 +210,10 @@ public class SampleEngine {
 		}
 
 		Enumeration<BigInteger> enumeration = memoryBlockTable.keys();
-		long randomChange = random.nextInt(37);
-
-		while (randomChange <= 5) {
-			randomChange = random.nextInt(37);
-		}
 
 		while (enumeration.hasMoreElements()) {
 			BigInteger key = enumeration.nextElement();
-			if (key.remainder(BigInteger.valueOf(randomChange)).equals(BigInteger.valueOf(0))) {
+			if (random.nextDouble() < fMutationRate) {
 				byte[] x = new byte[getAddressableSize()];
 				random.nextBytes(x);
 
@@ -201,6 +269,10 @@ public class SampleEngine {
 			}
 
 			expAddress = BigInteger.valueOf(address);
+			BigInteger size = getAddressSpaceSize();
+			if (size != null && size.signum() > 0) {
+				expAddress = expAddress.mod(size);
+			}
 			expressionAddressTable.put(expression, expAddress);
 		}
 		return expAddress;
@@ -287,6 +359,9 @@ public class SampleEngine {
 	 * @return
 	 */
 	public boolean isReadable(BigInteger address) {
+		if (!isInAddressSpace(address)) {
+			return false;
+		}
 		BigInteger boundary = new BigInteger("cd123456", 16); //$NON-NLS-1$
 		BigInteger boundaryEnd = new BigInteger("cd123576", 16); //$NON-NLS-1$
 		if (address.compareTo(boundary) > 0 && address.compareTo(boundaryEnd) < 0) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 IBM Corporation and others.
+ * Copyright (c) 2013, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,13 +13,18 @@
  *******************************************************************************/
 package org.eclipse.debug.examples.internal.memory.launchconfig;
 
+import java.math.BigInteger;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
-import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
+import org.eclipse.debug.examples.internal.memory.MemoryViewSamplePlugin;
 import org.eclipse.debug.examples.internal.memory.core.SampleDebugTarget;
+import org.eclipse.debug.examples.internal.memory.engine.SampleEngine;
 
 /**
  * Sample Launch configuraiton delegate For creating the debug target that
@@ -27,9 +32,44 @@ import org.eclipse.debug.examples.internal.memory.core.SampleDebugTarget;
  * */
 public class SampleLaunchConfigurationDelegateEx extends LaunchConfigurationDelegate {
 
+	/**
+	 * Launch configuration attribute for the number of addressable units of
+	 * the target, as a decimal or <code>0x</code> prefixed hexadecimal string.
+	 * The whole address space by default.
+	 */
+	public static final String ATTR_ADDRESS_SPACE_SIZE = MemoryViewSamplePlugin.PLUGIN_ID + ".ADDRESS_SPACE_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * Launch configuration attribute for the latency of each request for
+	 * memory in milliseconds, an integer. 0 by default.
+	 */
+	public static final String ATTR_LATENCY = MemoryViewSamplePlugin.PLUGIN_ID + ".LATENCY"; //$NON-NLS-1$
+
+	/**
+	 * Launch configuration attribute for the share of the memory which
+	 * changes on each resume, as a string holding a number between 0 and 1.
+	 * {@link SampleEngine#DEFAULT_MUTATION_RATE} by default.
+	 */
+	public static final String ATTR_MUTATION_RATE = MemoryViewSamplePlugin.PLUGIN_ID + ".MUTATION_RATE"; //$NON-NLS-1$
+
 	@Override
 	public void launch(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor) throws CoreException {
-		IDebugTarget target = new SampleDebugTarget(launch);
+		SampleDebugTarget target = new SampleDebugTarget(launch);
+		SampleEngine engine = target.getEngine();
+		try {
+			String size = configuration.getAttribute(ATTR_ADDRESS_SPACE_SIZE, (String) null);
+			if (size != null) {
+				size = size.trim();
+				engine.setAddressSpaceSize(size.startsWith("0x") || size.startsWith("0X") ? new BigInteger(size.substring(2), 16) : new BigInteger(size)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			engine.setLatency(configuration.getAttribute(ATTR_LATENCY, 0));
+			String rate = configuration.getAttribute(ATTR_MUTATION_RATE, (String) null);
+			if (rate != null) {
+				engine.setMutationRate(Double.parseDouble(rate.trim()));
+			}
+		} catch (NumberFormatException e) {
+			throw new CoreException(new Status(IStatus.ERROR, MemoryViewSamplePlugin.PLUGIN_ID, e.getMessage(), e));
+		}
 		launch.addDebugTarget(target);
 
 	}
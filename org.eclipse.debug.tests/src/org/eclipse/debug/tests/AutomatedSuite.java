@@ -38,13 +38,26 @@ import org.eclipse.debug.tests.launching.RefreshTabTests;
 import org.eclipse.debug.tests.sourcelookup.SourceLookupFacilityTests;
 import org.eclipse.debug.tests.statushandlers.StatusHandlerTests;
 import org.eclipse.debug.tests.stepfilters.StepFiltersTests;
+import org.eclipse.debug.tests.view.memory.FindMemoryTests;
+import org.eclipse.debug.tests.view.memory.MemoryBlockManagerTests;
+import org.eclipse.debug.tests.view.memory.MemoryChangesTests;
+import org.eclipse.debug.tests.view.memory.MemoryPageCacheTests;
 import org.eclipse.debug.tests.view.memory.MemoryRenderingTests;
+import org.eclipse.debug.tests.view.memory.MemoryTransferTests;
+import org.eclipse.debug.tests.view.memory.MemoryValueFormatterTests;
+import org.eclipse.debug.tests.view.memory.MemoryWindowTests;
+import org.eclipse.debug.tests.view.memory.PackedMemoryTests;
 import org.eclipse.debug.tests.viewer.model.ChildrenUpdateTests;
+import org.eclipse.debug.tests.viewer.model.ElementLabelProviderTests;
+import org.eclipse.debug.tests.viewer.model.ElementUpdateBatcherTests;
 import org.eclipse.debug.tests.viewer.model.FilterTransformTests;
 import org.eclipse.debug.tests.viewer.model.PresentationContextTests;
+import org.eclipse.debug.tests.viewer.model.VariableContentProviderTests;
+import org.eclipse.debug.tests.viewer.model.VirtualItemTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerContentTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerDeltaTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerFilterTests;
+import org.eclipse.debug.tests.viewer.model.VirtualViewerLabelCacheTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerLazyModeTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerSelectionTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerStateTests;
@@ -64,8 +77,15 @@ import org.junit.runners.Suite;
 		VirtualViewerLazyModeTests.class, VirtualViewerSelectionTests.class,
 		VirtualViewerStateTests.class, VirtualViewerUpdateTests.class,
 		VirtualViewerFilterTests.class, FilterTransformTests.class,
+		VirtualItemTests.class,
 		ChildrenUpdateTests.class, PresentationContextTests.class,
-		MemoryRenderingTests.class, LaunchConfigurationTests.class,
+		ElementUpdateBatcherTests.class, ElementLabelProviderTests.class,
+		VirtualViewerLabelCacheTests.class, VariableContentProviderTests.class,
+		MemoryRenderingTests.class, PackedMemoryTests.class,
+		MemoryPageCacheTests.class, MemoryValueFormatterTests.class, FindMemoryTests.class,
+		MemoryTransferTests.class, MemoryChangesTests.class, MemoryBlockManagerTests.class,
+		MemoryWindowTests.class,
+		LaunchConfigurationTests.class,
 		AcceleratorSubstitutionTests.class, LaunchHistoryTests.class,
 		LaunchFavoriteTests.class, LaunchManagerTests.class,
 		RefreshTabTests.class, ArgumentParsingTests.class, LaunchTests.class,
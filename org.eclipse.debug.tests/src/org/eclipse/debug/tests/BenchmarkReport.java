@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * Collects metrics of one benchmark scenario and writes them in a machine
+ * readable form so results can be tracked over time.
+ * <p>
+ * Each report is written as one line of JSON. If the system property
+ * {@value #RESULTS_FILE_PROPERTY} is set the line is appended to that file,
+ * otherwise it is printed to standard out.
+ * </p>
+ * <p>
+ * The metrics complement the time and memory dimensions already recorded by
+ * the <code>org.eclipse.test.performance</code> meters with values those
+ * meters cannot express, like throughput or latency.
+ * </p>
+ */
+public class BenchmarkReport {
+
+	/** System property naming the file benchmark results are appended to. */
+	public static final String RESULTS_FILE_PROPERTY = "org.eclipse.debug.tests.benchmarkResults"; //$NON-NLS-1$
+
+	/** Method to query allocated bytes per thread or <code>null</code>. */
+	private static final Method THREAD_ALLOCATED_BYTES = findThreadAllocatedBytesMethod();
+
+	private final String scenario;
+	private final Map<String, Object> metrics = new LinkedHashMap<>();
+
+	/**
+	 * Create a new report.
+	 *
+	 * @param scenario the scenario id
+	 */
+	public BenchmarkReport(String scenario) {
+		this.scenario = scenario;
+	}
+
+	/**
+	 * Add a metric to this report. Metrics with same name are replaced.
+	 *
+	 * @param name the metric name
+	 * @param value the metric value
+	 * @return this report
+	 */
+	public BenchmarkReport put(String name, Number value) {
+		metrics.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Add a throughput metric computed from the given amount of data and
+	 * time.
+	 *
+	 * @param name the metric name
+	 * @param bytes number of processed bytes
+	 * @param nanos time spent in nanoseconds
+	 * @return this report
+	 */
+	public BenchmarkReport putThroughput(String name, long bytes, long nanos) {
+		return put(name, nanos > 0 ? (bytes / (1024.0 * 1024.0)) / (nanos / 1e9) : 0.0);
+	}
+
+	/**
+	 * Add the median, 90th and 99th percentile and maximum of the given
+	 * durations as metrics <code>name + "P50Millis"</code>,
+	 * <code>"P90Millis"</code>, <code>"P99Millis"</code> and
+	 * <code>"MaxMillis"</code>. Percentiles are computed by the nearest-rank
+	 * method.
+	 *
+	 * @param name the metric name prefix
+	 * @param nanos the measured durations in nanoseconds, sorted by this
+	 *            method
+	 * @return this report
+	 */
+	public BenchmarkReport putPercentiles(String name, long[] nanos) {
+		if (nanos.length == 0) {
+			return this;
+		}
+		Arrays.sort(nanos);
+		put(name + "P50Millis", percentile(nanos, 50) / 1e6); //$NON-NLS-1$
+		put(name + "P90Millis", percentile(nanos, 90) / 1e6); //$NON-NLS-1$
+		put(name + "P99Millis", percentile(nanos, 99) / 1e6); //$NON-NLS-1$
+		return put(name + "MaxMillis", nanos[nanos.length - 1] / 1e6); //$NON-NLS-1$
+	}
+
+	private static long percentile(long[] sorted, int percent) {
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	/**
+	 * @return this report formatted as single line JSON object
+	 */
+	public String toJson() {
+		final StringBuilder sb = new StringBuilder(64 + metrics.size() * 32);
+		sb.append("{\"scenario\":\"").append(scenario.replace("\\", "\\\\").replace("\"", "\\\"")).append('"'); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		for (Entry<String, Object> metric : metrics.entrySet()) {
+			sb.append(",\"").append(metric.getKey()).append("\":"); //$NON-NLS-1$ //$NON-NLS-2$
+			final Object value = metric.getValue();
+			if (value instanceof Double || value instanceof Float) {
+				final double d = ((Number) value).doubleValue();
+				sb.append(Double.isFinite(d) ? String.format(Locale.ROOT, "%.3f", d) : "null"); //$NON-NLS-1$ //$NON-NLS-2$
+			} else {
+				sb.append(value);
+			}
+		}
+		sb.append('}');
+		return sb.toString();
+	}
+
+	/**
+	 * Write this report to the results file or standard out.
+	 */
+	public void write() {
+		final String json = toJson();
+		final String file = System.getProperty(RESULTS_FILE_PROPERTY);
+		if (file != null && !file.isEmpty()) {
+			try {
+				Files.write(Paths.get(file), (json + System.lineSeparator()).getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				return;
+			} catch (IOException e) {
+				TestUtil.log(IStatus.WARNING, scenario, "Failed to write benchmark results.", e); //$NON-NLS-1$
+			}
+		}
+		System.out.println(json);
+	}
+
+	/**
+	 * Get the number of bytes allocated by the given thread so far. Only
+	 * supported on VMs providing the
+	 * <code>com.sun.management.ThreadMXBean</code> extension.
+	 *
+	 * @param thread the thread to query
+	 * @return allocated bytes or <code>-1</code> if not supported
+	 */
+	public static long getAllocatedBytes(Thread thread) {
+		if (THREAD_ALLOCATED_BYTES == null) {
+			return -1;
+		}
+		try {
+			return (Long) THREAD_ALLOCATED_BYTES.invoke(ManagementFactory.getThreadMXBean(), Long.valueOf(thread.getId()));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Get the currently used heap after trying to free unreachable objects.
+	 *
+	 * @return the used heap in bytes
+	 */
+	public static long getUsedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static Method findThreadAllocatedBytesMethod() {
+		try {
+			final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			final Class<?> extension = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+			if (!extension.isInstance(bean)) {
+				return null;
+			}
+			return extension.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			return null;
+		}
+	}
+}
@@ -13,7 +13,12 @@
  *******************************************************************************/
 package org.eclipse.debug.tests;
 
+import org.eclipse.debug.tests.console.ConsoleInputPerformanceTests;
+import org.eclipse.debug.tests.console.ConsolePerformanceTests;
+import org.eclipse.debug.tests.view.memory.MemoryFormattingBenchmarkTests;
+import org.eclipse.debug.tests.view.memory.MemoryRenderingBenchmarkTests;
 import org.eclipse.debug.tests.viewer.model.JFaceViewerPerformanceTests;
+import org.eclipse.debug.tests.viewer.model.VirtualViewerBenchmarkTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerPerformanceTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -25,7 +30,12 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+		ConsoleInputPerformanceTests.class,
+		ConsolePerformanceTests.class,
 		JFaceViewerPerformanceTests.class,
-		VirtualViewerPerformanceTests.class })
+		VirtualViewerPerformanceTests.class,
+		VirtualViewerBenchmarkTests.class,
+		MemoryFormattingBenchmarkTests.class,
+		MemoryRenderingBenchmarkTests.class })
 public class PerformanceSuite {
 }
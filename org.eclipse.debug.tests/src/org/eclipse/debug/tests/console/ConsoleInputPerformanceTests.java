@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.internal.core.StreamsProxy;
+import org.eclipse.debug.internal.ui.views.console.ProcessConsole;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.ui.console.ConsoleColorProvider;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.ui.console.IOConsoleInputStream;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of user input sent to a process, e.g. if a large
+ * text is pasted into the process console.
+ */
+public class ConsoleInputPerformanceTests extends AbstractDebugTest {
+
+	/** Approximate number of bytes sent to the process in one pass. */
+	private static final int INPUT_SIZE = 10 * 1024 * 1024;
+
+	/** Line used to build the test input. Contains two byte UTF-8 characters. */
+	private static final String INPUT_LINE = "0123456789 abcdefghijklmnopqrstuvwxyz \u00F8\u00E6\u00E5\n"; //$NON-NLS-1$
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Measures the time to transfer a large paste from the process console
+	 * input stream to the process.
+	 */
+	@Test
+	public void testLargePaste() throws Exception {
+		final String input = createInput();
+		final int expectedSize = input.getBytes(StandardCharsets.UTF_8).length;
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				final MockProcess mockProcess = new MockProcess(expectedSize, testTimeout);
+				try {
+					final ILaunch launch = new Launch(null, ILaunchManager.RUN_MODE, null);
+					launch.setAttribute(DebugPlugin.ATTR_CONSOLE_ENCODING, StandardCharsets.UTF_8.toString());
+					final IProcess process = DebugPlugin.newProcess(launch, mockProcess, "testLargePaste"); //$NON-NLS-1$
+					final ProcessConsole console = new ProcessConsole(process, new ConsoleColorProvider(), StandardCharsets.UTF_8.toString());
+					try {
+						console.initialize();
+						@SuppressWarnings("resource")
+						final IOConsoleInputStream consoleIn = console.getInputStream();
+
+						meter.start();
+						consoleIn.appendData(input);
+						mockProcess.waitFor(testTimeout, TimeUnit.MILLISECONDS);
+						meter.stop();
+					} finally {
+						console.destroy();
+					}
+				} finally {
+					mockProcess.destroy();
+				}
+				assertEquals("Unexpected amount of input received.", expectedSize, mockProcess.getReceivedInput().length); //$NON-NLS-1$
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Measures the time to transfer input written in many small chunks
+	 * directly through a streams proxy to the process.
+	 */
+	@Test
+	public void testStreamsProxyWrite() throws Exception {
+		final byte[] line = INPUT_LINE.getBytes(StandardCharsets.UTF_8);
+		final int writes = INPUT_SIZE / line.length;
+		final int expectedSize = writes * line.length;
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				final MockProcess mockProcess = new MockProcess(expectedSize, testTimeout);
+				final StreamsProxy streamsProxy = new StreamsProxy(mockProcess, StandardCharsets.UTF_8);
+				try {
+					meter.start();
+					for (int j = 0; j < writes; j++) {
+						streamsProxy.write(line, 0, line.length);
+					}
+					mockProcess.waitFor(testTimeout, TimeUnit.MILLISECONDS);
+					meter.stop();
+				} finally {
+					streamsProxy.close();
+					mockProcess.destroy();
+				}
+				assertEquals("Unexpected amount of input received.", expectedSize, mockProcess.getReceivedInput().length); //$NON-NLS-1$
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * @return input text of approximately {@link #INPUT_SIZE} bytes
+	 */
+	private static String createInput() {
+		final int lineBytes = INPUT_LINE.getBytes(StandardCharsets.UTF_8).length;
+		final StringBuilder input = new StringBuilder(INPUT_SIZE);
+		for (int size = 0; size < INPUT_SIZE; size += lineBytes) {
+			input.append(INPUT_LINE);
+		}
+		return input.toString();
+	}
+}
@@ -0,0 +1,428 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.BenchmarkReport;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.ui.console.IConsoleDocumentPartitioner;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.console.IPatternMatchListener;
+import org.eclipse.ui.console.PatternMatchEvent;
+import org.eclipse.ui.console.TextConsole;
+import org.eclipse.ui.internal.console.ConsoleDocumentAdapter;
+import org.junit.Test;
+
+/**
+ * Benchmarks for the console output path. Output is written through
+ * {@link IOConsoleOutputStream}s, processed by the console partitioner and
+ * pattern matcher and finally mapped to lines by a
+ * {@link ConsoleDocumentAdapter} without showing the console in a view.
+ * <p>
+ * Besides the time recorded by the performance meter every scenario reports
+ * throughput, UI update latency, allocations, retained heap and line render
+ * cost through {@link BenchmarkReport}. Throughput is computed from the number
+ * of written characters which are all ASCII, i.e. characters equal bytes.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class ConsolePerformanceTests extends AbstractDebugTest {
+
+	/** Number of measured runs per scenario. */
+	private static final int ITERATIONS = 3;
+	/** Number of single line writes used to measure UI update latency. */
+	private static final int LATENCY_PROBES = 20;
+	/** Maximum number of lines rendered at the end of a scenario. */
+	private static final int MAX_RENDER_LINES = 10000;
+	/** Width used by the document adapter to wrap lines. */
+	private static final int RENDER_WIDTH = 120;
+	/** Marker written after the workload to detect that all output was processed. */
+	private static final String END_MARKER = "\n<end of benchmark output>\n";
+
+	/**
+	 * Writes the output of one benchmark scenario.
+	 */
+	@FunctionalInterface
+	private interface Workload {
+		/**
+		 * Write the workload.
+		 *
+		 * @param out stream for regular output
+		 * @param err second stream used for interleaved output
+		 * @return number of written characters
+		 */
+		long write(IOConsoleOutputStream out, IOConsoleOutputStream err) throws IOException;
+	}
+
+	/**
+	 * Configures the console before the workload is written.
+	 */
+	@FunctionalInterface
+	private interface ScenarioSetup {
+		/**
+		 * Configure the console.
+		 *
+		 * @param console the console to configure
+		 * @return additional condition which must become <code>true</code>
+		 *         before the scenario is finished
+		 */
+		BooleanSupplier setUp(IOConsole console);
+	}
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Many short lines from one stream.
+	 */
+	@Test
+	public void testManyShortLines() throws Exception {
+		runBenchmark(console -> () -> true, (out, err) -> writeLines(out, 200000, 0));
+	}
+
+	/**
+	 * Few very long lines.
+	 */
+	@Test
+	public void testLongLines() throws Exception {
+		final StringBuilder line = new StringBuilder(100001);
+		for (int i = 0; i < 100000; i++) {
+			line.append((char) ('a' + (i % 26)));
+		}
+		line.append('\n');
+		final String longLine = line.toString();
+		runBenchmark(console -> () -> true, (out, err) -> {
+			for (int i = 0; i < 100; i++) {
+				out.write(longLine);
+			}
+			return 100L * longLine.length();
+		});
+	}
+
+	/**
+	 * Progress bar style output which constantly overwrites the current line
+	 * with carriage returns.
+	 */
+	@Test
+	public void testCarriageReturnProgress() throws Exception {
+		runBenchmark(console -> {
+			console.setHandleControlCharacters(true);
+			console.setCarriageReturnAsControlCharacter(true);
+			return () -> true;
+		}, (out, err) -> {
+			long written = 0;
+			final char[] bar = new char[50];
+			for (int i = 0; i < 100000; i++) {
+				final int progress = (i % 1000) * bar.length / 1000;
+				Arrays.fill(bar, 0, progress, '=');
+				Arrays.fill(bar, progress, bar.length, ' ');
+				final String update = "\r[" + new String(bar) + "] " + (i % 1000) / 10 + "% "; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				out.write(update);
+				written += update.length();
+				if (i % 1000 == 999) {
+					out.write("\n"); //$NON-NLS-1$
+					written++;
+				}
+			}
+			return written;
+		});
+	}
+
+	/**
+	 * Short lines written concurrently to two streams.
+	 */
+	@Test
+	public void testConcurrentStreams() throws Exception {
+		runBenchmark(console -> () -> true, (out, err) -> {
+			final AtomicLong errWritten = new AtomicLong();
+			final AtomicReference<IOException> errError = new AtomicReference<>();
+			final Thread errWriter = new Thread(() -> {
+				try {
+					errWritten.set(writeLines(err, 100000, 0));
+				} catch (IOException e) {
+					errError.set(e);
+				}
+			}, "Console benchmark error writer"); //$NON-NLS-1$
+			errWriter.start();
+			final long outWritten = writeLines(out, 100000, 0);
+			try {
+				errWriter.join();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			if (errError.get() != null) {
+				throw errError.get();
+			}
+			return outWritten + errWritten.get();
+		});
+	}
+
+	/**
+	 * Interleaved output where every write alternates the stream.
+	 */
+	@Test
+	public void testAlternatingStreams() throws Exception {
+		runBenchmark(console -> () -> true, (out, err) -> {
+			long written = 0;
+			for (int i = 0; i < 100000; i++) {
+				final IOConsoleOutputStream stream = (i & 1) == 0 ? out : err;
+				final String line = "Line " + i + ": interleaved output from " + ((i & 1) == 0 ? "out" : "err") + '\n'; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				stream.write(line);
+				written += line.length();
+			}
+			return written;
+		});
+	}
+
+	/**
+	 * Many short lines with console content limited so trimming is triggered
+	 * regularly.
+	 */
+	@Test
+	public void testTrim() throws Exception {
+		runBenchmark(console -> {
+			console.setWaterMarks(80000, 100000);
+			return () -> true;
+		}, (out, err) -> writeLines(out, 200000, 0));
+	}
+
+	/**
+	 * Many short lines with a pattern match listener searching every line.
+	 */
+	@Test
+	public void testPatternMatching() throws Exception {
+		final int lines = 100000;
+		final int matchInterval = 10;
+		runBenchmark(console -> {
+			final AtomicInteger matches = new AtomicInteger();
+			console.addPatternMatchListener(new CountingPatternMatchListener("ERROR \\d+", matches)); //$NON-NLS-1$
+			return () -> matches.get() >= lines / matchInterval;
+		}, (out, err) -> writeLines(out, lines, matchInterval));
+	}
+
+	/**
+	 * Write numbered short lines.
+	 *
+	 * @param stream stream to write to
+	 * @param lines number of lines to write
+	 * @param matchInterval if positive every n-th line contains the text
+	 *            matched by {@link #testPatternMatching()}
+	 * @return number of written characters
+	 */
+	private static long writeLines(IOConsoleOutputStream stream, int lines, int matchInterval) throws IOException {
+		long written = 0;
+		for (int i = 0; i < lines; i++) {
+			final String line;
+			if (matchInterval > 0 && i % matchInterval == 0) {
+				line = "Line " + i + ": ERROR " + i + " in some component\n"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			} else {
+				line = "Line " + i + ": some typical short console output\n"; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			stream.write(line);
+			written += line.length();
+		}
+		return written;
+	}
+
+	/**
+	 * Run and measure a benchmark scenario.
+	 *
+	 * @param setup configures the console for this scenario
+	 * @param workload writes the scenario's output
+	 */
+	private void runBenchmark(ScenarioSetup setup, Workload workload) throws Exception {
+		final String scenarioId = getDefaultScenarioId();
+		final long[] latencies = new long[ITERATIONS * LATENCY_PROBES];
+		long totalChars = 0;
+		long totalNanos = 0;
+		long totalAllocated = 0;
+		boolean allocationSupported = true;
+		long retainedHeap = 0;
+		long renderNanos = 0;
+		long renderedLines = 0;
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(scenarioId);
+		try {
+			for (int i = 0; i < ITERATIONS; i++) {
+				final long heapBefore = BenchmarkReport.getUsedHeap();
+				final IOConsole console = new IOConsole(name.getMethodName(), null, null, StandardCharsets.UTF_8.name(), true);
+				try (IOConsoleOutputStream out = console.newOutputStream(); IOConsoleOutputStream err = console.newOutputStream()) {
+					final ConsoleDocumentAdapter adapter = new ConsoleDocumentAdapter(RENDER_WIDTH);
+					adapter.setDocument(console.getDocument());
+					final BooleanSupplier finished = setup.setUp(console);
+
+					final AtomicLong written = new AtomicLong();
+					final AtomicLong writerAllocated = new AtomicLong(-1);
+					final AtomicReference<Throwable> writerError = new AtomicReference<>();
+					final Thread writer = new Thread(() -> {
+						final long allocatedStart = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+						try {
+							written.set(workload.write(out, err));
+							out.write(END_MARKER);
+						} catch (IOException | RuntimeException e) {
+							writerError.set(e);
+						}
+						final long allocatedEnd = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+						if (allocatedStart >= 0 && allocatedEnd >= 0) {
+							writerAllocated.set(allocatedEnd - allocatedStart);
+						}
+					}, "Console benchmark writer"); //$NON-NLS-1$
+
+					final long uiAllocatedStart = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+					meter.start();
+					final long start = System.nanoTime();
+					writer.start();
+					waitForOutput(console, END_MARKER);
+					TestUtil.waitWhile(c -> !finished.getAsBoolean(), null, testTimeout, c -> "Scenario did not finish."); //$NON-NLS-1$
+					final long elapsed = System.nanoTime() - start;
+					meter.stop();
+					writer.join(testTimeout);
+					final long uiAllocatedEnd = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+					assertNull("Writing output failed.", writerError.get()); //$NON-NLS-1$
+
+					totalChars += written.get() + END_MARKER.length();
+					totalNanos += elapsed;
+					if (uiAllocatedStart >= 0 && uiAllocatedEnd >= 0 && writerAllocated.get() >= 0) {
+						totalAllocated += (uiAllocatedEnd - uiAllocatedStart) + writerAllocated.get();
+					} else {
+						allocationSupported = false;
+					}
+
+					for (int p = 0; p < LATENCY_PROBES; p++) {
+						final String probe = "probe " + i + '.' + p + '\n'; //$NON-NLS-1$
+						final long probeStart = System.nanoTime();
+						out.write(probe);
+						waitForOutput(console, probe);
+						latencies[i * LATENCY_PROBES + p] = System.nanoTime() - probeStart;
+					}
+
+					final IConsoleDocumentPartitioner partitioner = (IConsoleDocumentPartitioner) console.getDocument().getDocumentPartitioner();
+					final int lineCount = adapter.getLineCount();
+					final int firstLine = Math.max(0, lineCount - MAX_RENDER_LINES);
+					final long renderStart = System.nanoTime();
+					for (int line = firstLine; line < lineCount; line++) {
+						final String text = adapter.getLine(line);
+						partitioner.getStyleRanges(adapter.getOffsetAtLine(line), text.length());
+					}
+					renderNanos += System.nanoTime() - renderStart;
+					renderedLines += lineCount - firstLine;
+
+					retainedHeap = Math.max(retainedHeap, BenchmarkReport.getUsedHeap() - heapBefore);
+				} finally {
+					console.destroy();
+				}
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+
+		Arrays.sort(latencies);
+		final BenchmarkReport report = new BenchmarkReport(scenarioId);
+		report.put("characters", totalChars / ITERATIONS); //$NON-NLS-1$
+		report.put("appendMillis", totalNanos / ITERATIONS / 1e6); //$NON-NLS-1$
+		report.putThroughput("throughputMBps", totalChars, totalNanos); //$NON-NLS-1$
+		report.put("uiLatencyMedianMillis", latencies[latencies.length / 2] / 1e6); //$NON-NLS-1$
+		report.put("uiLatencyMaxMillis", latencies[latencies.length - 1] / 1e6); //$NON-NLS-1$
+		if (allocationSupported) {
+			report.putThroughput("allocationRateMBps", totalAllocated, totalNanos); //$NON-NLS-1$
+			report.put("allocatedBytesPerCharacter", (double) totalAllocated / Math.max(totalChars, 1)); //$NON-NLS-1$
+		}
+		report.put("retainedHeapBytes", retainedHeap); //$NON-NLS-1$
+		report.put("renderMicrosPerLine", renderedLines > 0 ? renderNanos / 1e3 / renderedLines : 0.0); //$NON-NLS-1$
+		report.write();
+	}
+
+	/**
+	 * Wait until the console document ends with the given text.
+	 *
+	 * @param console the console to check
+	 * @param text the expected document end
+	 */
+	private void waitForOutput(IOConsole console, String text) throws Exception {
+		TestUtil.waitWhile(doc -> !endsWith(doc, text), console.getDocument(), testTimeout, doc -> "Output was not processed in time."); //$NON-NLS-1$
+	}
+
+	private static boolean endsWith(IDocument document, String text) {
+		final int length = document.getLength();
+		if (length < text.length()) {
+			return false;
+		}
+		try {
+			return document.get(length - text.length(), text.length()).equals(text);
+		} catch (BadLocationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Pattern match listener counting its matches.
+	 */
+	private static class CountingPatternMatchListener implements IPatternMatchListener {
+		private final String pattern;
+		private final AtomicInteger matches;
+
+		CountingPatternMatchListener(String pattern, AtomicInteger matches) {
+			this.pattern = pattern;
+			this.matches = matches;
+		}
+
+		@Override
+		public String getPattern() {
+			return pattern;
+		}
+
+		@Override
+		public int getCompilerFlags() {
+			return 0;
+		}
+
+		@Override
+		public String getLineQualifier() {
+			return "ERROR"; //$NON-NLS-1$
+		}
+
+		@Override
+		public void connect(TextConsole console) {
+		}
+
+		@Override
+		public void disconnect() {
+		}
+
+		@Override
+		public void matchFound(PatternMatchEvent event) {
+			matches.incrementAndGet();
+		}
+	}
+}
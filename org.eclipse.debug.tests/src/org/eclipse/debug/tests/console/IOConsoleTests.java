@@ -20,10 +20,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -42,8 +44,11 @@ import org.eclipse.debug.tests.AbstractDebugTest;
 import org.eclipse.debug.tests.TestUtil;
 import org.eclipse.debug.tests.TestsPlugin;
 import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
@@ -56,6 +61,7 @@ import org.eclipse.ui.console.IConsoleDocumentPartitionerExtension;
 import org.eclipse.ui.console.IConsoleManager;
 import org.eclipse.ui.console.IOConsole;
 import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.internal.console.AnsiStyle;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -611,6 +617,114 @@ public class IOConsoleTests extends AbstractDebugTest {
 		closeConsole(c);
 	}
 
+	/**
+	 * Test interpretation of ANSI escape sequences.
+	 */
+	@Test
+	public void testAnsiEscapeSequences() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test ANSI");
+		final String esc = "\u001b";
+
+		// escape sequences are regular content if not interpreted
+		c.getConsole().setHandleAnsiEscapeSequences(false);
+		c.writeAndVerify(esc + "[31mred");
+		assertEquals("Wrong content length.", 8, c.getContentLength());
+
+		c.clear();
+		c.getConsole().setHandleAnsiEscapeSequences(true);
+		c.write("plain " + esc + "[31mred" + esc + "[0m plain").verifyContent("plain red plain").verifyPartitions(3);
+		assertEquals("Unexpected style.", null, getStyleAt(c, 0).foreground);
+		assertEquals("Unexpected style.", new RGB(0xcd, 0, 0), getStyleAt(c, 6).foreground.getRGB());
+		assertEquals("Unexpected style.", null, getStyleAt(c, 10).foreground);
+
+		// escape sequence split on multiple writes
+		c.clear();
+		c.writeFast(esc).writeFast("[1").write(";4mbold" + esc).write("[22mnormal").verifyContent("boldnormal");
+		StyleRange style = getStyleAt(c, 0);
+		assertEquals("Unexpected style.", SWT.BOLD, style.fontStyle & SWT.BOLD);
+		assertTrue("Unexpected style.", style.underline);
+		style = getStyleAt(c, 4);
+		assertEquals("Unexpected style.", 0, style.fontStyle & SWT.BOLD);
+		assertTrue("Unexpected style.", style.underline);
+
+		// extended colors
+		c.clear();
+		c.write(esc + "[0;38;2;1;2;3;48;5;196mx" + esc + "[m").verifyContent("x");
+		style = getStyleAt(c, 0);
+		assertEquals("Unexpected style.", new RGB(1, 2, 3), style.foreground.getRGB());
+		assertEquals("Unexpected style.", new RGB(255, 0, 0), style.background.getRGB());
+
+		// other escape sequences are removed
+		c.clear();
+		c.write(esc + "[2K" + esc + "]0;title\u0007text" + esc + "]0;title" + esc + "\\" + esc + "7!").verifyContent("text!");
+
+		// styles work together with control characters
+		c.clear();
+		c.getConsole().setHandleControlCharacters(true);
+		c.write("aaaa\r" + esc + "[32mbb").verifyContent("bbaa").verifyPartitions(2);
+		assertEquals("Unexpected style.", new RGB(0, 0xcd, 0), getStyleAt(c, 0).foreground.getRGB());
+		assertEquals("Unexpected style.", null, getStyleAt(c, 2).foreground);
+
+		closeConsole(c);
+		assertEquals("Test triggered errors in IOConsole.", 0, loggedErrors.get());
+	}
+
+	/**
+	 * Test that 24-bit colors do not create an unbounded number of colors.
+	 */
+	@Test
+	public void testAnsiColorLimit() {
+		final AnsiStyle.Palette palette = new AnsiStyle.Palette(Display.getCurrent());
+		try {
+			for (int rgb = 0; rgb < 0x10000; rgb += 7) {
+				assertNotNull(palette.getStyle(rgb, AnsiStyle.DEFAULT_COLOR, SWT.NORMAL, false, false));
+			}
+			assertTrue("Too many colors: " + palette.getColorCount(), palette.getColorCount() <= AnsiStyle.Palette.MAX_COLORS + 256);
+			// known and indexed colors stay exact
+			assertEquals(new RGB(0, 0, 7), palette.getStyle(7, AnsiStyle.DEFAULT_COLOR, SWT.NORMAL, false, false).getStyleRange(0, 1, null, SWT.NORMAL).foreground.getRGB());
+			assertEquals(new RGB(0xcd, 0, 0), palette.getStyle(0xcd0000, AnsiStyle.DEFAULT_COLOR, SWT.NORMAL, false, false).getStyleRange(0, 1, null, SWT.NORMAL).foreground.getRGB());
+			// others are approximated
+			assertEquals(new RGB(0, 0, 0x5f), palette.getStyle(0x00005e, AnsiStyle.DEFAULT_COLOR, SWT.NORMAL, false, false).getStyleRange(0, 1, null, SWT.NORMAL).foreground.getRGB());
+		} finally {
+			palette.dispose();
+		}
+	}
+
+	/**
+	 * Test that the style ranges of a partition follow changes of its stream.
+	 */
+	@Test
+	public void testStyleRangeOfStream() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test style range");
+		c.writeAndVerify("text");
+		final StyleRange style = getStyleAt(c, 1);
+		assertEquals("Unexpected style.", null, style.foreground);
+		// a modified style range does not affect later requests
+		style.start = 3;
+		assertEquals("Unexpected style.", 1, getStyleAt(c, 1).start);
+
+		c.getDefaultOutputStream().setColor(Display.getCurrent().getSystemColor(SWT.COLOR_RED));
+		assertEquals("Unexpected style.", Display.getCurrent().getSystemColor(SWT.COLOR_RED), getStyleAt(c, 2).foreground);
+		c.getDefaultOutputStream().setFontStyle(SWT.BOLD);
+		assertEquals("Unexpected style.", SWT.BOLD, getStyleAt(c, 2).fontStyle);
+
+		closeConsole(c);
+		assertEquals("Test triggered errors in IOConsole.", 0, loggedErrors.get());
+	}
+
+	/**
+	 * Get the style applied to the given document offset.
+	 *
+	 * @param c the test console
+	 * @param offset document offset
+	 * @return the style at offset
+	 */
+	private StyleRange getStyleAt(IOConsoleTestUtil c, int offset) {
+		final StyleRange[] styles = c.getPartitioner().getStyleRanges(offset, 1);
+		assertEquals("Expected exactly one style.", 1, styles.length);
+		return styles[0];
+	}
+
 	/**
 	 * Test larger number of partitions with pseudo random console content.
 	 */
@@ -678,6 +792,59 @@ public class IOConsoleTests extends AbstractDebugTest {
 		}
 	}
 
+	/**
+	 * Test output rate limiting and writing complete output to file.
+	 */
+	@Test
+	public void testOutputRateLimit() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test output rate limit");
+		final File outputFile = File.createTempFile("console", ".log"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			c.getConsole().setOutputFile(outputFile);
+			c.getConsole().setOutputRateLimit(1000, 5);
+			assertEquals(1000, c.getConsole().getOutputRateLimit());
+			assertEquals(5, c.getConsole().getOutputRateLimitRetainedLines());
+
+			final int lineCount = 10000;
+			final StringBuilder expectedOutput = new StringBuilder();
+			for (int i = 0; i < lineCount; i++) {
+				final String line = "line " + i + "\n"; //$NON-NLS-1$ //$NON-NLS-2$
+				expectedOutput.append(line);
+				c.writeFast(line);
+			}
+			c.closeOutputStream();
+			c.flush();
+
+			assertTrue("Output was not summarized.", c.getDocument().getNumberOfLines() < lineCount);
+			c.verifyContentByLine("line " + (lineCount - 1), -2);
+			assertTrue("Suppressed output not reported.", c.getDocument().get().contains("suppressed")); //$NON-NLS-1$
+			closeConsole(c);
+			assertEquals("Output file is incomplete.", expectedOutput.toString(), new String(Files.readAllBytes(outputFile.toPath()), c.getConsole().getCharset()));
+		} finally {
+			outputFile.delete();
+		}
+	}
+
+	/**
+	 * Test that changing the output rate limit does not lose retained output.
+	 */
+	@Test
+	public void testChangeOutputRateLimit() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test change output rate limit");
+		c.getConsole().setOutputRateLimit(1000, 5);
+		final int lineCount = 10000;
+		for (int i = 0; i < lineCount; i++) {
+			c.writeFast("line " + i + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		c.getConsole().setOutputRateLimit(2000, 5);
+		c.write("end\n");
+		c.flush();
+
+		assertTrue("Output was not summarized.", c.getDocument().getNumberOfLines() < lineCount);
+		c.verifyContentByLine("line " + (lineCount - 1), -3).verifyContentByLine("end", -2);
+		closeConsole(c);
+	}
+
 	/**
 	 * Some extra tests for IOConsolePartitioner.
 	 */
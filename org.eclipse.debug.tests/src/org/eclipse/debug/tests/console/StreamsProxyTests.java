@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Paul Pazderski and others.
+ * Copyright (c) 2019, 2020 Paul Pazderski and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,11 +13,18 @@
  *******************************************************************************/
 package org.eclipse.debug.tests.console;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.io.ByteArrayInputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.debug.internal.core.StreamsProxy;
 import org.eclipse.debug.tests.AbstractDebugTest;
@@ -50,6 +57,77 @@ public class StreamsProxyTests extends AbstractDebugTest {
 		receiveUTF8Test("+", 4500);
 	}
 
+	/**
+	 * Test process output is copied unmodified to the capture channel while it
+	 * is still decoded for the stream monitor.
+	 */
+	@Test
+	public void testCaptureToFile() throws Exception {
+		captureTest(true);
+	}
+
+	/**
+	 * Test process output is copied unmodified to the capture channel without
+	 * decoding it.
+	 */
+	@Test
+	public void testCaptureToFileWithoutDecoding() throws Exception {
+		captureTest(false);
+	}
+
+	/**
+	 * Test that text and binary input written through the streams proxy
+	 * reaches the process in order and unmodified, also if the input is larger
+	 * than the internal buffers.
+	 */
+	@Test
+	public void testWriteInput() throws Exception {
+		final String text = String.join("", Collections.nCopies(20000, "in\u00F8\n"));
+		final byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+		final byte[] binary = new byte[100000];
+		for (int i = 0; i < binary.length; i++) {
+			binary[i] = (byte) i;
+		}
+		final MockProcess mockProcess = new MockProcess(textBytes.length + binary.length, testTimeout);
+		final StreamsProxy streamProxy = new StreamsProxy(mockProcess, StandardCharsets.UTF_8);
+		try {
+			streamProxy.write(text);
+			streamProxy.write(binary, 0, 50000);
+			streamProxy.write(binary, 50000, binary.length - 50000);
+			mockProcess.waitFor(testTimeout, TimeUnit.MILLISECONDS);
+		} finally {
+			streamProxy.close();
+			mockProcess.destroy();
+		}
+		final byte[] expected = new byte[textBytes.length + binary.length];
+		System.arraycopy(textBytes, 0, expected, 0, textBytes.length);
+		System.arraycopy(binary, 0, expected, textBytes.length, binary.length);
+		assertArrayEquals("Process input got corrupted.", expected, mockProcess.getReceivedInput());
+	}
+
+	/**
+	 * Shared code for the capture tests.
+	 *
+	 * @param decode whether the streams proxy should also decode the output
+	 */
+	private void captureTest(boolean decode) throws Exception {
+		final String s = String.join("", Collections.nCopies(50000, "out\u00F8\n"));
+		final byte[] stdoutBytes = s.getBytes(StandardCharsets.UTF_8);
+		final Process mockProcess = new MockProcess(new ByteArrayInputStream(stdoutBytes), null, 0);
+		final Path captureFile = Files.createTempFile("capture", ".log");
+		try {
+			final FileChannel channel = FileChannel.open(captureFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			final StreamsProxy streamProxy = new StreamsProxy(mockProcess, StandardCharsets.UTF_8, channel, decode);
+			streamProxy.close();
+			assertFalse("Capture channel not closed.", channel.isOpen());
+			assertArrayEquals("Captured output got corrupted.", stdoutBytes, Files.readAllBytes(captureFile));
+			final String readContent = streamProxy.getOutputStreamMonitor().getContents();
+			assertEquals("Unexpected decoded content.", decode ? s : "", readContent);
+		} finally {
+			Files.delete(captureFile);
+		}
+	}
+
 	/**
 	 * Shared code for the UTF-8 tests.
 	 * <p>
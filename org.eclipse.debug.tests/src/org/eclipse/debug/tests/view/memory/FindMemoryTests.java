@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigInteger;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.FindMemoryJob;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPatternMatcher;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryPatternMatcher} and {@link FindMemoryJob}.
+ */
+public class FindMemoryTests extends AbstractDebugTest {
+
+	private static final byte[] PATTERN = { (byte) 0xde, (byte) 0xad, (byte) 0xbe, (byte) 0xef };
+
+	@Test
+	public void testParseHex() {
+		assertArrayEquals(new byte[] { 0x01, 0x2f }, MemoryPatternMatcher.parseHex("0x012F")); //$NON-NLS-1$
+		assertArrayEquals(new byte[] { 0x01, 0x2f }, MemoryPatternMatcher.parseHex(" 1 2f ")); //$NON-NLS-1$
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseInvalidHex() {
+		MemoryPatternMatcher.parseHex("12g4"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testMatcher() {
+		MemoryPatternMatcher matcher = new MemoryPatternMatcher(PATTERN);
+		byte[] values = { 0, (byte) 0xde, (byte) 0xad, (byte) 0xbe, (byte) 0xde, (byte) 0xad, (byte) 0xbe, (byte) 0xef, 0 };
+		assertEquals(4, matcher.indexOf(values, null, 0, values.length));
+		assertEquals(-1, matcher.indexOf(values, null, 0, 7));
+		assertEquals(-1, matcher.indexOf(values, null, 5, values.length));
+
+		byte[] flags = new byte[values.length];
+		flags[6] = MemoryByte.READABLE;
+		assertEquals(-1, matcher.indexOf(values, flags, 0, values.length));
+	}
+
+	@Test
+	public void testFindAcrossChunks() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(4 * FindMemoryJob.CHUNK_SIZE);
+		int offset = 2 * FindMemoryJob.CHUNK_SIZE - 2;
+		System.arraycopy(PATTERN, 0, retrieval.getMemory(), offset, PATTERN.length);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x100);
+		MemoryPatternMatcher matcher = new MemoryPatternMatcher(PATTERN);
+
+		FindMemoryJob job = new FindMemoryJob(block, matcher, BigInteger.valueOf(100), BigInteger.valueOf(4 * FindMemoryJob.CHUNK_SIZE - 1));
+		assertEquals(BigInteger.valueOf(offset), job.find(new NullProgressMonitor()));
+		// first chunk up to the next aligned address, then one per chunk
+		assertEquals(3, retrieval.getRequestCount());
+
+		// the match must lie within the range
+		job = new FindMemoryJob(block, matcher, BigInteger.valueOf(offset + 1), BigInteger.valueOf(4 * FindMemoryJob.CHUNK_SIZE - 1));
+		assertNull(job.find(new NullProgressMonitor()));
+		job = new FindMemoryJob(block, matcher, BigInteger.ZERO, BigInteger.valueOf(offset + 2));
+		assertNull(job.find(null));
+	}
+
+	@Test
+	public void testUnreadableMemory() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(FindMemoryJob.CHUNK_SIZE);
+		// the pattern continues into memory which cannot be read
+		System.arraycopy(PATTERN, 0, retrieval.getMemory(), FindMemoryJob.CHUNK_SIZE - 2, 2);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x100);
+
+		FindMemoryJob job = new FindMemoryJob(block, new MemoryPatternMatcher(PATTERN), BigInteger.ZERO, BigInteger.valueOf(3 * FindMemoryJob.CHUNK_SIZE));
+		assertNull(job.find(new NullProgressMonitor()));
+		assertEquals(4, retrieval.getRequestCount());
+	}
+}
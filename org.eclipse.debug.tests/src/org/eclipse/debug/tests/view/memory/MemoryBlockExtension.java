@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
+import org.eclipse.debug.core.model.MemoryByte;
+
+/**
+ * Dummy extended memory block on the memory of a {@link Retrieval}. Bytes
+ * outside of the memory of the retrieval are not readable.
+ */
+public class MemoryBlockExtension extends MemoryBlock implements IMemoryBlockExtension {
+
+	/**
+	 * Dummy memory block retrieval, holding the memory of the target.
+	 */
+	public static class Retrieval implements IMemoryBlockRetrieval {
+
+		private final byte[] fMemory;
+		private int fRequestCount;
+		private volatile long fLatency;
+		private volatile CountDownLatch fGate;
+		private volatile long fFailure = -1;
+
+		/**
+		 * @param size number of bytes of the target memory, which initially
+		 *            has the low byte of its address as value
+		 */
+		public Retrieval(int size) {
+			fMemory = new byte[size];
+			for (int i = 0; i < size; i++) {
+				fMemory[i] = (byte) i;
+			}
+		}
+
+		public byte[] getMemory() {
+			return fMemory;
+		}
+
+		/**
+		 * @return number of requests for bytes made to the memory blocks
+		 */
+		public synchronized int getRequestCount() {
+			return fRequestCount;
+		}
+
+		/**
+		 * Changes random bytes of the memory, as running the target would.
+		 *
+		 * @param rate share of the bytes to change
+		 * @param random source of the bytes to change and their values
+		 * @return number of bytes changed
+		 */
+		public synchronized int mutate(double rate, Random random) {
+			int count = (int) (fMemory.length * rate);
+			for (int i = 0; i < count; i++) {
+				int index = random.nextInt(fMemory.length);
+				fMemory[index] = (byte) (fMemory[index] + 1 + random.nextInt(255));
+			}
+			return count;
+		}
+
+		/**
+		 * @param latency milliseconds each request for bytes takes
+		 */
+		public void setLatency(long latency) {
+			fLatency = latency;
+		}
+
+		/**
+		 * @param gate latch each request for bytes waits for before it is
+		 *            answered, or <code>null</code>
+		 */
+		public void setGate(CountDownLatch gate) {
+			fGate = gate;
+		}
+
+		/**
+		 * @param address address whose retrieval fails with a runtime
+		 *            exception, or <code>-1</code>
+		 */
+		public void setFailure(long address) {
+			fFailure = address;
+		}
+
+		synchronized MemoryByte[] read(BigInteger address, long units) {
+			fRequestCount++;
+			try {
+				CountDownLatch gate = fGate;
+				if (gate != null) {
+					gate.await();
+				}
+				if (fLatency > 0) {
+					Thread.sleep(fLatency);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			long failure = fFailure;
+			if (failure >= address.longValue() && failure < address.longValue() + units) {
+				throw new IllegalStateException("Failed to read " + failure); //$NON-NLS-1$
+			}
+			MemoryByte[] bytes = new MemoryByte[(int) units];
+			for (int i = 0; i < bytes.length; i++) {
+				long a = address.longValue() + i;
+				if (a >= 0 && a < fMemory.length) {
+					bytes[i] = new MemoryByte(fMemory[(int) a]);
+				} else {
+					bytes[i] = new MemoryByte((byte) 0, (byte) 0);
+				}
+			}
+			return bytes;
+		}
+
+		@Override
+		public boolean supportsStorageRetrieval() {
+			return true;
+		}
+
+		@Override
+		public IMemoryBlock getMemoryBlock(long startAddress, long length) throws DebugException {
+			return new MemoryBlockExtension(this, BigInteger.valueOf(startAddress), length);
+		}
+	}
+
+	private final Retrieval fRetrieval;
+	private BigInteger fBaseAddress;
+	private final long fLength;
+
+	public MemoryBlockExtension(Retrieval retrieval, BigInteger baseAddress, long length) {
+		fRetrieval = retrieval;
+		fBaseAddress = baseAddress;
+		fLength = length;
+	}
+
+	@Override
+	public long getStartAddress() {
+		return fBaseAddress.longValue();
+	}
+
+	@Override
+	public long getLength() {
+		return fLength;
+	}
+
+	@Override
+	public String getExpression() {
+		return "0x" + fBaseAddress.toString(16); //$NON-NLS-1$
+	}
+
+	@Override
+	public BigInteger getBigBaseAddress() throws DebugException {
+		return fBaseAddress;
+	}
+
+	@Override
+	public BigInteger getMemoryBlockStartAddress() throws DebugException {
+		return null;
+	}
+
+	@Override
+	public BigInteger getMemoryBlockEndAddress() throws DebugException {
+		return null;
+	}
+
+	@Override
+	public BigInteger getBigLength() throws DebugException {
+		return BigInteger.valueOf(fLength);
+	}
+
+	@Override
+	public int getAddressSize() throws DebugException {
+		return 4;
+	}
+
+	@Override
+	public boolean supportBaseAddressModification() throws DebugException {
+		return true;
+	}
+
+	@Override
+	public boolean supportsChangeManagement() {
+		return false;
+	}
+
+	@Override
+	public void setBaseAddress(BigInteger address) throws DebugException {
+		fBaseAddress = address;
+	}
+
+	@Override
+	public MemoryByte[] getBytesFromOffset(BigInteger unitOffset, long addressableUnits) throws DebugException {
+		return getBytesFromAddress(fBaseAddress.add(unitOffset), addressableUnits);
+	}
+
+	@Override
+	public MemoryByte[] getBytesFromAddress(BigInteger address, long units) throws DebugException {
+		return fRetrieval.read(address, units);
+	}
+
+	@Override
+	public void setValue(BigInteger offset, byte[] bytes) throws DebugException {
+		System.arraycopy(bytes, 0, fRetrieval.getMemory(), fBaseAddress.add(offset).intValue(), bytes.length);
+	}
+
+	@Override
+	public void connect(Object client) {
+	}
+
+	@Override
+	public void disconnect(Object client) {
+	}
+
+	@Override
+	public Object[] getConnections() {
+		return new Object[0];
+	}
+
+	@Override
+	public void dispose() throws DebugException {
+	}
+
+	@Override
+	public IMemoryBlockRetrieval getMemoryBlockRetrieval() {
+		return fRetrieval;
+	}
+
+	@Override
+	public int getAddressableSize() throws DebugException {
+		return 1;
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IMemoryBlockListener;
+import org.eclipse.debug.core.IMemoryBlockManager;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the memory block manager.
+ */
+public class MemoryBlockManagerTests extends AbstractDebugTest {
+
+	private final List<String> fEvents = new ArrayList<>();
+
+	private final IMemoryBlockListener fListener = new IMemoryBlockListener() {
+		@Override
+		public void memoryBlocksAdded(IMemoryBlock[] memory) {
+			fEvents.add("added " + memory.length); //$NON-NLS-1$
+		}
+
+		@Override
+		public void memoryBlocksRemoved(IMemoryBlock[] memory) {
+			fEvents.add("removed " + memory.length); //$NON-NLS-1$
+		}
+	};
+
+	private IMemoryBlockManager fManager;
+	private IMemoryBlock[] fInitialBlocks;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fManager = DebugPlugin.getDefault().getMemoryBlockManager();
+		fInitialBlocks = fManager.getMemoryBlocks();
+		fManager.addListener(fListener);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fManager.removeListener(fListener);
+		super.tearDown();
+	}
+
+	@Test
+	public void testIndexes() {
+		MemoryBlockExtension.Retrieval first = new MemoryBlockExtension.Retrieval(16);
+		MemoryBlockExtension.Retrieval second = new MemoryBlockExtension.Retrieval(16);
+		IMemoryBlock a = new MemoryBlockExtension(first, BigInteger.ZERO, 16);
+		IMemoryBlock b = new MemoryBlockExtension(second, BigInteger.ZERO, 16);
+		IMemoryBlock c = new MemoryBlockExtension(first, BigInteger.TEN, 16);
+
+		fManager.addMemoryBlocks(new IMemoryBlock[] { a, b, a });
+		fManager.addMemoryBlocks(new IMemoryBlock[] { c, b });
+		try {
+			assertArrayEquals(new IMemoryBlock[] { a, c }, fManager.getMemoryBlocks(first));
+			assertArrayEquals(new IMemoryBlock[] { b }, fManager.getMemoryBlocks(second));
+			// the blocks have no debug target
+			List<IMemoryBlock> untargeted = new ArrayList<>();
+			for (IMemoryBlock block : fManager.getMemoryBlocks((IDebugTarget) null)) {
+				if (block == a || block == b || block == c) {
+					untargeted.add(block);
+				}
+			}
+			assertEquals(3, untargeted.size());
+			assertEquals(fInitialBlocks.length + 3, fManager.getMemoryBlocks().length);
+		} finally {
+			fManager.removeMemoryBlocks(new IMemoryBlock[] { a, b });
+		}
+		assertArrayEquals(new IMemoryBlock[] { c }, fManager.getMemoryBlocks(first));
+		assertEquals(0, fManager.getMemoryBlocks(second).length);
+		fManager.removeMemoryBlocks(new IMemoryBlock[] { c, c });
+		assertEquals(0, fManager.getMemoryBlocks(first).length);
+		assertEquals(fInitialBlocks.length, fManager.getMemoryBlocks().length);
+
+		// duplicates and unknown blocks are not reported
+		assertEquals("[added 2, added 1, removed 2, removed 1]", fEvents.toString()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBatch() {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(16);
+		IMemoryBlock[] blocks = new IMemoryBlock[100];
+		for (int i = 0; i < blocks.length; i++) {
+			blocks[i] = new MemoryBlockExtension(retrieval, BigInteger.valueOf(i), 16);
+		}
+		fManager.runBatch(() -> {
+			for (IMemoryBlock block : blocks) {
+				fManager.addMemoryBlocks(new IMemoryBlock[] { block });
+			}
+			// a block added and removed in the batch is not reported
+			fManager.removeMemoryBlocks(new IMemoryBlock[] { blocks[0] });
+		});
+		assertEquals(99, fManager.getMemoryBlocks(retrieval).length);
+
+		fManager.runBatch(() -> {
+			for (IMemoryBlock block : blocks) {
+				fManager.removeMemoryBlocks(new IMemoryBlock[] { block });
+			}
+		});
+		assertEquals(0, fManager.getMemoryBlocks(retrieval).length);
+		assertEquals("[added 99, removed 99]", fEvents.toString()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBatchOfOtherThread() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(16);
+		IMemoryBlock batched = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 16);
+		IMemoryBlock other = new MemoryBlockExtension(retrieval, BigInteger.ONE, 16);
+		List<String> eventsInBatch = new ArrayList<>();
+		fManager.runBatch(() -> {
+			fManager.addMemoryBlocks(new IMemoryBlock[] { batched });
+			// changes of other threads are not deferred
+			Thread thread = new Thread(() -> fManager.addMemoryBlocks(new IMemoryBlock[] { other }));
+			thread.start();
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			eventsInBatch.addAll(fEvents);
+		});
+		fManager.removeMemoryBlocks(new IMemoryBlock[] { batched, other });
+		assertEquals("[added 1]", eventsInBatch.toString()); //$NON-NLS-1$
+		assertEquals("[added 1, added 1, removed 2]", fEvents.toString()); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryChanges;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryChanges}.
+ */
+public class MemoryChangesTests extends AbstractDebugTest {
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		MemoryPageCache.disposeAll();
+		super.tearDown();
+	}
+
+	@Test
+	public void testNoChanges() {
+		byte[] values = new byte[100];
+		assertSame(MemoryChanges.NONE, MemoryChanges.compute(new PackedMemory(values.clone(), MemoryByte.READABLE), new PackedMemory(values, MemoryByte.READABLE)));
+		assertSame(MemoryChanges.NONE, MemoryChanges.compute(new PackedMemory(new byte[0], MemoryByte.READABLE), new PackedMemory(values, MemoryByte.READABLE)));
+	}
+
+	@Test
+	public void testRanges() {
+		byte[] oldValues = new byte[37];
+		byte[] newValues = oldValues.clone();
+		// within a word, across words and in the bytes after the last word
+		newValues[0] = 1;
+		newValues[5] = 1;
+		newValues[6] = 1;
+		newValues[7] = 1;
+		newValues[8] = 1;
+		newValues[9] = 1;
+		newValues[20] = 1;
+		newValues[35] = 1;
+		newValues[36] = 1;
+
+		MemoryChanges changes = MemoryChanges.compute(new PackedMemory(newValues, MemoryByte.READABLE), new PackedMemory(oldValues, MemoryByte.READABLE));
+		assertEquals("[0-1, 5-10, 20-21, 35-37]", changes.toString()); //$NON-NLS-1$
+		assertEquals(4, changes.getRangeCount());
+		assertEquals(9, changes.getChangedBytes());
+		for (int i = 0; i < newValues.length; i++) {
+			assertEquals("byte " + i, newValues[i] != 0, changes.isChanged(i)); //$NON-NLS-1$
+		}
+	}
+
+	@Test
+	public void testReadability() {
+		byte[] values = new byte[16];
+		PackedMemory readable = new PackedMemory(values, MemoryByte.READABLE);
+		PackedMemory unreadable = new PackedMemory(values, (byte) 0);
+		assertEquals("[0-16]", MemoryChanges.compute(readable, unreadable).toString()); //$NON-NLS-1$
+		assertTrue(MemoryChanges.compute(unreadable, new PackedMemory(new byte[16], (byte) 0)).isEmpty());
+
+		// values of bytes which are not readable do not matter
+		byte[] newValues = values.clone();
+		newValues[1] = 1;
+		newValues[2] = 1;
+		byte[] newFlags = new byte[16];
+		byte[] oldFlags = new byte[16];
+		for (int i = 0; i < 16; i++) {
+			newFlags[i] = i == 2 || i == 10 ? 0 : MemoryByte.READABLE;
+			oldFlags[i] = MemoryByte.READABLE;
+		}
+		MemoryChanges changes = MemoryChanges.compute(new PackedMemory(newValues, newFlags), new PackedMemory(values, oldFlags));
+		assertEquals("[1-3, 10-11]", changes.toString()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testApply() {
+		byte[] oldValues = new byte[24];
+		byte[] newValues = oldValues.clone();
+		newValues[9] = 1;
+		PackedMemory memory = new PackedMemory(newValues, MemoryByte.READABLE);
+		MemoryChanges.compute(memory, new PackedMemory(oldValues, MemoryByte.READABLE)).apply(memory);
+		for (int i = 0; i < memory.length(); i++) {
+			assertTrue((memory.getFlags(i) & MemoryByte.HISTORY_KNOWN) != 0);
+			assertEquals(i == 9, (memory.getFlags(i) & MemoryByte.CHANGED) != 0);
+		}
+	}
+
+	@Test
+	public void testPageCacheChanges() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(8 * 1024);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x1000);
+		MemoryPageCache cache = MemoryPageCache.getCache(block);
+
+		cache.getMemory(block, BigInteger.ZERO, 0x1000);
+		assertTrue(cache.getChanges(block, BigInteger.ZERO, 0x1000).isEmpty());
+		retrieval.getMemory()[0x10] = 42;
+		// across the first page boundary
+		retrieval.getMemory()[0x3ff] = 42;
+		retrieval.getMemory()[0x400] = 42;
+		retrieval.getMemory()[0xc00] = 42;
+		cache.invalidate();
+
+		// the changes of stale pages are unknown
+		assertTrue(cache.getChanges(block, BigInteger.ZERO, 0x1000).isEmpty());
+		cache.getMemory(block, BigInteger.ZERO, 0x800);
+		assertEquals("[16-17, 1023-1025]", cache.getChanges(block, BigInteger.ZERO, 0x1000).toString()); //$NON-NLS-1$
+		// relative to the start of the range
+		MemoryChanges changes = cache.getChanges(block, BigInteger.valueOf(0x3f0), 0x20);
+		assertEquals("[15-17]", changes.toString()); //$NON-NLS-1$
+		assertFalse(changes.isChanged(0));
+	}
+}
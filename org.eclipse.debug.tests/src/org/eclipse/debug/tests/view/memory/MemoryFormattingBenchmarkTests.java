@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryValueFormatter;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.BenchmarkReport;
+import org.junit.Test;
+
+/**
+ * Benchmarks the formatting of memory rendering cells by
+ * {@link MemoryValueFormatter}. Every scenario formats {@value #CELLS} cells
+ * of random memory as signed and unsigned decimal numbers and as hex digits in
+ * both endianesses, and reports the cells formatted per second and the bytes
+ * allocated per cell through {@link BenchmarkReport}.
+ */
+public class MemoryFormattingBenchmarkTests extends AbstractDebugTest {
+
+	/** Number of cells formatted per measured run. */
+	private static final int CELLS = 200000;
+	/** Number of measured runs, after one warm up run. */
+	private static final int ITERATIONS = 5;
+
+	/**
+	 * A formatting of a single cell.
+	 */
+	@FunctionalInterface
+	private interface CellFormat {
+		String format(MemoryByte[] cell);
+	}
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testByteCells() {
+		runBenchmark(1);
+	}
+
+	@Test
+	public void testShortCells() {
+		runBenchmark(2);
+	}
+
+	@Test
+	public void testIntCells() {
+		runBenchmark(4);
+	}
+
+	@Test
+	public void testLongCells() {
+		runBenchmark(8);
+	}
+
+	@Test
+	public void testWideCells() {
+		runBenchmark(16);
+	}
+
+	private void runBenchmark(int size) {
+		MemoryByte[][] cells = new MemoryByte[1024][size];
+		Random random = new Random(42);
+		for (MemoryByte[] cell : cells) {
+			for (int i = 0; i < size; i++) {
+				cell[i] = new MemoryByte((byte) random.nextInt());
+			}
+		}
+
+		BenchmarkReport report = new BenchmarkReport(getDefaultScenarioId());
+		measure(report, "signedBigEndian", cells, cell -> MemoryValueFormatter.formatSigned(cell, RenderingsUtil.BIG_ENDIAN)); //$NON-NLS-1$
+		measure(report, "signedLittleEndian", cells, cell -> MemoryValueFormatter.formatSigned(cell, RenderingsUtil.LITTLE_ENDIAN)); //$NON-NLS-1$
+		measure(report, "unsignedBigEndian", cells, cell -> MemoryValueFormatter.formatUnsigned(cell, RenderingsUtil.BIG_ENDIAN)); //$NON-NLS-1$
+		measure(report, "unsignedLittleEndian", cells, cell -> MemoryValueFormatter.formatUnsigned(cell, RenderingsUtil.LITTLE_ENDIAN)); //$NON-NLS-1$
+		measure(report, "hex", cells, cell -> MemoryValueFormatter.formatHex(cell, false, "??")); //$NON-NLS-1$ //$NON-NLS-2$
+		measure(report, "hexLittleEndian", cells, cell -> MemoryValueFormatter.formatHex(cell, true, "??")); //$NON-NLS-1$ //$NON-NLS-2$
+		report.write();
+	}
+
+	/**
+	 * Format {@value #CELLS} cells {@link #ITERATIONS} times and add the
+	 * median cells per second and the bytes allocated per cell to the report.
+	 */
+	private void measure(BenchmarkReport report, String name, MemoryByte[][] cells, CellFormat format) {
+		long[] nanos = new long[ITERATIONS];
+		long allocated = 0;
+		boolean allocationSupported = true;
+		int length = 0;
+		for (int i = -1; i < ITERATIONS; i++) {
+			long allocatedStart = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			long start = System.nanoTime();
+			for (int n = 0; n < CELLS; n++) {
+				length += format.format(cells[n % cells.length]).length();
+			}
+			long time = System.nanoTime() - start;
+			long allocatedEnd = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			if (i < 0) {
+				continue;
+			}
+			nanos[i] = time;
+			if (allocatedStart < 0 || allocatedEnd < 0) {
+				allocationSupported = false;
+			} else {
+				allocated += allocatedEnd - allocatedStart;
+			}
+		}
+		assertTrue(length > 0);
+		report.putPercentiles(name, nanos);
+		report.put(name + "CellsPerSecond", CELLS / (nanos[ITERATIONS / 2] / 1e9)); //$NON-NLS-1$
+		if (allocationSupported) {
+			report.put(name + "AllocatedBytesPerCell", (double) allocated / ITERATIONS / CELLS); //$NON-NLS-1$
+		}
+	}
+}
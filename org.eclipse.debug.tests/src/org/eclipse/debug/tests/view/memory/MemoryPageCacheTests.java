@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IMemoryBlockManager;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryRefreshCoordinator;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryPageCache} and {@link MemoryRefreshCoordinator}.
+ */
+public class MemoryPageCacheTests extends AbstractDebugTest {
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		MemoryPageCache.disposeAll();
+		super.tearDown();
+	}
+
+	@Test
+	public void testCachedPagesAreReused() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(64 * 1024);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.valueOf(0x1000), 0x1000);
+		MemoryPageCache cache = MemoryPageCache.getCache(block);
+		assertNotNull(cache);
+
+		PackedMemory memory = cache.getMemory(block, BigInteger.valueOf(0x1010), 3000);
+		assertEquals(3000, memory.length());
+		assertEquals(1, retrieval.getRequestCount());
+		assertTrue(memory.hasUniformFlags());
+		for (int i = 0; i < memory.length(); i++) {
+			assertEquals((byte) (0x10 + i), memory.getValue(i));
+			assertTrue((memory.getFlags(i) & MemoryByte.READABLE) != 0);
+			assertFalse((memory.getFlags(i) & MemoryByte.HISTORY_KNOWN) != 0);
+		}
+
+		// reformat or scroll back within the cached pages
+		cache.getMemory(block, BigInteger.valueOf(0x1100), 256);
+		cache.getMemory(block, BigInteger.valueOf(0x1010), 3000);
+		assertEquals(1, retrieval.getRequestCount());
+
+		// another memory block of the same retrieval shares the cache
+		MemoryBlockExtension other = new MemoryBlockExtension(retrieval, BigInteger.valueOf(0x1200), 0x100);
+		assertSame(cache, MemoryPageCache.getCache(other));
+		cache.getMemory(other, BigInteger.valueOf(0x1200), 0x100);
+		assertEquals(1, retrieval.getRequestCount());
+
+		// only the missing pages are retrieved
+		cache.getMemory(block, BigInteger.valueOf(0x1800), 0x1000);
+		assertEquals(2, retrieval.getRequestCount());
+	}
+
+	@Test
+	public void testCacheReleasedWithLastMemoryBlock() throws Exception {
+		IMemoryBlockManager manager = DebugPlugin.getDefault().getMemoryBlockManager();
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(4 * 1024);
+		MemoryBlockExtension first = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x100);
+		MemoryBlockExtension second = new MemoryBlockExtension(retrieval, BigInteger.valueOf(0x100), 0x100);
+		manager.addMemoryBlocks(new IMemoryBlock[] { first, second });
+		try {
+			MemoryPageCache cache = MemoryPageCache.getCache(first);
+			assertNotNull(cache);
+
+			manager.removeMemoryBlocks(new IMemoryBlock[] { first });
+			assertSame(cache, MemoryPageCache.getCache(second));
+
+			// the blocks have no debug target, the cache goes with the last block
+			manager.removeMemoryBlocks(new IMemoryBlock[] { second });
+			assertNotSame(cache, MemoryPageCache.getCache(second));
+		} finally {
+			manager.removeMemoryBlocks(new IMemoryBlock[] { first, second });
+		}
+	}
+
+	@Test
+	public void testChangeHistory() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(8 * 1024);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x800);
+		MemoryPageCache cache = MemoryPageCache.getCache(block);
+
+		cache.getMemory(block, BigInteger.ZERO, 0x800);
+		retrieval.getMemory()[0x10] = 42;
+		cache.invalidate();
+
+		PackedMemory memory = cache.getMemory(block, BigInteger.ZERO, 0x800);
+		assertEquals(2, retrieval.getRequestCount());
+		assertEquals(42, memory.getValue(0x10));
+		for (int i = 0; i < memory.length(); i++) {
+			assertTrue((memory.getFlags(i) & MemoryByte.HISTORY_KNOWN) != 0);
+			assertEquals(i == 0x10, (memory.getFlags(i) & MemoryByte.CHANGED) != 0);
+		}
+
+		// changing the returned memory does not change the cache
+		memory.setFlags(MemoryByte.CHANGED, false);
+		assertTrue((cache.getMemory(block, BigInteger.valueOf(0x10), 1).getFlags(0) & MemoryByte.CHANGED) != 0);
+		assertEquals(2, retrieval.getRequestCount());
+	}
+
+	@Test
+	public void testUnreadablePagesAreNotShared() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(0x600);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.valueOf(0x400), 0x200);
+		MemoryPageCache cache = MemoryPageCache.getCache(block);
+
+		PackedMemory memory = cache.getMemory(block, BigInteger.valueOf(0x400), 0x400);
+		assertTrue((memory.getFlags(0x1ff) & MemoryByte.READABLE) != 0);
+		assertFalse((memory.getFlags(0x200) & MemoryByte.READABLE) != 0);
+		assertEquals(1, retrieval.getRequestCount());
+
+		cache.getMemory(block, BigInteger.valueOf(0x400), 0x400);
+		assertEquals(1, retrieval.getRequestCount());
+
+		MemoryBlockExtension other = new MemoryBlockExtension(retrieval, BigInteger.valueOf(0x400), 0x100);
+		cache.getMemory(other, BigInteger.valueOf(0x400), 0x100);
+		assertEquals(2, retrieval.getRequestCount());
+	}
+
+	@Test
+	public void testCoordinatorMergesRequests() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(64 * 1024);
+		CountDownLatch gate = new CountDownLatch(1);
+		retrieval.setGate(gate);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x1000);
+		MemoryRefreshCoordinator coordinator = MemoryPageCache.getCache(block).getCoordinator();
+
+		PackedMemory[] results = new PackedMemory[3];
+		Throwable[] errors = new Throwable[3];
+		Thread[] threads = new Thread[3];
+		try {
+			threads[0] = read(coordinator, block, 0x0, 0x400, results, errors, 0);
+			waitWhile(t -> retrieval.getRequestCount() == 0, t -> "first request not made"); //$NON-NLS-1$
+			// two renderings ask for overlapping ranges while the first request
+			// is being read
+			threads[1] = read(coordinator, block, 0x400, 0x400, results, errors, 1);
+			threads[2] = read(coordinator, block, 0x600, 0x600, results, errors, 2);
+			// both wait for the first request to complete
+			waitWhile(t -> threads[1].getState() != Thread.State.WAITING || threads[2].getState() != Thread.State.WAITING, t -> "requests not pending"); //$NON-NLS-1$
+		} finally {
+			gate.countDown();
+			for (Thread thread : threads) {
+				if (thread != null) {
+					thread.join();
+				}
+			}
+		}
+		for (Throwable error : errors) {
+			if (error != null) {
+				throw new AssertionError(error);
+			}
+		}
+
+		assertEquals(2, retrieval.getRequestCount());
+		assertEquals(1, coordinator.getMergedCount());
+		int[] starts = { 0x0, 0x400, 0x600 };
+		int[] lengths = { 0x400, 0x400, 0x600 };
+		for (int i = 0; i < results.length; i++) {
+			assertEquals(lengths[i], results[i].length());
+			for (int j = 0; j < lengths[i]; j++) {
+				assertEquals((byte) (starts[i] + j), results[i].getValue(j));
+			}
+		}
+	}
+
+	@Test
+	public void testCoordinatorMergedRequestsFail() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(64 * 1024);
+		CountDownLatch gate = new CountDownLatch(1);
+		retrieval.setGate(gate);
+		retrieval.setFailure(0x800);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, 0x1000);
+		MemoryRefreshCoordinator coordinator = MemoryPageCache.getCache(block).getCoordinator();
+
+		PackedMemory[] results = new PackedMemory[3];
+		Throwable[] errors = new Throwable[3];
+		Thread[] threads = new Thread[3];
+		try {
+			threads[0] = read(coordinator, block, 0x0, 0x400, results, errors, 0);
+			waitWhile(t -> retrieval.getRequestCount() == 0, t -> "first request not made"); //$NON-NLS-1$
+			threads[1] = read(coordinator, block, 0x400, 0x400, results, errors, 1);
+			threads[2] = read(coordinator, block, 0x600, 0x600, results, errors, 2);
+			waitWhile(t -> threads[1].getState() != Thread.State.WAITING || threads[2].getState() != Thread.State.WAITING, t -> "requests not pending"); //$NON-NLS-1$
+		} finally {
+			gate.countDown();
+			for (Thread thread : threads) {
+				if (thread != null) {
+					thread.join();
+				}
+			}
+		}
+
+		assertNull(errors[0]);
+		assertEquals(0x400, results[0].length());
+		// the merged read fails, none of its requests returns without result
+		for (int i = 1; i < errors.length; i++) {
+			assertTrue(String.valueOf(errors[i]), errors[i] instanceof DebugException);
+			assertNull(results[i]);
+		}
+	}
+
+	private static Thread read(MemoryRefreshCoordinator coordinator, MemoryBlockExtension block, int address, int units, PackedMemory[] results, Throwable[] errors, int index) {
+		Thread thread = new Thread(() -> {
+			try {
+				results[index] = coordinator.getMemory(block, BigInteger.valueOf(address), units);
+			} catch (Throwable e) {
+				errors[index] = e;
+			}
+		});
+		thread.start();
+		return thread;
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryRefreshCoordinator;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryValueFormatter;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.BenchmarkReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Benchmarks the work a table rendering does to show a window of memory of a
+ * large synthetic target: retrieving the memory through the page cache,
+ * splitting it into lines and formatting the cells. The target has
+ * {@value #ADDRESS_SPACE} bytes of memory and takes {@value #LATENCY}
+ * milliseconds per request. Every scenario reports the latency percentiles,
+ * the windows shown per second and the bytes allocated per window through
+ * {@link BenchmarkReport}.
+ */
+public class MemoryRenderingBenchmarkTests extends AbstractDebugTest {
+
+	/** Size of the memory of the synthetic target. */
+	private static final int ADDRESS_SPACE = 64 * 1024 * 1024;
+	/** Milliseconds each request to the synthetic target takes. */
+	private static final long LATENCY = 1;
+	/** Share of the memory changed on each suspend. */
+	private static final double MUTATION_RATE = 0.01;
+	/** Number of lines of the window shown. */
+	private static final int LINES = 64;
+	private static final int BYTES_PER_LINE = 16;
+	/** Number of windows shown per measured run. */
+	private static final int WINDOWS = 200;
+
+	/**
+	 * Shows a window of memory.
+	 */
+	@FunctionalInterface
+	private interface WindowStep {
+		int show(int window) throws DebugException;
+	}
+
+	private MemoryBlockExtension.Retrieval fRetrieval;
+	private MemoryBlockExtension fMemoryBlock;
+	private MemoryPageCache fCache;
+	private MemoryRefreshCoordinator fCoordinator;
+	/** Number of cells shown as changed. */
+	private long fChangedCells;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fRetrieval = new MemoryBlockExtension.Retrieval(ADDRESS_SPACE);
+		new Random(42).nextBytes(fRetrieval.getMemory());
+		fRetrieval.setLatency(LATENCY);
+		fMemoryBlock = new MemoryBlockExtension(fRetrieval, BigInteger.ZERO, ADDRESS_SPACE);
+		fCache = MemoryPageCache.getCache(fMemoryBlock);
+		assertNotNull(fCache);
+		fCoordinator = fCache.getCoordinator();
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		MemoryPageCache.disposeAll();
+		super.tearDown();
+	}
+
+	/**
+	 * Pages down through the memory, window after window.
+	 */
+	@Test
+	public void testScroll() throws Exception {
+		int windowBytes = LINES * BYTES_PER_LINE;
+		runBenchmark("scroll", window -> showWindow(BigInteger.valueOf((long) window * windowBytes), 4)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Goes to random addresses.
+	 */
+	@Test
+	public void testGoToAddress() throws Exception {
+		Random random = new Random(42);
+		int windowBytes = LINES * BYTES_PER_LINE;
+		runBenchmark("goToAddress", window -> showWindow(BigInteger.valueOf(random.nextInt(ADDRESS_SPACE - windowBytes)), 4)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Shows the same window with changing column sizes, as changing the
+	 * format of a rendering does.
+	 */
+	@Test
+	public void testReformat() throws Exception {
+		int[] columnSizes = { 1, 2, 4, 8, 16 };
+		runBenchmark("reformat", window -> showWindow(BigInteger.valueOf(0x10000), columnSizes[window % columnSizes.length])); //$NON-NLS-1$
+	}
+
+	/**
+	 * Suspends after changing memory and shows the same window with the
+	 * changed bytes marked.
+	 */
+	@Test
+	public void testChangeHighlighting() throws Exception {
+		Random random = new Random(42);
+		BigInteger address = BigInteger.valueOf(0x10000);
+		showWindow(address, 4);
+		runBenchmark("changeHighlighting", window -> { //$NON-NLS-1$
+			fRetrieval.mutate(MUTATION_RATE, random);
+			fCache.invalidate();
+			return showWindow(address, 4);
+		});
+	}
+
+	private void runBenchmark(String name, WindowStep step) throws DebugException {
+		BenchmarkReport report = new BenchmarkReport(getDefaultScenarioId());
+		long[] nanos = new long[WINDOWS];
+		long allocated = 0;
+		boolean allocationSupported = true;
+		int length = 0;
+		long fetchCount = fCache.getFetchCount();
+		fChangedCells = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < WINDOWS; i++) {
+			long allocatedStart = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			long windowStart = System.nanoTime();
+			length += step.show(i);
+			nanos[i] = System.nanoTime() - windowStart;
+			long allocatedEnd = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			if (allocatedStart < 0 || allocatedEnd < 0) {
+				allocationSupported = false;
+			} else {
+				allocated += allocatedEnd - allocatedStart;
+			}
+		}
+		long time = System.nanoTime() - start;
+		assertTrue(length > 0);
+		report.putPercentiles(name, nanos);
+		report.put(name + "WindowsPerSecond", WINDOWS / (time / 1e9)); //$NON-NLS-1$
+		report.put(name + "Requests", fCache.getFetchCount() - fetchCount); //$NON-NLS-1$
+		report.put(name + "ChangedCells", fChangedCells); //$NON-NLS-1$
+		if (allocationSupported) {
+			report.put(name + "AllocatedBytesPerWindow", (double) allocated / WINDOWS); //$NON-NLS-1$
+		}
+		report.write();
+	}
+
+	/**
+	 * Shows a window of memory the way a table rendering does.
+	 *
+	 * @return the number of characters of the cells
+	 */
+	private int showWindow(BigInteger address, int columnSize) throws DebugException {
+		PackedMemory memory = fCoordinator.getMemory(fMemoryBlock, address, LINES * BYTES_PER_LINE);
+		int length = 0;
+		for (int line = 0; line < LINES; line++) {
+			MemorySegment segment = new MemorySegment(address.add(BigInteger.valueOf(line * BYTES_PER_LINE)), memory.slice(line * BYTES_PER_LINE, BYTES_PER_LINE), BYTES_PER_LINE);
+			for (int offset = 0; offset < BYTES_PER_LINE; offset += columnSize) {
+				MemoryByte[] cell = segment.getBytes(offset, columnSize);
+				length += MemoryValueFormatter.formatHex(cell, false, "??").length(); //$NON-NLS-1$
+				// the color of the cell
+				for (MemoryByte b : cell) {
+					if (b.isChanged()) {
+						fChangedCells++;
+						break;
+					}
+				}
+			}
+		}
+		return length;
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryTransfer;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryTransfer.Format;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryTransfer}.
+ */
+public class MemoryTransferTests extends AbstractDebugTest {
+
+	private static final int SIZE = 0x30000;
+	/** Start of the exported range, so records cross 64KB boundaries. */
+	private static final int START = 0x8000;
+	private static final int LENGTH = 0x20000;
+
+	@Test
+	public void testBinary() throws Exception {
+		roundTrip(Format.BINARY);
+	}
+
+	@Test
+	public void testIntelHex() throws Exception {
+		String text = new String(roundTrip(Format.INTEL_HEX), StandardCharsets.US_ASCII);
+		assertTrue(text, text.startsWith(":10800000")); //$NON-NLS-1$
+		assertTrue(text.contains(":020000040001F9")); //$NON-NLS-1$
+		assertTrue(text.endsWith(":00000001FF\n")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSRecord() throws Exception {
+		String text = new String(roundTrip(Format.S_RECORD), StandardCharsets.US_ASCII);
+		// addresses above 64KB need S2 records
+		assertTrue(text, text.startsWith("S0030000FC\nS214008000")); //$NON-NLS-1$
+		assertTrue(text.endsWith("S804000000FB\n")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testIntelHexSegmentAddress() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(SIZE);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, SIZE);
+		Arrays.fill(retrieval.getMemory(), (byte) 0);
+		// segment 0x1234 starts at 0x12340
+		byte[] input = ":020000021234B6\n:01001000AB44\n:00000001FF\n".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+		long written = MemoryTransfer.importMemory(block, Format.INTEL_HEX, Channels.newChannel(new ByteArrayInputStream(input)), BigInteger.ZERO, null);
+		assertEquals(1, written);
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals("byte " + i, i == 0x12350 ? (byte) 0xab : 0, retrieval.getMemory()[i]); //$NON-NLS-1$
+		}
+	}
+
+	@Test(expected = DebugException.class)
+	public void testRecordTooLong() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(SIZE);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, SIZE);
+		// not a record file, without line ends
+		byte[] input = new byte[SIZE];
+		Arrays.fill(input, (byte) '0');
+		MemoryTransfer.importMemory(block, Format.INTEL_HEX, Channels.newChannel(new ByteArrayInputStream(input)), BigInteger.ZERO, null);
+	}
+
+	@Test(expected = DebugException.class)
+	public void testChecksumError() throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(SIZE);
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, SIZE);
+		byte[] input = ":0100000012EE\n:00000001FF\n".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+		MemoryTransfer.importMemory(block, Format.INTEL_HEX, Channels.newChannel(new ByteArrayInputStream(input)), BigInteger.ZERO, null);
+	}
+
+	/**
+	 * Exports a range of random memory, clears the memory and imports the
+	 * range again.
+	 *
+	 * @return the exported bytes
+	 */
+	private byte[] roundTrip(Format format) throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(SIZE);
+		byte[] memory = retrieval.getMemory();
+		new Random(42).nextBytes(memory);
+		byte[] expected = memory.clone();
+		MemoryBlockExtension block = new MemoryBlockExtension(retrieval, BigInteger.ZERO, SIZE);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MemoryTransfer.exportMemory(block, BigInteger.valueOf(START), LENGTH, format, Channels.newChannel(out), null);
+		byte[] exported = out.toByteArray();
+		if (format == Format.BINARY) {
+			assertEquals(LENGTH, exported.length);
+		}
+
+		Arrays.fill(memory, (byte) 0);
+		long written = MemoryTransfer.importMemory(block, format, Channels.newChannel(new ByteArrayInputStream(exported)), BigInteger.valueOf(START), null);
+		assertEquals(LENGTH, written);
+		for (int i = 0; i < SIZE; i++) {
+			byte value = i >= START && i < START + LENGTH ? expected[i] : 0;
+			assertEquals("byte " + i, value, memory[i]); //$NON-NLS-1$
+		}
+		return exported;
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryValueFormatter;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryValueFormatter} against the {@link BigInteger}
+ * conversions.
+ */
+public class MemoryValueFormatterTests extends AbstractDebugTest {
+
+	private static final int[] SIZES = { 1, 2, 3, 4, 8, 16 };
+
+	@Test
+	public void testDecimal() {
+		Random random = new Random(42);
+		for (int size : SIZES) {
+			for (int endianess : new int[] { RenderingsUtil.BIG_ENDIAN, RenderingsUtil.LITTLE_ENDIAN }) {
+				for (int n = 0; n < 1000; n++) {
+					byte[] bytes = new byte[size];
+					random.nextBytes(bytes);
+					if (n == 0) {
+						bytes = fill(size, (byte) 0xff);
+					} else if (n == 1) {
+						bytes = fill(size, (byte) 0);
+					} else if (n == 2) {
+						bytes = fill(size, (byte) 0);
+						bytes[endianess == RenderingsUtil.BIG_ENDIAN ? 0 : size - 1] = (byte) 0x80;
+					}
+					byte[] bigEndian = endianess == RenderingsUtil.BIG_ENDIAN ? bytes : reverse(bytes);
+					MemoryByte[] data = toMemoryBytes(bytes);
+					String message = size + " bytes " + new BigInteger(1, bigEndian).toString(16); //$NON-NLS-1$
+					assertEquals(message, new BigInteger(bigEndian).toString(), MemoryValueFormatter.formatSigned(data, endianess));
+					assertEquals(message, new BigInteger(1, bigEndian).toString(), MemoryValueFormatter.formatUnsigned(data, endianess));
+					assertEquals(message, new BigInteger(1, bigEndian).toString(), MemoryValueFormatter.formatUnsigned(bytes, 0, size, endianess));
+					assertEquals(message, new BigInteger(1, bigEndian), RenderingsUtil.convertByteArrayToUnsignedBigInt(bytes, endianess, size));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testHex() {
+		MemoryByte[] data = new MemoryByte[] { new MemoryByte((byte) 0x0a), new MemoryByte((byte) 0, (byte) 0), new MemoryByte((byte) 0xf1) };
+		assertEquals("0Axxf1".toUpperCase(), MemoryValueFormatter.formatHex(data, false, "xx")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("F1??0A", MemoryValueFormatter.formatHex(data, true, "??")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("??????", MemoryValueFormatter.repeat("??", 3)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static byte[] fill(int size, byte value) {
+		byte[] bytes = new byte[size];
+		for (int i = 0; i < size; i++) {
+			bytes[i] = value;
+		}
+		return bytes;
+	}
+
+	private static byte[] reverse(byte[] bytes) {
+		byte[] reversed = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			reversed[bytes.length - 1 - i] = bytes[i];
+		}
+		return reversed;
+	}
+
+	private static MemoryByte[] toMemoryBytes(byte[] bytes) {
+		MemoryByte[] data = new MemoryByte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			data[i] = new MemoryByte(bytes[i]);
+		}
+		return data;
+	}
+}
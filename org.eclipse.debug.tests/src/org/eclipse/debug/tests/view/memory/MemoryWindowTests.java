@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryWindow;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link MemoryWindow}.
+ */
+public class MemoryWindowTests extends AbstractDebugTest {
+
+	private static final int UNITS_PER_LINE = 16;
+	private static final int MARGIN = 8;
+	private static final int VISIBLE_LINES = 4;
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		MemoryPageCache.disposeAll();
+		super.tearDown();
+	}
+
+	private MemoryWindow createWindow(int memorySize) throws Exception {
+		MemoryBlockExtension.Retrieval retrieval = new MemoryBlockExtension.Retrieval(memorySize);
+		// the block has no address range, so it spans the 4 GB address space
+		MemoryWindow window = new MemoryWindow(new MemoryBlockExtension(retrieval, BigInteger.ZERO, memorySize), UNITS_PER_LINE, MARGIN);
+		window.setVisibleLines(VISIBLE_LINES);
+		return window;
+	}
+
+	@Test
+	public void testAddressSpace() throws Exception {
+		MemoryWindow window = createWindow(0x1000);
+		assertEquals(1L << 28, window.getLineCount());
+		assertEquals(BigInteger.valueOf(0xfffffff0L), window.getAddress(window.getLineCount() - 1));
+		assertEquals(window.getLineCount() - 1, window.getLine(BigInteger.valueOf(0xffffffffL)));
+		assertEquals(0x10, window.getLine(BigInteger.valueOf(0x10f)));
+		assertTrue(window.contains(BigInteger.valueOf(0xffffffffL)));
+		assertFalse(window.contains(BigInteger.ONE.shiftLeft(32)));
+
+		assertEquals(0, window.clampTopLine(-5));
+		assertEquals(window.getLineCount() - VISIBLE_LINES, window.clampTopLine(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		MemoryWindow window = createWindow(0x10000);
+		assertFalse(window.isLoaded(100));
+		assertNull(window.getMemory(100));
+
+		window.load(100);
+		// lines 92 to 111 are kept
+		assertTrue(window.isLoaded(100));
+		assertTrue(window.isLoaded(92));
+		assertTrue(window.isLoaded(108));
+		assertFalse(window.isLoaded(91));
+		assertFalse(window.isLoaded(109));
+		assertNull(window.getMemory(91));
+		assertNull(window.getMemory(112));
+		assertTrue(window.isMarginLoaded(100));
+		assertFalse(window.isMarginLoaded(105));
+
+		for (long line = 92; line < 112; line++) {
+			PackedMemory memory = window.getMemory(line);
+			assertEquals(UNITS_PER_LINE, memory.length());
+			for (int i = 0; i < memory.length(); i++) {
+				assertEquals((byte) (line * UNITS_PER_LINE + i), memory.getValue(i));
+			}
+		}
+	}
+
+	@Test
+	public void testScrollAcrossAddressSpace() throws Exception {
+		MemoryWindow window = createWindow(0x1000);
+		long step = window.getLineCount() / 64;
+		for (long top = 0; top < window.getLineCount(); top += step) {
+			long line = window.clampTopLine(top);
+			window.load(line);
+			assertTrue(window.isLoaded(line));
+			// only the visible lines and the margin are kept
+			assertNull(window.getMemory(line - MARGIN - 1));
+			assertNull(window.getMemory(line + VISIBLE_LINES + MARGIN));
+		}
+
+		long last = window.clampTopLine(Long.MAX_VALUE);
+		window.load(last);
+		assertTrue(window.isMarginLoaded(last));
+		PackedMemory memory = window.getMemory(window.getLineCount() - 1);
+		assertNotNull(memory);
+		// beyond the memory of the target
+		assertEquals(0, memory.getFlags(0) & MemoryByte.READABLE);
+	}
+}
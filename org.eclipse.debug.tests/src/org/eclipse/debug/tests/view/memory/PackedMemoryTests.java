@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests {@link PackedMemory}.
+ */
+public class PackedMemoryTests extends AbstractDebugTest {
+
+	private static final byte RW = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	@Test
+	public void testFromMemoryBytes() {
+		MemoryByte[] bytes = new MemoryByte[] {
+				new MemoryByte((byte) 1, RW), new MemoryByte((byte) 2, RW),
+				new MemoryByte((byte) 3, (byte) 0), new MemoryByte((byte) 4, RW) };
+		PackedMemory memory = PackedMemory.fromMemoryBytes(bytes);
+		assertEquals(4, memory.length());
+		assertFalse(memory.hasUniformFlags());
+		for (int i = 0; i < bytes.length; i++) {
+			assertEquals(bytes[i].getValue(), memory.getValue(i));
+			assertEquals(bytes[i].getFlags(), memory.getFlags(i));
+		}
+		MemoryByte[] copy = memory.toMemoryBytes(1, 2);
+		assertEquals(2, copy[0].getValue());
+		assertFalse(copy[1].isReadable());
+	}
+
+	@Test
+	public void testUniformFlags() {
+		PackedMemory memory = PackedMemory.fromMemoryBytes(new MemoryByte[] {
+				new MemoryByte((byte) 1, RW), new MemoryByte((byte) 2, RW) });
+		assertTrue(memory.hasUniformFlags());
+		memory.setFlags(MemoryByte.CHANGED, true);
+		assertTrue(memory.hasUniformFlags());
+		assertEquals(RW | MemoryByte.CHANGED, memory.getFlags(1));
+		memory.setFlags(0, RW);
+		assertFalse(memory.hasUniformFlags());
+		assertEquals(RW, memory.getFlags(0));
+		assertEquals(RW | MemoryByte.CHANGED, memory.getFlags(1));
+	}
+
+	@Test
+	public void testSliceSharesFlags() {
+		PackedMemory memory = new PackedMemory(new byte[] { 0, 1, 2, 3, 4, 5 }, RW);
+		PackedMemory slice = memory.slice(2, 3);
+		assertEquals(3, slice.length());
+		assertEquals(2, slice.getValue(0));
+		slice.setFlags(1, (byte) (RW | MemoryByte.CHANGED));
+		assertEquals(RW | MemoryByte.CHANGED, memory.getFlags(3));
+		assertEquals(RW, memory.getFlags(2));
+
+		ByteBuffer values = slice.getValues();
+		assertTrue(values.isReadOnly());
+		assertEquals(3, values.remaining());
+		assertEquals(4, values.get(2));
+
+		byte[] copiedValues = new byte[4];
+		byte[] copiedFlags = new byte[4];
+		slice.copyTo(0, copiedValues, copiedFlags, 1, 3);
+		assertArrayEquals(new byte[] { 0, 2, 3, 4 }, copiedValues);
+		assertArrayEquals(new byte[] { 0, RW, RW | MemoryByte.CHANGED, RW }, copiedFlags);
+
+		PackedMemory copy = slice.copy();
+		copy.setFlags(0, (byte) 0);
+		assertEquals(RW, slice.getFlags(0));
+	}
+
+	@Test
+	public void testSliceKeepsUniformFlags() {
+		PackedMemory memory = new PackedMemory(new byte[] { 0, 1, 2, 3, 4, 5 }, RW);
+		PackedMemory slice = memory.slice(2, 3);
+		assertTrue(slice.hasUniformFlags());
+		assertTrue(memory.hasUniformFlags());
+		assertTrue(slice.copy().hasUniformFlags());
+
+		// changes of the whole memory are seen by its views
+		memory.setFlags(MemoryByte.CHANGED, true);
+		assertTrue(slice.hasUniformFlags());
+		assertEquals(RW | MemoryByte.CHANGED, slice.getFlags(0));
+
+		// changes of a view only apply to its range
+		slice.setFlags(MemoryByte.CHANGED, false);
+		assertFalse(memory.hasUniformFlags());
+		assertEquals(RW | MemoryByte.CHANGED, memory.getFlags(1));
+		assertEquals(RW, memory.getFlags(2));
+		assertEquals(RW, memory.getFlags(4));
+		assertEquals(RW | MemoryByte.CHANGED, memory.getFlags(5));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSliceOutOfRange() {
+		new PackedMemory(4).slice(2, 3);
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.internal.ui.model.elements.ElementLabelProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.jface.viewers.TreePath;
+import org.junit.Test;
+
+/**
+ * Tests the number of jobs an element label provider retrieves labels with.
+ */
+public class ElementLabelProviderTests extends AbstractDebugTest {
+
+	private static final int UPDATES = 8;
+
+	/**
+	 * Label provider which records how many labels it retrieves at once. Each
+	 * label waits for the given number of labels to be retrieved at once, or
+	 * for a timeout.
+	 */
+	static class RecordingLabelProvider extends ElementLabelProvider {
+
+		final int fMaxJobs;
+		final CountDownLatch fConcurrent;
+		final long fTimeout;
+		final AtomicInteger fRunning = new AtomicInteger();
+		final AtomicInteger fMaxRunning = new AtomicInteger();
+
+		RecordingLabelProvider(int maxJobs, int concurrent, long timeout) {
+			fMaxJobs = maxJobs;
+			fConcurrent = new CountDownLatch(concurrent);
+			fTimeout = timeout;
+		}
+
+		@Override
+		protected String getLabel(TreePath elementPath, IPresentationContext presentationContext, String columnId) throws CoreException {
+			fMaxRunning.accumulateAndGet(fRunning.incrementAndGet(), Math::max);
+			try {
+				fConcurrent.countDown();
+				fConcurrent.await(fTimeout, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				fRunning.decrementAndGet();
+			}
+			return elementPath.getLastSegment().toString();
+		}
+
+		@Override
+		protected int getMaxLabelJobs(ILabelUpdate[] updates) {
+			return fMaxJobs > 0 ? fMaxJobs : super.getMaxLabelJobs(updates);
+		}
+	}
+
+	private final AtomicInteger fDone = new AtomicInteger();
+	private final String[] fLabels = new String[UPDATES];
+
+	@Test
+	public void testSingleJobByDefault() throws Exception {
+		RecordingLabelProvider provider = new RecordingLabelProvider(0, 2, 50);
+		provider.update(createUpdates());
+		waitWhile(t -> fDone.get() < UPDATES, t -> "Updates not done: " + fDone.get()); //$NON-NLS-1$
+		assertEquals(1, provider.fMaxRunning.get());
+		assertLabels();
+	}
+
+	@Test
+	public void testConcurrentJobs() throws Exception {
+		RecordingLabelProvider provider = new RecordingLabelProvider(4, 2, 10000);
+		provider.update(createUpdates());
+		waitWhile(t -> fDone.get() < UPDATES, t -> "Updates not done: " + fDone.get()); //$NON-NLS-1$
+		assertTrue(provider.fMaxRunning.get() > 1);
+		assertTrue(provider.fMaxRunning.get() <= 4);
+		assertLabels();
+	}
+
+	private void assertLabels() {
+		for (int i = 0; i < UPDATES; i++) {
+			assertEquals("element" + i, fLabels[i]); //$NON-NLS-1$
+		}
+	}
+
+	private ILabelUpdate[] createUpdates() {
+		ILabelUpdate[] updates = new ILabelUpdate[UPDATES];
+		for (int i = 0; i < UPDATES; i++) {
+			int index = i;
+			String element = "element" + i; //$NON-NLS-1$
+			updates[i] = (ILabelUpdate) Proxy.newProxyInstance(ElementLabelProviderTests.class.getClassLoader(), new Class<?>[] { ILabelUpdate.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getElement": //$NON-NLS-1$
+					return element;
+				case "getElementPath": //$NON-NLS-1$
+					return new TreePath(new Object[] { element });
+				case "isCanceled": //$NON-NLS-1$
+					return Boolean.FALSE;
+				case "setLabel": //$NON-NLS-1$
+					fLabels[index] = (String) args[0];
+					return null;
+				case "done": //$NON-NLS-1$
+					fDone.incrementAndGet();
+					return null;
+				case "equals": //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				case "hashCode": //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				default:
+					return null;
+				}
+			});
+		}
+		return updates;
+	}
+}
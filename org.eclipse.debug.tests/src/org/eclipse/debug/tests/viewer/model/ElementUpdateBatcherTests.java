@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.internal.ui.model.elements.ElementUpdateBatcher;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IBatchUpdateHandler;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IChildrenCountUpdate;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests that updates for elements of debug targets with a batch update handler
+ * are answered in bulk.
+ */
+public class ElementUpdateBatcherTests extends AbstractDebugTest {
+
+	/**
+	 * Handler recording the batches it answered.
+	 */
+	static class RecordingHandler implements IBatchUpdateHandler {
+
+		final List<IViewerUpdate[]> fBatches = new ArrayList<>();
+		final boolean fLabels;
+
+		RecordingHandler(boolean labels) {
+			fLabels = labels;
+		}
+
+		@Override
+		public boolean canUpdate(IViewerUpdate update) {
+			return fLabels || !(update instanceof ILabelUpdate);
+		}
+
+		@Override
+		public synchronized void update(IViewerUpdate[] updates, IProgressMonitor monitor) {
+			fBatches.add(updates);
+		}
+
+		synchronized int getBatchCount() {
+			return fBatches.size();
+		}
+	}
+
+	private final AtomicInteger fDone = new AtomicInteger();
+
+	@Test
+	public void testBatchPerTarget() throws Exception {
+		RecordingHandler handler = new RecordingHandler(true);
+		IDebugTarget batched = createTarget(handler);
+		IDebugTarget plain = createTarget(null);
+
+		IChildrenCountUpdate[] counts = new IChildrenCountUpdate[100];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = createUpdate(IChildrenCountUpdate.class, createElement(i % 2 == 0 ? batched : plain), false);
+		}
+		ILabelUpdate[] labels = new ILabelUpdate[50];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = createUpdate(ILabelUpdate.class, createElement(batched), false);
+		}
+
+		IChildrenCountUpdate[] remainingCounts = ElementUpdateBatcher.getDefault().queue(counts);
+		ILabelUpdate[] remainingLabels = ElementUpdateBatcher.getDefault().queue(labels);
+		assertEquals(50, remainingCounts.length);
+		for (int i = 0; i < remainingCounts.length; i++) {
+			assertSame(counts[2 * i + 1], remainingCounts[i]);
+		}
+		assertEquals(0, remainingLabels.length);
+
+		waitWhile(t -> fDone.get() < 100, t -> "Updates not done: " + fDone.get()); //$NON-NLS-1$
+		assertEquals(1, handler.getBatchCount());
+		Set<IViewerUpdate> expected = new HashSet<>(Arrays.asList(labels));
+		for (int i = 0; i < counts.length; i += 2) {
+			expected.add(counts[i]);
+		}
+		assertEquals(expected, new HashSet<>(Arrays.asList(handler.fBatches.get(0))));
+	}
+
+	@Test
+	public void testUnsupportedAndCanceledUpdates() throws Exception {
+		RecordingHandler handler = new RecordingHandler(false);
+		IDebugTarget target = createTarget(handler);
+
+		ILabelUpdate[] labels = new ILabelUpdate[] {
+				createUpdate(ILabelUpdate.class, createElement(target), false) };
+		assertSame(labels, ElementUpdateBatcher.getDefault().queue(labels));
+
+		IChildrenCountUpdate[] counts = new IChildrenCountUpdate[] {
+				createUpdate(IChildrenCountUpdate.class, createElement(target), false),
+				createUpdate(IChildrenCountUpdate.class, createElement(target), true) };
+		assertEquals(0, ElementUpdateBatcher.getDefault().queue(counts).length);
+
+		waitWhile(t -> fDone.get() < 2, t -> "Updates not done: " + fDone.get()); //$NON-NLS-1$
+		assertEquals(1, handler.getBatchCount());
+		assertEquals(1, handler.fBatches.get(0).length);
+		assertSame(counts[0], handler.fBatches.get(0)[0]);
+	}
+
+	@Test
+	public void testHandlerReleasedOnTerminate() throws Exception {
+		AtomicInteger lookups = new AtomicInteger();
+		IDebugTarget target = createTarget(null, lookups);
+		ILabelUpdate[] labels = new ILabelUpdate[] {
+				createUpdate(ILabelUpdate.class, createElement(target), false) };
+		ElementUpdateBatcher.getDefault().queue(labels);
+		ElementUpdateBatcher.getDefault().queue(labels);
+		assertEquals(1, lookups.get());
+
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+				new DebugEvent(target, DebugEvent.TERMINATE) });
+		// the target is looked up again once the batcher forgot it
+		waitWhile(t -> {
+			ElementUpdateBatcher.getDefault().queue(labels);
+			return lookups.get() < 2;
+		}, t -> "Handler not released"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRescheduledFinishedJob() throws Exception {
+		List<Job> jobs = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch release = new CountDownLatch(1);
+		IBatchUpdateHandler handler = new IBatchUpdateHandler() {
+			@Override
+			public boolean canUpdate(IViewerUpdate update) {
+				return true;
+			}
+
+			@Override
+			public void update(IViewerUpdate[] updates, IProgressMonitor monitor) {
+				jobs.add(Job.getJobManager().currentJob());
+				if (jobs.size() == 2) {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		IDebugTarget target = createTarget(handler);
+		ElementUpdateBatcher batcher = ElementUpdateBatcher.getDefault();
+		try {
+			batcher.queue(new ILabelUpdate[] { createUpdate(ILabelUpdate.class, createElement(target), false) });
+			waitWhile(t -> fDone.get() < 1, t -> "First update not done"); //$NON-NLS-1$
+			Job finished = jobs.get(0);
+			finished.join();
+
+			// a new job answers the next update and is kept busy
+			batcher.queue(new ILabelUpdate[] { createUpdate(ILabelUpdate.class, createElement(target), false) });
+			waitWhile(t -> jobs.size() < 2, t -> "Second update not started"); //$NON-NLS-1$
+
+			// an extra run of the finished job must not forget the new job
+			finished.schedule();
+			finished.join();
+			batcher.queue(new ILabelUpdate[] { createUpdate(ILabelUpdate.class, createElement(target), false) });
+		} finally {
+			release.countDown();
+		}
+		waitWhile(t -> fDone.get() < 3, t -> "Updates not done: " + fDone.get()); //$NON-NLS-1$
+		assertEquals(3, jobs.size());
+		assertSame(jobs.get(1), jobs.get(2));
+	}
+
+	private static IDebugTarget createTarget(IBatchUpdateHandler handler) {
+		return createTarget(handler, new AtomicInteger());
+	}
+
+	private static IDebugTarget createTarget(IBatchUpdateHandler handler, AtomicInteger lookups) {
+		IDebugTarget[] target = new IDebugTarget[1];
+		target[0] = (IDebugTarget) Proxy.newProxyInstance(ElementUpdateBatcherTests.class.getClassLoader(), new Class<?>[] { IDebugTarget.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getAdapter": //$NON-NLS-1$
+				if (args[0] == IBatchUpdateHandler.class) {
+					lookups.incrementAndGet();
+					return handler;
+				}
+				return null;
+			case "getDebugTarget": //$NON-NLS-1$
+				return target[0];
+			default:
+				return objectMethod(proxy, method.getName(), args);
+			}
+		});
+		return target[0];
+	}
+
+	private static IDebugElement createElement(IDebugTarget target) {
+		return (IDebugElement) Proxy.newProxyInstance(ElementUpdateBatcherTests.class.getClassLoader(), new Class<?>[] { IDebugElement.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getDebugTarget": //$NON-NLS-1$
+				return target;
+			default:
+				return objectMethod(proxy, method.getName(), args);
+			}
+		});
+	}
+
+	private <T extends IViewerUpdate> T createUpdate(Class<T> type, Object element, boolean canceled) {
+		return type.cast(Proxy.newProxyInstance(ElementUpdateBatcherTests.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getElement": //$NON-NLS-1$
+				return element;
+			case "isCanceled": //$NON-NLS-1$
+				return Boolean.valueOf(canceled);
+			case "done": //$NON-NLS-1$
+				fDone.incrementAndGet();
+				return null;
+			default:
+				return objectMethod(proxy, method.getName(), args);
+			}
+		}));
+	}
+
+	private static Object objectMethod(Object proxy, String name, Object[] args) {
+		switch (name) {
+		case "equals": //$NON-NLS-1$
+			return Boolean.valueOf(proxy == args[0]);
+		case "hashCode": //$NON-NLS-1$
+			return Integer.valueOf(System.identityHashCode(proxy));
+		case "toString": //$NON-NLS-1$
+			return "Proxy@" + Integer.toHexString(System.identityHashCode(proxy)); //$NON-NLS-1$
+		default:
+			return null;
+		}
+	}
+}
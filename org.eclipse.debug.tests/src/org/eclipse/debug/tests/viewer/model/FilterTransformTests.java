@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,13 @@ package org.eclipse.debug.tests.viewer.model;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Random;
+import java.util.TreeSet;
+
 import org.eclipse.debug.internal.ui.viewers.model.FilterTransform;
 import org.eclipse.debug.tests.AbstractDebugTest;
 import org.eclipse.jface.viewers.TreePath;
@@ -158,4 +162,49 @@ public class FilterTransformTests extends AbstractDebugTest {
 			"FilterTransform$Node in a consistent state"); //$NON-NLS-1$
 		}
 	}
+
+	@Test
+	public void testSetModelChildCount() {
+		transform.setModelChildCount(TreePath.EMPTY, 4);
+		assertArrayEquals("Wrong filter state", new int[] { 0, 2, 3 }, transform.getFilteredChildren(TreePath.EMPTY)); //$NON-NLS-1$
+		assertEquals("Wrong model count", 4, transform.viewToModelCount(TreePath.EMPTY, 1)); //$NON-NLS-1$
+		transform.setModelChildCount(TreePath.EMPTY, 0);
+		assertNull("Filters should be cleared", transform.getFilteredChildren(TreePath.EMPTY)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Filters most children of a large parent in random order and compares
+	 * the index translation with a straight forward computation.
+	 */
+	@Test
+	public void testLargeFilteredParent() {
+		transform.clear();
+		Random random = new Random(42);
+		TreeSet<Integer> filtered = new TreeSet<>();
+		int count = 20000;
+		for (int i = 0; i < count * 9 / 10; i++) {
+			int index = random.nextInt(count);
+			assertEquals(filtered.add(index), transform.addFilteredIndex(TreePath.EMPTY, index, Integer.valueOf(index)));
+		}
+		for (int i = 0; i < count / 10; i++) {
+			int index = random.nextInt(count);
+			filtered.remove(index);
+			transform.clear(TreePath.EMPTY, index);
+		}
+		int viewIndex = 0;
+		for (int modelIndex = 0; modelIndex < count; modelIndex++) {
+			if (filtered.contains(modelIndex)) {
+				assertTrue(transform.isFiltered(TreePath.EMPTY, modelIndex));
+				assertEquals(-1, transform.modelToViewIndex(TreePath.EMPTY, modelIndex));
+			} else {
+				assertEquals(viewIndex, transform.modelToViewIndex(TreePath.EMPTY, modelIndex));
+				assertEquals(modelIndex, transform.viewToModelIndex(TreePath.EMPTY, viewIndex));
+				viewIndex++;
+			}
+		}
+		assertEquals(count, transform.viewToModelCount(TreePath.EMPTY, viewIndex));
+		assertEquals(viewIndex, transform.modelToViewCount(TreePath.EMPTY, count));
+		int first = filtered.first().intValue();
+		assertEquals(first, transform.indexOfFilteredElement(TreePath.EMPTY, Integer.valueOf(first)));
+	}
 }
@@ -14,9 +14,18 @@
  *******************************************************************************/
 package org.eclipse.debug.tests.viewer.model;
 
+import static org.junit.Assert.assertEquals;
+
 import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.TreeModelContentProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.TreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.provisional.AbstractModelProxy;
+import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
+import org.eclipse.jface.viewers.ITreeSelection;
+import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
@@ -39,4 +48,94 @@ public class JFaceViewerDeltaTests extends DeltaTests {
 	@Test
 	public void testBug292322() {
 	}
+
+	/**
+	 * Test that label deltas posted by a background thread are merged into
+	 * one delta before they are applied.
+	 */
+	@Test
+	public void testMergeQueuedDeltas() throws Exception {
+		TestModel model = TestModel.simpleSingleLevel();
+		fViewer.setAutoExpandLevel(-1);
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+
+		TreeModelContentProvider contentProvider = (TreeModelContentProvider) ((TreeModelViewer) fViewer).getContentProvider();
+		int received = contentProvider.getReceivedDeltaCount();
+		int applied = contentProvider.getAppliedDeltaCount();
+
+		// Post the deltas while the UI thread is blocked, so that they are
+		// queued together
+		TestElement[] children = model.getRootElement().getChildren();
+		fListener.reset();
+		ModelDelta[] deltas = new ModelDelta[3];
+		for (int i = 0; i < deltas.length; i++) {
+			TreePath path = new TreePath(new Object[] { children[i] });
+			deltas[i] = model.appendElementLabel(path, "-modified"); //$NON-NLS-1$
+			fListener.addLabelUpdate(path);
+		}
+		Thread poster = new Thread(() -> {
+			for (ModelDelta delta : deltas) {
+				model.postDelta(delta);
+			}
+		});
+		poster.start();
+		poster.join();
+		waitWhile(t -> !fListener.isFinished(LABEL_COMPLETE | MODEL_CHANGED_COMPLETE), createListenerErrorMessage());
+
+		assertEquals(received + 3, contentProvider.getReceivedDeltaCount());
+		assertEquals(applied + 1, contentProvider.getAppliedDeltaCount());
+		model.validateData(fViewer, TreePath.EMPTY);
+	}
+
+	/**
+	 * Test that queued deltas of different proxies are applied in the order
+	 * they were posted, even when deltas of one proxy could be merged.
+	 */
+	@Test
+	public void testInterleavedProxyDeltas() throws Exception {
+		TestModel model = TestModel.simpleSingleLevel();
+		fViewer.setAutoExpandLevel(-1);
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+
+		TreeModelViewer viewer = (TreeModelViewer) fViewer;
+		TreeModelContentProvider contentProvider = (TreeModelContentProvider) viewer.getContentProvider();
+		// a second proxy posting deltas rooted at the same input
+		AbstractModelProxy other = new AbstractModelProxy() {
+		};
+		other.init(viewer.getPresentationContext());
+		other.installed(viewer);
+		other.addModelChangedListener(contentProvider);
+		try {
+			int received = contentProvider.getReceivedDeltaCount();
+			int applied = contentProvider.getAppliedDeltaCount();
+			TestElement[] children = model.getRootElement().getChildren();
+			Thread poster = new Thread(() -> {
+				model.postDelta(createSelectDelta(model, 0));
+				other.fireModelChanged(createSelectDelta(model, 1));
+				model.postDelta(createSelectDelta(model, 2));
+			});
+			poster.start();
+			poster.join();
+			waitWhile(t -> contentProvider.getReceivedDeltaCount() < received + 3, t -> "Deltas not received"); //$NON-NLS-1$
+
+			assertEquals(applied + 3, contentProvider.getAppliedDeltaCount());
+			TreePath[] selection = ((ITreeSelection) viewer.getSelection()).getPaths();
+			assertEquals(1, selection.length);
+			assertEquals(new TreePath(new Object[] { children[2] }), selection[0]);
+		} finally {
+			other.dispose();
+		}
+	}
+
+	private static ModelDelta createSelectDelta(TestModel model, int index) {
+		TestElement root = model.getRootElement();
+		TestElement element = root.getChildren()[index];
+		ModelDelta delta = new ModelDelta(root, -1, IModelDelta.NO_CHANGE, root.getChildren().length);
+		delta.addNode(element, index, IModelDelta.SELECT, element.getChildren().length);
+		return delta;
+	}
 }
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.TreeModelViewer;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.jface.viewers.IBasicPropertyConstants;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+
+/**
+ * Runs the label cache tests with the JFace viewer.
+ */
+public class JFaceViewerLabelCacheTests extends LabelCacheTests {
+
+	private static final String[] TEXT = new String[] { IBasicPropertyConstants.P_TEXT };
+
+	@Override
+	protected IInternalTreeModelViewer createViewer(Display display, Shell shell) {
+		return new TreeModelViewer(fShell, SWT.VIRTUAL, new PresentationContext("TestViewer")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Items filled again without an update of their elements show the cached
+	 * labels.
+	 */
+	@Test
+	public void testCacheHit() throws Exception {
+		setInput();
+		int labelUpdates = fModel.fLabelUpdates.get();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		((TreeModelViewer) fViewer).getTree().clearAll(true);
+		waitWhile(t -> ((TreeModelViewer) fViewer).getTree().getItem(0).getText().isEmpty(), t -> "Item not filled"); //$NON-NLS-1$
+		TestUtil.processUIEvents();
+		assertEquals("1", getLabel()); //$NON-NLS-1$
+		assertEquals(labelUpdates, fModel.fLabelUpdates.get());
+	}
+
+	@Test
+	public void testUpdateProperties() throws Exception {
+		setInput();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		((TreeModelViewer) fViewer).update(fElement, TEXT);
+		waitForLabel("1-changed"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testUpdateElementsProperties() throws Exception {
+		setInput();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		((TreeModelViewer) fViewer).update(new Object[] { fElement }, TEXT);
+		waitForLabel("1-changed"); //$NON-NLS-1$
+	}
+}
@@ -13,12 +13,19 @@
  *******************************************************************************/
 package org.eclipse.debug.tests.viewer.model;
 
+import static org.junit.Assert.assertEquals;
+
 import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.ITreeModelContentProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PrefetchPolicy;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.TreeModelViewer;
+import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
+import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
 
 /**
  * @since 3.6
@@ -29,4 +36,35 @@ public class JFaceViewerLazyTests extends LazyTests {
 	protected IInternalTreeModelViewer createViewer(Display display, Shell shell) {
 		return new TreeModelViewer(fShell, SWT.VIRTUAL, new PresentationContext("TestViewer")); //$NON-NLS-1$
 	}
+
+	/**
+	 * Test that scrolling down a large list retrieves the page of elements
+	 * below the visible area ahead of time.
+	 */
+	@Test
+	public void testPrefetchWhileScrolling() throws Exception {
+		TestModel model = largeSubtreeModel(1000);
+		fViewer.getPresentationContext().setProperty(PrefetchPolicy.PROP_PREFETCH_POLICY, new PrefetchPolicy(1, 0, 100));
+
+		// Populate initial view content, with the large list expanded
+		fViewer.setAutoExpandLevel(-1);
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, false, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(CONTENT_SEQUENCE_COMPLETE), createListenerErrorMessage());
+
+		// Scroll from the top of the list to element 100, with 20 visible rows
+		TreePath listPath = model.findElement("1"); //$NON-NLS-1$
+		fListener.reset();
+		fListener.setFailOnRedundantUpdates(false);
+		for (int i = 120; i < 140; i++) {
+			fListener.addChildreUpdate(listPath, i);
+		}
+		ITreeModelContentProvider contentProvider = (ITreeModelContentProvider) ((TreeModelViewer) fViewer).getContentProvider();
+		contentProvider.viewportChanged(listPath, 0, 20);
+		contentProvider.viewportChanged(listPath, 100, 20);
+		waitWhile(t -> !fListener.isFinished(CHILDREN_UPDATES), createListenerErrorMessage());
+
+		TestElement list = model.getElement(listPath);
+		assertEquals(list.getChildren()[130], fViewer.getChildElement(listPath, 130));
+	}
 }
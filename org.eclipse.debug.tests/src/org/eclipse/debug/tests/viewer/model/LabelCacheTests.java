@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ILabelUpdate;
+import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.ViewerLabel;
+import org.junit.Test;
+
+/**
+ * Tests that the labels cached by the viewer are discarded when the viewer
+ * updates or refreshes their elements.
+ */
+abstract public class LabelCacheTests extends AbstractViewerModelTest {
+
+	/**
+	 * Model counting the label updates it answers.
+	 */
+	static class CountingModel extends TestModel {
+		final AtomicInteger fLabelUpdates = new AtomicInteger();
+
+		@Override
+		public void update(ILabelUpdate[] updates) {
+			fLabelUpdates.addAndGet(updates.length);
+			super.update(updates);
+		}
+	}
+
+	CountingModel fModel;
+	TestElement fElement;
+	TreePath fElementPath;
+
+	@Override
+	protected TestModelUpdatesListener createListener(IInternalTreeModelViewer viewer) {
+		return new TestModelUpdatesListener(viewer, false, false);
+	}
+
+	/**
+	 * Shows a single level model and waits for its labels.
+	 */
+	void setInput() throws Exception {
+		fModel = new CountingModel();
+		fModel.setRoot(new TestElement(fModel, "root", TestModel.makeSingleLevelModelElements(fModel, 6, ""))); //$NON-NLS-1$ //$NON-NLS-2$
+		setInput(new TreePath(new Object[] { fModel.getRootElement().getChildren()[0] }));
+		assertEquals("1", getLabel()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Shows the model, expanded to all levels, and waits for its labels.
+	 */
+	void setInput(TreePath elementPath) throws Exception {
+		fListener.reset(TreePath.EMPTY, fModel.getRootElement(), -1, true, false);
+		fViewer.setInput(fModel.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+		fElement = (TestElement) elementPath.getLastSegment();
+		fElementPath = elementPath;
+	}
+
+	String getLabel() {
+		ViewerLabel label = fViewer.getElementLabel(fElementPath, null);
+		return label != null ? label.getText() : null;
+	}
+
+	void waitForLabel(String expected) throws Exception {
+		waitWhile(t -> !expected.equals(getLabel()), t -> "Label not updated: " + getLabel()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testUpdate() throws Exception {
+		setInput();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		fViewer.update(fElement);
+		waitForLabel("1-changed"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRefresh() throws Exception {
+		setInput();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		fViewer.refresh(fModel.getRootElement());
+		waitForLabel("1-changed"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRefreshAll() throws Exception {
+		setInput();
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		fViewer.refresh();
+		waitForLabel("1-changed"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRefreshSubtree() throws Exception {
+		fModel = new CountingModel();
+		fModel.setRoot(new TestElement(fModel, "root", TestModel.makeMultiLevelElements(fModel, 3, ""))); //$NON-NLS-1$ //$NON-NLS-2$
+		fViewer.setAutoExpandLevel(-1);
+		TestElement parent = fModel.getRootElement().getChildren()[2];
+		TestElement child = parent.getChildren()[1];
+		setInput(new TreePath(new Object[] { parent, child, child.getChildren()[0] }));
+		assertEquals("2.1.0", getLabel()); //$NON-NLS-1$
+
+		fElement.setLabelAppendix("-changed"); //$NON-NLS-1$
+		fViewer.refresh(parent);
+		waitForLabel("2.1.0-changed"); //$NON-NLS-1$
+	}
+}
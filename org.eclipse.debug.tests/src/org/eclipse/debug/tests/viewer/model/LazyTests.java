@@ -49,7 +49,7 @@ abstract public class LazyTests extends AbstractViewerModelTest implements ITest
 	 *     ...
 	 *     1.(size)
 	 */
-	private TestModel largeSubtreeModel(int size) {
+	TestModel largeSubtreeModel(int size) {
 		TestModel model = new TestModel();
 		TestElement[] children = new TestElement[size];
 		for (int i = 0; i < size; i++) {
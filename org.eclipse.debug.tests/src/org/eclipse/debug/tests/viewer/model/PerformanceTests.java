@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Wind River Systems and others.
+ * Copyright (c) 2009, 2020 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -222,6 +222,56 @@ abstract public class PerformanceTests extends AbstractViewerModelTest implement
 		}
 	}
 
+	/**
+	 * Stress test for the request queues of the content provider: posts a burst
+	 * of content deltas for a large list without waiting for the updates in
+	 * between, so that many requests for the same parent are waiting and
+	 * coalesced at the same time.
+	 */
+	@Test
+	public void testRefreshListBurst() throws Exception {
+		TestModel model = new TestModel();
+		model.setRoot(new TestElement(model, "root", new TestElement[0])); //$NON-NLS-1$
+		int numElements = (int)Math.pow(2, getTestModelDepth()) * 4;
+		model.setElementChildren(TreePath.EMPTY, TestModel.makeSingleLevelModelElements(model, numElements, "model.")); //$NON-NLS-1$
+
+		fViewer.setAutoExpandLevel(-1);
+
+		// Create the listener
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), -1, true, false);
+
+		// Set the input into the view and update the view.
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+		model.validateData(fViewer, TreePath.EMPTY);
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 20; i++) {
+				// Update the model
+				model.setAllAppendix(" - pass " + i); //$NON-NLS-1$
+
+				TestElement element = model.getRootElement();
+				fListener.reset();
+
+				meter.start();
+				for (int j = 0; j < 10; j++) {
+					model.postDelta(new ModelDelta(element, IModelDelta.CONTENT));
+				}
+				waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE | MODEL_CHANGED_COMPLETE), createListenerErrorMessage());
+				meter.stop();
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+		model.validateData(fViewer, TreePath.EMPTY);
+	}
+
 	@Test
 	public void testSaveAndRestore() throws Exception {
 		//TreeModelViewerAutopopulateAgent autopopulateAgent = new TreeModelViewerAutopopulateAgent(fViewer);
@@ -911,6 +911,47 @@ new TreePath[] { model.findElement("5"), model.findElement("5.1"), model.findEle
 		}
 	}
 
+	/**
+	 * Tests that restoring the state of elements which were encoded when the
+	 * state was saved does not ask the model to compare them again.
+	 */
+	@Test
+	public void testSaveAndRestoreWithoutCompare() throws Exception {
+		TestModel model = alternatingSubsreesModel(6);
+
+		// Set the input into the view and update the view.
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), 1, true, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(), createListenerErrorMessage());
+
+		// Expand some, but not all elements
+		expandAlternateElements(fListener, model, true);
+
+		// Extract the original state from viewer
+		ModelDelta originalState = new ModelDelta(model.getRootElement(), IModelDelta.NO_CHANGE);
+		fViewer.saveElementState(TreePath.EMPTY, originalState, IModelDelta.EXPAND);
+
+		// Set the viewer input to null.  This will trigger the view to save the viewer state.
+		fListener.reset(false, false);
+		fListener.addStateUpdates(getInternalViewer(), originalState, IModelDelta.EXPAND);
+		fViewer.setInput(null);
+		waitWhile(t -> !fListener.isFinished(STATE_SAVE_COMPLETE | STATE_UPDATES), createListenerErrorMessage());
+
+		// Set the viewer input back to the model and wait for the state restore.
+		fListener.reset(TreePath.EMPTY, model.getRootElement(), 1, false, false);
+		fViewer.setInput(model.getRootElement());
+		waitWhile(t -> !fListener.isFinished(STATE_RESTORE_COMPLETE), createListenerErrorMessage());
+
+		// Extract the restored state from viewer
+		ModelDelta restoredState = new ModelDelta(model.getRootElement(), IModelDelta.NO_CHANGE);
+		fViewer.saveElementState(TreePath.EMPTY, restoredState, IModelDelta.EXPAND);
+
+		if (!deltaMatches(originalState, restoredState)) {
+			fail("Expected:\n" + originalState + "\nGot:\n" + restoredState); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertEquals(0, model.getCompareRequestCount());
+	}
+
 	@Test
 	public void testSaveAndRestore2() throws Exception {
 		//TreeModelViewerAutopopulateAgent autopopulateAgent = new TreeModelViewerAutopopulateAgent(fViewer);
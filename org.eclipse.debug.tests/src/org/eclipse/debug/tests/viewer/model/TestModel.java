@@ -179,6 +179,7 @@ public class TestModel implements IElementContentProvider, IElementLabelProvider
 	private boolean fQueueingUpdates = false;
 	private boolean fDelayUpdates = false;
 	private List<IViewerUpdate> fQueuedUpdates = new LinkedList<>();
+	private int fCompareRequestCount = 0;
 
 	/**
 	 * Constructor private.  Use static factory methods instead.
@@ -345,7 +346,12 @@ public class TestModel implements IElementContentProvider, IElementLabelProvider
 		doUpdate(updates);
 	}
 
+	public int getCompareRequestCount() {
+		return fCompareRequestCount;
+	}
+
 	private void doCompareElements(IElementCompareRequest update) {
+		fCompareRequestCount++;
 		String elementID = ((TestElement)update.getElement()).getID();
 		String mementoID = update.getMemento().getString(ELEMENT_MEMENTO_ID);
 		update.setEqual( elementID.equals(mementoID) );
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IIndexedValue;
+import org.eclipse.debug.core.model.IVariable;
+import org.eclipse.debug.internal.ui.model.elements.VariableContentProvider;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.ui.IDebugUIConstants;
+import org.junit.Test;
+
+/**
+ * Tests that the partitions of large indexed values are created on demand.
+ */
+public class VariableContentProviderTests extends AbstractDebugTest {
+
+	/**
+	 * Content provider exposing the computation of children, counting the
+	 * requests for all children of an element.
+	 */
+	static class TestContentProvider extends VariableContentProvider {
+
+		final boolean fLazy;
+		final IPresentationContext fContext = new PresentationContext(IDebugUIConstants.ID_VARIABLE_VIEW);
+		final AtomicInteger fAllChildrenRequests = new AtomicInteger();
+
+		TestContentProvider(boolean lazy) {
+			fLazy = lazy;
+		}
+
+		@Override
+		protected boolean supportsLazyPartitions() {
+			return fLazy;
+		}
+
+		@Override
+		protected Object[] getAllChildren(Object parent, IPresentationContext context) throws CoreException {
+			fAllChildrenRequests.incrementAndGet();
+			return super.getAllChildren(parent, context);
+		}
+
+		int getChildCount(Object element) throws CoreException {
+			return getChildCount(element, fContext, null);
+		}
+
+		Object[] getChildren(Object parent, int index, int length) throws CoreException {
+			return getChildren(parent, index, length, fContext, null);
+		}
+	}
+
+	private final AtomicInteger fSizeRequests = new AtomicInteger();
+
+	@Test
+	public void testPartitionBoundaries() throws Exception {
+		TestContentProvider provider = new TestContentProvider(true);
+		IVariable variable = createVariable("array", createValue(250)); //$NON-NLS-1$
+		assertEquals(3, provider.getChildCount(variable));
+		Object[] partitions = provider.getChildren(variable, 1, 5);
+		assertEquals(2, partitions.length);
+		assertEquals("[100...199]", ((IVariable) partitions[0]).getName()); //$NON-NLS-1$
+		assertEquals("[200...249]", ((IVariable) partitions[1]).getName()); //$NON-NLS-1$
+		assertNull(provider.getChildren(variable, 3, 1));
+
+		Object[] elements = provider.getChildren(partitions[1], 0, 100);
+		assertEquals(50, elements.length);
+		assertEquals("[200]", ((IVariable) elements[0]).getName()); //$NON-NLS-1$
+		assertEquals("[249]", ((IVariable) elements[49]).getName()); //$NON-NLS-1$
+		assertEquals(1, provider.fAllChildrenRequests.get());
+	}
+
+	@Test
+	public void testNestedPartitions() throws Exception {
+		TestContentProvider provider = new TestContentProvider(true);
+		IVariable variable = createVariable("array", createValue(12345)); //$NON-NLS-1$
+		// partitions of 10000 elements, each of partitions of 100 elements
+		assertEquals(2, provider.getChildCount(variable));
+		Object[] partitions = provider.getChildren(variable, 0, 2);
+		assertEquals("[0...9999]", ((IVariable) partitions[0]).getName()); //$NON-NLS-1$
+		assertEquals("[10000...12344]", ((IVariable) partitions[1]).getName()); //$NON-NLS-1$
+
+		assertEquals(24, provider.getChildCount(partitions[1]));
+		Object[] nested = provider.getChildren(partitions[1], 22, 2);
+		assertEquals("[12200...12299]", ((IVariable) nested[0]).getName()); //$NON-NLS-1$
+		assertEquals("[12300...12344]", ((IVariable) nested[1]).getName()); //$NON-NLS-1$
+		assertEquals(45, provider.getChildCount(nested[1]));
+		assertEquals(1, provider.fAllChildrenRequests.get());
+	}
+
+	@Test
+	public void testEagerPartitions() throws Exception {
+		TestContentProvider provider = new TestContentProvider(false);
+		IVariable variable = createVariable("array", createValue(250)); //$NON-NLS-1$
+		assertEquals(3, provider.getChildCount(variable));
+		assertEquals("[200...249]", ((IVariable) provider.getChildren(variable, 2, 1)[0]).getName()); //$NON-NLS-1$
+		// all partitions are created by getAllChildren()
+		assertEquals(2, provider.fAllChildrenRequests.get());
+	}
+
+	@Test
+	public void testSizeCacheClearedOnSuspend() throws Exception {
+		TestContentProvider provider = new TestContentProvider(true);
+		IVariable variable = createVariable("array", createValue(250)); //$NON-NLS-1$
+		assertEquals(3, provider.getChildCount(variable));
+		provider.getChildren(variable, 0, 3);
+		int requests = fSizeRequests.get();
+		assertEquals(3, provider.getChildCount(variable));
+		assertEquals(requests, fSizeRequests.get());
+
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+				new DebugEvent(variable, DebugEvent.SUSPEND, DebugEvent.BREAKPOINT) });
+		waitWhile(t -> {
+			try {
+				provider.getChildCount(variable);
+			} catch (CoreException e) {
+				throw new IllegalStateException(e);
+			}
+			return fSizeRequests.get() == requests;
+		}, t -> "Size not retrieved again after suspend"); //$NON-NLS-1$
+
+		int resumed = fSizeRequests.get();
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+				new DebugEvent(variable, DebugEvent.RESUME, DebugEvent.CLIENT_REQUEST) });
+		waitWhile(t -> {
+			try {
+				provider.getChildCount(variable);
+			} catch (CoreException e) {
+				throw new IllegalStateException(e);
+			}
+			return fSizeRequests.get() == resumed;
+		}, t -> "Size not retrieved again after resume"); //$NON-NLS-1$
+	}
+
+	private IVariable createVariable(String name, Object value) {
+		return (IVariable) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IVariable.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getName": //$NON-NLS-1$
+					return name;
+				case "getValue": //$NON-NLS-1$
+					return value;
+				case "hashCode": //$NON-NLS-1$
+					return System.identityHashCode(proxy);
+				case "equals": //$NON-NLS-1$
+					return proxy == args[0];
+				default:
+					return null;
+			}
+		});
+	}
+
+	private IIndexedValue createValue(int size) {
+		return (IIndexedValue) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IIndexedValue.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getSize": //$NON-NLS-1$
+					fSizeRequests.incrementAndGet();
+					return size;
+				case "getInitialOffset": //$NON-NLS-1$
+					return 0;
+				case "hasVariables": //$NON-NLS-1$
+					return size > 0;
+				case "getVariables": //$NON-NLS-1$
+					int offset = args == null ? 0 : (Integer) args[0];
+					int length = args == null ? size : (Integer) args[1];
+					IVariable[] variables = new IVariable[length];
+					for (int i = 0; i < length; i++) {
+						variables[i] = createVariable("[" + (offset + i) + "]", null); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+					return variables;
+				case "hashCode": //$NON-NLS-1$
+					return System.identityHashCode(proxy);
+				case "equals": //$NON-NLS-1$
+					return proxy == args[0];
+				default:
+					return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualItem;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualItem.Index;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualTree;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.swt.SWT;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the child item storage of {@link VirtualItem}.
+ */
+public class VirtualItemTests extends AbstractDebugTest {
+
+	private VirtualTree fTree;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fTree = new VirtualTree(SWT.NONE, null);
+		fTree.setData("root"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testAddItem() {
+		fTree.setItemCount(5);
+		VirtualItem[] items = createItems(5);
+		VirtualItem added = fTree.addItem(2);
+		assertEquals(6, fTree.getItemCount());
+		assertEquals(2, added.getIndex().intValue());
+		assertEquals(0, items[0].getIndex().intValue());
+		assertEquals(1, items[1].getIndex().intValue());
+		assertEquals(3, items[2].getIndex().intValue());
+		assertEquals(5, items[4].getIndex().intValue());
+		assertSame(added, fTree.getItem(new Index(2)));
+		assertSame(items[2], fTree.getItem(new Index(3)));
+	}
+
+	@Test
+	public void testRemove() {
+		fTree.setItemCount(5);
+		VirtualItem[] items = createItems(5);
+		fTree.remove(items[1].getIndex());
+		assertEquals(4, fTree.getItemCount());
+		assertTrue(items[1].isDisposed());
+		assertEquals(1, items[1].getIndex().intValue());
+		assertEquals(1, items[2].getIndex().intValue());
+		assertEquals(3, items[4].getIndex().intValue());
+		assertEquals(4, fTree.getItems().length);
+		assertSame(items[3], fTree.getItem(new Index(2)));
+	}
+
+	@Test
+	public void testSparseItems() {
+		fTree.setItemCount(100000);
+		VirtualItem first = fTree.getItem(new Index(5));
+		VirtualItem middle = fTree.getItem(new Index(50000));
+		VirtualItem last = fTree.getItem(new Index(99999));
+		assertEquals(3, fTree.getItems().length);
+
+		// remove and insert items which have not been created
+		fTree.remove(new Index(7));
+		assertEquals(5, first.getIndex().intValue());
+		assertEquals(49999, middle.getIndex().intValue());
+		assertEquals(99998, last.getIndex().intValue());
+		fTree.addItem(0);
+		assertEquals(6, first.getIndex().intValue());
+		assertEquals(50000, middle.getIndex().intValue());
+		assertEquals(99999, last.getIndex().intValue());
+
+		VirtualItem[] items = fTree.getItems();
+		assertEquals(4, items.length);
+		assertEquals(0, items[0].getIndex().intValue());
+		assertSame(first, items[1]);
+		assertSame(middle, items[2]);
+		assertSame(last, items[3]);
+		assertTrue(fTree.childrenNeedDataUpdate());
+	}
+
+	@Test
+	public void testClearAndSetItemCount() {
+		fTree.setItemCount(10);
+		VirtualItem[] items = createItems(10);
+		fTree.clear(new Index(3));
+		assertTrue(items[3].isDisposed());
+		assertEquals(9, fTree.getItems().length);
+		assertEquals(4, items[4].getIndex().intValue());
+		assertFalse(items[3] == fTree.getItem(new Index(3)));
+
+		fTree.setItemCount(6);
+		for (int i = 6; i < 10; i++) {
+			assertTrue(items[i].isDisposed());
+			assertEquals(i, items[i].getIndex().intValue());
+		}
+		assertEquals(6, fTree.getItems().length);
+		assertSame(items[5], fTree.findItem("5")); //$NON-NLS-1$
+		assertNull(fTree.findItem("6")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testData() {
+		VirtualItem item = fTree.addItem(0);
+		String[] labels = new String[] { "label" }; //$NON-NLS-1$
+		item.setData("element"); //$NON-NLS-1$
+		item.setData(VirtualItem.LABEL_KEY, labels);
+		item.setData("CUSTOM_KEY", Integer.valueOf(1)); //$NON-NLS-1$
+		assertEquals("element", item.getData()); //$NON-NLS-1$
+		assertEquals("element", item.getData(VirtualItem.ELEMENT_DATA_KEY)); //$NON-NLS-1$
+		assertSame(labels, item.getData(VirtualItem.LABEL_KEY));
+		assertNull(item.getData(VirtualItem.IMAGE_KEY));
+		assertEquals(Integer.valueOf(1), item.getData("CUSTOM_KEY")); //$NON-NLS-1$
+		item.clearAll();
+		assertNull(item.getData());
+		assertNull(item.getData(VirtualItem.LABEL_KEY));
+		assertNull(item.getData("CUSTOM_KEY")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Applies random insertions, removals and lookups and compares the items
+	 * with a list based model.
+	 */
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(4711);
+		List<VirtualItem> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			expected.add(null);
+		}
+		fTree.setItemCount(expected.size());
+		for (int i = 0; i < 5000; i++) {
+			int size = expected.size();
+			switch (random.nextInt(4)) {
+			case 0:
+				int insert = random.nextInt(size + 1);
+				expected.add(insert, fTree.addItem(insert));
+				break;
+			case 1:
+				if (size > 0) {
+					int remove = random.nextInt(size);
+					fTree.remove(new Index(remove));
+					expected.remove(remove);
+				}
+				break;
+			default:
+				if (size > 0) {
+					int get = random.nextInt(size);
+					VirtualItem item = fTree.getItem(new Index(get));
+					if (expected.get(get) != null) {
+						assertSame(expected.get(get), item);
+					}
+					expected.set(get, item);
+				}
+				break;
+			}
+		}
+		assertEquals(expected.size(), fTree.getItemCount());
+		List<VirtualItem> created = new ArrayList<>();
+		for (int i = 0; i < expected.size(); i++) {
+			VirtualItem item = expected.get(i);
+			if (item != null) {
+				assertEquals(i, item.getIndex().intValue());
+				created.add(item);
+			}
+		}
+		VirtualItem[] items = fTree.getItems();
+		assertEquals(created.size(), items.length);
+		for (int i = 0; i < items.length; i++) {
+			assertSame(created.get(i), items[i]);
+		}
+	}
+
+	private VirtualItem[] createItems(int count) {
+		VirtualItem[] items = new VirtualItem[count];
+		for (int i = 0; i < count; i++) {
+			items[i] = fTree.getItem(new Index(i));
+			items[i].setData(Integer.toString(i));
+		}
+		return items;
+	}
+}
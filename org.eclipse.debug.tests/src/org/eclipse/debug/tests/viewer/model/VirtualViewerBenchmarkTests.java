@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.viewer.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualTreeModelViewer;
+import org.eclipse.debug.tests.BenchmarkReport;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.viewer.model.TestModel.TestElement;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreeSelection;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+
+/**
+ * Benchmarks for the flexible hierarchy viewer model on trees of different
+ * shapes, from 10 levels of 10 children up to a single level of one million
+ * children. The trees are shown in a {@link VirtualTreeModelViewer}, so no
+ * widgets are involved and the measured cost is the one of the content
+ * provider, the viewer model and the test model.
+ * <p>
+ * Except for the bushy tree, only the first child on each level has children,
+ * so the size of a tree grows with the width of its levels rather than
+ * exponentially with its depth. The viewer treats the first
+ * {@value #VISIBLE_ROWS} rows as visible.
+ * </p>
+ * <p>
+ * Every scenario measures expand and collapse, delta application, state save
+ * and restore, filtering and selection, and reports the percentiles of the
+ * operation times, the bytes allocated by the UI thread per operation and the
+ * heap retained by the populated viewer through {@link BenchmarkReport}.
+ * </p>
+ */
+public class VirtualViewerBenchmarkTests extends AbstractViewerModelTest implements ITestModelUpdatesListenerConstants {
+
+	/** Number of measured runs of each operation. */
+	private static final int ITERATIONS = 10;
+	/** Number of rows the viewer treats as visible. */
+	private static final int VISIBLE_ROWS = 50;
+
+	/**
+	 * A measured operation.
+	 */
+	@FunctionalInterface
+	private interface Operation {
+		/**
+		 * Run the operation and wait until the viewer is updated.
+		 *
+		 * @param iteration the number of the run
+		 */
+		void run(int iteration) throws Exception;
+	}
+
+	/**
+	 * Hides the leaves whose id ends with an odd digit.
+	 */
+	private static class OddLeavesFilter extends ViewerFilter {
+		@Override
+		public boolean select(Viewer viewer, Object parentElement, Object element) {
+			if (element instanceof TestElement) {
+				TestElement testElement = (TestElement) element;
+				String id = testElement.getID();
+				return testElement.getChildren().length != 0 || (id.charAt(id.length() - 1) - '0') % 2 == 0;
+			}
+			return true;
+		}
+	}
+
+	@Override
+	protected IInternalTreeModelViewer createViewer(Display display, Shell shell) {
+		return new VirtualTreeModelViewer(display, SWT.VIRTUAL, new PresentationContext("TestViewer"), new VisibleVirtualItemValidator(0, VISIBLE_ROWS)); //$NON-NLS-1$
+	}
+
+	@Override
+	protected TestModelUpdatesListener createListener(IInternalTreeModelViewer viewer) {
+		return new TestModelUpdatesListener(viewer, false, false);
+	}
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * 10 levels of 10 children.
+	 */
+	@Test
+	public void testDeepTree() throws Exception {
+		runBenchmark(new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10, 10 }, false);
+	}
+
+	/**
+	 * Complete tree of 3 levels of 10 children.
+	 */
+	@Test
+	public void testBushyTree() throws Exception {
+		runBenchmark(new int[] { 10, 10, 10 }, true);
+	}
+
+	/**
+	 * 1 level of 100000 children.
+	 */
+	@Test
+	public void testWideTree() throws Exception {
+		runBenchmark(new int[] { 1, 100000 }, false);
+	}
+
+	/**
+	 * 1 level of one million children.
+	 */
+	@Test
+	public void testVeryWideTree() throws Exception {
+		runBenchmark(new int[] { 1, 1000000 }, false);
+	}
+
+	/**
+	 * Run all operations on a tree of the given shape and write the report.
+	 *
+	 * @param widths number of children on each level
+	 * @param complete whether all children have children, or only the first
+	 *            one on each level
+	 */
+	private void runBenchmark(int[] widths, boolean complete) throws Exception {
+		final long heapBefore = BenchmarkReport.getUsedHeap();
+		final TestModel model = new TestModel();
+		final TestElement root = new TestElement(model, "root", makeElements(model, widths, 0, "model.", complete)); //$NON-NLS-1$ //$NON-NLS-2$
+		model.setRoot(root);
+
+		// path of the first element on each level, down to the parent of the
+		// deepest level
+		final TreePath topPath = new TreePath(new Object[] { root.getChildren()[0] });
+		TreePath path = topPath;
+		TestElement parent = root.getChildren()[0];
+		for (int i = 1; i < widths.length - 1; i++) {
+			parent = parent.getChildren()[0];
+			path = path.createChildPath(parent);
+		}
+		final TreePath listPath = path;
+		final TestElement list = parent;
+		final TreePath firstLeafPath = listPath.createChildPath(list.getChildren()[0]);
+		final TreePath lastLeafPath = listPath.createChildPath(list.getChildren()[list.getChildren().length - 1]);
+
+		// populate the viewer with all levels expanded
+		fViewer.setAutoExpandLevel(-1);
+		fListener.reset();
+		final long populateStart = System.nanoTime();
+		fViewer.setInput(root);
+		waitForUpdates(0);
+		final long populateNanos = System.nanoTime() - populateStart;
+		assertEquals(list.getChildren().length, fViewer.getChildCount(listPath));
+		final long retainedHeap = BenchmarkReport.getUsedHeap() - heapBefore;
+
+		final BenchmarkReport report = new BenchmarkReport(getDefaultScenarioId());
+		report.put("elements", countElements(root) - 1); //$NON-NLS-1$
+		report.put("populateMillis", populateNanos / 1e6); //$NON-NLS-1$
+		report.put("retainedHeapBytes", retainedHeap); //$NON-NLS-1$
+
+		measure(report, "expandCollapse", i -> { //$NON-NLS-1$
+			fListener.reset();
+			fViewer.setExpandedState(topPath, false);
+			fViewer.expandToLevel(topPath, AbstractTreeViewer.ALL_LEVELS);
+			waitForUpdates(0);
+		});
+		measure(report, "delta", i -> { //$NON-NLS-1$
+			model.setAllAppendix(" - pass " + i); //$NON-NLS-1$
+			fListener.reset();
+			model.postDelta(new ModelDelta(root, IModelDelta.CONTENT));
+			waitForUpdates(MODEL_CHANGED_COMPLETE);
+		});
+		measure(report, "saveRestore", i -> { //$NON-NLS-1$
+			fListener.reset();
+			fViewer.setInput(null);
+			waitWhile(t -> !fListener.isFinished(STATE_SAVE_COMPLETE), createListenerErrorMessage());
+			fListener.reset();
+			fViewer.setInput(root);
+			waitForUpdates(STATE_RESTORE_COMPLETE);
+		});
+		measure(report, "filter", i -> { //$NON-NLS-1$
+			fListener.reset();
+			fViewer.setFilters(new OddLeavesFilter());
+			fViewer.refresh();
+			waitForUpdates(0);
+			fListener.reset();
+			fViewer.setFilters();
+			fViewer.refresh();
+			waitForUpdates(0);
+		});
+		measure(report, "select", i -> { //$NON-NLS-1$
+			fListener.reset();
+			fViewer.setSelection(new TreeSelection(i % 2 == 0 ? lastLeafPath : firstLeafPath), true, true);
+			waitForUpdates(0);
+		});
+		report.write();
+	}
+
+	/**
+	 * Run the given operation {@link #ITERATIONS} times and add the
+	 * percentiles of its time and the bytes it allocated in the UI thread to
+	 * the report.
+	 */
+	private void measure(BenchmarkReport report, String name, Operation operation) throws Exception {
+		final long[] nanos = new long[ITERATIONS];
+		long allocated = 0;
+		boolean allocationSupported = true;
+		for (int i = 0; i < ITERATIONS; i++) {
+			final long allocatedStart = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			final long start = System.nanoTime();
+			operation.run(i);
+			nanos[i] = System.nanoTime() - start;
+			final long allocatedEnd = BenchmarkReport.getAllocatedBytes(Thread.currentThread());
+			if (allocatedStart < 0 || allocatedEnd < 0) {
+				allocationSupported = false;
+			} else {
+				allocated += allocatedEnd - allocatedStart;
+			}
+		}
+		report.putPercentiles(name, nanos);
+		if (allocationSupported) {
+			report.put(name + "AllocatedBytes", allocated / ITERATIONS); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Wait until the updates triggered by the last operation are complete.
+	 *
+	 * @param flags additional listener flags to wait for
+	 */
+	private void waitForUpdates(int flags) throws Exception {
+		// let the viewer start the updates it scheduled asynchronously
+		TestUtil.processUIEvents();
+		waitWhile(t -> !fListener.isFinished(ALL_UPDATES_COMPLETE | flags), createListenerErrorMessage());
+	}
+
+	private static TestElement[] makeElements(TestModel model, int[] widths, int level, String prefix, boolean complete) {
+		if (level == widths.length) {
+			return new TestElement[0];
+		}
+		TestElement[] elements = new TestElement[widths[level]];
+		for (int i = 0; i < elements.length; i++) {
+			String id = prefix + i;
+			TestElement[] children = complete || i == 0 ? makeElements(model, widths, level + 1, id + ".", complete) : new TestElement[0]; //$NON-NLS-1$
+			elements[i] = new TestElement(model, id, children);
+		}
+		return elements;
+	}
+
+	private static int countElements(TestElement element) {
+		int count = 1;
+		for (TestElement child : element.getChildren()) {
+			count += countElements(child);
+		}
+		return count;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 Wind River Systems and others.
+ * Copyright (c) 2009, 2020 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,19 @@
  *******************************************************************************/
 package org.eclipse.debug.tests.viewer.model;
 
+import static org.junit.Assert.assertEquals;
+
 import org.eclipse.debug.internal.ui.viewers.model.IInternalTreeModelViewer;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.PresentationContext;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualItem;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualTree;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.VirtualTreeModelViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
 
 /**
  * @since 3.6
@@ -35,4 +42,40 @@ public class VirtualViewerPerformanceTests extends PerformanceTests {
 	protected int getTestModelDepth() {
 		return 7;
 	}
+
+	/**
+	 * Inserts and removes items in an expanded list of 100000 elements, which
+	 * shifts the indexes of all following items.
+	 */
+	@Test
+	public void testInsertRemoveLargeList() {
+		final int size = 100000;
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int pass = 0; pass < 10; pass++) {
+				VirtualTree tree = new VirtualTree(SWT.NONE, null);
+				tree.setData("root"); //$NON-NLS-1$
+				tree.setItemCount(size);
+				for (int i = 0; i < size; i++) {
+					tree.getItem(new VirtualItem.Index(i)).setData(Integer.valueOf(i));
+				}
+
+				meter.start();
+				for (int i = 0; i < 2000; i++) {
+					tree.addItem(i * 7);
+				}
+				for (int i = 0; i < 2000; i++) {
+					tree.remove(new VirtualItem.Index(i * 5));
+				}
+				meter.stop();
+				assertEquals(size, tree.getItemCount());
+				tree.dispose();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
 }
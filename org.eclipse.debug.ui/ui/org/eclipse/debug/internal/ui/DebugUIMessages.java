@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -93,6 +93,23 @@ public class DebugUIMessages extends NLS {
 	public static String PrintViewTabAction_tooltip;
 	public static String PrintViewTabAction_jobtitle;
 	public static String ReformatAction_title;
+	public static String FindMemoryAction_title;
+	public static String FindMemoryAction_Find_failed;
+	public static String FindMemoryAction_Pattern_is_invalid;
+	public static String FindMemoryAction_Pattern_not_found;
+	public static String FindMemoryJob_name;
+	public static String ExportMemoryAction_title;
+	public static String ExportMemoryAction_failed;
+	public static String ExportMemoryAction_job_name;
+	public static String ImportMemoryAction_title;
+	public static String ImportMemoryAction_failed;
+	public static String ImportMemoryAction_job_name;
+	public static String ContinuousHexRendering_job_name;
+	public static String ContinuousHexRendering_not_supported;
+	public static String MemoryTransfer_Address_out_of_range;
+	public static String MemoryTransfer_Unaligned_address;
+	public static String MemoryTransfer_Invalid_record;
+	public static String MemoryTransfer_Checksum_error;
 
 	//
 	// Dialog
@@ -102,6 +119,20 @@ public class DebugUIMessages extends NLS {
 	public static String MonitorMemoryBlockDialog_NumberOfBytes;
 	public static String GoToAddressDialog_Address;
 	public static String GoToAddressDialog_GoToAddress;
+	public static String FindMemoryDialog_Find;
+	public static String FindMemoryDialog_Pattern;
+	public static String FindMemoryDialog_Hex;
+	public static String FindMemoryDialog_Text;
+	public static String MemoryTransferDialog_Export;
+	public static String MemoryTransferDialog_Import;
+	public static String MemoryTransferDialog_File;
+	public static String MemoryTransferDialog_Browse;
+	public static String MemoryTransferDialog_Format;
+	public static String MemoryTransferDialog_Start_address;
+	public static String MemoryTransferDialog_Length;
+	public static String MemoryTransferDialog_Binary;
+	public static String MemoryTransferDialog_Intel_hex;
+	public static String MemoryTransferDialog_S_record;
 	public static String CodePagesPrefDialog_1;
 	public static String CodePagesPrefDialog_2;
 	public static String CodePagesPrefDialog_4;
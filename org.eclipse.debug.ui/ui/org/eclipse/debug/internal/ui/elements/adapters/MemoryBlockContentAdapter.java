@@ -18,14 +18,16 @@ package org.eclipse.debug.internal.ui.elements.adapters;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IPackedMemoryBlockExtension;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.memory.provisional.AbstractAsyncTableRendering;
@@ -33,6 +35,7 @@ import org.eclipse.debug.internal.ui.memory.provisional.MemoryViewPresentationCo
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.provisional.AsynchronousContentAdapter;
 import org.eclipse.debug.internal.ui.views.memory.MemoryViewUtil;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
 import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
 import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingContentDescriptor;
 import org.eclipse.debug.ui.memory.IMemoryRendering;
@@ -260,7 +263,9 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+		PackedMemory memoryBuffer = null;
+		// whether the change history was computed by the memory page cache
+		boolean cached = false;
 
 		long reqNumBytes = 0;
 		try {
@@ -272,7 +277,13 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				long reqNumberOfUnits = tableRendering.getAddressableUnitPerLine() * numberOfLines;
 
-				memoryBuffer = extMemoryBlock.getBytesFromAddress(startAddress, reqNumberOfUnits);
+				MemoryPageCache cache = MemoryPageCache.getCache(extMemoryBlock);
+				if (cache != null) {
+					memoryBuffer = cache.getCoordinator().getMemory(extMemoryBlock, startAddress, reqNumberOfUnits);
+					cached = true;
+				} else {
+					memoryBuffer = getPackedBytesFromAddress(extMemoryBlock, startAddress, reqNumberOfUnits);
+				}
 
 				if (memoryBuffer == null) {
 					DebugException e = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
@@ -307,40 +318,15 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				numberOfLines = reqNumBytes / tableRendering.getBytesPerLine();
 
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int) reqNumBytes];
-
-				// prefill buffer to ensure double-word alignment
-				for (int i = 0; i < prefillNumBytes; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
-
-				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; // counter for memoryBuffer
-				for (byte element : memory) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(element);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-
-				// append to buffer to fill up the entire line
-				for (int i = j; i < memoryBuffer.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// the prefilled bytes to ensure double-word alignment and the
+				// bytes appended to fill up the entire line are not readable,
+				// the bytes returned by the debug adapter are readable and
+				// writable
+				byte[] values = new byte[(int) reqNumBytes];
+				byte[] flags = new byte[(int) reqNumBytes];
+				System.arraycopy(memory, 0, values, prefillNumBytes, memory.length);
+				Arrays.fill(flags, prefillNumBytes, prefillNumBytes + memory.length, (byte) (MemoryByte.READABLE | MemoryByte.WRITABLE));
+				memoryBuffer = new PackedMemory(values, flags);
 			}
 		} catch (DebugException e) {
 			memoryBuffer = makeDummyContent(numberOfLines, tableRendering.getBytesPerLine());
@@ -356,21 +342,11 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes) {
-			ArrayList<MemoryByte> newBuffer = new ArrayList<>();
-
-			Collections.addAll(newBuffer, memoryBuffer);
-
-			for (int i = memoryBuffer.length; i < reqNumBytes; i++) {
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-
+		if (memoryBuffer.length() < reqNumBytes) {
+			byte[] values = new byte[(int) reqNumBytes];
+			byte[] flags = new byte[(int) reqNumBytes];
+			memoryBuffer.copyTo(0, values, flags, 0, memoryBuffer.length());
+			memoryBuffer = new PackedMemory(values, flags);
 		}
 
 		boolean manageDelta = true;
@@ -379,7 +355,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		// The view tab will manage it and calculate delta information
 		// for its content cache.
 		if (descriptor.getMemoryBlock() instanceof IMemoryBlockExtension) {
-			manageDelta = !((IMemoryBlockExtension) descriptor.getMemoryBlock()).supportsChangeManagement();
+			manageDelta = !cached && !((IMemoryBlockExtension) descriptor.getMemoryBlock()).supportsChangeManagement();
 		}
 
 		if (dbgEvt != null) {
@@ -391,7 +367,22 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	}
 
-	private Object[] organizeLines(long numberOfLines, MemoryByte[] memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
+	/**
+	 * Returns memory from the given memory block, packed by the memory block
+	 * if it supports it, or else adapted from its memory bytes.
+	 */
+	private PackedMemory getPackedBytesFromAddress(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		if (memoryBlock instanceof IPackedMemoryBlockExtension) {
+			return ((IPackedMemoryBlockExtension) memoryBlock).getPackedBytesFromAddress(address, units);
+		}
+		MemoryByte[] bytes = memoryBlock.getBytesFromAddress(address, units);
+		if (bytes == null) {
+			return null;
+		}
+		return PackedMemory.fromMemoryBytes(bytes);
+	}
+
+	private Object[] organizeLines(long numberOfLines, PackedMemory memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
 		ArrayList<MemorySegment> lineCache = new ArrayList<>();
 		IMemoryRendering rendering = context.getRendering();
 		if (!(rendering instanceof AbstractAsyncTableRendering)) {
@@ -401,34 +392,17 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		AbstractAsyncTableRendering tableRendering = (AbstractAsyncTableRendering) rendering;
 		int addressableUnit = tableRendering.getBytesPerLine() / tableRendering.getAddressableSize();
 
-		for (int i = 0; i < numberOfLines; i++) {
-			int bytesPerLine = tableRendering.getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
-
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine; j < i * bytesPerLine + bytesPerLine; j++) {
-
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta) {
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
-
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
-
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
-
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] = newByteObj;
-				k++;
-			}
+		if (manageDelta) {
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			memoryBuffer.setFlags((byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED), false);
+		}
 
-			MemorySegment newLine = new MemorySegment(address, memory, addressableUnit);
+		int bytesPerLine = tableRendering.getBytesPerLine();
+		for (int i = 0; i < numberOfLines; i++) {
+			// the lines share the memory returned by the debug adapter
+			MemorySegment newLine = new MemorySegment(address, memoryBuffer.slice(i * bytesPerLine, bytesPerLine), addressableUnit);
 			lineCache.add(newLine);
 			address = address.add(BigInteger.valueOf(addressableUnit));
 		}
@@ -437,24 +411,12 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	/**
 	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
+	 * @return dummy memory which is not readable
 	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines, int bytesPerLine) {
-		MemoryByte[] memoryBuffer;
+	private PackedMemory makeDummyContent(long numberOfLines, int bytesPerLine) {
 		// make up dummy memory, needed for recovery in case the debug adapter
 		// is capable of retrieving memory again
-
-		int numBytes = (int) (bytesPerLine * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
-
-		for (int i = 0; i < memoryBuffer.length; i++) {
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte) 0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
-		}
-		return memoryBuffer;
+		return new PackedMemory((int) (bytesPerLine * numberOfLines));
 	}
 
 	protected AbstractAsyncTableRendering getTableRendering(MemoryViewPresentationContext context) {
@@ -115,7 +115,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 			if (element instanceof MemorySegment)
 			{
 				MemorySegment segment = (MemorySegment)element;
-				if (segment.getBytes().length != tableRendering.getBytesPerLine())
+				if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 					return IInternalDebugCoreConstants.EMPTY_STRING;
 			}
 
@@ -173,7 +173,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 
 			ILabelProvider labelProvider = tableRendering.getAdapter(ILabelProvider.class);
@@ -243,7 +243,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 
 			IFontProvider fontProvider = tableRendering.getAdapter(IFontProvider.class);
@@ -296,7 +296,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 
 			IColorProvider colorProvider = tableRendering.getAdapter(IColorProvider.class);
@@ -321,7 +321,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 
 			IColorProvider colorProvider = tableRendering.getAdapter(IColorProvider.class);
@@ -50,12 +50,16 @@ import org.eclipse.debug.internal.ui.views.memory.renderings.AsyncPrintTableRend
 import org.eclipse.debug.internal.ui.views.memory.renderings.AsyncTableRenderingCellModifier;
 import org.eclipse.debug.internal.ui.views.memory.renderings.AsyncTableRenderingViewer;
 import org.eclipse.debug.internal.ui.views.memory.renderings.CopyTableRenderingToClipboardAction;
+import org.eclipse.debug.internal.ui.views.memory.renderings.ExportMemoryAction;
+import org.eclipse.debug.internal.ui.views.memory.renderings.FindMemoryAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.FormatTableRenderingAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.FormatTableRenderingDialog;
 import org.eclipse.debug.internal.ui.views.memory.renderings.GoToAddressAction;
+import org.eclipse.debug.internal.ui.views.memory.renderings.ImportMemoryAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.GoToAddressComposite;
 import org.eclipse.debug.internal.ui.views.memory.renderings.IPresentationErrorListener;
 import org.eclipse.debug.internal.ui.views.memory.renderings.IVirtualContentListener;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryPageCache;
 import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
 import org.eclipse.debug.internal.ui.views.memory.renderings.PendingPropertyChanges;
 import org.eclipse.debug.internal.ui.views.memory.renderings.PrintTableRenderingAction;
@@ -379,7 +383,10 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 
 	// actions
 	private GoToAddressAction fGoToAddressAction;
+	private FindMemoryAction fFindMemoryAction;
 	private PrintTableRenderingAction fPrintViewTabAction;
+	private ExportMemoryAction fExportMemoryAction;
+	private ImportMemoryAction fImportMemoryAction;
 	private CopyTableRenderingToClipboardAction fCopyToClipboardAction;
 	private FormatTableRenderingAction fFormatRenderingAction;
 	private ReformatAction fReformatAction;
@@ -680,6 +687,11 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 						fTableViewer.getTable().setHeaderVisible(true);
 						fTableViewer.getTable().setLinesVisible(true);
 						fTableViewer.addPresentationErrorListener(fPresentationErrorListener);
+						if (getMemoryBlock() instanceof IMemoryBlockExtension) {
+							// create the shared memory cache before the model
+							// proxy so that it sees debug events first
+							MemoryPageCache.getCache((IMemoryBlockExtension) getMemoryBlock());
+						}
 						fTableViewer.setInput(getMemoryBlock());
 						fTableViewer.resizeColumnsToPreferredSize();
 						fTableViewer.setTopIndex(topVisibleAddress);
@@ -1935,9 +1947,12 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 
 		fCopyToClipboardAction = new AsyncCopyTableRenderingAction(this, fTableViewer);
 		fGoToAddressAction = new RenderingGoToAddressAction(getMemoryRenderingContainer(), this);
+		fFindMemoryAction = new FindMemoryAction(this);
 		fResetMemoryBlockAction = new ResetToBaseAddressAction(this);
 
 		fPrintViewTabAction = new AsyncPrintTableRenderingAction(this, fTableViewer);
+		fExportMemoryAction = new ExportMemoryAction(this);
+		fImportMemoryAction = new ImportMemoryAction(this);
 
 		fFormatRenderingAction = new FormatTableRenderingAction(this);
 		fReformatAction = new ReformatAction(this);
@@ -2181,6 +2196,7 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 		menu.add(new Separator());
 		menu.add(fResetMemoryBlockAction);
 		menu.add(fGoToAddressAction);
+		menu.add(fFindMemoryAction);
 		menu.add(new Separator(EMPTY_NAVIGATION_GROUP));
 
 		menu.add(new Separator());
@@ -2199,6 +2215,8 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 		menu.add(new Separator());
 		menu.add(fCopyToClipboardAction);
 		menu.add(fPrintViewTabAction);
+		menu.add(fExportMemoryAction);
+		menu.add(fImportMemoryAction);
 		if (fPropertiesDialogAction != null) {
 			menu.add(new Separator());
 			menu.add(fPropertiesDialogAction);
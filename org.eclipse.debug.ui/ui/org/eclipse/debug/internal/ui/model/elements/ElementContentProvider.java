@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,7 +49,11 @@ public abstract class ElementContentProvider implements IElementContentProvider
 	}
 
 	@Override
-	public void update(final IChildrenUpdate[] updates) {
+	public void update(IChildrenUpdate[] requests) {
+		final IChildrenUpdate[] updates = ElementUpdateBatcher.getDefault().queue(requests);
+		if (updates.length == 0) {
+			return;
+		}
 		Job job = new ElementContentProviderJob("Debug children update") { //$NON-NLS-1$
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
@@ -67,7 +71,11 @@ public abstract class ElementContentProvider implements IElementContentProvider
 	}
 
 	@Override
-	public void update(final IChildrenCountUpdate[] updates) {
+	public void update(IChildrenCountUpdate[] requests) {
+		final IChildrenCountUpdate[] updates = ElementUpdateBatcher.getDefault().queue(requests);
+		if (updates.length == 0) {
+			return;
+		}
 		Job job = new ElementContentProviderJob("Debug child count update") { //$NON-NLS-1$
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
@@ -201,7 +209,11 @@ public abstract class ElementContentProvider implements IElementContentProvider
 	}
 
 	@Override
-	public void update(final IHasChildrenUpdate[] updates) {
+	public void update(IHasChildrenUpdate[] requests) {
+		final IHasChildrenUpdate[] updates = ElementUpdateBatcher.getDefault().queue(requests);
+		if (updates.length == 0) {
+			return;
+		}
 		Job job = new ElementContentProviderJob("Debug has children update") { //$NON-NLS-1$
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2014 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -62,13 +62,47 @@ public abstract class ElementLabelProvider implements IElementLabelProvider {
 	 */
 	class LabelJob extends Job implements ILabelJob {
 
-		private LabelUpdater fUpdater = new LabelUpdater();
+		private final LabelUpdater fUpdater;
+
+		/**
+		 * Jobs which take updates from the queue of this job concurrently, or
+		 * <code>null</code> if none were needed yet.
+		 */
+		private LabelJob[] fWorkers;
 
 		public LabelJob() {
+			this(new LabelUpdater());
+		}
+
+		private LabelJob(LabelUpdater updater) {
 			super("Label Job"); //$NON-NLS-1$
+			fUpdater = updater;
 			setSystem(true);
 		}
 
+		/**
+		 * Schedules the given number of additional jobs processing the queue
+		 * of this job.
+		 *
+		 * @param count number of additional jobs
+		 */
+		void scheduleWorkers(int count) {
+			if (fWorkers == null || fWorkers.length < count) {
+				int existing = fWorkers == null ? 0 : fWorkers.length;
+				LabelJob[] workers = new LabelJob[count];
+				if (existing > 0) {
+					System.arraycopy(fWorkers, 0, workers, 0, existing);
+				}
+				for (int i = existing; i < count; i++) {
+					workers[i] = new LabelJob(fUpdater);
+				}
+				fWorkers = workers;
+			}
+			for (int i = 0; i < count; i++) {
+				fWorkers[i].schedule();
+			}
+		}
+
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			fUpdater.run();
@@ -118,7 +152,8 @@ public abstract class ElementLabelProvider implements IElementLabelProvider {
 	}
 
 	/**
-	 * Queue of label updates
+	 * Queue of label updates. The queue may be processed by several jobs at
+	 * once, each running the updates it takes from the queue.
 	 */
 	class LabelUpdater implements Runnable {
 		LinkedList<ILabelUpdate> fQueue = new LinkedList<>();
@@ -328,7 +363,11 @@ public abstract class ElementLabelProvider implements IElementLabelProvider {
 	}
 
 	@Override
-	public synchronized void update(ILabelUpdate[] updates) {
+	public synchronized void update(ILabelUpdate[] requests) {
+		ILabelUpdate[] updates = ElementUpdateBatcher.getDefault().queue(requests);
+		if (updates.length == 0) {
+			return;
+		}
 		if (fLabelJob == null) {
 			fLabelJob = newLabelJob(updates);
 		}
@@ -338,6 +377,12 @@ public abstract class ElementLabelProvider implements IElementLabelProvider {
 		}
 		// TODO: rule
 		fLabelJob.schedule();
+		if (fLabelJob instanceof LabelJob) {
+			int workers = Math.min(getMaxLabelJobs(updates), updates.length) - 1;
+			if (workers > 0) {
+				((LabelJob) fLabelJob).scheduleWorkers(workers);
+			}
+		}
 	}
 
 	/**
@@ -364,6 +409,22 @@ public abstract class ElementLabelProvider implements IElementLabelProvider {
 		return false;
 	}
 
+	/**
+	 * Returns the maximum number of jobs which retrieve the labels of the
+	 * given updates concurrently. Each update is processed by one job, but
+	 * different updates may be processed at the same time and complete in any
+	 * order. Subclasses which retrieve labels in a thread safe way may return
+	 * more than one. Updates which require a UI job are always processed by a
+	 * single job.
+	 *
+	 * @param updates updates about to be queued
+	 * @return maximum number of concurrent label jobs, at least one
+	 * @since 3.14
+	 */
+	protected int getMaxLabelJobs(ILabelUpdate[] updates) {
+		return 1;
+	}
+
 	/**
 	 * Returns the scheduling rule for the given update or <code>null</code>
 	 * it none.
@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.model.elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IBatchUpdateHandler;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Collects the updates of the element content and label providers for
+ * elements of debug targets which provide an {@link IBatchUpdateHandler}, and
+ * passes them to the handler in a single job per debug target.
+ * <p>
+ * When updates are queued in the Display thread, the job is scheduled once
+ * the current runnable of the Display thread completes. That way all updates
+ * the viewers issue while processing one model change end up in the same
+ * batch.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class ElementUpdateBatcher {
+
+	private static final ElementUpdateBatcher fgDefault = new ElementUpdateBatcher();
+
+	/**
+	 * Cache value for debug targets which provide no handler.
+	 */
+	private static final Object NO_HANDLER = new Object();
+
+	/**
+	 * Job answering the queued updates of one debug target.
+	 */
+	class BatchUpdateJob extends Job {
+
+		private final IDebugTarget fTarget;
+		private final IBatchUpdateHandler fHandler;
+
+		/**
+		 * Updates waiting for the next run of this job, guarded by the batcher.
+		 */
+		private List<IViewerUpdate> fQueue = new ArrayList<>();
+
+		BatchUpdateJob(IDebugTarget target, IBatchUpdateHandler handler) {
+			super("Debug batch update"); //$NON-NLS-1$
+			fTarget = target;
+			fHandler = handler;
+			setSystem(true);
+			setUser(false);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			List<IViewerUpdate> batch;
+			synchronized (ElementUpdateBatcher.this) {
+				batch = fQueue;
+				fQueue = new ArrayList<>();
+			}
+			try {
+				List<IViewerUpdate> active = new ArrayList<>(batch.size());
+				for (IViewerUpdate update : batch) {
+					if (!update.isCanceled()) {
+						active.add(update);
+					}
+				}
+				if (!active.isEmpty() && !monitor.isCanceled()) {
+					try {
+						fHandler.update(active.toArray(new IViewerUpdate[active.size()]), monitor);
+					} catch (RuntimeException e) {
+						DebugUIPlugin.log(e);
+						IStatus status = DebugUIPlugin.newErrorStatus("Batch update failed", e); //$NON-NLS-1$
+						for (IViewerUpdate update : active) {
+							update.setStatus(status);
+						}
+					}
+				}
+			} finally {
+				for (IViewerUpdate update : batch) {
+					update.done();
+				}
+				synchronized (ElementUpdateBatcher.this) {
+					// an extra run must not remove a newer job of the target
+					if (fQueue.isEmpty() && fJobs.get(fTarget) == this) {
+						fJobs.remove(fTarget);
+					}
+				}
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == ElementContentProvider.class;
+		}
+	}
+
+	/**
+	 * Jobs with queued or running updates, by debug target.
+	 */
+	private final Map<IDebugTarget, BatchUpdateJob> fJobs = new HashMap<>();
+
+	/**
+	 * Handler or {@link #NO_HANDLER} by debug target, until the target
+	 * terminates.
+	 */
+	private final Map<IDebugTarget, Object> fHandlers = new WeakHashMap<>();
+
+	/**
+	 * Jobs to schedule once the Display thread completes its current runnable.
+	 */
+	private final List<BatchUpdateJob> fPendingJobs = new ArrayList<>();
+
+	/**
+	 * Whether the pending jobs are scheduled by a runnable of the Display
+	 * thread.
+	 */
+	private boolean fSchedulePending;
+
+	/**
+	 * Returns the batcher shared by all element content and label providers.
+	 *
+	 * @return the shared batcher
+	 */
+	public static ElementUpdateBatcher getDefault() {
+		return fgDefault;
+	}
+
+	private ElementUpdateBatcher() {
+		DebugPlugin plugin = DebugPlugin.getDefault();
+		if (plugin != null) {
+			plugin.addDebugEventListener(this::handleDebugEvents);
+		}
+	}
+
+	private void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			if (event.getKind() == DebugEvent.TERMINATE && event.getSource() instanceof IDebugTarget) {
+				synchronized (this) {
+					fHandlers.remove(event.getSource());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queues the updates which are answered by the batch update handler of the
+	 * debug target of their element and returns the remaining updates.
+	 *
+	 * @param updates updates to queue
+	 * @return the updates which were not queued, possibly empty
+	 */
+	public <T extends IViewerUpdate> T[] queue(T[] updates) {
+		// resolve the handlers outside of the lock, as they are client code
+		IDebugTarget[] targets = null;
+		IBatchUpdateHandler[] handlers = null;
+		for (int i = 0; i < updates.length; i++) {
+			Object element = updates[i].getElement();
+			if (!(element instanceof IDebugElement)) {
+				continue;
+			}
+			IDebugTarget target = ((IDebugElement) element).getDebugTarget();
+			IBatchUpdateHandler handler = target != null ? getHandler(target) : null;
+			if (handler != null && handler.canUpdate(updates[i])) {
+				if (targets == null) {
+					targets = new IDebugTarget[updates.length];
+					handlers = new IBatchUpdateHandler[updates.length];
+				}
+				targets[i] = target;
+				handlers[i] = handler;
+			}
+		}
+		if (targets == null) {
+			return updates;
+		}
+
+		T[] remaining = Arrays.copyOf(updates, updates.length);
+		int numRemaining = 0;
+		synchronized (this) {
+			for (int i = 0; i < updates.length; i++) {
+				T update = updates[i];
+				if (targets[i] == null) {
+					remaining[numRemaining++] = update;
+					continue;
+				}
+				BatchUpdateJob job = fJobs.get(targets[i]);
+				if (job == null) {
+					job = new BatchUpdateJob(targets[i], handlers[i]);
+					fJobs.put(targets[i], job);
+				}
+				job.fQueue.add(update);
+				if (!fPendingJobs.contains(job)) {
+					fPendingJobs.add(job);
+				}
+			}
+		}
+		schedulePendingJobs();
+		return Arrays.copyOf(remaining, numRemaining);
+	}
+
+	/**
+	 * Returns the batch update handler of the given debug target, or
+	 * <code>null</code> if it provides none.
+	 */
+	private IBatchUpdateHandler getHandler(IDebugTarget target) {
+		Object handler;
+		synchronized (this) {
+			handler = fHandlers.get(target);
+		}
+		if (handler == null) {
+			handler = DebugPlugin.getAdapter(target, IBatchUpdateHandler.class);
+			if (handler == null) {
+				handler = NO_HANDLER;
+			}
+			synchronized (this) {
+				Object previous = fHandlers.putIfAbsent(target, handler);
+				if (previous != null) {
+					handler = previous;
+				}
+			}
+		}
+		return handler == NO_HANDLER ? null : (IBatchUpdateHandler) handler;
+	}
+
+	private void schedulePendingJobs() {
+		Display display = Display.getCurrent();
+		if (display == null) {
+			doSchedulePendingJobs();
+			return;
+		}
+		synchronized (this) {
+			if (fSchedulePending) {
+				return;
+			}
+			fSchedulePending = true;
+		}
+		display.asyncExec(this::doSchedulePendingJobs);
+	}
+
+	private void doSchedulePendingJobs() {
+		BatchUpdateJob[] jobs;
+		synchronized (this) {
+			jobs = fPendingJobs.toArray(new BatchUpdateJob[fPendingJobs.size()]);
+			fPendingJobs.clear();
+			fSchedulePending = false;
+		}
+		for (BatchUpdateJob job : jobs) {
+			job.schedule();
+		}
+	}
+}
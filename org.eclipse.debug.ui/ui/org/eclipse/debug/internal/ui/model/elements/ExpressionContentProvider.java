@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -193,6 +193,23 @@ public class ExpressionContentProvider extends VariableContentProvider {
 		return EMPTY;
 	}
 
+	@Override
+	protected boolean supportsLazyPartitions() {
+		// getAllChildren() is consistent with getElementValue()
+		return getClass() == ExpressionContentProvider.class;
+	}
+
+	@Override
+	protected IValue getElementValue(Object element) throws CoreException {
+		if (element instanceof IErrorReportingExpression && ((IErrorReportingExpression) element).hasErrors()) {
+			return null;
+		}
+		if (element instanceof IExpression) {
+			return ((IExpression) element).getValue();
+		}
+		return null;
+	}
+
 	@Override
 	protected boolean hasChildren(Object element, IPresentationContext context, IViewerUpdate monitor) throws CoreException {
 		if (element instanceof IErrorReportingExpression) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,10 @@
 package org.eclipse.debug.internal.ui.model.elements;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.DebugEvent;
@@ -28,6 +31,7 @@ import org.eclipse.debug.core.model.IValue;
 import org.eclipse.debug.core.model.IVariable;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
+import org.eclipse.debug.internal.ui.views.variables.IndexedValuePartition;
 import org.eclipse.debug.internal.ui.views.variables.IndexedVariablePartition;
 import org.eclipse.debug.internal.ui.views.variables.LogicalStructureCache;
 import org.eclipse.debug.internal.ui.views.variables.VariablesView;
@@ -44,16 +48,134 @@ public class VariableContentProvider extends ElementContentProvider {
 	 */
 	private static LogicalStructureCache fgLogicalCache;
 
+	/**
+	 * Cache of the sizes of indexed values, cleared together with the logical
+	 * structure cache.
+	 */
+	private static Map<IIndexedValue, Integer> fgSizeCache;
+
 	@Override
 	protected int getChildCount(Object element, IPresentationContext context, IViewerUpdate monitor) throws CoreException {
+		IIndexedValue indexedValue = getPartitionedValue(element, context);
+		if (indexedValue != null) {
+			int partitionSize = computeParitionSize(indexedValue);
+			return (getIndexedSize(indexedValue) + partitionSize - 1) / partitionSize;
+		}
 		return getAllChildren(element, context).length;
 	}
 
 	@Override
 	protected Object[] getChildren(Object parent, int index, int length, IPresentationContext context, IViewerUpdate monitor) throws CoreException {
+		IIndexedValue indexedValue = getPartitionedValue(parent, context);
+		if (indexedValue != null) {
+			int size = getIndexedSize(indexedValue);
+			int partitionSize = computeParitionSize(indexedValue);
+			int numPartitions = (size + partitionSize - 1) / partitionSize;
+			if (index >= numPartitions) {
+				return null;
+			}
+			Object[] partitions = new Object[Math.min(length, numPartitions - index)];
+			for (int i = 0; i < partitions.length; i++) {
+				partitions[i] = createPartition((IDebugElement) parent, indexedValue, size, partitionSize, index + i);
+			}
+			return partitions;
+		}
 		return getElements(getAllChildren(parent, context), index, length);
 	}
 
+	/**
+	 * Returns the value whose children are shown for the given element.
+	 *
+	 * @param element variable or expression
+	 * @return the value or <code>null</code> if the element has no value
+	 * @throws CoreException if the value cannot be retrieved
+	 * @since 3.14
+	 */
+	protected IValue getElementValue(Object element) throws CoreException {
+		return ((IVariable) element).getValue();
+	}
+
+	/**
+	 * Returns whether the partitions of an indexed value are created on demand,
+	 * only for the range of children requested, instead of all at once by
+	 * {@link #getAllChildren(Object, IPresentationContext)}. Then the children
+	 * of partitioned values are computed from {@link #getElementValue(Object)}
+	 * without calling {@link #getAllChildren(Object, IPresentationContext)} or
+	 * {@link #getValueChildren(IDebugElement, IValue, IPresentationContext)}.
+	 * <p>
+	 * Subclasses which do not override these methods, or override them
+	 * consistently with {@link #getElementValue(Object)}, should return
+	 * <code>true</code>. By default only this class creates partitions on
+	 * demand.
+	 * </p>
+	 *
+	 * @return whether partitions are created on demand
+	 * @since 3.14
+	 */
+	protected boolean supportsLazyPartitions() {
+		return getClass() == VariableContentProvider.class;
+	}
+
+	/**
+	 * Returns the indexed value whose children are shown in partitions for the
+	 * given element, or <code>null</code> if the children of the element are not
+	 * partitioned. Partitions of such a value are created on demand, only for
+	 * the range of children requested.
+	 */
+	private IIndexedValue getPartitionedValue(Object element, IPresentationContext context) throws CoreException {
+		if (!supportsLazyPartitions()) {
+			return null;
+		}
+		IValue value = getElementValue(element);
+		if (value == null) {
+			return null;
+		}
+		IValue logicalValue = getLogicalValue(value, context);
+		if (logicalValue instanceof IIndexedValue && computeParitionSize((IIndexedValue) logicalValue) > 1) {
+			return (IIndexedValue) logicalValue;
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the partition with the given index of an indexed value.
+	 *
+	 * @param parent expression or variable containing the value
+	 * @param value the indexed value
+	 * @param size the size of the value
+	 * @param partitionSize the size of each partition
+	 * @param index the index of the partition
+	 * @return the partition
+	 */
+	private IVariable createPartition(IDebugElement parent, IIndexedValue value, int size, int partitionSize, int index) {
+		int start = index * partitionSize;
+		return new IndexedVariablePartition(parent, value, value.getInitialOffset() + start, Math.min(partitionSize, size - start));
+	}
+
+	/**
+	 * Returns the size of the given indexed value. The size is cached until the
+	 * target resumes, suspends or changes, as retrieving it may require a
+	 * round trip to the target.
+	 *
+	 * @param value indexed value
+	 * @return the size of the value
+	 * @throws DebugException if the size cannot be retrieved
+	 * @since 3.14
+	 */
+	protected int getIndexedSize(IIndexedValue value) throws DebugException {
+		if (value instanceof IndexedValuePartition) {
+			return value.getSize();
+		}
+		// creates the size cache and the listener clearing it
+		getLogicalStructureCache();
+		Integer size = fgSizeCache.get(value);
+		if (size == null) {
+			size = Integer.valueOf(value.getSize());
+			fgSizeCache.put(value, size);
+		}
+		return size.intValue();
+	}
+
 	@Override
 	protected boolean hasChildren(Object element, IPresentationContext context, IViewerUpdate monitor) throws CoreException {
 		return ((IVariable)element).getValue().hasVariables();
@@ -135,22 +257,11 @@ public class VariableContentProvider extends ElementContentProvider {
 			IIndexedValue indexedValue = (IIndexedValue) logicalValue;
 			int partitionSize = computeParitionSize(indexedValue);
 			if (partitionSize > 1) {
-				int offset = indexedValue.getInitialOffset();
-				int length = indexedValue.getSize();
-				int numPartitions = length / partitionSize;
-				int remainder = length % partitionSize;
-				if (remainder > 0) {
-					numPartitions++;
-				}
-				IVariable[] partitions = new IVariable[numPartitions];
-				for (int i = 0; i < (numPartitions - 1); i++) {
-					partitions[i] = new IndexedVariablePartition(parent, indexedValue, offset, partitionSize);
-					offset = offset + partitionSize;
-				}
-				if (remainder == 0) {
-					remainder = partitionSize;
+				int length = getIndexedSize(indexedValue);
+				IVariable[] partitions = new IVariable[(length + partitionSize - 1) / partitionSize];
+				for (int i = 0; i < partitions.length; i++) {
+					partitions[i] = createPartition(parent, indexedValue, length, partitionSize, i);
 				}
-				partitions[numPartitions - 1] = new IndexedVariablePartition(parent, indexedValue, offset, remainder);
 				return partitions;
 			}
 		}
@@ -174,7 +285,7 @@ public class VariableContentProvider extends ElementContentProvider {
 	protected int computeParitionSize(IIndexedValue value) {
 		int partitionSize = 1;
 		try {
-			int length = value.getSize();
+			int length = getIndexedSize(value);
 			int partitionDepth = 0;
 			int preferredSize = getArrayPartitionSize();
 			int remainder = length % preferredSize;
@@ -232,6 +343,7 @@ public class VariableContentProvider extends ElementContentProvider {
 	protected synchronized LogicalStructureCache getLogicalStructureCache(){
 		if (fgLogicalCache == null){
 			fgLogicalCache = new LogicalStructureCache();
+			fgSizeCache = Collections.synchronizedMap(new WeakHashMap<>());
 			// Add a listener to clear the cache when resuming, terminating, or suspending
 			DebugPlugin.getDefault().addDebugEventListener(new IDebugEventSetListener(){
 				@Override
@@ -239,15 +351,19 @@ public class VariableContentProvider extends ElementContentProvider {
 					for (DebugEvent event : events) {
 						if (event.getKind() == DebugEvent.TERMINATE) {
 							fgLogicalCache.clear();
+							fgSizeCache.clear();
 							break;
 						} else if (event.getKind() == DebugEvent.RESUME && event.getDetail() != DebugEvent.EVALUATION_IMPLICIT) {
 							fgLogicalCache.clear();
+							fgSizeCache.clear();
 							break;
 						} else if (event.getKind() == DebugEvent.SUSPEND && event.getDetail() != DebugEvent.EVALUATION_IMPLICIT) {
 							fgLogicalCache.clear();
+							fgSizeCache.clear();
 							break;
 						} else if (event.getKind() == DebugEvent.CHANGE && event.getDetail() == DebugEvent.CONTENT) {
 							fgLogicalCache.clear();
+							fgSizeCache.clear();
 							break;
 						}
 					}
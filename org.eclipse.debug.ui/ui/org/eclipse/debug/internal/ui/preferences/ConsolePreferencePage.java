@@ -173,6 +173,7 @@ public class ConsolePreferencePage extends FieldEditorPreferencePage implements
 
 		addField(fInterpretControlCharactersEditor);
 		addField(fInterpretCrAsControlCharacterEditor);
+		addField(new BooleanFieldEditor(IDebugPreferenceConstants.CONSOLE_INTERPRET_ANSI_ESCAPE_SEQUENCES, DebugPreferencesMessages.ConsolePreferencePage_Interpret_ansi_escape_sequences, SWT.NONE, getFieldEditorParent()));
 	}
 
 	/**
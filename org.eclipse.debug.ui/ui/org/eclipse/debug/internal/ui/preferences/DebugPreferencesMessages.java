@@ -37,6 +37,7 @@ public class DebugPreferencesMessages extends NLS {
 	public static String ConsolePreferencePage_13;
 	public static String ConsolePreferencePage_Interpret_control_characters;
 	public static String ConsolePreferencePage_Interpret_cr_as_control_character;
+	public static String ConsolePreferencePage_Interpret_ansi_escape_sequences;
 
 	public static String DebugPreferencePage_1;
 	public static String DebugPreferencePage_2;
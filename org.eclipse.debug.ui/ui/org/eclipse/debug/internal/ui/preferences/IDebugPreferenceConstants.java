@@ -117,6 +117,17 @@ public interface IDebugPreferenceConstants {
 	 */
 	String CONSOLE_INTERPRET_CR_AS_CONTROL_CHARACTER = "Console.interpret_cr_as_control_characters"; //$NON-NLS-1$
 
+	/**
+	 * (boolean) If <code>true</code> console will interpret ANSI escape
+	 * sequences received from stdout or stderr and use the Select Graphic
+	 * Rendition sequences to color and style the output.
+	 * <p>
+	 * If <code>false</code> escape sequences are appended to console like any
+	 * other character.
+	 * </p>
+	 */
+	String CONSOLE_INTERPRET_ANSI_ESCAPE_SEQUENCES = "Console.interpret_ansi_escape_sequences"; //$NON-NLS-1$
+
 	/**
 	 * The orientation of the detail view in the VariablesView
 	 */
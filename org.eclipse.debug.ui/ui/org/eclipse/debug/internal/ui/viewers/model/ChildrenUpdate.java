@@ -31,6 +31,12 @@ public class ChildrenUpdate extends ViewerUpdateMonitor implements IChildrenUpda
 	private int fIndex;
 	private int fLength;
 
+	/**
+	 * Whether the children were only requested ahead of the visible area and
+	 * are not needed by the viewer yet.
+	 */
+	private boolean fPrefetch;
+
 	/**
 	 * Constructs a request to update an element
 	 *
@@ -137,6 +143,7 @@ public class ChildrenUpdate extends ViewerUpdateMonitor implements IChildrenUpda
 					fIndex = Math.min(fIndex, otherStart);
 					end = Math.max(end, otherEnd);
 					fLength = end - fIndex;
+					fPrefetch = fPrefetch && cu.isPrefetch();
 					if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
 						DebugUIPlugin.trace("coalesced: " + this); //$NON-NLS-1$
 					}
@@ -200,6 +207,25 @@ public class ChildrenUpdate extends ViewerUpdateMonitor implements IChildrenUpda
 		fIndex = offset;
 	}
 
+	/**
+	 * Marks this request as a prefetch request, see {@link #isPrefetch()}.
+	 */
+	void setPrefetch() {
+		fPrefetch = true;
+	}
+
+	/**
+	 * Returns whether the children were only requested ahead of the visible
+	 * area. Such a request may be canceled when scrolling moves away. A
+	 * request coalesced with a request for visible children is no longer a
+	 * prefetch request.
+	 *
+	 * @return whether this is a prefetch request
+	 */
+	boolean isPrefetch() {
+		return fPrefetch;
+	}
+
 	Object[] getElements() {
 		return fElements;
 	}
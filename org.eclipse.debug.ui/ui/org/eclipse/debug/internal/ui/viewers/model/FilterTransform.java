@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -38,62 +38,300 @@ public class FilterTransform {
 
 	private Node root = new Node();
 
+	/**
+	 * Set of filtered child indexes of one parent with the filtered elements.
+	 * <p>
+	 * The indexes are kept in a bitmap. A Fenwick tree over the bit counts of
+	 * the bitmap words answers rank (number of filtered indexes before an index)
+	 * and select (model index of the n-th visible child) queries in logarithmic
+	 * time, so that adding, clearing and translating indexes no longer depends on
+	 * the number of filtered children. Filtered elements are stored in pages of
+	 * 64 entries aligned with the bitmap words, which are only allocated for
+	 * words containing filtered indexes.
+	 * </p>
+	 */
+	static class FilteredIndexes {
+		private static final int ADDRESS_BITS = 6;
+		private static final int WORD_SIZE = 1 << ADDRESS_BITS;
+		private static final int WORD_MASK = WORD_SIZE - 1;
+
+		private long[] words;
+		private Object[][] pages;
+		/**
+		 * Fenwick tree of the bit counts of {@link #words}, one based.
+		 */
+		private int[] counts;
+		private int size;
+		/**
+		 * Cached result of {@link #toArray()}, reset on modification.
+		 */
+		private int[] array;
+
+		FilteredIndexes(int index) {
+			int length = Math.max(1, (index >>> ADDRESS_BITS) + 1);
+			words = new long[length];
+			pages = new Object[length][];
+			counts = new int[length + 1];
+		}
+
+		/**
+		 * @return number of filtered indexes
+		 */
+		int size() {
+			return size;
+		}
+
+		boolean contains(int index) {
+			int word = index >>> ADDRESS_BITS;
+			return index >= 0 && word < words.length && (words[word] & (1L << index)) != 0;
+		}
+
+		/**
+		 * Adds the given index.
+		 *
+		 * @param index filtered index
+		 * @param element filtered element
+		 * @return <code>false</code> if the index was already contained
+		 */
+		boolean add(int index, Object element) {
+			if (contains(index)) {
+				return false;
+			}
+			int word = index >>> ADDRESS_BITS;
+			if (word >= words.length) {
+				grow(word);
+			}
+			words[word] |= 1L << index;
+			if (pages[word] == null) {
+				pages[word] = new Object[WORD_SIZE];
+			}
+			pages[word][index & WORD_MASK] = element;
+			for (int i = word + 1; i < counts.length; i += i & -i) {
+				counts[i]++;
+			}
+			size++;
+			array = null;
+			return true;
+		}
+
+		/**
+		 * Removes the given index.
+		 *
+		 * @param index index to remove
+		 * @return <code>false</code> if the index was not contained
+		 */
+		boolean remove(int index) {
+			if (!contains(index)) {
+				return false;
+			}
+			int word = index >>> ADDRESS_BITS;
+			words[word] &= ~(1L << index);
+			if (words[word] == 0) {
+				pages[word] = null;
+			} else {
+				pages[word][index & WORD_MASK] = null;
+			}
+			for (int i = word + 1; i < counts.length; i += i & -i) {
+				counts[i]--;
+			}
+			size--;
+			array = null;
+			return true;
+		}
+
+		/**
+		 * @param index an index
+		 * @return number of contained indexes smaller than the given index
+		 */
+		int rank(int index) {
+			int word = index >>> ADDRESS_BITS;
+			if (word >= words.length) {
+				return size;
+			}
+			int rank = Long.bitCount(words[word] & ((1L << index) - 1));
+			for (int i = word; i > 0; i -= i & -i) {
+				rank += counts[i];
+			}
+			return rank;
+		}
+
+		/**
+		 * Returns the n-th (counting from 0) index which is not contained in
+		 * this set.
+		 *
+		 * @param n number of not contained indexes to skip
+		 * @return the index
+		 */
+		int selectMissing(int n) {
+			int length = words.length;
+			int word = 0;
+			int remaining = n;
+			for (int step = Integer.highestOneBit(length); step > 0; step >>= 1) {
+				int next = word + step;
+				if (next <= length) {
+					long missing = ((long) step << ADDRESS_BITS) - counts[next];
+					if (missing <= remaining) {
+						word = next;
+						remaining -= missing;
+					}
+				}
+			}
+			if (word == length) {
+				return (word << ADDRESS_BITS) + remaining;
+			}
+			long bits = ~words[word];
+			for (int i = 0; i < remaining; i++) {
+				bits &= bits - 1;
+			}
+			return (word << ADDRESS_BITS) + Long.numberOfTrailingZeros(bits);
+		}
+
+		/**
+		 * @param element an element
+		 * @return the smallest index with an element equal to the given one, or
+		 *         <code>-1</code>
+		 */
+		int indexOf(Object element) {
+			for (int word = 0; word < words.length; word++) {
+				for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+					int bit = Long.numberOfTrailingZeros(bits);
+					if (element.equals(pages[word][bit])) {
+						return (word << ADDRESS_BITS) + bit;
+					}
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Removes all indexes greater than or equal to the given limit.
+		 *
+		 * @param limit first index to remove
+		 */
+		void truncate(int limit) {
+			int word = Math.max(limit, 0) >>> ADDRESS_BITS;
+			if (word >= words.length) {
+				return;
+			}
+			int bit = limit & WORD_MASK;
+			if (limit > 0 && bit != 0) {
+				words[word] &= (1L << bit) - 1;
+				if (words[word] == 0) {
+					pages[word] = null;
+				} else {
+					Arrays.fill(pages[word], bit, WORD_SIZE, null);
+				}
+				word++;
+			}
+			Arrays.fill(words, word, words.length, 0L);
+			Arrays.fill(pages, word, pages.length, null);
+			rebuildCounts();
+		}
+
+		/**
+		 * Removes the given index and decrements all greater indexes.
+		 *
+		 * @param index index of a removed element
+		 */
+		void removeAndShift(int index) {
+			remove(index);
+			int first = index >>> ADDRESS_BITS;
+			if (first >= words.length) {
+				return;
+			}
+			for (int word = first; word < words.length; word++) {
+				int from = word == first ? index & WORD_MASK : 0;
+				long next = word + 1 < words.length ? words[word + 1] : 0L;
+				Object[] nextPage = word + 1 < pages.length ? pages[word + 1] : null;
+				long bits = words[word];
+				long shifted = (bits & ((1L << from) - 1)) | ((bits >>> 1) & (-1L << from)) | (next << (WORD_SIZE - 1));
+				if (shifted == 0) {
+					pages[word] = null;
+				} else {
+					Object[] page = pages[word];
+					if (page == null) {
+						page = new Object[WORD_SIZE];
+						pages[word] = page;
+					}
+					System.arraycopy(page, from + 1, page, from, WORD_MASK - from);
+					page[WORD_MASK] = nextPage != null ? nextPage[0] : null;
+				}
+				words[word] = shifted;
+			}
+			rebuildCounts();
+		}
+
+		/**
+		 * @return the contained indexes in ascending order, or <code>null</code>
+		 *         if there are none
+		 */
+		int[] toArray() {
+			if (size == 0) {
+				return null;
+			}
+			if (array == null) {
+				int[] result = new int[size];
+				int i = 0;
+				for (int word = 0; word < words.length; word++) {
+					for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+						result[i++] = (word << ADDRESS_BITS) + Long.numberOfTrailingZeros(bits);
+					}
+				}
+				array = result;
+			}
+			return array;
+		}
+
+		private void grow(int word) {
+			int length = Math.max(word + 1, words.length * 2);
+			words = Arrays.copyOf(words, length);
+			pages = Arrays.copyOf(pages, length);
+			counts = new int[length + 1];
+			rebuildCounts();
+		}
+
+		private void rebuildCounts() {
+			Arrays.fill(counts, 0);
+			size = 0;
+			for (int i = 1; i < counts.length; i++) {
+				int count = Long.bitCount(words[i - 1]);
+				size += count;
+				counts[i] += count;
+				int parent = i + (i & -i);
+				if (parent < counts.length) {
+					counts[parent] += counts[i];
+				}
+			}
+			array = null;
+		}
+	}
+
 	class Node {
-		private int[] filteredIndexes = null;
-		private Object[] filteredElements = null;
+		private FilteredIndexes filtered = null;
 		private Map<Object, Node> children = null; // only set for parent nodes,
 													// indexed by child
 
 		Node() {
 		}
 
-		boolean addFilter(TreePath path, int childIndex, int pathIndex, Object filtered) {
+		boolean addFilter(TreePath path, int childIndex, int pathIndex, Object element) {
 			if (pathIndex == path.getSegmentCount()) {
-				if (filteredIndexes == null) {
-					filteredIndexes = new int[]{childIndex};
-					filteredElements = new Object[]{filtered};
-					return true;
-				}
-				int location = Arrays.binarySearch(filteredIndexes, childIndex);
-				if (location >= 0) {
-					return false;
-				}
-				location = 0 - (location + 1);
-				int[] next = new int[filteredIndexes.length + 1];
-				Object[] filt = new Object[next.length];
-				if (location == 0) {
-					next[0] = childIndex;
-					filt[0] = filtered;
-					System.arraycopy(filteredIndexes, 0, next, 1, filteredIndexes.length);
-					System.arraycopy(filteredElements, 0, filt, 1, filteredElements.length);
-				} else if (location == filteredIndexes.length) {
-					next[filteredIndexes.length] = childIndex;
-					filt[filteredElements.length] = filtered;
-					System.arraycopy(filteredIndexes, 0, next, 0, filteredIndexes.length);
-					System.arraycopy(filteredElements, 0, filt, 0, filteredElements.length);
-				} else {
-					System.arraycopy(filteredIndexes, 0, next, 0, location);
-					System.arraycopy(filteredElements, 0, filt, 0, location);
-					next[location] = childIndex;
-					filt[location] = filtered;
-					System.arraycopy(filteredIndexes, location, next, location + 1, filteredIndexes.length - location);
-					System.arraycopy(filteredElements, location, filt, location + 1, filteredElements.length - location);
+				if (filtered == null) {
+					filtered = new FilteredIndexes(childIndex);
 				}
-				filteredIndexes = next;
-				filteredElements = filt;
-				return true;
+				return filtered.add(childIndex, element);
 			}
 
 			if (children == null) {
 				children = new HashMap<>();
 			}
-			Object element = path.getSegment(pathIndex);
-			Node node = children.get(element);
+			Object segment = path.getSegment(pathIndex);
+			Node node = children.get(segment);
 			if (node == null) {
 				node = new Node();
-				children.put(element, node);
+				children.put(segment, node);
 			}
-			return node.addFilter(path, childIndex, pathIndex + 1, filtered);
+			return node.addFilter(path, childIndex, pathIndex + 1, element);
 		}
 
 		boolean clear(TreePath path, int pathIndex) {
@@ -110,41 +348,16 @@ public class FilterTransform {
 					children.remove(child);
 				}
 			}
-			return children.isEmpty() && (filteredIndexes == null || filteredIndexes.length == 0);
+			return children.isEmpty() && !hasFilters();
 		}
 
 		boolean clear(TreePath path, int childIndex, int pathIndex) {
 			if (pathIndex == path.getSegmentCount()) {
-				if (filteredIndexes != null) {
-					int location = Arrays.binarySearch(filteredIndexes, childIndex);
-					if (location >= 0) {
-						// remove it
-						if (location == 0 && filteredIndexes.length == 1) {
-							filteredIndexes = null;
-							filteredElements = null;
-							return true;
-						}
-						int[] next = new int[filteredIndexes.length - 1];
-						Object[] filt = new Object[next.length];
-						if (location == 0) {
-							System.arraycopy(filteredIndexes, 1, next, 0, next.length);
-							System.arraycopy(filteredElements, 1, filt, 0, filt.length);
-						} else if (location == (filteredIndexes.length - 1)) {
-							System.arraycopy(filteredIndexes, 0, next, 0, location);
-							System.arraycopy(filteredElements, 0, filt, 0, location);
-						} else {
-							System.arraycopy(filteredIndexes, 0, next, 0, location);
-							System.arraycopy(filteredElements, 0, filt, 0, location);
-							System.arraycopy(filteredIndexes, location + 1, next, location, next.length - location);
-							System.arraycopy(filteredElements, location + 1, filt, location, filt.length - location);
-						}
-						filteredIndexes = next;
-						filteredElements = filt;
-						return false;
-					}
-				} else {
-					return false;
+				if (filtered != null && filtered.remove(childIndex) && filtered.size() == 0) {
+					filtered = null;
+					return children == null || children.isEmpty();
 				}
+				return false;
 			}
 			if (children == null) {
 				return false;
@@ -157,7 +370,7 @@ public class FilterTransform {
 			boolean remove = node.clear(path, childIndex, pathIndex + 1);
 			if (remove) {
 				children.remove(element);
-				return filteredIndexes == null && children.isEmpty();
+				return !hasFilters() && children.isEmpty();
 			} else {
 				return false;
 			}
@@ -178,81 +391,59 @@ public class FilterTransform {
 			return null;
 		}
 
+		boolean hasFilters() {
+			return filtered != null && filtered.size() > 0;
+		}
+
 		int viewToModel(int childIndex) {
-			if (filteredIndexes == null) {
+			if (filtered == null) {
 				return childIndex;
 			}
-			// If there are filtered children, then we want to find the
-			// (n+1)th missing number in the list of filtered indexes (missing
-			// entries are visible in the view). For example, if the request
-			// has asked for the model index corresponding to the 4th viewer
-			// index, then we want to find the 5th missing number in the
-			// filtered index sequence.
-
-			int count = -1; // count from 0, 1, 2...
-			int missingNumbers = 0; // how many numbers missing from the filtered index
-			int offset = 0; // offset into the filtered index
-
-			while (missingNumbers < (childIndex + 1)) {
-				count++;
-				if (offset < filteredIndexes.length) {
-					if (filteredIndexes[offset] == count) {
-						// not missing
-						offset++;
-					} else {
-						// missing
-						missingNumbers++;
-					}
-				} else {
-					missingNumbers++;
-				}
-			}
-			return count;
+			// The model index of the n-th child in the view is the
+			// (n+1)th index missing from the filtered indexes (missing
+			// entries are visible in the view).
+			return filtered.selectMissing(childIndex);
 		}
 
 		int modelToView(int childIndex) {
-			if (filteredIndexes == null) {
+			if (filtered == null) {
 				return childIndex;
 			}
-			int offset = 0;
-			for (int filteredIndex : filteredIndexes) {
-				if (childIndex == filteredIndex ) {
-					return -1;
-				} else if (childIndex > filteredIndex) {
-					offset++;
-				} else {
-					break;
-				}
+			if (filtered.contains(childIndex)) {
+				return -1;
 			}
-			return childIndex - offset;
+			return childIndex - filtered.rank(childIndex);
 		}
 
 		int modelToViewCount(int childCount) {
-			if (filteredIndexes == null) {
+			if (filtered == null) {
 				return childCount;
 			}
-			return childCount - filteredIndexes.length;
+			return childCount - filtered.size();
 		}
 
-		boolean isFiltered(int index) {
-			if (filteredIndexes != null) {
-				int location = Arrays.binarySearch(filteredIndexes, index);
-				return location >= 0;
+		int viewToModelCount(int viewCount) {
+			if (filtered == null) {
+				return viewCount;
 			}
-			return false;
+			return viewCount + filtered.size();
+		}
+
+		boolean isFiltered(int index) {
+			return filtered != null && filtered.contains(index);
 		}
 
 		int indexOfFilteredElement(Object element) {
-			if (filteredElements != null) {
-				for (int i = 0; i < filteredElements.length; i++) {
-					if (element.equals(filteredElements[i])) {
-						return filteredIndexes[i];
-					}
-				}
+			if (filtered != null) {
+				return filtered.indexOf(element);
 			}
 			return -1;
 		}
 
+		int[] getFilteredIndexes() {
+			return filtered != null ? filtered.toArray() : null;
+		}
+
 		/**
 		 * Sets the child count for this element, trimming any filtered elements
 		 * that were above this count.
@@ -260,27 +451,10 @@ public class FilterTransform {
 		 * @param childCount new child count
 		 */
 		void setModelChildCount(int childCount) {
-			if (filteredIndexes != null) {
-				for (int i = 0; i < filteredIndexes.length; i++) {
-					if (filteredIndexes[i] >= childCount) {
-						// trim
-						if (i == 0) {
-							filteredIndexes = null;
-							// bug 200325 - filteredElements should have the same length
-							// as filteredIndexes
-							filteredElements = null;
-							return;
-						} else {
-							int[] temp = new int[i + 1];
-							System.arraycopy(filteredIndexes, 0, temp, 0, temp.length);
-							filteredIndexes = temp;
-							// bug 200325 - filteredElements should have the same length
-							// as filteredIndexes
-							Object[] temp2 = new Object[i + 1];
-							System.arraycopy(filteredElements, 0, temp2, 0, temp2.length);
-							filteredElements = temp2;
-						}
-					}
+			if (filtered != null) {
+				filtered.truncate(childCount);
+				if (filtered.size() == 0) {
+					filtered = null;
 				}
 			}
 		}
@@ -291,43 +465,10 @@ public class FilterTransform {
 		 * @param index index at which an element was removed
 		 */
 		void removeElementFromFilters(int index) {
-			if (filteredIndexes != null) {
-				int location = Arrays.binarySearch(filteredIndexes, index);
-				if (location >= 0) {
-					// remove a filtered item
-					if (filteredIndexes.length == 1) {
-						// only filtered item
-						filteredIndexes = null;
-						filteredElements = null;
-					} else {
-						int[] next = new int[filteredIndexes.length - 1];
-						Object[] filt = new Object[next.length];
-						if (location == 0) {
-							// first
-							System.arraycopy(filteredIndexes, 1, next, 0, next.length);
-							System.arraycopy(filteredElements, 1, filt, 0, filt.length);
-						} else if (location == (filteredIndexes.length - 1)) {
-							// last
-							System.arraycopy(filteredIndexes, 0, next, 0, next.length);
-							System.arraycopy(filteredElements, 0, filt, 0, filt.length);
-						} else {
-							// middle
-							System.arraycopy(filteredIndexes, 0, next, 0, location);
-							System.arraycopy(filteredElements, 0, filt, 0, location);
-							System.arraycopy(filteredIndexes, location + 1, next, location, next.length - location);
-							System.arraycopy(filteredElements, location + 1, filt, location, filt.length - location);
-						}
-						filteredIndexes = next;
-						filteredElements = filt;
-					}
-				} else {
-					location = 0 - (location + 1);
-				}
-				if (filteredIndexes != null) {
-					// decrement remaining indexes
-					for (int i = location; i < filteredIndexes.length; i ++) {
-						filteredIndexes[i]--;
-					}
+			if (filtered != null) {
+				filtered.removeAndShift(index);
+				if (filtered.size() == 0) {
+					filtered = null;
 				}
 			}
 		}
@@ -423,12 +564,10 @@ public class FilterTransform {
 	 */
 	public int viewToModelCount(TreePath parentPath, int viewCount) {
 		Node parentNode = root.find(parentPath, 0);
-		if (parentNode != null) {
-			if (parentNode.filteredIndexes != null) {
-				return viewCount + parentNode.filteredIndexes.length;
-			}
+		if (parentNode == null) {
+			return viewCount;
 		}
-		return viewCount;
+		return parentNode.viewToModelCount(viewCount);
 	}
 
 	/**
@@ -473,7 +612,7 @@ public class FilterTransform {
 		if (parentNode == null) {
 			return null;
 		}
-		return parentNode.filteredIndexes;
+		return parentNode.getFilteredIndexes();
 	}
 
 	/**
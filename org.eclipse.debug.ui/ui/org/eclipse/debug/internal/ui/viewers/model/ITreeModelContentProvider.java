@@ -121,6 +121,21 @@ public interface ITreeModelContentProvider extends ILazyTreePathContentProvider
 	 */
 	void unmapPath(TreePath path);
 
+	/**
+	 * Notification that the viewer was scrolled. Used to prefetch children
+	 * ahead of the visible area, see
+	 * {@link org.eclipse.debug.internal.ui.viewers.model.provisional.PrefetchPolicy}.
+	 *
+	 * @param parentPath path to the parent of the child element at the top of
+	 *            the viewer
+	 * @param viewIndex index of the child element at the top of the viewer,
+	 *            in viewer (filtered) space
+	 * @param visibleCount number of rows visible in the viewer
+	 *
+	 * @since 3.14
+	 */
+	void viewportChanged(TreePath parentPath, int viewIndex, int visibleCount);
+
 	/**
 	 * Sets the bit mask which will be used to filter the {@link IModelDelta}
 	 * coming from the model.  Any delta flags which are hidden by the mask
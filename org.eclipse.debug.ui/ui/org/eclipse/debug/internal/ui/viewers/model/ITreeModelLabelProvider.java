@@ -39,6 +39,18 @@ public interface ITreeModelLabelProvider extends IBaseLabelProvider {
 	 */
 	boolean update(TreePath elementPath);
 
+	/**
+	 * Discards the labels cached for the given element, so that the next
+	 * update of the element retrieves its label from the model.
+	 *
+	 * @param element element whose label changed, or <code>null</code> for
+	 *            all elements
+	 * @param subtree whether the labels of the elements below the given
+	 *            element changed as well
+	 * @since 3.14
+	 */
+	void invalidateLabels(Object element, boolean subtree);
+
 	/**
 	 * Registers the specified listener for view label update notifications.
 	 * @param listener Listener to add
@@ -66,6 +66,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.ScrollBar;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
 import org.eclipse.swt.widgets.TreeItem;
@@ -307,9 +308,38 @@ public class InternalTreeModelViewer extends TreeViewer implements IInternalTree
 			TreeItem item = (TreeItem) event.item;
 			preserveItem(item);
 		});
+		ScrollBar verticalBar = treeControl.getVerticalBar();
+		if (verticalBar != null) {
+			verticalBar.addListener(SWT.Selection, event -> viewportChanged());
+		}
 		super.hookControl(control);
 	}
 
+	/**
+	 * Reports the rows at the top of the tree to the content provider, which
+	 * may prefetch the rows that become visible next.
+	 */
+	private void viewportChanged() {
+		Tree tree = (Tree) getControl();
+		TreeItem topItem = tree.getTopItem();
+		if (topItem == null) {
+			return;
+		}
+		TreeItem parentItem = topItem.getParentItem();
+		TreePath parentPath;
+		int index;
+		if (parentItem == null) {
+			parentPath = TreePath.EMPTY;
+			index = tree.indexOf(topItem);
+		} else {
+			parentPath = getTreePathFromItem(parentItem);
+			index = parentItem.indexOf(topItem);
+		}
+		int itemHeight = tree.getItemHeight();
+		int visibleCount = itemHeight > 0 ? tree.getClientArea().height / itemHeight + 1 : 1;
+		((ITreeModelContentProvider) getContentProvider()).viewportChanged(parentPath, index, visibleCount);
+	}
+
 	/**
 	 * @param item the item
 	 */
@@ -609,6 +639,9 @@ public class InternalTreeModelViewer extends TreeViewer implements IInternalTree
 	@Override
 	protected void internalRefresh(Object element, boolean updateLabels) {
 		ITreeModelContentProvider contentProvider = (ITreeModelContentProvider)getContentProvider();
+		if (updateLabels) {
+			((ITreeModelLabelProvider) getLabelProvider()).invalidateLabels(element, true);
+		}
 
 		if (element == null) {
 			internalRefresh(getControl(), getRoot(), true, updateLabels);
@@ -1366,6 +1399,13 @@ public class InternalTreeModelViewer extends TreeViewer implements IInternalTree
 		update(element, STATE_PROPERTIES);
 	}
 
+	@Override
+	protected void internalUpdate(Widget widget, Object element, String[] properties) {
+		// all update methods of the viewer end up here
+		((ITreeModelLabelProvider) getLabelProvider()).invalidateLabels(element, false);
+		super.internalUpdate(widget, element, properties);
+	}
+
 	/**
 	 * Label data cache keys
 	 * TODO: workaround for bug 159461
@@ -486,12 +486,14 @@ public class InternalVirtualTreeModelViewer extends Viewer
 
 	@Override
 	public void refresh() {
+		getLabelProvider().invalidateLabels(null, true);
 		refresh(fTree);
 		validate();
 	}
 
 	@Override
 	public void refresh(Object element) {
+		getLabelProvider().invalidateLabels(element, true);
 		for (VirtualItem item : findItems(element)) {
 			refresh(item);
 			validate();
@@ -877,6 +879,7 @@ public class InternalVirtualTreeModelViewer extends Viewer
 
 	@Override
 	public void update(Object element) {
+		getLabelProvider().invalidateLabels(element, false);
 		for (VirtualItem item : findItems(element)) {
 			doUpdate(item);
 		}
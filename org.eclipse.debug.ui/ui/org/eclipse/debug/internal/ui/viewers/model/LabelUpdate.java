@@ -142,6 +142,22 @@ class LabelUpdate extends Request implements ILabelUpdate, ICheckUpdate {
 		fProvider.updateComplete(this);
 	}
 
+	/**
+	 * Takes the label attributes from a completed update of the same element
+	 * and columns, instead of retrieving them from the element label provider.
+	 *
+	 * @param update completed update
+	 */
+	void setCachedData(LabelUpdate update) {
+		fLabels = update.fLabels;
+		fImageDescriptors = update.fImageDescriptors;
+		fFontDatas = update.fFontDatas;
+		fForegrounds = update.fForegrounds;
+		fBackgrounds = update.fBackgrounds;
+		fChecked = update.fChecked;
+		fGrayed = update.fGrayed;
+	}
+
 	@Override
 	public Object getElement() {
 		return getElementPath().getLastSegment();
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.Objects;
+
+import org.eclipse.ui.IMemento;
+
+/**
+ * Key of a saved viewer state, identifying the viewer input by the content of
+ * its memento.
+ * <p>
+ * The key is compared by a 64-bit hash of the memento content, so neither
+ * storing nor looking up a viewer state serializes the memento. Keys with the
+ * same hash are compared attribute by attribute to rule out collisions.
+ * </p>
+ * <p>
+ * The hash only depends on the content of a memento, so it is also used by the
+ * {@link ViewerStateTracker} to recognize an element which was encoded into a
+ * memento before, without asking the memento provider to compare them again.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class MementoKey {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final IMemento fMemento;
+	private final long fHash;
+
+	/**
+	 * @param memento memento which must not change while the key is used
+	 */
+	MementoKey(IMemento memento) {
+		fMemento = memento;
+		fHash = hash(memento);
+	}
+
+	long getHash() {
+		return fHash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof MementoKey) {
+			MementoKey key = (MementoKey) obj;
+			return key.fHash == fHash && isEqual(key.fMemento, fMemento);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (fHash ^ (fHash >>> 32));
+	}
+
+	/**
+	 * Computes the 64-bit hash of the type, id, attributes, text and children
+	 * of the given memento. The hash does not depend on the order of the
+	 * attributes.
+	 *
+	 * @param memento memento to hash
+	 * @return hash of the memento content
+	 */
+	static long hash(IMemento memento) {
+		long hash = FNV_OFFSET;
+		hash = hash(hash, memento.getType());
+		hash = hash(hash, memento.getID());
+		long attributes = 0;
+		for (String key : memento.getAttributeKeys()) {
+			attributes += mix(hash(hash(FNV_OFFSET, key), memento.getString(key)));
+		}
+		hash = (hash ^ attributes) * FNV_PRIME;
+		hash = hash(hash, memento.getTextData());
+		for (IMemento child : memento.getChildren()) {
+			hash = (hash ^ hash(child)) * FNV_PRIME;
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Returns whether the given mementos have the same type, id, attributes,
+	 * text and children.
+	 *
+	 * @param m1 a memento
+	 * @param m2 another memento
+	 * @return whether the content of the mementos is equal
+	 */
+	static boolean isEqual(IMemento m1, IMemento m2) {
+		if (m1 == m2) {
+			return true;
+		}
+		if (!Objects.equals(m1.getType(), m2.getType()) || !Objects.equals(m1.getID(), m2.getID()) || !Objects.equals(m1.getTextData(), m2.getTextData())) {
+			return false;
+		}
+		String[] keys = m1.getAttributeKeys();
+		if (keys.length != m2.getAttributeKeys().length) {
+			return false;
+		}
+		for (String key : keys) {
+			if (!Objects.equals(m1.getString(key), m2.getString(key))) {
+				return false;
+			}
+		}
+		IMemento[] children1 = m1.getChildren();
+		IMemento[] children2 = m2.getChildren();
+		if (children1.length != children2.length) {
+			return false;
+		}
+		for (int i = 0; i < children1.length; i++) {
+			if (!isEqual(children1[i], children2[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long hash(long hash, String string) {
+		if (string == null) {
+			return hash * FNV_PRIME;
+		}
+		long h = hash;
+		for (int i = 0; i < string.length(); i++) {
+			h = (h ^ string.charAt(i)) * FNV_PRIME;
+		}
+		// terminate the string so that "ab","c" and "a","bc" differ
+		return (h ^ 0xffff) * FNV_PRIME;
+	}
+
+	/**
+	 * Finalizer of MurmurHash3, spreads the bits of a FNV hash.
+	 */
+	private static long mix(long hash) {
+		long h = hash;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.ModelDelta;
+
+/**
+ * Merges deltas queued by one model proxy into a single delta, so that the
+ * {@link TreeModelContentProvider} refreshes each element once per batch.
+ * <p>
+ * Only deltas which change content, state, expansion, selection or the
+ * revealed element are merged, as applying them in one pass has the same
+ * effect as applying them one after another:
+ * </p>
+ * <ul>
+ * <li>Nodes for the same element at the same index are combined and their
+ * flags are or'ed. The index and child count of the later delta win.</li>
+ * <li>A later SELECT or REVEAL replaces the SELECT or REVEAL of earlier
+ * deltas, a later EXPAND or COLLAPSE of an element cancels the opposite flag
+ * of earlier deltas.</li>
+ * <li>A CONTENT flag below the root absorbs the CONTENT and STATE flags of all
+ * nodes below it, since the whole subtree is refreshed.</li>
+ * </ul>
+ * <p>
+ * Deltas which add, remove, insert, replace, install or uninstall elements
+ * depend on the order they are applied in and are not merged. The merged
+ * delta is a copy, the queued deltas are not modified.
+ * </p>
+ *
+ * @since 3.14
+ */
+class ModelDeltaMerger {
+
+	/**
+	 * Flags of deltas which may be merged.
+	 */
+	static final int MERGEABLE_FLAGS = IModelDelta.CONTENT | IModelDelta.STATE | IModelDelta.EXPAND |
+		IModelDelta.COLLAPSE | IModelDelta.SELECT | IModelDelta.REVEAL | IModelDelta.FORCE;
+
+	private IModelDelta fFirst;
+	private ModelDelta fMerged;
+	private int fCount;
+
+	/**
+	 * Returns whether all nodes of the given delta only have flags which can
+	 * be merged.
+	 *
+	 * @param delta delta to check
+	 * @return whether the delta can be merged
+	 */
+	static boolean isMergeable(IModelDelta delta) {
+		if ((delta.getFlags() & ~MERGEABLE_FLAGS) != 0) {
+			return false;
+		}
+		for (IModelDelta child : delta.getChildDeltas()) {
+			if (!isMergeable(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Merges the given delta into the deltas added before.
+	 *
+	 * @param delta mergeable delta
+	 * @return <code>false</code> if the delta has a different root element
+	 *         than the deltas added before and was not merged
+	 */
+	boolean add(IModelDelta delta) {
+		if (fFirst == null) {
+			fFirst = delta;
+			fCount = 1;
+			return true;
+		}
+		if (!fFirst.getElement().equals(delta.getElement())) {
+			return false;
+		}
+		if (fMerged == null) {
+			fMerged = new ModelDelta(fFirst.getElement(), fFirst.getIndex(), fFirst.getFlags(), fFirst.getChildCount());
+			copyChildren(fFirst, fMerged);
+		}
+		if (containsFlags(delta, IModelDelta.SELECT)) {
+			clearFlags(fMerged, IModelDelta.SELECT | IModelDelta.FORCE);
+		}
+		if (containsFlags(delta, IModelDelta.REVEAL)) {
+			clearFlags(fMerged, IModelDelta.REVEAL);
+		}
+		merge(delta, fMerged);
+		fCount++;
+		return true;
+	}
+
+	/**
+	 * @return number of deltas added
+	 */
+	int getCount() {
+		return fCount;
+	}
+
+	/**
+	 * Returns the merged delta. If only one delta was added, it is returned
+	 * unchanged.
+	 *
+	 * @return the merged delta or <code>null</code> if none was added
+	 */
+	IModelDelta getDelta() {
+		if (fMerged == null) {
+			return fFirst;
+		}
+		for (IModelDelta child : fMerged.getChildDeltas()) {
+			absorbRefreshedFlags(child, false);
+		}
+		return fMerged;
+	}
+
+	private void merge(IModelDelta source, ModelDelta dest) {
+		int flags = source.getFlags();
+		if ((flags & IModelDelta.COLLAPSE) != 0) {
+			clearFlags(dest, IModelDelta.EXPAND);
+		}
+		if ((flags & IModelDelta.EXPAND) != 0) {
+			for (ModelDelta node = dest; node != null; node = (ModelDelta) node.getParentDelta()) {
+				node.setFlags(node.getFlags() & ~IModelDelta.COLLAPSE);
+			}
+		}
+		dest.setFlags(dest.getFlags() | flags);
+		if (source.getIndex() != -1) {
+			dest.setIndex(source.getIndex());
+		}
+		if (source.getChildCount() != -1) {
+			dest.setChildCount(source.getChildCount());
+		}
+		for (IModelDelta child : source.getChildDeltas()) {
+			ModelDelta destChild = dest.getChildDelta(child.getElement(), child.getIndex());
+			if (destChild == null) {
+				destChild = dest.addNode(child.getElement(), child.getIndex(), IModelDelta.NO_CHANGE, child.getChildCount());
+			}
+			merge(child, destChild);
+		}
+	}
+
+	private static void copyChildren(IModelDelta source, ModelDelta dest) {
+		for (IModelDelta child : source.getChildDeltas()) {
+			copyChildren(child, dest.addNode(child.getElement(), child.getIndex(), child.getFlags(), child.getChildCount()));
+		}
+	}
+
+	private static boolean containsFlags(IModelDelta delta, int flags) {
+		if ((delta.getFlags() & flags) != 0) {
+			return true;
+		}
+		for (IModelDelta child : delta.getChildDeltas()) {
+			if (containsFlags(child, flags)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void clearFlags(ModelDelta delta, int flags) {
+		delta.setFlags(delta.getFlags() & ~flags);
+		for (IModelDelta child : delta.getChildDeltas()) {
+			clearFlags((ModelDelta) child, flags);
+		}
+	}
+
+	private static void absorbRefreshedFlags(IModelDelta delta, boolean refreshed) {
+		if (refreshed) {
+			((ModelDelta) delta).setFlags(delta.getFlags() & ~(IModelDelta.CONTENT | IModelDelta.STATE));
+		}
+		boolean childrenRefreshed = refreshed || (delta.getFlags() & IModelDelta.CONTENT) != 0;
+		for (IModelDelta child : delta.getChildDeltas()) {
+			absorbRefreshedFlags(child, childrenRefreshed);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requests of the {@link TreeModelContentProvider} which are running for one
+ * scheduling path.
+ * <p>
+ * Requests are kept in identity sets, so that completed requests are removed
+ * in constant time even if a large batch of requests was started. Children
+ * updates are kept separately and the elements of all requests are counted to
+ * answer the queries of the content provider without scanning all requests.
+ * </p>
+ * <p>
+ * Only used from the UI thread.
+ * </p>
+ *
+ * @since 3.14
+ */
+class RequestsInProgress {
+
+	private final Set<ViewerUpdateMonitor> fRequests = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<ChildrenUpdate> fChildrenUpdates = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * Number of running requests per element.
+	 */
+	private final Map<Object, Integer> fElements = new HashMap<>();
+
+	void add(ViewerUpdateMonitor update) {
+		if (update instanceof ChildrenUpdate) {
+			fChildrenUpdates.add((ChildrenUpdate) update);
+		} else {
+			fRequests.add(update);
+		}
+		fElements.merge(update.getElement(), Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+	}
+
+	/**
+	 * Removes the given request, using an identity test.
+	 *
+	 * @param update the request to remove
+	 * @return whether the request was running
+	 */
+	boolean remove(ViewerUpdateMonitor update) {
+		boolean removed = update instanceof ChildrenUpdate ? fChildrenUpdates.remove(update) : fRequests.remove(update);
+		if (removed) {
+			removeElement(update);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes a running request equal to the given request.
+	 *
+	 * @param update the request to compare to
+	 * @return the removed request or <code>null</code>
+	 */
+	ViewerUpdateMonitor removeEqual(ViewerUpdateMonitor update) {
+		Iterator<? extends ViewerUpdateMonitor> iterator = update instanceof ChildrenUpdate ? fChildrenUpdates.iterator() : fRequests.iterator();
+		while (iterator.hasNext()) {
+			ViewerUpdateMonitor running = iterator.next();
+			if (running.equals(update)) {
+				iterator.remove();
+				removeElement(running);
+				return running;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Cancels and removes all requests.
+	 */
+	void cancelAll() {
+		for (ViewerUpdateMonitor update : fRequests) {
+			update.cancel();
+		}
+		for (ViewerUpdateMonitor update : fChildrenUpdates) {
+			update.cancel();
+		}
+		fRequests.clear();
+		fChildrenUpdates.clear();
+		fElements.clear();
+	}
+
+	/**
+	 * Removes the children updates which start after the given index.
+	 *
+	 * @param modelIndex index of a removed element
+	 * @return the removed updates or <code>null</code> if none
+	 */
+	List<ChildrenUpdate> removeChildrenUpdatesAfter(int modelIndex) {
+		List<ChildrenUpdate> removed = null;
+		Iterator<ChildrenUpdate> iterator = fChildrenUpdates.iterator();
+		while (iterator.hasNext()) {
+			ChildrenUpdate update = iterator.next();
+			if (update.getOffset() > modelIndex) {
+				iterator.remove();
+				removeElement(update);
+				if (removed == null) {
+					removed = new ArrayList<>();
+				}
+				removed.add(update);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Cancels the running prefetch requests which do not intersect the given
+	 * range of children. The requests stay in progress until they complete.
+	 *
+	 * @param start start of the range
+	 * @param end end of the range, exclusive
+	 */
+	void cancelPrefetchUpdatesOutside(int start, int end) {
+		for (ChildrenUpdate update : fChildrenUpdates) {
+			if (update.isPrefetch() && (update.getOffset() >= end || update.getOffset() + update.getLength() <= start)) {
+				update.cancel();
+			}
+		}
+	}
+
+	boolean isEmpty() {
+		return fRequests.isEmpty() && fChildrenUpdates.isEmpty();
+	}
+
+	/**
+	 * @return number of running children updates
+	 */
+	int getChildrenUpdateCount() {
+		return fChildrenUpdates.size();
+	}
+
+	/**
+	 * @param element an element
+	 * @return whether a running request updates the given element
+	 */
+	boolean containsElement(Object element) {
+		return fElements.containsKey(element);
+	}
+
+	private void removeElement(ViewerUpdateMonitor update) {
+		fElements.computeIfPresent(update.getElement(), (e, count) -> count.intValue() > 1 ? Integer.valueOf(count.intValue() - 1) : null);
+	}
+}
@@ -559,6 +559,11 @@ public class SubTreeModelViewer extends TreeModelViewer {
 			fBaseProvider.unmapPath(createFullPath(path));
 		}
 
+		@Override
+		public void viewportChanged(TreePath parentPath, int viewIndex, int visibleCount) {
+			fBaseProvider.viewportChanged(createFullPath(parentPath), viewIndex, visibleCount);
+		}
+
 		@Override
 		public void updateModel(IModelDelta delta, int mask) {
 			fBaseProvider.updateModel(delta, mask);
@@ -617,6 +622,11 @@ public class SubTreeModelViewer extends TreeModelViewer {
 			return fBaseProvider.update( createFullPath(elementPath) );
 		}
 
+		@Override
+		public void invalidateLabels(Object element, boolean subtree) {
+			fBaseProvider.invalidateLabels(element, subtree);
+		}
+
 		@Override
 		public void addLabelUpdateListener(ILabelUpdateListener listener) {
 			fBaseProvider.addLabelUpdateListener(listener);
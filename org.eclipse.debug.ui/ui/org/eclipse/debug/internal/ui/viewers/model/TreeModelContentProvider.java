@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,7 +20,6 @@ package org.eclipse.debug.internal.ui.viewers.model;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,7 +36,6 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.model.elements.ElementContentProvider;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ICheckboxModelProxy;
-import org.eclipse.debug.internal.ui.viewers.model.provisional.IChildrenUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IElementContentProvider;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelChangedListener;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IModelDelta;
@@ -122,15 +120,15 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	private boolean fModelSequenceRunning = false;
 
 	/**
-	 * Map of updates in progress: element path -> list of requests
+	 * Map of updates in progress: element path -> requests
 	 */
-	private Map<TreePath, List<ViewerUpdateMonitor>> fRequestsInProgress = new HashMap<>();
+	private Map<TreePath, RequestsInProgress> fRequestsInProgress = new HashMap<>();
 
 	/**
 	 * Map of dependent requests waiting for parent requests to complete:
-	 * element path -> list of requests
+	 * element path -> requests
 	 */
-	private Map<TreePath, List<ViewerUpdateMonitor>> fWaitingRequests = new HashMap<>();
+	private Map<TreePath, WaitingRequests> fWaitingRequests = new HashMap<>();
 
 	private List<ViewerUpdateMonitor> fCompletedUpdates = new ArrayList<>();
 
@@ -142,6 +140,8 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 
 	private int fRevealIndex;
 
+	private ViewportPrefetcher fPrefetcher = new ViewportPrefetcher(this);
+
 	/**
 	 * Update type constants
 	 */
@@ -169,10 +169,8 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
 		// cancel pending updates
-		for (List<ViewerUpdateMonitor> requests : fRequestsInProgress.values()) {
-			for (ViewerUpdateMonitor vu : requests) {
-				vu.cancel();
-			}
+		for (RequestsInProgress requests : fRequestsInProgress.values()) {
+			requests.cancelAll();
 		}
 		fWaitingRequests.clear();
 
@@ -216,6 +214,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		disposeAllModelProxies();
 		cancelSubtreeUpdates(TreePath.EMPTY);
 		fTransform.clear();
+		fPrefetcher.reset();
 		if (newInput != null) {
 			installModelProxy(newInput, TreePath.EMPTY);
 			fStateTracker.restoreViewerState(newInput);
@@ -405,6 +404,10 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		private final List<Object> fQueue = new ArrayList<>();
 		private boolean shutdown;
 
+		// proxy of the run of consecutive deltas being merged, and their merge
+		private IModelProxy fMergedProxy;
+		private ModelDeltaMerger fMerger;
+
 		public DelayedDoModelChangedJob() {
 			super("Delayed model change job"); //$NON-NLS-1$
 			setSystem(true);
@@ -424,25 +427,63 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 			if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER) {
 				DebugUIPlugin.trace("Delayed batch size: " + currentBatch.size()); //$NON-NLS-1$
 			}
+			// consecutive deltas of the same proxy are merged, up to the next
+			// task or delta which has to be applied in order
 			for (Iterator<?> iterator = currentBatch.iterator(); iterator.hasNext();) {
 				Object task = iterator.next();
 				if (monitor.isCanceled()) {
+					applyMerged();
 					restoreQueue(currentBatch);
 					return Status.CANCEL_STATUS;
 				}
 				if (task instanceof DelayedDoModelChange) {
 					DelayedDoModelChange change = (DelayedDoModelChange) task;
+					fReceivedDeltaCount++;
 					if (!change.proxy.isDisposed()) {
-						doModelChanged(change.delta, change.proxy);
+						if (!mergeDelta(change)) {
+							applyMerged();
+							doModelChanged(change.delta, change.proxy);
+						}
 					}
 				} else {
+					applyMerged();
 					((Runnable) task).run();
 				}
 				iterator.remove();
 			}
+			applyMerged();
 			return Status.OK_STATUS;
 		}
 
+		private boolean mergeDelta(DelayedDoModelChange change) {
+			if (!ModelDeltaMerger.isMergeable(change.delta)) {
+				return false;
+			}
+			if (fMerger != null && fMergedProxy != change.proxy) {
+				// deltas of different proxies are applied in the order received
+				applyMerged();
+			}
+			if (fMerger == null) {
+				fMerger = new ModelDeltaMerger();
+				fMergedProxy = change.proxy;
+			}
+			return fMerger.add(change.delta);
+		}
+
+		private void applyMerged() {
+			ModelDeltaMerger merger = fMerger;
+			IModelProxy proxy = fMergedProxy;
+			fMerger = null;
+			fMergedProxy = null;
+			if (merger == null) {
+				return;
+			}
+			if (DebugUIPlugin.DEBUG_DELTAS && merger.getCount() > 1 && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
+				DebugUIPlugin.trace("MERGED " + merger.getCount() + " DELTAS"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			doModelChanged(merger.getDelta(), proxy);
+		}
+
 		private void restoreQueue(List<Object> currentBatch) {
 			synchronized (fQueue) {
 				currentBatch.addAll(fQueue);
@@ -488,6 +529,34 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 
 	private final DelayedDoModelChangedJob fDelayedDoModelChangeJob = new DelayedDoModelChangedJob();
 
+	/**
+	 * Number of deltas received from model proxies and number of deltas
+	 * applied to the viewer, which is lower when queued deltas were merged.
+	 * Only accessed in the UI thread.
+	 */
+	private int fReceivedDeltaCount;
+	private int fAppliedDeltaCount;
+
+	/**
+	 * This method is public so the test suite has access - it should be default
+	 * protection.
+	 *
+	 * @return number of deltas received from model proxies
+	 */
+	public int getReceivedDeltaCount() {
+		return fReceivedDeltaCount;
+	}
+
+	/**
+	 * This method is public so the test suite has access - it should be default
+	 * protection.
+	 *
+	 * @return number of deltas applied to the viewer after merging
+	 */
+	public int getAppliedDeltaCount() {
+		return fAppliedDeltaCount;
+	}
+
 	@Override
 	public void modelChanged(final IModelDelta delta, final IModelProxy proxy) {
 		Display display = null;
@@ -503,6 +572,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 			// If we're in display thread, process the delta immediately to
 			// avoid "skid" in processing events.
 			if (Thread.currentThread().equals(display.getThread())) {
+				fReceivedDeltaCount++;
 				doModelChanged(delta, proxy);
 			}
 			else {
@@ -527,6 +597,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 				DebugUIPlugin.trace("RECEIVED DELTA: " + delta); //$NON-NLS-1$
 			}
 
+			fAppliedDeltaCount++;
 			updateModel(delta, getModelDeltaMask());
 
 			// Initiate model update sequence before notifying of the model changed.
@@ -558,6 +629,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		}
 
 		fRevealPath = null;
+		fPrefetcher.reset();
 		IModelDelta[] deltaArray = new IModelDelta[] { delta };
 		updateNodes(deltaArray, mask & (IModelDelta.REMOVED | IModelDelta.UNINSTALL));
 		updateNodes(deltaArray, mask & ITreeModelContentProvider.UPDATE_MODEL_DELTA_FLAGS
@@ -728,9 +800,9 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	void updateStarted(ViewerUpdateMonitor update) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
-		List<ViewerUpdateMonitor> requests = fRequestsInProgress.get(update.getSchedulingPath());
+		RequestsInProgress requests = fRequestsInProgress.get(update.getSchedulingPath());
 		if (requests == null) {
-			requests = new ArrayList<>();
+			requests = new RequestsInProgress();
 			fRequestsInProgress.put(update.getSchedulingPath(), requests);
 		}
 		requests.add(update);
@@ -771,17 +843,8 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 
 				// Search for update in list using identity test. Otherwise a completed canceled
 				// update may trigger removal of up-to-date running update on the same element.
-				List<ViewerUpdateMonitor> requests = fRequestsInProgress.get(update.getSchedulingPath());
-				boolean found = false;
-				if (requests != null) {
-					for (int j = 0; j < requests.size(); j++) {
-						if (requests.get(j) == update) {
-							found = true;
-							requests.remove(j);
-							break;
-						}
-					}
-				}
+				RequestsInProgress requests = fRequestsInProgress.get(update.getSchedulingPath());
+				boolean found = requests != null && requests.remove(update);
 
 				if (found) {
 					// Trigger may initiate new updates, so wait to remove requests array from
@@ -872,29 +935,16 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 */
 	private void cancelSubtreeUpdates(TreePath path) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
-		for (Entry<TreePath, List<ViewerUpdateMonitor>> entry : fRequestsInProgress.entrySet()) {
+		for (Entry<TreePath, RequestsInProgress> entry : fRequestsInProgress.entrySet()) {
 			TreePath entryPath = entry.getKey();
 			if (entryPath.startsWith(path, null)) {
-				List<ViewerUpdateMonitor> requests = entry.getValue();
-				Iterator<ViewerUpdateMonitor> reqIter = requests.iterator();
-				while (reqIter.hasNext()) {
-					// Cancel update and remove from requests list.  Removing from
-					// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
-					// by a canceled update.
-					reqIter.next().cancel();
-					reqIter.remove();
-				}
-			}
-		}
-		List<TreePath> purge = new ArrayList<>();
-		for (TreePath entryPath : fWaitingRequests.keySet()) {
-			if (entryPath.startsWith(path, null)) {
-				purge.add(entryPath);
+				// Cancel updates and remove from requests list.  Removing from
+				// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
+				// by a canceled update.
+				entry.getValue().cancelAll();
 			}
 		}
-		for (TreePath tp : purge) {
-			fWaitingRequests.remove(tp);
-		}
+		fWaitingRequests.keySet().removeIf(entryPath -> entryPath.startsWith(path, null));
 
 		fStateTracker.cancelStateSubtreeUpdates(path);
 	}
@@ -909,20 +959,19 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		Assert.isTrue(getViewer().getDisplay().getThread() == Thread.currentThread());
 
 		TreePath schedulingPath = update.getSchedulingPath();
-		List<ViewerUpdateMonitor> requests = fWaitingRequests.get(schedulingPath);
+		WaitingRequests requests = fWaitingRequests.get(schedulingPath);
 		if (requests == null) {
-			requests = new LinkedList<>();
+			requests = new WaitingRequests();
 			requests.add(update);
 			fWaitingRequests.put(schedulingPath, requests);
 
-			List<ViewerUpdateMonitor> inProgressList = fRequestsInProgress.get(schedulingPath);
+			RequestsInProgress inProgressList = fRequestsInProgress.get(schedulingPath);
 			if (inProgressList != null) {
-				int staleUpdateIndex = inProgressList.indexOf(update);
-				if (staleUpdateIndex >= 0) {
+				ViewerUpdateMonitor staleUpdate = inProgressList.removeEqual(update);
+				if (staleUpdate != null) {
 					// Cancel update and remove from requests list.  Removing from
 					// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
 					// by a canceled update.
-					ViewerUpdateMonitor staleUpdate = inProgressList.remove(staleUpdateIndex);
 					staleUpdate.cancel();
 					// Note: Do not reset the inProgressList to null.  This would cause the
 					// updateStarted() method to think that a new update sequence is
@@ -939,30 +988,9 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 				});
 			}
 		} else {
-			// there are waiting requests: coalesce with existing request and add to list
-			requests.add(coalesce(requests, update));
-		}
-	}
-
-	/**
-	 * Tries to coalesce the given request with any request in the list.  If a match is found,
-	 * the resulting request is then coalesced again with candidates in list.
-	 * @param requests List of waiting requests to coalesce with
-	 * @param toCoalesce request to coalesce
-	 * @return Returns either the coalesced request.  If no match was found it returns the
-	 * toCoalesce parameter request.  Either way the returned request needs to be added to the
-	 * waiting requests list.
-	 */
-	private ViewerUpdateMonitor coalesce(List<ViewerUpdateMonitor> requests, ViewerUpdateMonitor toCoalesce) {
-		for (ViewerUpdateMonitor waiting : requests) {
-			if (waiting.coalesce(toCoalesce)) {
-				requests.remove(waiting);
-				// coalesced with existing request, done
-				// try to coalesce the combined requests with other waiting requests
-				return coalesce(requests, waiting);
-			}
+			// there are waiting requests: coalesce with existing requests
+			requests.add(update);
 		}
-		return toCoalesce;
 	}
 
 	/**
@@ -974,26 +1002,12 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 */
 	boolean areChildrenUpdatesPending(TreePath path) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
-		List<ViewerUpdateMonitor> requests = fWaitingRequests.get(path);
-		if (requests != null) {
-			for (ViewerUpdateMonitor request : requests) {
-				if (request instanceof ChildrenUpdate) {
-					return true;
-				}
-			}
+		WaitingRequests waiting = fWaitingRequests.get(path);
+		if (waiting != null && waiting.hasChildrenUpdates()) {
+			return true;
 		}
-		requests = fRequestsInProgress.get(path);
-		if (requests != null) {
-			int numChildrenUpdateRequests = 0;
-			for (ViewerUpdateMonitor request : requests) {
-				if (request instanceof ChildrenUpdate) {
-					if (++numChildrenUpdateRequests > 1) {
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		RequestsInProgress running = fRequestsInProgress.get(path);
+		return running != null && running.getChildrenUpdateCount() > 1;
 	}
 
 	/**
@@ -1014,12 +1028,12 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		if (fWaitingRequests.isEmpty()) {
 			return;
 		}
-		List<ViewerUpdateMonitor> waiting = fWaitingRequests.get(schedulingPath);
+		WaitingRequests waiting = fWaitingRequests.get(schedulingPath);
 		if (waiting == null) {
 			// no waiting, update the entry with the shortest path
 			int length = Integer.MAX_VALUE;
-			Entry<TreePath, List<ViewerUpdateMonitor>> candidate = null;
-			for (Entry<TreePath, List<ViewerUpdateMonitor>> entry : fWaitingRequests.entrySet()) {
+			Entry<TreePath, WaitingRequests> candidate = null;
+			for (Entry<TreePath, WaitingRequests> entry : fWaitingRequests.entrySet()) {
 				TreePath key = entry.getKey();
 				if (key.getSegmentCount() < length && !isRequestBlocked(key)) {
 					candidate = entry;
@@ -1043,7 +1057,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 */
 	private boolean isRequestBlocked(TreePath requestPath) {
 		TreePath parentPath = requestPath;
-		List<ViewerUpdateMonitor> parentRequests = fRequestsInProgress.get(parentPath);
+		RequestsInProgress parentRequests = fRequestsInProgress.get(parentPath);
 		while (parentRequests == null || parentRequests.isEmpty()) {
 			parentPath = parentPath.getParentPath();
 			if (parentPath == null) {
@@ -1059,17 +1073,9 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	 * @param key the {@link TreePath}
 	 * @param waiting the list of waiting requests
 	 */
-	private void startHighestPriorityRequest(TreePath key, List<ViewerUpdateMonitor> waiting) {
-		int priority = 4;
-		ViewerUpdateMonitor next = null;
-		for (ViewerUpdateMonitor vu : waiting) {
-			if (vu.getPriority() < priority) {
-				next = vu;
-				priority = next.getPriority();
-			}
-		}
+	private void startHighestPriorityRequest(TreePath key, WaitingRequests waiting) {
+		ViewerUpdateMonitor next = waiting.poll();
 		if (next != null) {
-			waiting.remove(next);
 			if (waiting.isEmpty()) {
 				fWaitingRequests.remove(key);
 			}
@@ -1104,42 +1110,27 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 	private void rescheduleUpdates(TreePath parentPath, int modelIndex) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
-		List<ViewerUpdateMonitor> requests = fRequestsInProgress.get(parentPath);
-		List<IChildrenUpdate> reCreate = null;
+		RequestsInProgress requests = fRequestsInProgress.get(parentPath);
+		List<ChildrenUpdate> reCreate = null;
 		if (requests != null) {
-			Iterator<ViewerUpdateMonitor> iterator = requests.iterator();
-			while (iterator.hasNext()) {
-				ViewerUpdateMonitor update = iterator.next();
-				if (update instanceof IChildrenUpdate) {
-					IChildrenUpdate childrenUpdate = (IChildrenUpdate) update;
-					if (childrenUpdate.getOffset() > modelIndex) {
-						// Cancel update and remove from requests list.  Removing from
-						// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
-						// by a canceled update.
-						childrenUpdate.cancel();
-						iterator.remove();
-						if (reCreate == null) {
-							reCreate = new ArrayList<>();
-						}
-						reCreate.add(childrenUpdate);
-						if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
-							DebugUIPlugin.trace("canceled update in progress handling REMOVE: " + childrenUpdate); //$NON-NLS-1$
-						}
+			// Cancel updates and remove from requests list.  Removing from
+			// fRequestsInProgress ensures that isRequestBlocked() won't be triggered
+			// by a canceled update.
+			reCreate = requests.removeChildrenUpdatesAfter(modelIndex);
+			if (reCreate != null) {
+				for (ChildrenUpdate childrenUpdate : reCreate) {
+					childrenUpdate.cancel();
+					if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
+						DebugUIPlugin.trace("canceled update in progress handling REMOVE: " + childrenUpdate); //$NON-NLS-1$
 					}
 				}
 			}
 		}
-		requests = fWaitingRequests.get(parentPath);
-		if (requests != null) {
-			for (ViewerUpdateMonitor update : requests) {
-				if (update instanceof IChildrenUpdate) {
-					IChildrenUpdate childrenUpdate = (IChildrenUpdate) update;
-					if (childrenUpdate.getOffset() > modelIndex) {
-						((ChildrenUpdate) childrenUpdate).setOffset(childrenUpdate.getOffset() - 1);
-						if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
-							DebugUIPlugin.trace("modified waiting update handling REMOVE: " + childrenUpdate); //$NON-NLS-1$
-						}
-					}
+		WaitingRequests waiting = fWaitingRequests.get(parentPath);
+		if (waiting != null) {
+			for (ChildrenUpdate childrenUpdate : waiting.shiftChildrenUpdates(modelIndex)) {
+				if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
+					DebugUIPlugin.trace("modified waiting update handling REMOVE: " + childrenUpdate); //$NON-NLS-1$
 				}
 			}
 		}
@@ -1147,7 +1138,7 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		// have to do this last else the requests would be waiting and
 		// get modified.
 		if (reCreate != null) {
-			for (IChildrenUpdate childrenUpdate : reCreate) {
+			for (ChildrenUpdate childrenUpdate : reCreate) {
 				int start = childrenUpdate.getOffset() - 1;
 				int end = start + childrenUpdate.getLength();
 				for (int i = start; i < end; i++) {
@@ -1179,6 +1170,52 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		}
 	}
 
+	/**
+	 * Requests the given range of children ahead of the visible area. The
+	 * request is canceled by {@link #cancelPrefetch(TreePath, int, int)} unless
+	 * it is coalesced with a request for visible children.
+	 *
+	 * @param parentPath path of the parent element
+	 * @param modelOffset model index of the first child
+	 * @param length number of children
+	 */
+	void prefetchChildren(TreePath parentPath, int modelOffset, int length) {
+		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
+
+		Object parent = getElement(parentPath);
+		IElementContentProvider contentAdapter = ViewerAdapterService.getContentProvider(parent);
+		if (contentAdapter != null) {
+			ChildrenUpdate request = new ChildrenUpdate(this, getViewer().getInput(), parentPath, parent, modelOffset, length, contentAdapter);
+			request.setPrefetch();
+			if (DebugUIPlugin.DEBUG_CONTENT_PROVIDER && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(getPresentationContext())) {
+				DebugUIPlugin.trace("prefetch: " + request); //$NON-NLS-1$
+			}
+			schedule(request);
+		}
+	}
+
+	/**
+	 * Cancels the prefetch requests for children of the given parent which do
+	 * not intersect the given range. Waiting requests are dropped, running
+	 * requests are canceled.
+	 *
+	 * @param parentPath path of the parent element
+	 * @param modelStart model index of the first child to keep
+	 * @param modelEnd model index after the last child to keep
+	 */
+	void cancelPrefetch(TreePath parentPath, int modelStart, int modelEnd) {
+		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
+
+		WaitingRequests waiting = fWaitingRequests.get(parentPath);
+		if (waiting != null && waiting.removePrefetchUpdatesOutside(modelStart, modelEnd) > 0 && waiting.isEmpty()) {
+			fWaitingRequests.remove(parentPath);
+		}
+		RequestsInProgress running = fRequestsInProgress.get(parentPath);
+		if (running != null) {
+			running.cancelPrefetchUpdatesOutside(modelStart, modelEnd);
+		}
+	}
+
 	private void doUpdateHasChildren(TreePath path) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
@@ -1200,39 +1237,20 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
 
 		TreePath parentPath = path.getParentPath();
-		List<ViewerUpdateMonitor> requests = fWaitingRequests.get(path);
-		if (requests != null) {
-			for (ViewerUpdateMonitor update : requests) {
-				if (update instanceof ChildrenUpdate) {
-					return true;
-				}
-			}
+		WaitingRequests waiting = fWaitingRequests.get(path);
+		if (waiting != null && waiting.hasChildrenUpdates()) {
+			return true;
 		}
-		requests = fWaitingRequests.get(parentPath);
-		if (requests != null) {
-			for (ViewerUpdateMonitor update : requests) {
-				if (update.containsUpdate(path)) {
-					return true;
-				}
-			}
-		}
-		requests = fRequestsInProgress.get(path);
-		if (requests != null) {
-			for (ViewerUpdateMonitor update : requests) {
-				if (update instanceof ChildrenUpdate) {
-					return true;
-				}
-			}
+		waiting = fWaitingRequests.get(parentPath);
+		if (waiting != null && waiting.containsUpdate(path)) {
+			return true;
 		}
-		requests = fRequestsInProgress.get(parentPath);
-		if (requests != null) {
-			for (ViewerUpdateMonitor update : requests) {
-				if (update.getElement().equals(path.getLastSegment())) {
-					return true;
-				}
-			}
+		RequestsInProgress running = fRequestsInProgress.get(path);
+		if (running != null && running.getChildrenUpdateCount() > 0) {
+			return true;
 		}
-		return false;
+		running = fRequestsInProgress.get(parentPath);
+		return running != null && running.containsElement(path.getLastSegment());
 	}
 
 	/**
@@ -1749,6 +1767,20 @@ public class TreeModelContentProvider implements ITreeModelContentProvider, ICon
 		doUpdateElement(parentPath, modelIndex);
 	}
 
+	@Override
+	public void viewportChanged(TreePath parentPath, int viewIndex, int visibleCount) {
+		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
+
+		int childCount = getViewer().getChildCount(parentPath);
+		if (childCount < 0) {
+			return;
+		}
+		int modelCount = viewToModelCount(parentPath, childCount);
+		int top = viewToModelIndex(parentPath, viewIndex);
+		int end = viewIndex + visibleCount < childCount ? viewToModelIndex(parentPath, viewIndex + visibleCount) : modelCount;
+		fPrefetcher.viewportChanged(parentPath, top, end - top, modelCount, System.currentTimeMillis());
+	}
+
 	@Override
 	public void updateHasChildren(TreePath path) {
 		Assert.isTrue( getViewer().getDisplay().getThread() == Thread.currentThread() );
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,11 +16,16 @@
 package org.eclipse.debug.internal.ui.viewers.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -80,6 +85,52 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 	 */
 	private Map<RGB, Color> fColorCache = new HashMap<>();
 
+	/**
+	 * Maximum number of element labels kept in the label cache.
+	 */
+	private static final int MAX_CACHED_LABELS = 10000;
+
+	/**
+	 * Cache of completed label updates by element path, least recently used
+	 * first. A label is taken from the cache when the viewer requests it
+	 * again for the same input and columns, e.g. when items are exposed
+	 * again, until the element is updated or refreshed by the viewer. Only
+	 * accessed in the UI thread.
+	 */
+	private Map<TreePath, LabelUpdate> fLabelCache = new LinkedHashMap<TreePath, LabelUpdate>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TreePath, LabelUpdate> eldest) {
+			if (size() > MAX_CACHED_LABELS) {
+				unindexLabel(eldest.getKey());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Paths in the label cache by their last segment, used to invalidate the
+	 * labels of an element without scanning the cache.
+	 */
+	private Map<Object, Set<TreePath>> fCachedElementPaths = new HashMap<>();
+
+	/**
+	 * Paths in the label cache by each of their parent segments, used to
+	 * invalidate the labels of a subtree without scanning the cache.
+	 */
+	private Map<Object, Set<TreePath>> fCachedSubtreePaths = new HashMap<>();
+
+	/**
+	 * Answers label updates which were filled from the label cache.
+	 */
+	private final IElementLabelProvider fCachedLabelProvider = updates -> {
+		for (ILabelUpdate update : updates) {
+			update.done();
+		}
+	};
+
 	/**
 	 * Label listeners
 	 */
@@ -238,6 +289,7 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 			image.dispose();
 		}
 		fImageCache.clear();
+		clearLabels();
 		for (Font font : fFontCache.values()) {
 			font.dispose();
 		}
@@ -268,12 +320,22 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 		Object element = elementPath.getLastSegment();
 		IElementLabelProvider presentation = ViewerAdapterService.getLabelProvider(element);
 		if (presentation != null) {
+			LabelUpdate update = new LabelUpdate(fViewer.getInput(), elementPath, this, visibleColumns, fViewer.getPresentationContext());
+			LabelUpdate cached = fLabelCache.get(elementPath);
+			if (cached != null) {
+				if (Arrays.equals(visibleColumns, cached.getColumnIds()) && Objects.equals(update.getViewerInput(), cached.getViewerInput())) {
+					update.setCachedData(cached);
+					presentation = fCachedLabelProvider;
+				} else {
+					removeLabel(elementPath);
+				}
+			}
 			List<ILabelUpdate> updates = fPendingUpdates.get(presentation);
 			if (updates == null) {
 				updates = new LinkedList<>();
 				fPendingUpdates.put(presentation, updates);
 			}
-			updates.add(new LabelUpdate(fViewer.getInput(), elementPath, this, visibleColumns, fViewer.getPresentationContext()));
+			updates.add(update);
 			fPendingUpdatesRunnable = new Runnable() {
 				@Override
 				public void run() {
@@ -290,6 +352,71 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 		}
 	}
 
+	@Override
+	public void invalidateLabels(Object element, boolean subtree) {
+		if (isDisposed()) {
+			return;
+		}
+		if (element == null || (subtree && element.equals(fViewer.getInput()))) {
+			clearLabels();
+			return;
+		}
+		removeLabels(fCachedElementPaths.get(element));
+		if (subtree) {
+			removeLabels(fCachedSubtreePaths.get(element));
+		}
+	}
+
+	/**
+	 * Caches the label of the element at the given path.
+	 *
+	 * @param path element path
+	 * @param update completed label update
+	 */
+	private void cacheLabel(TreePath path, LabelUpdate update) {
+		if (fLabelCache.put(path, update) == null) {
+			fCachedElementPaths.computeIfAbsent(path.getLastSegment(), k -> new HashSet<>()).add(path);
+			for (int i = 0; i < path.getSegmentCount() - 1; i++) {
+				fCachedSubtreePaths.computeIfAbsent(path.getSegment(i), k -> new HashSet<>()).add(path);
+			}
+		}
+	}
+
+	private void removeLabel(TreePath path) {
+		if (fLabelCache.remove(path) != null) {
+			unindexLabel(path);
+		}
+	}
+
+	private void removeLabels(Set<TreePath> paths) {
+		if (paths != null) {
+			// copy, the set is modified while removing its paths
+			for (TreePath path : new ArrayList<>(paths)) {
+				removeLabel(path);
+			}
+		}
+	}
+
+	private void unindexLabel(TreePath path) {
+		unindex(fCachedElementPaths, path.getLastSegment(), path);
+		for (int i = 0; i < path.getSegmentCount() - 1; i++) {
+			unindex(fCachedSubtreePaths, path.getSegment(i), path);
+		}
+	}
+
+	private static void unindex(Map<Object, Set<TreePath>> index, Object segment, TreePath path) {
+		Set<TreePath> paths = index.get(segment);
+		if (paths != null && paths.remove(path) && paths.isEmpty()) {
+			index.remove(segment);
+		}
+	}
+
+	private void clearLabels() {
+		fLabelCache.clear();
+		fCachedElementPaths.clear();
+		fCachedSubtreePaths.clear();
+	}
+
 	/**
 	 * Cancel any outstanding updates that are running for this element.
 	 * @param elementPath Element to cancel updates for.
@@ -409,7 +536,11 @@ public class TreeModelLabelProvider extends ColumnLabelProvider
 					if (itrUpdate.isCanceled()) {
 						updateComplete(itrUpdate);
 					} else {
-						((LabelUpdate) itrUpdate).performUpdate();
+						LabelUpdate labelUpdate = (LabelUpdate) itrUpdate;
+						if (labelUpdate.getStatus() == null || labelUpdate.getStatus().isOK()) {
+							cacheLabel(labelUpdate.getElementPath(), labelUpdate);
+						}
+						labelUpdate.performUpdate();
 					}
 				}
 			});
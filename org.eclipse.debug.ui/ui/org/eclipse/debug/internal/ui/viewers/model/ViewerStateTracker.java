@@ -15,8 +15,6 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.ui.viewers.model;
 
-import java.io.IOException;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -145,7 +144,15 @@ class ViewerStateTracker {
 	/**
 	 * Map of viewer states keyed by viewer input mementos
 	 */
-	private Map<String, ModelDelta> fViewerStates = new LRUMap<>(20);
+	private Map<MementoKey, ModelDelta> fViewerStates = new LRUMap<>(20);
+
+	/**
+	 * Hashes of the mementos the elements were encoded into when saving state,
+	 * see {@link MementoKey#hash(IMemento)}. An element whose memento hash
+	 * matches the memento in the pending state is restored without an element
+	 * compare request.
+	 */
+	private Map<Object, Long> fEncodedElements = new WeakHashMap<>();
 
 	/**
 	 * Pending viewer state to be restored
@@ -226,6 +233,7 @@ class ViewerStateTracker {
 			ecr.cancel();
 		}
 		fCompareRequestsInProgress.clear();
+		fEncodedElements.clear();
 
 		if (fPendingSetTopItem != null) {
 			fPendingSetTopItem.dispose();
@@ -260,50 +268,43 @@ class ViewerStateTracker {
 					notifyStateUpdate(input, TreeModelContentProvider.UPDATE_COMPLETE, request);
 
 					if (!request.isCanceled() && (request.getStatus() == null || request.getStatus().isOK())) {
-						XMLMemento keyMemento = (XMLMemento) delta.getElement();
-						StringWriter writer = new StringWriter();
-						try {
-							keyMemento.save(writer);
-							final String keyMementoString = writer.toString();
-							ModelDelta stateDelta = fViewerStates.get(keyMementoString);
-							if (stateDelta != null) {
-								if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
-									DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - MATCHING STATE FOUND"); //$NON-NLS-1$ //$NON-NLS-2$
-								}
+						final MementoKey key = new MementoKey((IMemento) delta.getElement());
+						ModelDelta stateDelta = fViewerStates.get(key);
+						if (stateDelta != null) {
+							if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
+								DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - MATCHING STATE FOUND"); //$NON-NLS-1$ //$NON-NLS-2$
+							}
 
-								// Process start of restore in an async cycle because we may still be inside inputChanged()
-								// call. I.e. the "input.equals(fContentProvider.getViewer().getInput())" test may fail.
-								fContentProvider.getViewer().getDisplay().asyncExec(() -> {
-									if (!fContentProvider.isDisposed()
-											&& input.equals(fContentProvider.getViewer().getInput())) {
-										ModelDelta stateDelta2 = fViewerStates.remove(keyMementoString);
-										if (stateDelta2 != null) {
-											if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
-													&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
-															fContentProvider.getPresentationContext())) {
-												DebugUIPlugin.trace("STATE RESTORE BEGINS"); //$NON-NLS-1$
-												DebugUIPlugin.trace("\tRESTORE: " + stateDelta2); //$NON-NLS-1$
-												notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
-											}
-											stateDelta2.setElement(input);
-											fPendingState = stateDelta2;
-											doInitialRestore(fPendingState);
-										}
-									} else {
+							// Process start of restore in an async cycle because we may still be inside inputChanged()
+							// call. I.e. the "input.equals(fContentProvider.getViewer().getInput())" test may fail.
+							fContentProvider.getViewer().getDisplay().asyncExec(() -> {
+								if (!fContentProvider.isDisposed()
+										&& input.equals(fContentProvider.getViewer().getInput())) {
+									ModelDelta stateDelta2 = fViewerStates.remove(key);
+									if (stateDelta2 != null) {
 										if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
 												&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
 														fContentProvider.getPresentationContext())) {
-											DebugUIPlugin.trace("STATE RESTORE CANCELED."); //$NON-NLS-1$
+											DebugUIPlugin.trace("STATE RESTORE BEGINS"); //$NON-NLS-1$
+											DebugUIPlugin.trace("\tRESTORE: " + stateDelta2); //$NON-NLS-1$
+											notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
 										}
+										stateDelta2.setElement(input);
+										fPendingState = stateDelta2;
+										doInitialRestore(fPendingState);
+									}
+								} else {
+									if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE
+											&& DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(
+													fContentProvider.getPresentationContext())) {
+										DebugUIPlugin.trace("STATE RESTORE CANCELED."); //$NON-NLS-1$
 									}
-								});
-							} else {
-								if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
-									DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - NO MATCHING STATE"); //$NON-NLS-1$ //$NON-NLS-2$
 								}
+							});
+						} else {
+							if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext()))  {
+								DebugUIPlugin.trace("STATE RESTORE INPUT COMARE ENDED : " + fRequest + " - NO MATCHING STATE"); //$NON-NLS-1$ //$NON-NLS-2$
 							}
-						} catch (IOException e) {
-							DebugUIPlugin.log(e);
 						}
 					} else {
 						notifyStateUpdate(input, STATE_RESTORE_SEQUENCE_BEGINS, null);
@@ -673,20 +674,14 @@ class ViewerStateTracker {
 				}
 
 				if (!request.isCanceled() && (request.getStatus() == null || request.getStatus().isOK())) {
+					fEncodedElements.put(request.getElement(), Long.valueOf(MementoKey.hash(request.getMemento())));
 					boolean requestsComplted = false;
 					if (!fCanceled) {
 						fRequests.remove(request);
 						requestsComplted = fRequests.isEmpty();
 					}
 					if (requestsComplted) {
-						XMLMemento keyMemento = (XMLMemento) rootDelta.getElement();
-						StringWriter writer = new StringWriter();
-						try {
-							keyMemento.save(writer);
-							fViewerStates.put(writer.toString(), rootDelta);
-						} catch (IOException e) {
-							DebugUIPlugin.log(e);
-						}
+						fViewerStates.put(new MementoKey((IMemento) rootDelta.getElement()), rootDelta);
 						if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext())) {
 							DebugUIPlugin.trace("STATE SAVE COMPLETED: " + rootDelta); //$NON-NLS-1$
 						}
@@ -959,7 +954,24 @@ class ViewerStateTracker {
 					if (provider != null) {
 						CompareRequestKey key = new CompareRequestKey(path, delta);
 						ElementCompareRequest existingRequest = fCompareRequestsInProgress.get(key);
-						if (existingRequest != null) {
+						if (existingRequest == null && isEncodedAs(potentialMatch, (IMemento) element)) {
+							// The element was encoded into this memento when the state
+							// was saved, restore it without asking the provider.
+							ElementCompareRequest compareRequest = new ElementCompareRequest(fContentProvider,
+									fContentProvider.getViewer().getInput(), potentialMatch, path, (IMemento) element,
+									(ModelDelta) delta, modelIndex, knowsHasChildren, knowsChildCount,
+									checkChildrenRealized);
+							compareRequest.setEqual(true);
+							notifyStateUpdate(element, TreeModelContentProvider.UPDATE_BEGINS, compareRequest);
+							notifyStateUpdate(compareRequest.getViewerInput(), TreeModelContentProvider.UPDATE_COMPLETE, compareRequest);
+							if (DebugUIPlugin.DEBUG_STATE_SAVE_RESTORE && DebugUIPlugin
+									.DEBUG_TEST_PRESENTATION_ID(fContentProvider.getPresentationContext())) {
+								DebugUIPlugin.trace("\tSTATE MATCHED BY MEMENTO HASH: " + compareRequest); //$NON-NLS-1$
+							}
+							((ModelDelta) delta).setElement(potentialMatch);
+							restorePendingStateNode((ModelDelta) delta, knowsHasChildren, knowsChildCount,
+									checkChildrenRealized);
+						} else if (existingRequest != null) {
 							// Check all the running compare updates for a
 							// matching tree path.
 							// If found, just update the flags.
@@ -1004,6 +1016,19 @@ class ViewerStateTracker {
 		checkIfRestoreComplete();
 	}
 
+	/**
+	 * Returns whether the given element was encoded into a memento with the
+	 * same content as the given memento when the viewer state was saved.
+	 *
+	 * @param element element in the viewer
+	 * @param memento memento in the pending state
+	 * @return whether the element matches the memento
+	 */
+	private boolean isEncodedAs(Object element, IMemento memento) {
+		Long hash = fEncodedElements.get(element);
+		return hash != null && hash.longValue() == MementoKey.hash(memento);
+	}
+
 	/**
 	 * Checks whether restoring pending state is already complete.
 	 */
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PrefetchPolicy;
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Predicts which children of the {@link TreeModelContentProvider} become
+ * visible next and requests them ahead of time.
+ * <p>
+ * The viewer reports the visible children of the parent element at the top
+ * of the tree whenever it is scrolled. From successive reports the prefetcher
+ * derives the scroll direction and speed, and the {@link PrefetchPolicy} of
+ * the presentation context gives the number of children to request ahead of
+ * the visible area in that direction. Prefetch requests outside of the
+ * visible area and the new prefetch window are canceled.
+ * </p>
+ * <p>
+ * Children which were prefetched since the last model change are remembered
+ * as a single range, so scrolling within that range does not request them
+ * again.
+ * </p>
+ * <p>
+ * Only used from the UI thread.
+ * </p>
+ *
+ * @since 3.14
+ */
+class ViewportPrefetcher {
+
+	private final TreeModelContentProvider fContentProvider;
+
+	/**
+	 * Parent of the visible children at the last report, or <code>null</code>.
+	 */
+	private TreePath fParentPath;
+
+	/**
+	 * Model index of the first visible child at the last report.
+	 */
+	private int fTop;
+
+	/**
+	 * Time of the last report in milliseconds.
+	 */
+	private long fTime;
+
+	/**
+	 * Smoothed scroll speed in rows per millisecond, negative when scrolling
+	 * up.
+	 */
+	private double fSpeed;
+
+	/**
+	 * Range of children which were prefetched, empty if <code>fFetchedStart
+	 * >= fFetchedEnd</code>.
+	 */
+	private int fFetchedStart;
+	private int fFetchedEnd;
+
+	ViewportPrefetcher(TreeModelContentProvider contentProvider) {
+		fContentProvider = contentProvider;
+	}
+
+	/**
+	 * Notification that the visible children of the given parent changed.
+	 *
+	 * @param parentPath path of the parent element
+	 * @param top model index of the first visible child
+	 * @param visible number of visible children
+	 * @param childCount number of children in the model
+	 * @param time time of the change in milliseconds
+	 */
+	void viewportChanged(TreePath parentPath, int top, int visible, int childCount, long time) {
+		PrefetchPolicy policy = PrefetchPolicy.getPolicy(fContentProvider.getPresentationContext());
+		if (policy == null || !parentPath.equals(fParentPath)) {
+			if (fParentPath != null) {
+				fContentProvider.cancelPrefetch(fParentPath, 0, 0);
+			}
+			reset();
+			if (policy != null) {
+				fParentPath = parentPath;
+				fTop = top;
+				fTime = time;
+			}
+			return;
+		}
+
+		int rows = top - fTop;
+		if (rows == 0) {
+			return;
+		}
+		double speed = (double) rows / Math.max(1, time - fTime);
+		if ((speed > 0) == (fSpeed > 0)) {
+			fSpeed = (fSpeed + speed) / 2;
+		} else {
+			// direction changed, forget the previous speed
+			fSpeed = speed;
+		}
+		fTop = top;
+		fTime = time;
+
+		int count = policy.getPrefetchCount(visible, fSpeed);
+		int start;
+		int end;
+		if (fSpeed > 0) {
+			start = Math.min(top + visible, childCount);
+			end = Math.min(start + count, childCount);
+		} else {
+			end = Math.max(top, 0);
+			start = Math.max(end - count, 0);
+		}
+
+		// cancel what is neither visible nor in the new window, and forget it
+		// as it may not have been retrieved
+		int keepStart = Math.min(start, top);
+		int keepEnd = Math.max(end, top + visible);
+		fContentProvider.cancelPrefetch(parentPath, keepStart, keepEnd);
+		fFetchedStart = Math.max(fFetchedStart, keepStart);
+		fFetchedEnd = Math.min(fFetchedEnd, keepEnd);
+
+		if (start >= end) {
+			return;
+		}
+		if (fFetchedStart >= fFetchedEnd || end < fFetchedStart || start > fFetchedEnd) {
+			fContentProvider.prefetchChildren(parentPath, start, end - start);
+			fFetchedStart = start;
+			fFetchedEnd = end;
+			return;
+		}
+		if (start < fFetchedStart) {
+			fContentProvider.prefetchChildren(parentPath, start, fFetchedStart - start);
+			fFetchedStart = start;
+		}
+		if (end > fFetchedEnd) {
+			fContentProvider.prefetchChildren(parentPath, fFetchedEnd, end - fFetchedEnd);
+			fFetchedEnd = end;
+		}
+	}
+
+	/**
+	 * Forgets the scroll history and the prefetched children, called when the
+	 * model changes.
+	 */
+	void reset() {
+		fParentPath = null;
+		fSpeed = 0;
+		fFetchedStart = 0;
+		fFetchedEnd = 0;
+	}
+}
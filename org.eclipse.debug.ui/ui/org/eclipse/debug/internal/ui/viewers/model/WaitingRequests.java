@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.eclipse.jface.viewers.TreePath;
+
+/**
+ * Requests of the {@link TreeModelContentProvider} which wait to be started
+ * for one scheduling path.
+ * <p>
+ * Requests are indexed by their type, so that neither coalescing a new request
+ * nor selecting the next request to start scans all waiting requests:
+ * </p>
+ * <ul>
+ * <li>Has children and child count updates are batched per element content
+ * provider. Usually there is only a single batch of each type.</li>
+ * <li>Children updates are kept in a map sorted by offset. The ranges in the
+ * map neither overlap nor touch, so a new range is merged with its neighbors
+ * in logarithmic time.</li>
+ * </ul>
+ * <p>
+ * Only used from the UI thread.
+ * </p>
+ *
+ * @since 3.14
+ */
+class WaitingRequests {
+
+	/**
+	 * A waiting request which other requests were coalesced into, with the
+	 * element paths of all its requests.
+	 */
+	private static class Batch {
+		final ViewerUpdateMonitor fRequest;
+		final List<TreePath> fElementPaths = new ArrayList<>(1);
+
+		Batch(ViewerUpdateMonitor request) {
+			fRequest = request;
+			fElementPaths.add(request.getElementPath());
+		}
+	}
+
+	private final List<Batch> fHasChildrenUpdates = new ArrayList<>(1);
+	private final List<Batch> fChildrenCountUpdates = new ArrayList<>(1);
+
+	/**
+	 * Children updates by offset.
+	 */
+	private final TreeMap<Integer, ChildrenUpdate> fChildrenUpdates = new TreeMap<>();
+
+	/**
+	 * Number of waiting has children and child count requests per element path.
+	 */
+	private final Map<TreePath, Integer> fElementPaths = new HashMap<>();
+
+	/**
+	 * Adds the given request, coalescing it with waiting requests if possible.
+	 *
+	 * @param update the request to add
+	 */
+	void add(ViewerUpdateMonitor update) {
+		if (update instanceof ChildrenUpdate) {
+			addChildrenUpdate((ChildrenUpdate) update);
+		} else if (update instanceof HasChildrenUpdate) {
+			addToBatch(fHasChildrenUpdates, update);
+		} else if (update instanceof ChildrenCountUpdate) {
+			addToBatch(fChildrenCountUpdates, update);
+		} else {
+			throw new IllegalArgumentException(update.toString());
+		}
+	}
+
+	/**
+	 * Removes and returns the request which should be started next. Has
+	 * children updates come first, then child count updates and then children
+	 * updates in the order of their offset.
+	 *
+	 * @return the next request or <code>null</code> if there is none
+	 */
+	ViewerUpdateMonitor poll() {
+		if (!fHasChildrenUpdates.isEmpty()) {
+			return removeBatch(fHasChildrenUpdates);
+		}
+		if (!fChildrenCountUpdates.isEmpty()) {
+			return removeBatch(fChildrenCountUpdates);
+		}
+		Entry<Integer, ChildrenUpdate> first = fChildrenUpdates.pollFirstEntry();
+		return first != null ? first.getValue() : null;
+	}
+
+	/**
+	 * @return whether there are no waiting requests
+	 */
+	boolean isEmpty() {
+		return fHasChildrenUpdates.isEmpty() && fChildrenCountUpdates.isEmpty() && fChildrenUpdates.isEmpty();
+	}
+
+	/**
+	 * @return whether there are waiting children updates
+	 */
+	boolean hasChildrenUpdates() {
+		return !fChildrenUpdates.isEmpty();
+	}
+
+	/**
+	 * Returns whether a waiting request updates the element at the given path,
+	 * see {@link ViewerUpdateMonitor#containsUpdate(TreePath)}.
+	 *
+	 * @param path element path
+	 * @return whether there is a waiting request for the path
+	 */
+	boolean containsUpdate(TreePath path) {
+		return fElementPaths.containsKey(path);
+	}
+
+	/**
+	 * Decrements the offsets of all waiting children updates starting after the
+	 * given index, as an element was removed at this index.
+	 *
+	 * @param modelIndex index of the removed element
+	 * @return the modified updates
+	 */
+	List<ChildrenUpdate> shiftChildrenUpdates(int modelIndex) {
+		NavigableMap<Integer, ChildrenUpdate> following = fChildrenUpdates.tailMap(Integer.valueOf(modelIndex), false);
+		if (following.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<ChildrenUpdate> shifted = new ArrayList<>(following.values());
+		following.clear();
+		for (ChildrenUpdate update : shifted) {
+			update.setOffset(update.getOffset() - 1);
+			addChildrenUpdate(update);
+		}
+		return shifted;
+	}
+
+	/**
+	 * Removes the waiting prefetch requests which do not intersect the given
+	 * range of children.
+	 *
+	 * @param start start of the range
+	 * @param end end of the range, exclusive
+	 * @return number of removed requests
+	 */
+	int removePrefetchUpdatesOutside(int start, int end) {
+		int removed = 0;
+		Iterator<ChildrenUpdate> iterator = fChildrenUpdates.values().iterator();
+		while (iterator.hasNext()) {
+			ChildrenUpdate update = iterator.next();
+			if (update.isPrefetch() && (update.getOffset() >= end || update.getOffset() + update.getLength() <= start)) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	private void addChildrenUpdate(ChildrenUpdate update) {
+		ChildrenUpdate merged = update;
+		Entry<Integer, ChildrenUpdate> previous = fChildrenUpdates.floorEntry(Integer.valueOf(update.getOffset()));
+		if (previous != null && previous.getValue().coalesce(update)) {
+			fChildrenUpdates.remove(previous.getKey());
+			merged = previous.getValue();
+		}
+		// merge all following ranges which overlap or touch the merged range
+		Entry<Integer, ChildrenUpdate> next = fChildrenUpdates.ceilingEntry(Integer.valueOf(merged.getOffset()));
+		while (next != null && next.getKey().intValue() <= merged.getOffset() + merged.getLength()) {
+			ChildrenUpdate other = next.getValue();
+			fChildrenUpdates.remove(next.getKey());
+			// a range which does not coalesce was requested for a replaced
+			// element at the same path and is stale
+			merged.coalesce(other);
+			next = fChildrenUpdates.ceilingEntry(Integer.valueOf(merged.getOffset()));
+		}
+		fChildrenUpdates.put(Integer.valueOf(merged.getOffset()), merged);
+	}
+
+	private void addToBatch(List<Batch> batches, ViewerUpdateMonitor update) {
+		TreePath path = update.getElementPath();
+		fElementPaths.merge(path, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+		for (Batch batch : batches) {
+			if (batch.fRequest.coalesce(update)) {
+				batch.fElementPaths.add(path);
+				return;
+			}
+		}
+		batches.add(new Batch(update));
+	}
+
+	private ViewerUpdateMonitor removeBatch(List<Batch> batches) {
+		Batch batch = batches.remove(0);
+		for (TreePath path : batch.fElementPaths) {
+			fElementPaths.computeIfPresent(path, (p, count) -> count.intValue() > 1 ? Integer.valueOf(count.intValue() - 1) : null);
+		}
+		return batch.fRequest;
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model.provisional;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Answers viewer updates for the elements of one debug target in bulk.
+ * <p>
+ * A debug target provides a batch update handler by implementing this
+ * interface or by adapting to it. The default element content and label
+ * providers then no longer process child count, children, has children and
+ * label updates for the elements of the target one by one. Instead all such
+ * updates issued by the viewers in one model change cycle are collected and
+ * passed to {@link #update(IViewerUpdate[], IProgressMonitor)} together, so
+ * that a debug model with a remote backend can fetch the data in a single
+ * round trip.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ * @see IChildrenCountUpdate
+ * @see IChildrenUpdate
+ * @see IHasChildrenUpdate
+ * @see ILabelUpdate
+ *
+ * @since 3.14
+ */
+public interface IBatchUpdateHandler {
+
+	/**
+	 * Returns whether this handler answers the given update. Updates which are
+	 * not handled are processed by the element content or label provider as
+	 * usual.
+	 * <p>
+	 * Called in the Display thread of the viewer, must not block.
+	 * </p>
+	 *
+	 * @param update child count, children, has children or label update
+	 * @return whether this handler answers the update
+	 */
+	boolean canUpdate(IViewerUpdate update);
+
+	/**
+	 * Answers the given updates. Implementations store the results and the
+	 * status in the updates, but must not call {@link IViewerUpdate#done()}
+	 * as this is done by the caller once this method returns.
+	 * <p>
+	 * Called in a background job. The updates belong to elements of the debug
+	 * target providing this handler and may have been requested by different
+	 * viewers and presentation contexts. Canceled updates are not passed.
+	 * </p>
+	 *
+	 * @param updates updates accepted by {@link #canUpdate(IViewerUpdate)}
+	 * @param monitor progress monitor of the job
+	 */
+	void update(IViewerUpdate[] updates, IProgressMonitor monitor);
+}
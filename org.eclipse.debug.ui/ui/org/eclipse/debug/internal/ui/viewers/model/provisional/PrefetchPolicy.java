@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.viewers.model.provisional;
+
+/**
+ * Controls how a {@link TreeModelViewer} retrieves children ahead of the
+ * visible area while the user scrolls.
+ * <p>
+ * The viewer normally retrieves a child only when the tree asks for a visible
+ * item. When a policy is set as the {@link #PROP_PREFETCH_POLICY} property of
+ * the presentation context, the viewer predicts the rows which become visible
+ * next from the direction and speed of scrolling and requests them in the
+ * background. Requests for rows which are no longer ahead of the visible area
+ * are canceled.
+ * </p>
+ * <p>
+ * Clients may instantiate this class.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class PrefetchPolicy {
+
+	/**
+	 * Property of the presentation context which holds the prefetch policy of
+	 * the viewer. Children are not prefetched if the property is not set.
+	 */
+	public static final String PROP_PREFETCH_POLICY = "org.eclipse.debug.ui.prefetchPolicy"; //$NON-NLS-1$
+
+	/**
+	 * Policy which prefetches one page of rows plus the rows scrolled in a
+	 * quarter of a second, at most 512 rows.
+	 */
+	public static final PrefetchPolicy DEFAULT = new PrefetchPolicy(1, 250, 512);
+
+	private final int fPages;
+	private final int fLookahead;
+	private final int fMaxRows;
+
+	/**
+	 * Creates a prefetch policy.
+	 *
+	 * @param pages number of pages of visible rows to prefetch at any scroll
+	 *            speed
+	 * @param lookahead time in milliseconds for which rows are prefetched at
+	 *            the current scroll speed, in addition to the pages
+	 * @param maxRows maximum number of rows to prefetch
+	 */
+	public PrefetchPolicy(int pages, int lookahead, int maxRows) {
+		fPages = Math.max(0, pages);
+		fLookahead = Math.max(0, lookahead);
+		fMaxRows = Math.max(0, maxRows);
+	}
+
+	/**
+	 * @return number of pages prefetched at any scroll speed
+	 */
+	public int getPages() {
+		return fPages;
+	}
+
+	/**
+	 * @return time in milliseconds for which rows are prefetched at the
+	 *         current scroll speed
+	 */
+	public int getLookahead() {
+		return fLookahead;
+	}
+
+	/**
+	 * @return maximum number of rows to prefetch
+	 */
+	public int getMaxRows() {
+		return fMaxRows;
+	}
+
+	/**
+	 * Returns the number of rows to prefetch ahead of the visible area.
+	 *
+	 * @param visibleRows number of visible rows
+	 * @param rowsPerMilli scroll speed in rows per millisecond
+	 * @return number of rows to prefetch
+	 */
+	public int getPrefetchCount(int visibleRows, double rowsPerMilli) {
+		double rows = (double) visibleRows * fPages + Math.abs(rowsPerMilli) * fLookahead;
+		return (int) Math.min(fMaxRows, Math.ceil(rows));
+	}
+
+	/**
+	 * Returns the prefetch policy of the given presentation context.
+	 *
+	 * @param context presentation context
+	 * @return prefetch policy or <code>null</code> if children are not
+	 *         prefetched
+	 */
+	public static PrefetchPolicy getPolicy(IPresentationContext context) {
+		Object policy = context.getProperty(PROP_PREFETCH_POLICY);
+		if (policy instanceof PrefetchPolicy) {
+			return (PrefetchPolicy) policy;
+		}
+		return null;
+	}
+}
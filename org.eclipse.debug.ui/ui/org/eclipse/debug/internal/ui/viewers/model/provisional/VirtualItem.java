@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Wind River Systems and others.
+ * Copyright (c) 2011, 2020 Wind River Systems and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,10 +14,8 @@
 package org.eclipse.debug.internal.ui.viewers.model.provisional;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
@@ -25,6 +23,13 @@ import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 /**
  * Virtual item, which is analogous to the SWT's tree item.  This class is used
  * by the {@link VirtualTreeModelViewer}.
+ * <p>
+ * The child items which have been created are kept in a tree sorted by
+ * their index (a treap).  Instead of its index each child stores the
+ * distance to its preceding sibling, so that inserting or removing an item
+ * shifts the indexes of all following siblings in logarithmic time.  The
+ * index of a child is computed from these distances when it is requested.
+ * </p>
  *
  * @see VirtualTreeModelViewer
  * @since 3.8
@@ -40,47 +45,76 @@ public class VirtualItem {
 
 	public static String ELEMENT_DATA_KEY = "element"; //$NON-NLS-1$
 
+	/**
+	 * Number of display attributes stored in {@link #fAttributes}.
+	 */
+	private static final int ATTRIBUTE_COUNT = 5;
+
 	/**
 	 * Index object of a tree item. It allows the indexes to be modified
 	 * as items are inserted and removed.
+	 * <p>
+	 * The index of an item which belongs to a parent item is maintained by
+	 * the parent and always reflects the current position of the item.  Other
+	 * indexes, i.e. indexes created by clients to look up items or indexes of
+	 * removed items, hold a fixed value.
+	 * </p>
 	 */
 	public static class Index implements Comparable<Object> {
-		private Integer fIndexValue;
+		/**
+		 * The index value if this index is not attached to an item.
+		 */
+		private int fIndexValue;
+
+		/**
+		 * The item which position this index reflects or <code>null</code>.
+		 */
+		private VirtualItem fItem;
 
 		public Index(int index) {
-			fIndexValue = Integer.valueOf(index);
+			fIndexValue = index;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
-			return obj instanceof Index && ((Index)obj).fIndexValue.equals(fIndexValue);
+			return obj instanceof Index && ((Index)obj).intValue() == intValue();
 		}
 
 		@Override
 		public int hashCode() {
-			return fIndexValue.hashCode();
+			return intValue();
 		}
 
+		/**
+		 * Increments the index value.  Must not be called for the index of
+		 * an item which belongs to a parent item.
+		 */
 		public void increment() {
-			fIndexValue = Integer.valueOf(fIndexValue.intValue() + 1);
+			Assert.isTrue(fItem == null);
+			fIndexValue++;
 		}
 
+		/**
+		 * Decrements the index value.  Must not be called for the index of
+		 * an item which belongs to a parent item.
+		 */
 		public void decrement() {
-			fIndexValue = Integer.valueOf(fIndexValue.intValue() - 1);
+			Assert.isTrue(fItem == null);
+			fIndexValue--;
 		}
 
 		public int intValue() {
-			return fIndexValue.intValue();
+			return fItem != null ? fItem.fParent.positionOf(fItem) : fIndexValue;
 		}
 
 		@Override
 		public int compareTo(Object obj) {
-			return obj instanceof Index ? fIndexValue.compareTo(((Index)obj).fIndexValue) : 0;
+			return obj instanceof Index ? Integer.compare(intValue(), ((Index)obj).intValue()) : 0;
 		}
 
 		@Override
 		public String toString() {
-			return fIndexValue.toString();
+			return Integer.toString(intValue());
 		}
 	}
 
@@ -95,12 +129,37 @@ public class VirtualItem {
 	final private Index fIndex;
 
 	/**
-	 * Map of child items.  The key to the map is the item's index, which
-	 * must be the same object instance as the index in the item.  The tree map
-	 * keeps the items sorted while allowing indexes (keys) to be modified as
-	 * child items are inserted and removed.
+	 * Root of the tree of child items which have been created, or
+	 * <code>null</code> if there are none.
+	 */
+	private VirtualItem fChildRoot;
+
+	/**
+	 * Number of child items which have been created.
+	 */
+	private int fChildCount;
+
+	// Links of this item in the child tree of its parent.
+	private VirtualItem fLeft;
+	private VirtualItem fRight;
+	private VirtualItem fUp;
+
+	/**
+	 * Random priority of this item used to keep the child tree of the parent
+	 * balanced.
+	 */
+	private final int fPriority;
+
+	/**
+	 * Difference between the index of this item and the index of the previous
+	 * created sibling.  The first created child stores its index + 1.
+	 */
+	private int fSpan;
+
+	/**
+	 * Sum of the spans of all items in the subtree rooted at this item.
 	 */
-	private Map<Index, VirtualItem> fItems = new TreeMap<>();
+	private int fWeight;
 
 	/**
 	 * Flag indicating whether this item has child items.
@@ -120,10 +179,22 @@ public class VirtualItem {
 	private int fItemCount = -1;
 
 	/**
-	 * The data held by this item.  It includes the element as well as the item
-	 * display attributes.
+	 * The element held by this item.
+	 */
+	private Object fElement;
+
+	/**
+	 * The display attributes of this item, indexed by the slots returned by
+	 * {@link #getAttributeSlot(String)}.  Created when the first attribute
+	 * is set.
 	 */
-	private Map<String, Object> fData = new HashMap<>(1);
+	private Object[] fAttributes;
+
+	/**
+	 * Data stored for keys other than the element and display attributes.
+	 * Created on demand.
+	 */
+	private Map<String, Object> fData;
 
 	/**
 	 * Flag indicating that the item needs to have it's label updated.
@@ -154,6 +225,7 @@ public class VirtualItem {
 	public VirtualItem(VirtualItem parent, Index index) {
 		fParent = parent;
 		fIndex = index;
+		fPriority = parent != null ? ThreadLocalRandom.current().nextInt() : 0;
 	}
 
 	/**
@@ -161,8 +233,9 @@ public class VirtualItem {
 	 * @param index index of item to clear.
 	 */
 	public void clear(Index index) {
-		VirtualItem item = fItems.remove(index);
+		VirtualItem item = getChild(index.intValue());
 		if (item != null) {
+			removeChild(item);
 			item.dispose();
 		}
 	}
@@ -173,11 +246,25 @@ public class VirtualItem {
 	 * @since 3.9
 	 */
 	public void clearAll() {
-		fData.clear();
-		for (VirtualItem item : fItems.values()) {
+		fElement = null;
+		fAttributes = null;
+		fData = null;
+		if (fChildRoot == null) {
+			return;
+		}
+		VirtualItem[] items = getItems();
+		int position = -1;
+		for (VirtualItem item : items) {
+			position += item.fSpan;
+			item.fIndex.fIndexValue = position;
+			item.fIndex.fItem = null;
+			item.fLeft = item.fRight = item.fUp = null;
+		}
+		fChildRoot = null;
+		fChildCount = 0;
+		for (VirtualItem item : items) {
 			item.dispose();
 		}
-		fItems.clear();
 	}
 	/**
 	 * Returns the parent item.
@@ -200,7 +287,7 @@ public class VirtualItem {
 	 * @return Item if found, <code>null</code> if not.
 	 */
 	public VirtualItem findItem(Object element) {
-		for (VirtualItem item : fItems.values()) {
+		for (VirtualItem item = firstChild(); item != null; item = nextChild(item)) {
 			Object nextData = item.getData();
 			if ( (element != null && element.equals(nextData)) || (element == null && nextData == null) ) {
 				return item;
@@ -295,7 +382,14 @@ public class VirtualItem {
 	 * @return Returns item data corresponding to given key.
 	 */
 	public Object getData (String key) {
-		return fData.get(key);
+		if (ELEMENT_DATA_KEY.equals(key)) {
+			return fElement;
+		}
+		int slot = getAttributeSlot(key);
+		if (slot >= 0) {
+			return fAttributes != null ? fAttributes[slot] : null;
+		}
+		return fData != null ? fData.get(key) : null;
 	}
 
 	/**
@@ -304,7 +398,27 @@ public class VirtualItem {
 	 * @param data Data value.
 	 */
 	public void setData(String key, Object data) {
-		fData.put(key, data);
+		if (ELEMENT_DATA_KEY.equals(key)) {
+			fElement = data;
+			return;
+		}
+		int slot = getAttributeSlot(key);
+		if (slot >= 0) {
+			if (fAttributes == null) {
+				if (data == null) {
+					return;
+				}
+				fAttributes = new Object[ATTRIBUTE_COUNT];
+			}
+			fAttributes[slot] = data;
+		} else if (data != null) {
+			if (fData == null) {
+				fData = new HashMap<>(2);
+			}
+			fData.put(key, data);
+		} else if (fData != null) {
+			fData.remove(key);
+		}
 	}
 
 	/**
@@ -312,14 +426,14 @@ public class VirtualItem {
 	 * @param data Item's new element.
 	 */
 	public void setData(Object data) {
-		fData.put(ELEMENT_DATA_KEY, data);
+		fElement = data;
 	}
 
 	/**
 	 * @return Returns item's data element.
 	 */
 	public Object getData () {
-		return fData.get(ELEMENT_DATA_KEY);
+		return fElement;
 	}
 
 	/**
@@ -341,7 +455,7 @@ public class VirtualItem {
 
 		// If collapsed, make sure that all the children are collapsed as well.
 		if (!fExpanded) {
-			for (VirtualItem item : fItems.values()) {
+			for (VirtualItem item = firstChild(); item != null; item = nextChild(item)) {
 				item.setExpanded(expanded);
 			}
 		}
@@ -382,14 +496,14 @@ public class VirtualItem {
 	 */
 	public void setItemCount(int count) {
 		fItemCount = count;
-		for (Iterator<Entry<Index, VirtualItem>> itr = fItems.entrySet().iterator(); itr.hasNext();) {
-			Entry<Index, VirtualItem> entry = itr.next();
-			int index = entry.getKey().intValue();
-			if (index >= count) {
-				VirtualItem item = entry.getValue();
-				item.dispose();
-				itr.remove();
-			}
+		// Remove the items beyond the new count, starting with the last one
+		// so that no spans need to be adjusted.
+		VirtualItem item = lastChild();
+		while (item != null && positionOf(item) >= Math.max(count, 0)) {
+			VirtualItem previous = previousChild(item);
+			removeChild(item);
+			item.dispose();
+			item = previous;
 		}
 		if (fItemCount == 0) {
 			if (hasItems()) {
@@ -419,12 +533,11 @@ public class VirtualItem {
 	 * @return Child item.
 	 */
 	public VirtualItem getItem(Index index) {
-		ensureItems();
-
-		VirtualItem item = fItems.get(index);
+		int position = index.intValue();
+		VirtualItem item = getChild(position);
 		if (item == null) {
-			item = new VirtualItem(this, index);
-			fItems.put(index, item);
+			item = new VirtualItem(this, new Index(position));
+			insertChild(item, position);
 		}
 		return item;
 	}
@@ -436,10 +549,10 @@ public class VirtualItem {
 		if (getItemCount() == 0) {
 			return false;
 		}
-		if (fItems == null || fItems.size() != fItemCount) {
+		if (fChildCount != fItemCount) {
 			return true;
 		}
-		for (VirtualItem child : fItems.values()) {
+		for (VirtualItem child = firstChild(); child != null; child = nextChild(child)) {
 			if (child.needsDataUpdate()) {
 				return true;
 			}
@@ -455,7 +568,12 @@ public class VirtualItem {
 	 * @return Child items array.
 	 */
 	public VirtualItem[] getItems() {
-		return fItems.values().toArray(new VirtualItem[fItems.size()]);
+		VirtualItem[] items = new VirtualItem[fChildCount];
+		int i = 0;
+		for (VirtualItem child = firstChild(); child != null; child = nextChild(child)) {
+			items[i++] = child;
+		}
+		return items;
 	}
 
 	/**
@@ -473,18 +591,10 @@ public class VirtualItem {
 
 		// Increment all items with an index higher than the given position.
 		fItemCount++;
-		ensureItems();
-		for (Index childIndex : fItems.keySet()) {
-			if (childIndex.intValue() >= position) {
-				childIndex.increment();
-			}
-		}
+		shiftChildren(position, 1);
 
-		// Note: the same index object used to create the item has to
-		// be used as the key into the map.
-		Index childIndex = new Index(position);
-		VirtualItem newChild = new VirtualItem(this, childIndex);
-		fItems.put(childIndex, newChild);
+		VirtualItem newChild = new VirtualItem(this, new Index(position));
+		insertChild(newChild, position);
 		return newChild;
 	}
 
@@ -498,26 +608,291 @@ public class VirtualItem {
 			fHasItems = false;
 		}
 
-		ensureItems();
+		int removedPosition = position.intValue();
+		VirtualItem removedItem = getChild(removedPosition);
+		if (removedItem != null) {
+			removeChild(removedItem);
+		}
+		// Decrement all items with an index higher than the given position.
+		shiftChildren(removedPosition, -1);
+		if (removedItem != null) {
+			removedItem.dispose();
+		}
+	}
+
+	/**
+	 * Returns the created child item at the given position.
+	 *
+	 * @param position position of the child
+	 * @return the child item or <code>null</code> if it has not been created
+	 */
+	private VirtualItem getChild(int position) {
+		int target = position + 1;
+		int base = 0;
+		VirtualItem node = fChildRoot;
+		while (node != null) {
+			int end = base + weight(node.fLeft) + node.fSpan;
+			if (end == target) {
+				return node;
+			} else if (end > target) {
+				node = node.fLeft;
+			} else {
+				base = end;
+				node = node.fRight;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the first created child item at or after the given position.
+	 *
+	 * @param position position to search from
+	 * @return the child item or <code>null</code> if there is none
+	 */
+	private VirtualItem getChildAtOrAfter(int position) {
+		int target = position + 1;
+		int base = 0;
+		VirtualItem result = null;
+		VirtualItem node = fChildRoot;
+		while (node != null) {
+			int end = base + weight(node.fLeft) + node.fSpan;
+			if (end >= target) {
+				result = node;
+				node = node.fLeft;
+			} else {
+				base = end;
+				node = node.fRight;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the position of the given child item from the spans stored in
+	 * the child tree.
+	 *
+	 * @param child a child item of this item
+	 * @return the position of the child
+	 */
+	private int positionOf(VirtualItem child) {
+		int end = weight(child.fLeft) + child.fSpan;
+		for (VirtualItem node = child; node.fUp != null; node = node.fUp) {
+			VirtualItem up = node.fUp;
+			if (up.fRight == node) {
+				end += weight(up.fLeft) + up.fSpan;
+			}
+		}
+		return end - 1;
+	}
+
+	/**
+	 * Adds the given delta to the positions of all created child items at or
+	 * after the given position.
+	 *
+	 * @param position first position to shift
+	 * @param delta the delta to add to the positions
+	 */
+	private void shiftChildren(int position, int delta) {
+		VirtualItem next = getChildAtOrAfter(position);
+		if (next != null) {
+			next.fSpan += delta;
+			updateWeights(next);
+		}
+	}
 
-		VirtualItem removedItem = null;
-		for (Iterator<Entry<Index, VirtualItem>> itr = fItems.entrySet().iterator(); itr.hasNext();) {
-			Entry<Index, VirtualItem> entry = itr.next();
-			Index childIndex = entry.getKey();
-			if (childIndex.intValue() > position.intValue()) {
-				childIndex.decrement();
-			} else if (childIndex.intValue() == position.intValue()) {
-				removedItem = entry.getValue();
-				removedItem.dispose();
-				itr.remove();
+	/**
+	 * Inserts a new child item at the given position, at which no created child
+	 * item exists yet.
+	 *
+	 * @param child the new child item
+	 * @param position position of the new child item
+	 */
+	private void insertChild(VirtualItem child, int position) {
+		VirtualItem next = getChildAtOrAfter(position);
+		if (next != null) {
+			int nextPosition = positionOf(next);
+			child.fSpan = next.fSpan - (nextPosition - position);
+			next.fSpan = nextPosition - position;
+			if (next.fLeft == null) {
+				next.fLeft = child;
+				child.fUp = next;
+			} else {
+				VirtualItem previous = rightmost(next.fLeft);
+				previous.fRight = child;
+				child.fUp = previous;
 			}
+		} else {
+			child.fSpan = position + 1 - weight(fChildRoot);
+			if (fChildRoot == null) {
+				fChildRoot = child;
+			} else {
+				VirtualItem last = rightmost(fChildRoot);
+				last.fRight = child;
+				child.fUp = last;
+			}
+		}
+		updateWeights(child);
+		while (child.fUp != null && child.fPriority > child.fUp.fPriority) {
+			rotateUp(child);
+		}
+		child.fIndex.fItem = child;
+		fChildCount++;
+	}
+
+	/**
+	 * Removes the given item from the child items without changing the
+	 * positions of the remaining children.  The index of the removed item
+	 * keeps its last value.
+	 *
+	 * @param child the child item to remove
+	 */
+	private void removeChild(VirtualItem child) {
+		child.fIndex.fIndexValue = positionOf(child);
+		child.fIndex.fItem = null;
+
+		VirtualItem next = nextChild(child);
+		if (next != null) {
+			next.fSpan += child.fSpan;
+		}
+		while (child.fLeft != null && child.fRight != null) {
+			rotateUp(child.fLeft.fPriority > child.fRight.fPriority ? child.fLeft : child.fRight);
 		}
+		VirtualItem replacement = child.fLeft != null ? child.fLeft : child.fRight;
+		VirtualItem up = child.fUp;
+		if (replacement != null) {
+			replacement.fUp = up;
+		}
+		if (up == null) {
+			fChildRoot = replacement;
+		} else if (up.fLeft == child) {
+			up.fLeft = replacement;
+		} else {
+			up.fRight = replacement;
+		}
+		child.fLeft = child.fRight = child.fUp = null;
+		updateWeights(up);
+		updateWeights(next);
+		fChildCount--;
 	}
 
-	private void ensureItems() {
-		if (fItems == null) {
-			fItems = new HashMap<>(Math.max(1, Math.min(fItemCount, 16)));
+	/**
+	 * Rotates the given node of the child tree above its parent node.
+	 *
+	 * @param node the node to rotate
+	 */
+	private void rotateUp(VirtualItem node) {
+		VirtualItem up = node.fUp;
+		VirtualItem upUp = up.fUp;
+		if (up.fLeft == node) {
+			up.fLeft = node.fRight;
+			if (node.fRight != null) {
+				node.fRight.fUp = up;
+			}
+			node.fRight = up;
+		} else {
+			up.fRight = node.fLeft;
+			if (node.fLeft != null) {
+				node.fLeft.fUp = up;
+			}
+			node.fLeft = up;
+		}
+		up.fUp = node;
+		node.fUp = upUp;
+		if (upUp == null) {
+			fChildRoot = node;
+		} else if (upUp.fLeft == up) {
+			upUp.fLeft = node;
+		} else {
+			upUp.fRight = node;
+		}
+		updateWeight(up);
+		updateWeight(node);
+	}
+
+	private VirtualItem firstChild() {
+		VirtualItem node = fChildRoot;
+		if (node != null) {
+			while (node.fLeft != null) {
+				node = node.fLeft;
+			}
+		}
+		return node;
+	}
+
+	private VirtualItem lastChild() {
+		return fChildRoot != null ? rightmost(fChildRoot) : null;
+	}
+
+	private static VirtualItem nextChild(VirtualItem node) {
+		if (node.fRight != null) {
+			node = node.fRight;
+			while (node.fLeft != null) {
+				node = node.fLeft;
+			}
+			return node;
+		}
+		while (node.fUp != null && node.fUp.fRight == node) {
+			node = node.fUp;
+		}
+		return node.fUp;
+	}
+
+	private static VirtualItem previousChild(VirtualItem node) {
+		if (node.fLeft != null) {
+			return rightmost(node.fLeft);
+		}
+		while (node.fUp != null && node.fUp.fLeft == node) {
+			node = node.fUp;
+		}
+		return node.fUp;
+	}
+
+	private static VirtualItem rightmost(VirtualItem node) {
+		while (node.fRight != null) {
+			node = node.fRight;
+		}
+		return node;
+	}
+
+	private static int weight(VirtualItem node) {
+		return node != null ? node.fWeight : 0;
+	}
+
+	private static void updateWeight(VirtualItem node) {
+		node.fWeight = weight(node.fLeft) + node.fSpan + weight(node.fRight);
+	}
+
+	/**
+	 * Recomputes the weights of the given node and all its ancestors.
+	 *
+	 * @param node the node or <code>null</code>
+	 */
+	private static void updateWeights(VirtualItem node) {
+		for (; node != null; node = node.fUp) {
+			updateWeight(node);
+		}
+	}
+
+	/**
+	 * @param key data key
+	 * @return the slot of the given display attribute key in
+	 *         {@link #fAttributes} or <code>-1</code> if the key is not a
+	 *         display attribute
+	 */
+	private static int getAttributeSlot(String key) {
+		if (LABEL_KEY.equals(key)) {
+			return 0;
+		} else if (IMAGE_KEY.equals(key)) {
+			return 1;
+		} else if (FONT_KEY.equals(key)) {
+			return 2;
+		} else if (FOREGROUND_KEY.equals(key)) {
+			return 3;
+		} else if (BACKGROUND_KEY.equals(key)) {
+			return 4;
 		}
+		return -1;
 	}
 
 	private VirtualTree findTree() {
@@ -540,10 +915,15 @@ public class VirtualItem {
 		buffer.append(toStringElement());
 		buffer.append("\n"); //$NON-NLS-1$
 		indent = indent + "  "; //$NON-NLS-1$
+		VirtualItem item = firstChild();
+		int position = item != null ? item.fSpan - 1 : -1;
 		for (int i = 0; i < fItemCount; i++) {
-			VirtualItem item = fItems.get(new Index(i));
-			if (item != null) {
+			if (item != null && position == i) {
 				item.toStringItem(buffer, indent);
+				item = nextChild(item);
+				if (item != null) {
+					position += item.fSpan;
+				}
 			} else {
 				buffer.append("<no item>\n"); //$NON-NLS-1$
 			}
@@ -551,11 +931,11 @@ public class VirtualItem {
 	}
 
 	private String toStringElement() {
-		String[] label = (String[])fData.get(LABEL_KEY);
+		String[] label = (String[])getData(LABEL_KEY);
 		if (label != null && label.length != 0) {
 			return label[0];
 		}
-		Object data = fData.get(ELEMENT_DATA_KEY);
+		Object data = getData();
 		if (data != null) {
 			return data.toString();
 		}
@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IStorage;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -57,6 +58,7 @@ import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationType;
 import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IBinaryStreamsProxy;
 import org.eclipse.debug.core.model.IFlushableStreamMonitor;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.IStreamMonitor;
@@ -153,15 +155,20 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 		fUserInput = getInputStream();
 
 		ILaunchConfiguration configuration = process.getLaunch().getLaunchConfiguration();
-		String file = null;
+		// the process may already capture its output to file without involving
+		// the console, then its file name is already substituted
+		String capturedFile = process.getAttribute(DebugPlugin.ATTR_CAPTURE_IN_FILE);
+		String file = capturedFile;
 		boolean append = false;
 		if (configuration != null) {
 			try {
-				file = configuration.getAttribute(IDebugUIConstants.ATTR_CAPTURE_IN_FILE, (String) null);
+				if (capturedFile == null) {
+					file = configuration.getAttribute(IDebugUIConstants.ATTR_CAPTURE_IN_FILE, (String) null);
+				}
 				fStdInFile = configuration.getAttribute(IDebugUIConstants.ATTR_CAPTURE_STDIN_FILE, (String) null);
 				if (file != null || fStdInFile != null) {
 					IStringVariableManager stringVariableManager = VariablesPlugin.getDefault().getStringVariableManager();
-					if (file != null) {
+					if (file != null && capturedFile == null) {
 						file = stringVariableManager.performStringSubstitution(file);
 						append = configuration.getAttribute(IDebugUIConstants.ATTR_APPEND_TO_FILE, false);
 					}
@@ -183,20 +190,27 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 
 			try {
 				String fileLoc = null;
-				if (ifile != null) {
-					if (append && ifile.exists()) {
-						ifile.appendContents(new ByteArrayInputStream(new byte[0]), true, true, new NullProgressMonitor());
-					} else {
-						if (ifile.exists()) {
-							ifile.delete(true, new NullProgressMonitor());
+				if (capturedFile != null) {
+					if (ifile != null) {
+						ifile.refreshLocal(IResource.DEPTH_ZERO, new NullProgressMonitor());
+					}
+					fileLoc = capturedFile;
+				} else {
+					if (ifile != null) {
+						if (append && ifile.exists()) {
+							ifile.appendContents(new ByteArrayInputStream(new byte[0]), true, true, new NullProgressMonitor());
+						} else {
+							if (ifile.exists()) {
+								ifile.delete(true, new NullProgressMonitor());
+							}
+							ifile.create(new ByteArrayInputStream(new byte[0]), true, new NullProgressMonitor());
 						}
-						ifile.create(new ByteArrayInputStream(new byte[0]), true, new NullProgressMonitor());
 					}
-				}
 
-				File outputFile = new File(file);
-				fFileOutputStream = new FileOutputStream(outputFile, append);
-				fileLoc = outputFile.getAbsolutePath();
+					File outputFile = new File(file);
+					fFileOutputStream = new FileOutputStream(outputFile, append);
+					fileLoc = outputFile.getAbsolutePath();
+				}
 
 				message = MessageFormat.format(ConsoleMessages.ProcessConsole_1, new Object[] { fileLoc });
 				addPatternMatchListener(new ConsoleLogFilePatternMatcher(fileLoc));
@@ -455,6 +469,8 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 			setHandleControlCharacters(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_CONTROL_CHARACTERS));
 		} else if (property.equals(IDebugPreferenceConstants.CONSOLE_INTERPRET_CR_AS_CONTROL_CHARACTER)) {
 			setCarriageReturnAsControlCharacter(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_CR_AS_CONTROL_CHARACTER));
+		} else if (property.equals(IDebugPreferenceConstants.CONSOLE_INTERPRET_ANSI_ESCAPE_SEQUENCES)) {
+			setHandleAnsiEscapeSequences(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_ANSI_ESCAPE_SEQUENCES));
 		}
 	}
 
@@ -566,6 +582,7 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 
 		setHandleControlCharacters(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_CONTROL_CHARACTERS));
 		setCarriageReturnAsControlCharacter(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_CR_AS_CONTROL_CHARACTER));
+		setHandleAnsiEscapeSequences(store.getBoolean(IDebugPreferenceConstants.CONSOLE_INTERPRET_ANSI_ESCAPE_SEQUENCES));
 
 		DebugUIPlugin.getStandardDisplay().asyncExec(() -> {
 			setFont(JFaceResources.getFont(IDebugUIConstants.PREF_CONSOLE_FONT));
@@ -804,6 +821,11 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 
 	private class InputReadJob extends Job {
 
+		/**
+		 * Size of the buffer used to transfer input to the process.
+		 */
+		private static final int INPUT_BUFFER_SIZE = 8192;
+
 		private IStreamsProxy streamsProxy;
 
 		/**
@@ -843,27 +865,11 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 			}
 			Charset encoding = getCharset();
-			readingStream = fInput;
-			InputStreamReader streamReader = (encoding == null ? new InputStreamReader(readingStream)
-					: new InputStreamReader(readingStream, encoding));
 			try {
-				char[] cbuf = new char[1024];
-				int charRead = 0;
-				while (charRead >= 0 && !monitor.isCanceled()) {
-					if (fInput == null || fStreamsClosed) {
-						break;
-					}
-					if (fInput != readingStream) {
-						readingStream = fInput;
-						streamReader = (encoding == null ? new InputStreamReader(readingStream)
-								: new InputStreamReader(readingStream, encoding));
-					}
-
-					charRead = streamReader.read(cbuf);
-					if (charRead > 0) {
-						String s = new String(cbuf, 0, charRead);
-						streamsProxy.write(s);
-					}
+				if (streamsProxy instanceof IBinaryStreamsProxy && encoding != null && encoding.equals(getProcessCharset())) {
+					readBinary(monitor, (IBinaryStreamsProxy) streamsProxy);
+				} else {
+					readText(monitor, encoding);
 				}
 			} catch (IOException e) {
 				DebugUIPlugin.log(e);
@@ -871,6 +877,80 @@ public class ProcessConsole extends IOConsole implements IConsole, IDebugEventSe
 			readingStream = null;
 			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 		}
+
+		/**
+		 * Transfers console input to the process as raw bytes. Only used if
+		 * console and process use the same charset so input does not need to
+		 * be decoded and encoded again.
+		 *
+		 * @param monitor the job's progress monitor
+		 * @param binaryProxy the proxy to write to
+		 * @throws IOException if reading or writing input fails
+		 */
+		private void readBinary(IProgressMonitor monitor, IBinaryStreamsProxy binaryProxy) throws IOException {
+			byte[] buffer = new byte[INPUT_BUFFER_SIZE];
+			int read = 0;
+			while (read >= 0 && !monitor.isCanceled()) {
+				if (fInput == null || fStreamsClosed) {
+					break;
+				}
+				readingStream = fInput;
+				read = readingStream.read(buffer);
+				if (read > 0) {
+					binaryProxy.write(buffer, 0, read);
+				}
+			}
+		}
+
+		/**
+		 * Transfers console input to the process as text.
+		 *
+		 * @param monitor the job's progress monitor
+		 * @param encoding the console's charset or <code>null</code> for
+		 *            default
+		 * @throws IOException if reading or writing input fails
+		 */
+		private void readText(IProgressMonitor monitor, Charset encoding) throws IOException {
+			readingStream = fInput;
+			InputStreamReader streamReader = (encoding == null ? new InputStreamReader(readingStream)
+					: new InputStreamReader(readingStream, encoding));
+			char[] cbuf = new char[INPUT_BUFFER_SIZE];
+			int charRead = 0;
+			while (charRead >= 0 && !monitor.isCanceled()) {
+				if (fInput == null || fStreamsClosed) {
+					break;
+				}
+				if (fInput != readingStream) {
+					readingStream = fInput;
+					streamReader = (encoding == null ? new InputStreamReader(readingStream)
+							: new InputStreamReader(readingStream, encoding));
+				}
+
+				charRead = streamReader.read(cbuf);
+				if (charRead > 0) {
+					String s = new String(cbuf, 0, charRead);
+					streamsProxy.write(s);
+				}
+			}
+		}
+
+		/**
+		 * Returns the charset the process uses for its standard streams.
+		 *
+		 * @return the process charset or <code>null</code> if the process uses
+		 *         the platform default or the charset is unknown
+		 */
+		private Charset getProcessCharset() {
+			String encoding = fProcess.getLaunch() != null ? fProcess.getLaunch().getAttribute(DebugPlugin.ATTR_CONSOLE_ENCODING) : null;
+			if (encoding == null) {
+				return null;
+			}
+			try {
+				return Charset.forName(encoding);
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
 	}
 
 	@Override
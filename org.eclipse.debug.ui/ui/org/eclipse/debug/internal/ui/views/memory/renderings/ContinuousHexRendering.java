@@ -0,0 +1,474 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.debug.internal.ui.IInternalDebugUIConstants;
+import org.eclipse.debug.ui.IDebugUIConstants;
+import org.eclipse.debug.ui.memory.AbstractMemoryRendering;
+import org.eclipse.debug.ui.memory.IRepositionableMemoryRendering;
+import org.eclipse.jface.resources.JFaceResources;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Slider;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+/**
+ * A hex rendering which scrolls continuously over the whole address range of a
+ * memory block, without pages.
+ * <p>
+ * The table has one item per visible line, and its rows are filled from a
+ * {@link MemoryWindow} as the rendering scrolls, so the memory and the widgets
+ * used do not depend on the size of the address space. Scrolling is driven by
+ * a slider, the mouse wheel and the keyboard rather than by the table.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class ContinuousHexRendering extends AbstractMemoryRendering implements IRepositionableMemoryRendering, IDebugEventSetListener {
+
+	/** Number of columns of memory of each line. */
+	private static final int COLUMNS = 4;
+	/** Number of bytes of each column. */
+	private static final int BYTES_PER_COLUMN = 4;
+	/** Number of lines kept above and below the visible lines. */
+	private static final int MARGIN = 64;
+	/**
+	 * Largest range of the slider. Beyond it, positions of the slider are
+	 * scaled to lines.
+	 */
+	private static final int SLIDER_RANGE = 1 << 30;
+
+	private Composite fComposite;
+	private Table fTable;
+	private Slider fSlider;
+
+	private MemoryWindow fWindow;
+	private IDebugTarget fDebugTarget;
+	private int fUnitsPerColumn;
+	private int fAddressChars;
+
+	/** First line shown, accessed in the UI thread. */
+	private long fTopLine;
+	private long fSelectedLine = -1;
+	private int fSelectedColumn = 1;
+
+	/** Top line for which the window failed to load, or -1. */
+	private volatile long fFailedLine = -1;
+	/** Top line for which the load job reads the window. */
+	private volatile long fLoadLine;
+	private final Job fLoadJob;
+
+	public ContinuousHexRendering(String renderingId) {
+		super(renderingId);
+		fLoadJob = new Job(DebugUIMessages.ContinuousHexRendering_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				long line = fLoadLine;
+				try {
+					fWindow.load(line);
+				} catch (DebugException e) {
+					DebugUIPlugin.log(e);
+					fFailedLine = line;
+				}
+				DebugUIPlugin.getStandardDisplay().asyncExec(ContinuousHexRendering.this::refresh);
+				return Status.OK_STATUS;
+			}
+		};
+		fLoadJob.setSystem(true);
+	}
+
+	@Override
+	public Control createControl(Composite parent) {
+		fComposite = new Composite(parent, SWT.NONE);
+		GridLayout layout = new GridLayout(2, false);
+		layout.marginWidth = 0;
+		layout.marginHeight = 0;
+		layout.horizontalSpacing = 0;
+		fComposite.setLayout(layout);
+
+		IMemoryBlockExtension memoryBlock = null;
+		if (getMemoryBlock() instanceof IMemoryBlockExtension) {
+			memoryBlock = (IMemoryBlockExtension) getMemoryBlock();
+			try {
+				fUnitsPerColumn = Math.max(1, BYTES_PER_COLUMN / memoryBlock.getAddressableSize());
+				fAddressChars = memoryBlock.getAddressSize() * 2;
+				fWindow = new MemoryWindow(memoryBlock, fUnitsPerColumn * COLUMNS, MARGIN);
+				fSelectedLine = fWindow.getLine(memoryBlock.getBigBaseAddress());
+				fTopLine = fSelectedLine;
+			} catch (DebugException e) {
+				DebugUIPlugin.log(e);
+				fWindow = null;
+			}
+		}
+		if (fWindow == null) {
+			Label label = new Label(fComposite, SWT.WRAP);
+			label.setText(DebugUIMessages.ContinuousHexRendering_not_supported);
+			return fComposite;
+		}
+
+		// create the page cache first so that it is invalidated before this
+		// rendering reloads on debug events
+		MemoryPageCache.getCache(memoryBlock);
+		fDebugTarget = memoryBlock.getDebugTarget();
+		DebugPlugin.getDefault().addDebugEventListener(this);
+
+		fTable = new Table(fComposite, SWT.SINGLE | SWT.FULL_SELECTION | SWT.NO_SCROLL | SWT.BORDER);
+		fTable.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
+		fTable.setHeaderVisible(true);
+		fTable.setLinesVisible(true);
+		fTable.setFont(JFaceResources.getFont(IInternalDebugUIConstants.FONT_NAME));
+		createColumns();
+
+		fSlider = new Slider(fComposite, SWT.VERTICAL);
+		fSlider.setLayoutData(new GridData(SWT.FILL, SWT.FILL, false, true));
+
+		fSlider.addListener(SWT.Selection, this::sliderMoved);
+		fTable.addListener(SWT.MouseVerticalWheel, event -> {
+			event.doit = false;
+			setTopLine(fTopLine - event.count);
+		});
+		fTable.addListener(SWT.KeyDown, this::keyPressed);
+		fTable.addListener(SWT.MouseDown, this::mouseDown);
+		fTable.addListener(SWT.Resize, event -> updateVisibleLines());
+		createPopupMenu(fTable);
+		return fComposite;
+	}
+
+	private void createColumns() {
+		TableColumn addressColumn = new TableColumn(fTable, SWT.LEFT);
+		addressColumn.setText(DebugUIMessages.AbstractTableRendering_2);
+		GC gc = new GC(fTable);
+		try {
+			addressColumn.setWidth(gc.textExtent(zeros(fAddressChars + 2)).x);
+			int cellChars = fWindow.getBytesPerLine() / COLUMNS * 2;
+			for (int i = 0; i < COLUMNS; i++) {
+				TableColumn column = new TableColumn(fTable, SWT.LEFT);
+				column.setText(Integer.toHexString(i * fUnitsPerColumn).toUpperCase());
+				column.setWidth(gc.textExtent(zeros(cellChars + 2)).x);
+			}
+		} finally {
+			gc.dispose();
+		}
+	}
+
+	private static String zeros(int count) {
+		StringBuilder builder = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			builder.append('0');
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public Control getControl() {
+		return fComposite;
+	}
+
+	@Override
+	public void dispose() {
+		DebugPlugin.getDefault().removeDebugEventListener(this);
+		fLoadJob.cancel();
+		if (fComposite != null) {
+			fComposite.dispose();
+			fComposite = null;
+		}
+		super.dispose();
+	}
+
+	@Override
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			Object source = event.getSource();
+			boolean suspended = event.getKind() == DebugEvent.SUSPEND && fDebugTarget != null && source instanceof IDebugElement && ((IDebugElement) source).getDebugTarget() == fDebugTarget;
+			boolean changed = event.getKind() == DebugEvent.CHANGE && source == getMemoryBlock() && event.getDetail() != DebugEvent.STATE;
+			if (suspended || changed) {
+				// keep showing the old memory until the new memory is read
+				DebugUIPlugin.getStandardDisplay().asyncExec(() -> {
+					fFailedLine = -1;
+					fLoadLine = fTopLine;
+					fLoadJob.schedule();
+				});
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Sizes the table to the lines which fit in it.
+	 */
+	private void updateVisibleLines() {
+		Rectangle area = fTable.getClientArea();
+		int lines = Math.max(1, (area.height - fTable.getHeaderHeight()) / fTable.getItemHeight());
+		if (fTable.getItemCount() != lines) {
+			fTable.setItemCount(lines);
+		}
+		fWindow.setVisibleLines(lines);
+		setTopLine(fTopLine);
+	}
+
+	private void setTopLine(long line) {
+		fTopLine = fWindow.clampTopLine(line);
+		updateSlider();
+		refresh();
+	}
+
+	private long getMaxTopLine() {
+		return Math.max(0, fWindow.getLineCount() - fWindow.getVisibleLines());
+	}
+
+	private void updateSlider() {
+		long maxTopLine = getMaxTopLine();
+		int thumb = maxTopLine > SLIDER_RANGE ? 1 : fWindow.getVisibleLines();
+		fSlider.setValues(toSlider(fTopLine), 0, (int) Math.min(maxTopLine, SLIDER_RANGE) + thumb, thumb, 1, thumb);
+		fSlider.setEnabled(maxTopLine > 0);
+	}
+
+	private int toSlider(long line) {
+		long maxTopLine = getMaxTopLine();
+		if (maxTopLine <= SLIDER_RANGE) {
+			return (int) line;
+		}
+		return (int) (line * ((double) SLIDER_RANGE / maxTopLine));
+	}
+
+	private long fromSlider(int value) {
+		long maxTopLine = getMaxTopLine();
+		if (maxTopLine <= SLIDER_RANGE) {
+			return value;
+		}
+		return (long) (value * ((double) maxTopLine / SLIDER_RANGE));
+	}
+
+	private void sliderMoved(Event event) {
+		// steps move by lines even when the slider is scaled
+		int visibleLines = fWindow.getVisibleLines();
+		switch (event.detail) {
+			case SWT.ARROW_UP:
+				setTopLine(fTopLine - 1);
+				break;
+			case SWT.ARROW_DOWN:
+				setTopLine(fTopLine + 1);
+				break;
+			case SWT.PAGE_UP:
+				setTopLine(fTopLine - visibleLines);
+				break;
+			case SWT.PAGE_DOWN:
+				setTopLine(fTopLine + visibleLines);
+				break;
+			default:
+				setTopLine(fromSlider(fSlider.getSelection()));
+				break;
+		}
+	}
+
+	private void keyPressed(Event event) {
+		int visibleLines = fWindow.getVisibleLines();
+		switch (event.keyCode) {
+			case SWT.ARROW_UP:
+				select(fSelectedLine - 1, fSelectedColumn);
+				break;
+			case SWT.ARROW_DOWN:
+				select(fSelectedLine + 1, fSelectedColumn);
+				break;
+			case SWT.PAGE_UP:
+				select(fSelectedLine - visibleLines, fSelectedColumn);
+				break;
+			case SWT.PAGE_DOWN:
+				select(fSelectedLine + visibleLines, fSelectedColumn);
+				break;
+			case SWT.ARROW_LEFT:
+				select(fSelectedLine, fSelectedColumn - 1);
+				break;
+			case SWT.ARROW_RIGHT:
+				select(fSelectedLine, fSelectedColumn + 1);
+				break;
+			case SWT.HOME:
+				if ((event.stateMask & SWT.MOD1) == 0) {
+					return;
+				}
+				select(0, 1);
+				break;
+			case SWT.END:
+				if ((event.stateMask & SWT.MOD1) == 0) {
+					return;
+				}
+				select(fWindow.getLineCount() - 1, COLUMNS);
+				break;
+			default:
+				return;
+		}
+		event.doit = false;
+	}
+
+	private void mouseDown(Event event) {
+		TableItem item = fTable.getItem(new Point(event.x, event.y));
+		if (item == null) {
+			return;
+		}
+		int column = fSelectedColumn;
+		for (int i = 1; i <= COLUMNS; i++) {
+			if (item.getBounds(i).contains(event.x, event.y)) {
+				column = i;
+			}
+		}
+		select(fTopLine + fTable.indexOf(item), column);
+	}
+
+	/**
+	 * Selects a cell and scrolls to it.
+	 */
+	private void select(long line, int column) {
+		fSelectedLine = Math.max(0, Math.min(line, fWindow.getLineCount() - 1));
+		fSelectedColumn = Math.max(1, Math.min(column, COLUMNS));
+		int visibleLines = fWindow.getVisibleLines();
+		if (fSelectedLine < fTopLine) {
+			setTopLine(fSelectedLine);
+		} else if (fSelectedLine >= fTopLine + visibleLines) {
+			setTopLine(fSelectedLine - visibleLines + 1);
+		} else {
+			refresh();
+		}
+	}
+
+	/**
+	 * Fills the rows of the table from the window, and reads the window ahead
+	 * when the rendering scrolls near the end of its margin.
+	 */
+	private void refresh() {
+		if (fTable == null || fTable.isDisposed()) {
+			return;
+		}
+		if (!fWindow.isMarginLoaded(fTopLine) && fTopLine != fFailedLine) {
+			fLoadLine = fTopLine;
+			fLoadJob.schedule();
+		}
+
+		String paddedStr = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
+		int bytesPerColumn = fWindow.getBytesPerLine() / COLUMNS;
+		int selectedRow = -1;
+		TableItem[] items = fTable.getItems();
+		for (int row = 0; row < items.length; row++) {
+			TableItem item = items[row];
+			long line = fTopLine + row;
+			PackedMemory memory = null;
+			if (line < fWindow.getLineCount()) {
+				item.setText(0, formatAddress(fWindow.getAddress(line)));
+				memory = fWindow.getMemory(line);
+			} else {
+				item.setText(0, ""); //$NON-NLS-1$
+			}
+			if (line == fSelectedLine) {
+				selectedRow = row;
+			}
+			for (int column = 0; column < COLUMNS; column++) {
+				if (memory == null) {
+					item.setText(column + 1, ""); //$NON-NLS-1$
+					continue;
+				}
+				MemoryByte[] bytes = memory.toMemoryBytes(column * bytesPerColumn, bytesPerColumn);
+				item.setText(column + 1, MemoryValueFormatter.formatHex(bytes, false, paddedStr));
+				item.setForeground(column + 1, getColor(bytes));
+			}
+		}
+		if (selectedRow >= 0) {
+			fTable.setSelection(selectedRow);
+		} else {
+			fTable.deselectAll();
+		}
+	}
+
+	private String formatAddress(BigInteger address) {
+		String hex = address.toString(16).toUpperCase();
+		if (hex.length() >= fAddressChars) {
+			return hex;
+		}
+		return zeros(fAddressChars - hex.length()) + hex;
+	}
+
+	private static Color getColor(MemoryByte[] bytes) {
+		boolean historyKnown = true;
+		for (MemoryByte b : bytes) {
+			if (b.isChanged()) {
+				return DebugUIPlugin.getPreferenceColor(IDebugUIConstants.PREF_CHANGED_DEBUG_ELEMENT_COLOR);
+			}
+			historyKnown &= b.isHistoryKnown();
+		}
+		if (historyKnown) {
+			return DebugUIPlugin.getPreferenceColor(IDebugUIConstants.PREF_MEMORY_HISTORY_KNOWN_COLOR);
+		}
+		return DebugUIPlugin.getPreferenceColor(IDebugUIConstants.PREF_MEMORY_HISTORY_UNKNOWN_COLOR);
+	}
+
+	@Override
+	public BigInteger getSelectedAddress() {
+		if (fWindow == null || fSelectedLine < 0) {
+			return null;
+		}
+		return fWindow.getAddress(fSelectedLine).add(BigInteger.valueOf((long) (fSelectedColumn - 1) * fUnitsPerColumn));
+	}
+
+	@Override
+	public MemoryByte[] getSelectedAsBytes() {
+		if (fWindow == null || fSelectedLine < 0) {
+			return new MemoryByte[0];
+		}
+		PackedMemory memory = fWindow.getMemory(fSelectedLine);
+		if (memory == null) {
+			return new MemoryByte[0];
+		}
+		int bytesPerColumn = fWindow.getBytesPerLine() / COLUMNS;
+		return memory.toMemoryBytes((fSelectedColumn - 1) * bytesPerColumn, bytesPerColumn);
+	}
+
+	@Override
+	public void goToAddress(BigInteger address) throws DebugException {
+		if (fWindow == null || !fWindow.contains(address)) {
+			Status stat = new Status(IStatus.ERROR, DebugUIPlugin.getUniqueIdentifier(), DebugException.NOT_SUPPORTED, DebugUIMessages.AbstractTableRendering_11, null);
+			throw new DebugException(stat);
+		}
+		long line = fWindow.getLine(address);
+		int column = address.subtract(fWindow.getAddress(line)).intValue() / fUnitsPerColumn + 1;
+		fSelectedLine = line;
+		fSelectedColumn = column;
+		setTopLine(line);
+	}
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.ui.memory.IMemoryRendering;
+import org.eclipse.debug.ui.memory.IMemoryRenderingTypeDelegate;
+
+/**
+ * Delegate for creating a continuously scrolling hex rendering.
+ * @since 3.14
+ */
+public class ContinuousHexRenderingTypeDelegate implements IMemoryRenderingTypeDelegate {
+
+	@Override
+	public IMemoryRendering createRendering(String id) throws CoreException {
+		return new ContinuousHexRendering(id);
+	}
+
+}
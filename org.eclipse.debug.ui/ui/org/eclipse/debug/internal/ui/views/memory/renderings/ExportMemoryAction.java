@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.window.Window;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Exports a range of the memory block of a table rendering to a file, in a
+ * background job.
+ *
+ * @see MemoryTransfer
+ * @since 3.14
+ */
+public class ExportMemoryAction extends Action {
+
+	/**
+	 * Number of units initially exported from memory blocks without a known
+	 * length.
+	 */
+	private static final long DEFAULT_LENGTH = 1024;
+
+	private final AbstractBaseTableRendering fRendering;
+
+	public ExportMemoryAction(AbstractBaseTableRendering rendering) {
+		super(DebugUIMessages.ExportMemoryAction_title);
+		setToolTipText(DebugUIMessages.ExportMemoryAction_title);
+		fRendering = rendering;
+		setEnabled(rendering.getMemoryBlock() instanceof IMemoryBlockExtension);
+	}
+
+	@Override
+	public void run() {
+		IMemoryBlock memoryBlock = fRendering.getMemoryBlock();
+		if (!(memoryBlock instanceof IMemoryBlockExtension)) {
+			return;
+		}
+		final IMemoryBlockExtension mbExt = (IMemoryBlockExtension) memoryBlock;
+
+		BigInteger address;
+		long length = DEFAULT_LENGTH;
+		try {
+			address = fRendering.getSelectedAddress();
+			if (address == null) {
+				address = mbExt.getBigBaseAddress();
+			}
+			BigInteger blockLength = mbExt.getBigLength();
+			if (blockLength != null && blockLength.signum() > 0 && blockLength.bitLength() < 63) {
+				length = blockLength.longValue();
+			}
+		} catch (DebugException e) {
+			DebugUIPlugin.errorDialog(DebugUIPlugin.getShell(), DebugUIMessages.ExportMemoryAction_failed, DebugUIMessages.ExportMemoryAction_failed, e);
+			return;
+		}
+
+		final MemoryTransferDialog dialog = new MemoryTransferDialog(DebugUIPlugin.getShell(), true, address, length);
+		if (dialog.open() == Window.CANCEL) {
+			return;
+		}
+
+		Job job = new Job(NLS.bind(DebugUIMessages.ExportMemoryAction_job_name, dialog.getFile())) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try (FileChannel channel = FileChannel.open(Paths.get(dialog.getFile()), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					MemoryTransfer.exportMemory(mbExt, dialog.getAddress(), dialog.getLength(), dialog.getFormat(), channel, monitor);
+				} catch (DebugException e) {
+					return e.getStatus();
+				} catch (IOException e) {
+					return new Status(IStatus.ERROR, DebugUIPlugin.getUniqueIdentifier(), DebugUIMessages.ExportMemoryAction_failed, e);
+				}
+				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+}
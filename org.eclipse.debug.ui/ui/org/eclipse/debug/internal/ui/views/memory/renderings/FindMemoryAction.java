@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.debug.internal.ui.views.memory.MemoryViewUtil;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.debug.ui.IDebugUIConstants;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.window.Window;
+
+/**
+ * Finds a byte pattern in the memory block of a table rendering, starting at
+ * the selected address, and goes to the first match. Running the action again
+ * on the match finds the next match. The memory is searched by a
+ * {@link FindMemoryJob} in the background.
+ *
+ * @since 3.14
+ */
+public class FindMemoryAction extends Action {
+
+	private final AbstractBaseTableRendering fRendering;
+	private BigInteger fLastFoundAddress;
+
+	public FindMemoryAction(AbstractBaseTableRendering rendering) {
+		super(DebugUIMessages.FindMemoryAction_title);
+		setToolTipText(DebugUIMessages.FindMemoryAction_title);
+		fRendering = rendering;
+		setEnabled(rendering.getMemoryBlock() instanceof IMemoryBlockExtension);
+	}
+
+	@Override
+	public void run() {
+		IMemoryBlock memoryBlock = fRendering.getMemoryBlock();
+		if (!(memoryBlock instanceof IMemoryBlockExtension)) {
+			return;
+		}
+		IMemoryBlockExtension mbExt = (IMemoryBlockExtension) memoryBlock;
+
+		FindMemoryDialog dialog = new FindMemoryDialog(DebugUIPlugin.getShell());
+		if (dialog.open() == Window.CANCEL) {
+			return;
+		}
+
+		try {
+			MemoryPatternMatcher matcher = new MemoryPatternMatcher(getPattern(dialog.getPattern(), dialog.isHex()));
+			FindMemoryJob job = new FindMemoryJob(mbExt, matcher, getStartAddress(mbExt), getEndAddress(mbExt));
+			job.setUser(true);
+			job.addJobChangeListener(new JobChangeAdapter() {
+				@Override
+				public void done(IJobChangeEvent event) {
+					if (event.getResult().isOK()) {
+						foundAddress(job.getFoundAddress());
+					} else if (event.getResult().getSeverity() == IStatus.ERROR) {
+						MemoryViewUtil.openError(DebugUIMessages.FindMemoryAction_Find_failed, event.getResult().getMessage(), null);
+					}
+				}
+			});
+			job.schedule();
+		} catch (DebugException e) {
+			MemoryViewUtil.openError(DebugUIMessages.FindMemoryAction_Find_failed, DebugUIMessages.FindMemoryAction_Find_failed, e);
+		} catch (IllegalArgumentException e) {
+			// includes NumberFormatException
+			MemoryViewUtil.openError(DebugUIMessages.FindMemoryAction_Find_failed, DebugUIMessages.FindMemoryAction_Pattern_is_invalid, null);
+		}
+	}
+
+	private void foundAddress(BigInteger address) {
+		fLastFoundAddress = address;
+		if (address == null) {
+			DebugUIPlugin.getStandardDisplay().asyncExec(() -> MessageDialog.openInformation(DebugUIPlugin.getShell(), DebugUIMessages.FindMemoryDialog_Find, DebugUIMessages.FindMemoryAction_Pattern_not_found));
+			return;
+		}
+		try {
+			fRendering.goToAddress(address);
+		} catch (DebugException e) {
+			MemoryViewUtil.openError(DebugUIMessages.FindMemoryAction_Find_failed, DebugUIMessages.FindMemoryAction_Find_failed, e);
+		}
+	}
+
+	private static byte[] getPattern(String pattern, boolean hex) {
+		if (hex) {
+			return MemoryPatternMatcher.parseHex(pattern);
+		}
+		String codepage = DebugUITools.getPreferenceStore().getString(IDebugUIConstants.PREF_DEFAULT_ASCII_CODE_PAGE);
+		Charset charset = Charset.isSupported(codepage) ? Charset.forName(codepage) : StandardCharsets.US_ASCII;
+		return pattern.getBytes(charset);
+	}
+
+	/**
+	 * Returns the selected address, or the address after it if the last find
+	 * ended there.
+	 */
+	private BigInteger getStartAddress(IMemoryBlockExtension mbExt) throws DebugException {
+		BigInteger address = fRendering.getSelectedAddress();
+		if (address == null) {
+			return mbExt.getBigBaseAddress();
+		}
+		if (address.equals(fLastFoundAddress)) {
+			return address.add(BigInteger.ONE);
+		}
+		return address;
+	}
+
+	/**
+	 * Returns the end address of the memory block, or the end of the address
+	 * space.
+	 */
+	private static BigInteger getEndAddress(IMemoryBlockExtension mbExt) throws DebugException {
+		BigInteger end = mbExt.getMemoryBlockEndAddress();
+		if (end == null) {
+			end = BigInteger.ONE.shiftLeft(mbExt.getAddressSize() * 8).subtract(BigInteger.ONE);
+		}
+		return end;
+	}
+}
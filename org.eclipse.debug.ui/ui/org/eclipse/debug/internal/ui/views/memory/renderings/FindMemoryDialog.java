@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.util.Vector;
+
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.TrayDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Asks for the pattern to find in memory, either as hex bytes or as text.
+ *
+ * @since 3.14
+ */
+public class FindMemoryDialog extends TrayDialog implements ModifyListener {
+
+	private static Vector<String> history = new Vector<>();
+	private static boolean hexInput = true;
+	private Combo patternInput;
+	private Button hexButton;
+	private String pattern;
+
+	/**
+	 * @param parentShell
+	 */
+	public FindMemoryDialog(Shell parentShell) {
+		super(parentShell);
+		setShellStyle(getShellStyle() | SWT.RESIZE);
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite comp = (Composite) super.createDialogArea(parent);
+		comp.setLayout(new GridLayout());
+		comp.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, true));
+
+		Label textLabel = new Label(comp, SWT.NONE);
+		textLabel.setText(DebugUIMessages.FindMemoryDialog_Pattern);
+		GridData textLayout = new GridData();
+		textLayout.widthHint = 280;
+		textLabel.setLayoutData(textLayout);
+
+		patternInput = new Combo(comp, SWT.BORDER);
+		patternInput.setLayoutData(new GridData(SWT.FILL, SWT.BEGINNING, true, false));
+		for (String h : history) {
+			patternInput.add(h);
+		}
+		patternInput.addModifyListener(this);
+
+		hexButton = new Button(comp, SWT.RADIO);
+		hexButton.setText(DebugUIMessages.FindMemoryDialog_Hex);
+		hexButton.setSelection(hexInput);
+		Button textButton = new Button(comp, SWT.RADIO);
+		textButton.setText(DebugUIMessages.FindMemoryDialog_Text);
+		textButton.setSelection(!hexInput);
+
+		return comp;
+	}
+
+	@Override
+	protected void configureShell(Shell newShell) {
+		super.configureShell(newShell);
+
+		newShell.setText(DebugUIMessages.FindMemoryDialog_Find);
+	}
+
+	/**
+	 * @return the pattern entered by the user
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return whether the pattern is given as hex bytes rather than text
+	 */
+	public boolean isHex() {
+		return hexInput;
+	}
+
+	@Override
+	protected void okPressed() {
+
+		pattern = patternInput.getText();
+		hexInput = hexButton.getSelection();
+
+		// add to history list
+		if (!history.contains(pattern)) {
+			history.insertElementAt(pattern, 0);
+		}
+
+		super.okPressed();
+	}
+
+	@Override
+	public void modifyText(ModifyEvent e) {
+
+		String input = patternInput.getText();
+		getButton(IDialogConstants.OK_ID).setEnabled(input != null && !input.equals(IInternalDebugCoreConstants.EMPTY_STRING));
+	}
+
+	@Override
+	protected Control createButtonBar(Composite parent) {
+
+		Control ret = super.createButtonBar(parent);
+		getButton(IDialogConstants.OK_ID).setEnabled(false);
+
+		return ret;
+	}
+
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Searches a range of an extended memory block for a byte pattern. The range
+ * is read in chunks of {@link #CHUNK_SIZE} bytes, aligned to the chunk size,
+ * which are searched by a {@link MemoryPatternMatcher}. The end of every chunk
+ * is kept, so matches across chunk boundaries are found.
+ *
+ * @since 3.14
+ */
+public class FindMemoryJob extends Job {
+
+	/**
+	 * Number of bytes read from the memory block at a time.
+	 */
+	public static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Maximum number of work units reported to the progress monitor.
+	 */
+	private static final int MAX_WORK = 10000;
+
+	private final IMemoryBlockExtension fMemoryBlock;
+	private final MemoryPatternMatcher fMatcher;
+	private final BigInteger fStartAddress;
+	private final BigInteger fEndAddress;
+	private volatile BigInteger fFoundAddress;
+
+	/**
+	 * @param memoryBlock the memory block to search
+	 * @param matcher matcher of the pattern to find
+	 * @param startAddress address of the first unit to search
+	 * @param endAddress address of the last unit to search
+	 */
+	public FindMemoryJob(IMemoryBlockExtension memoryBlock, MemoryPatternMatcher matcher, BigInteger startAddress, BigInteger endAddress) {
+		super(NLS.bind(DebugUIMessages.FindMemoryJob_name, memoryBlock.getExpression()));
+		fMemoryBlock = memoryBlock;
+		fMatcher = matcher;
+		fStartAddress = startAddress;
+		fEndAddress = endAddress;
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		try {
+			fFoundAddress = find(monitor);
+		} catch (DebugException e) {
+			return e.getStatus();
+		}
+		return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+	}
+
+	/**
+	 * Returns the address of the unit where the pattern was found by the
+	 * last run of this job.
+	 *
+	 * @return the address of the first match, or <code>null</code> if the
+	 *         pattern was not found
+	 */
+	public BigInteger getFoundAddress() {
+		return fFoundAddress;
+	}
+
+	/**
+	 * Searches the range in the calling thread.
+	 *
+	 * @param monitor progress monitor, or <code>null</code>
+	 * @return the address of the unit where the first match starts, or
+	 *         <code>null</code> if the pattern was not found or the search
+	 *         was canceled
+	 * @throws DebugException if memory could not be retrieved
+	 */
+	public BigInteger find(IProgressMonitor monitor) throws DebugException {
+		if (fStartAddress.compareTo(fEndAddress) > 0) {
+			return null;
+		}
+		int addressableSize = fMemoryBlock.getAddressableSize();
+		if (addressableSize < 1) {
+			addressableSize = 1;
+		}
+		BigInteger chunkUnits = BigInteger.valueOf(Math.max(1, CHUNK_SIZE / addressableSize));
+		// bytes of the previous chunk kept to find matches across chunks, in
+		// whole units
+		int overlapUnits = (fMatcher.length() - 2 + addressableSize) / addressableSize;
+		int overlap = overlapUnits * addressableSize;
+
+		BigInteger totalUnits = fEndAddress.subtract(fStartAddress).add(BigInteger.ONE);
+		BigInteger totalChunks = totalUnits.add(chunkUnits).subtract(BigInteger.ONE).divide(chunkUnits).add(BigInteger.ONE);
+		int totalWork = totalChunks.min(BigInteger.valueOf(MAX_WORK)).intValue();
+		SubMonitor progress = SubMonitor.convert(monitor, getName(), totalWork);
+
+		byte[] values = new byte[overlap + chunkUnits.intValue() * addressableSize];
+		byte[] flags = new byte[values.length];
+		int carried = 0;
+		BigInteger address = fStartAddress;
+		BigInteger chunk = BigInteger.ZERO;
+		int worked = 0;
+		while (address.compareTo(fEndAddress) <= 0) {
+			if (progress.isCanceled()) {
+				return null;
+			}
+			// align all but the first chunk to the chunk size
+			BigInteger next = address.divide(chunkUnits).add(BigInteger.ONE).multiply(chunkUnits);
+			BigInteger units = next.min(fEndAddress.add(BigInteger.ONE)).subtract(address);
+			PackedMemory memory = MemoryPageCache.read(fMemoryBlock, address, units.longValue());
+			int length = Math.min(memory.length(), units.intValue() * addressableSize);
+
+			int searched;
+			if (length == 0 || (memory.hasUniformFlags() && (memory.getFlags(0) & MemoryByte.READABLE) == 0)) {
+				// nothing readable, so no match can end in this chunk
+				searched = 0;
+				carried = 0;
+			} else {
+				memory.copyTo(0, values, flags, carried, length);
+				searched = carried + length;
+				int index = fMatcher.indexOf(values, flags, 0, searched);
+				if (index >= 0) {
+					BigInteger bufferAddress = address.subtract(BigInteger.valueOf(carried / addressableSize));
+					return bufferAddress.add(BigInteger.valueOf(index / addressableSize));
+				}
+			}
+
+			// keep the end of the searched bytes for the next chunk
+			int keep = Math.min(overlap, searched - searched % addressableSize);
+			System.arraycopy(values, searched - keep, values, 0, keep);
+			System.arraycopy(flags, searched - keep, flags, 0, keep);
+			carried = keep;
+
+			address = address.add(units);
+			chunk = chunk.add(BigInteger.ONE);
+			int done = chunk.multiply(BigInteger.valueOf(totalWork)).divide(totalChunks).intValue();
+			progress.worked(done - worked);
+			worked = done;
+		}
+		return null;
+	}
+}
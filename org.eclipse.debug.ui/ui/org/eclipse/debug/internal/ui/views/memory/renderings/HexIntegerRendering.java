@@ -33,29 +33,10 @@ public class HexIntegerRendering extends AbstractIntegerRendering {
 	@Override
 	public String getString(String dataType, BigInteger address,
 			MemoryByte[] data) {
-		StringBuilder strBuffer = new StringBuilder();
 		int endianess = getEndianness(data);
 
 		String paddedStr = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
-
-		if (endianess == RenderingsUtil.LITTLE_ENDIAN) {
-			MemoryByte[] swapped = new MemoryByte[data.length];
-			for (int i = 0; i < data.length; i++){
-				swapped[data.length-i-1] = data[i];
-			}
-			data = swapped;
-		}
-
-		for (MemoryByte memByte : data) {
-			if (memByte.isReadable()) {
-				strBuffer.append(new String(RenderingsUtil.convertByteToCharArray(memByte.getValue())));
-			} else {
-				// pad with padded string
-				strBuffer.append(paddedStr);
-			}
-		}
-
-		return strBuffer.toString().toUpperCase();
+		return MemoryValueFormatter.formatHex(data, endianess == RenderingsUtil.LITTLE_ENDIAN, paddedStr);
 	}
 
 	/**
@@ -34,20 +34,8 @@ public class HexRendering extends AbstractAsyncTableRendering {
 	@Override
 	public String getString(String dataType, BigInteger address,
 			MemoryByte[] data) {
-		StringBuilder strBuffer = new StringBuilder();
-
 		String paddedStr = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
-
-		for (MemoryByte memByte : data) {
-			if (memByte.isReadable()) {
-				strBuffer.append(new String(RenderingsUtil.convertByteToCharArray(memByte.getValue())));
-			} else {
-				// pad with padded string
-				strBuffer.append(paddedStr);
-			}
-		}
-
-		return strBuffer.toString().toUpperCase();
+		return MemoryValueFormatter.formatHex(data, false, paddedStr);
 	}
 
 	@Override
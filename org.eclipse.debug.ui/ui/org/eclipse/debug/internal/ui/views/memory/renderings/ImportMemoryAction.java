@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.window.Window;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Imports memory from a file into the memory block of a table rendering, in
+ * a background job.
+ *
+ * @see MemoryTransfer
+ * @since 3.14
+ */
+public class ImportMemoryAction extends Action {
+
+	private final AbstractBaseTableRendering fRendering;
+
+	public ImportMemoryAction(AbstractBaseTableRendering rendering) {
+		super(DebugUIMessages.ImportMemoryAction_title);
+		setToolTipText(DebugUIMessages.ImportMemoryAction_title);
+		fRendering = rendering;
+		IMemoryBlock memoryBlock = rendering.getMemoryBlock();
+		setEnabled(memoryBlock instanceof IMemoryBlockExtension && memoryBlock.supportsValueModification());
+	}
+
+	@Override
+	public void run() {
+		IMemoryBlock memoryBlock = fRendering.getMemoryBlock();
+		if (!(memoryBlock instanceof IMemoryBlockExtension)) {
+			return;
+		}
+		final IMemoryBlockExtension mbExt = (IMemoryBlockExtension) memoryBlock;
+
+		BigInteger address = fRendering.getSelectedAddress();
+		if (address == null) {
+			try {
+				address = mbExt.getBigBaseAddress();
+			} catch (DebugException e) {
+				DebugUIPlugin.errorDialog(DebugUIPlugin.getShell(), DebugUIMessages.ImportMemoryAction_failed, DebugUIMessages.ImportMemoryAction_failed, e);
+				return;
+			}
+		}
+
+		final MemoryTransferDialog dialog = new MemoryTransferDialog(DebugUIPlugin.getShell(), false, address, 0);
+		if (dialog.open() == Window.CANCEL) {
+			return;
+		}
+
+		Job job = new Job(NLS.bind(DebugUIMessages.ImportMemoryAction_job_name, dialog.getFile())) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				IStatus status;
+				try (FileChannel channel = FileChannel.open(Paths.get(dialog.getFile()), StandardOpenOption.READ)) {
+					MemoryTransfer.importMemory(mbExt, dialog.getFormat(), channel, dialog.getAddress(), monitor);
+					status = monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				} catch (DebugException e) {
+					status = e.getStatus();
+				} catch (IOException e) {
+					status = new Status(IStatus.ERROR, DebugUIPlugin.getUniqueIdentifier(), DebugUIMessages.ImportMemoryAction_failed, e);
+				}
+				// memory may have changed even if the import failed
+				MemoryPageCache cache = MemoryPageCache.getCache(mbExt);
+				if (cache != null) {
+					cache.invalidate();
+				}
+				DebugUIPlugin.getStandardDisplay().asyncExec(fRendering::refresh);
+				return status;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+}
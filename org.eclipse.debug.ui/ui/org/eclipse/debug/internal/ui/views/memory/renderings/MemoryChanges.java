@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+
+/**
+ * The ranges of bytes which changed between two snapshots of the same memory,
+ * as sorted, disjoint and non-adjacent ranges of byte indexes.
+ * <p>
+ * Values are compared eight bytes at a time, as <code>long</code>s read from
+ * the value buffers of the snapshots, so memory which did not change costs one
+ * comparison per word. A byte also changed if it became readable or not
+ * readable.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class MemoryChanges {
+
+	/**
+	 * No changed bytes.
+	 */
+	public static final MemoryChanges NONE = new MemoryChanges(new int[0], 0);
+
+	/**
+	 * Start and end index of each range, the end being exclusive.
+	 */
+	private final int[] fRanges;
+	private final int fCount;
+
+	private MemoryChanges(int[] ranges, int count) {
+		fRanges = ranges;
+		fCount = count;
+	}
+
+	/**
+	 * Computes the bytes which changed from the old to the new snapshot. Only
+	 * the bytes present in both snapshots are compared.
+	 *
+	 * @param newMemory the new snapshot
+	 * @param oldMemory the old snapshot of the same memory
+	 * @return the changed bytes
+	 */
+	public static MemoryChanges compute(PackedMemory newMemory, PackedMemory oldMemory) {
+		int length = Math.min(newMemory.length(), oldMemory.length());
+		if (length == 0) {
+			return NONE;
+		}
+		Builder builder = new Builder();
+		if (newMemory.hasUniformFlags() && oldMemory.hasUniformFlags()) {
+			boolean newReadable = isReadable(newMemory.getFlags(0));
+			boolean oldReadable = isReadable(oldMemory.getFlags(0));
+			if (newReadable != oldReadable) {
+				builder.add(0, length);
+			} else if (newReadable) {
+				diffValues(newMemory.getValues(), oldMemory.getValues(), length, builder);
+			}
+		} else {
+			// partly readable memory, compare byte by byte
+			for (int i = 0; i < length; i++) {
+				boolean newReadable = isReadable(newMemory.getFlags(i));
+				boolean oldReadable = isReadable(oldMemory.getFlags(i));
+				if (newReadable != oldReadable || (newReadable && newMemory.getValue(i) != oldMemory.getValue(i))) {
+					builder.add(i, i + 1);
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private static void diffValues(ByteBuffer newValues, ByteBuffer oldValues, int length, Builder builder) {
+		int words = length & ~7;
+		for (int i = 0; i < words; i += 8) {
+			long diff = newValues.getLong(i) ^ oldValues.getLong(i);
+			if (diff != 0) {
+				// buffers are big endian, so the first byte is the highest
+				for (int j = 0; j < 8; j++) {
+					if ((diff & (0xff00000000000000L >>> (8 * j))) != 0) {
+						builder.add(i + j, i + j + 1);
+					}
+				}
+			}
+		}
+		for (int i = words; i < length; i++) {
+			if (newValues.get(i) != oldValues.get(i)) {
+				builder.add(i, i + 1);
+			}
+		}
+	}
+
+	private static boolean isReadable(byte flags) {
+		return (flags & MemoryByte.READABLE) != 0;
+	}
+
+	/**
+	 * @return whether no byte changed
+	 */
+	public boolean isEmpty() {
+		return fCount == 0;
+	}
+
+	/**
+	 * @return the number of ranges of changed bytes
+	 */
+	public int getRangeCount() {
+		return fCount;
+	}
+
+	/**
+	 * @param range index of the range
+	 * @return the index of the first byte of the range
+	 */
+	public int getStart(int range) {
+		return fRanges[2 * range];
+	}
+
+	/**
+	 * @param range index of the range
+	 * @return the index after the last byte of the range
+	 */
+	public int getEnd(int range) {
+		return fRanges[2 * range + 1];
+	}
+
+	/**
+	 * @return the total number of changed bytes
+	 */
+	public int getChangedBytes() {
+		int bytes = 0;
+		for (int i = 0; i < fCount; i++) {
+			bytes += getEnd(i) - getStart(i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns whether the byte at the given index changed.
+	 *
+	 * @param index index of a byte
+	 * @return whether the byte changed
+	 */
+	public boolean isChanged(int index) {
+		int low = 0;
+		int high = fCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (index < getStart(mid)) {
+				high = mid - 1;
+			} else if (index >= getEnd(mid)) {
+				low = mid + 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the history of all bytes of the memory as known, and the bytes in
+	 * the ranges as changed.
+	 *
+	 * @param memory the new snapshot these changes were computed for
+	 */
+	public void apply(PackedMemory memory) {
+		memory.setFlags(MemoryByte.HISTORY_KNOWN, true);
+		for (int r = 0; r < fCount; r++) {
+			int end = Math.min(getEnd(r), memory.length());
+			for (int i = getStart(r); i < end; i++) {
+				memory.setFlags(i, (byte) (memory.getFlags(i) | MemoryByte.CHANGED));
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder("["); //$NON-NLS-1$
+		for (int i = 0; i < fCount; i++) {
+			if (i > 0) {
+				buffer.append(", "); //$NON-NLS-1$
+			}
+			buffer.append(getStart(i)).append('-').append(getEnd(i));
+		}
+		return buffer.append(']').toString();
+	}
+
+	/**
+	 * Collects ranges in ascending order, merging adjacent ranges.
+	 */
+	static class Builder {
+
+		private int[] fRanges = new int[16];
+		private int fCount;
+
+		/**
+		 * Adds a range which starts at or after the end of the last range.
+		 *
+		 * @param start index of the first byte
+		 * @param end index after the last byte
+		 */
+		void add(int start, int end) {
+			if (start >= end) {
+				return;
+			}
+			if (fCount > 0 && fRanges[2 * fCount - 1] >= start) {
+				fRanges[2 * fCount - 1] = Math.max(fRanges[2 * fCount - 1], end);
+				return;
+			}
+			if (2 * fCount == fRanges.length) {
+				fRanges = Arrays.copyOf(fRanges, fRanges.length * 2);
+			}
+			fRanges[2 * fCount] = start;
+			fRanges[2 * fCount + 1] = end;
+			fCount++;
+		}
+
+		/**
+		 * Adds the ranges of the changes which lie within the given range of
+		 * their indexes, shifted by the given offset.
+		 */
+		void add(MemoryChanges changes, int from, int to, int offset) {
+			for (int i = 0; i < changes.fCount; i++) {
+				add(Math.max(changes.getStart(i), from) + offset, Math.min(changes.getEnd(i), to) + offset);
+			}
+		}
+
+		MemoryChanges build() {
+			return fCount == 0 ? NONE : new MemoryChanges(fRanges, fCount);
+		}
+	}
+}
@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.IMemoryBlockListener;
+import org.eclipse.debug.core.IMemoryBlockManager;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
+import org.eclipse.debug.core.model.IPackedMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+
+/**
+ * Cache of the memory retrieved from the memory blocks of one
+ * {@link IMemoryBlockRetrieval}, shared by all table renderings of these
+ * memory blocks.
+ * <p>
+ * Memory is cached in pages of {@value #PAGE_UNITS} addressable units, keyed
+ * by page number, i.e. by address divided by the page size. The least
+ * recently used pages are evicted when the cache holds more than
+ * {@value #MAX_PAGES} pages. Reformatting a rendering, scrolling back or
+ * showing the same memory in another rendering is served from the cache.
+ * </p>
+ * <p>
+ * Pages become stale when the debug target suspends or a memory block of the
+ * retrieval changes. A stale page is retrieved again when it is asked for,
+ * and its new content is compared with the stale content to compute the
+ * <code>CHANGED</code> state of its bytes, unless the memory block manages
+ * the change state itself.
+ * </p>
+ * <p>
+ * A memory block returns bytes outside of its boundaries as not readable. A
+ * page which is not readable in full is only reused for the memory block it
+ * was retrieved from.
+ * </p>
+ * <p>
+ * A cache is released when its debug target terminates or when the last
+ * memory block of its retrieval is removed from the memory block manager.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class MemoryPageCache {
+
+	/**
+	 * Number of addressable units in a page.
+	 */
+	static final int PAGE_UNITS = 1024;
+
+	/**
+	 * Maximum number of pages cached per memory block retrieval.
+	 */
+	static final int MAX_PAGES = 4096;
+
+	private static final BigInteger PAGE_SIZE = BigInteger.valueOf(PAGE_UNITS);
+
+	private static final Map<IMemoryBlockRetrieval, MemoryPageCache> fgCaches = new HashMap<>();
+
+	private static IDebugEventSetListener fgDebugEventListener;
+
+	private static IMemoryBlockListener fgMemoryBlockListener;
+
+	/**
+	 * A cached page.
+	 */
+	private static class Page {
+		/**
+		 * Content of the page.
+		 */
+		PackedMemory fMemory;
+		/**
+		 * Content of the page before it became stale, or <code>null</code>.
+		 */
+		PackedMemory fPrevious;
+		/**
+		 * Bytes which differ from the previous content, or <code>null</code>.
+		 */
+		MemoryChanges fChanges;
+		/**
+		 * Generation of the cache the page was retrieved in.
+		 */
+		int fGeneration;
+		/**
+		 * Memory block the page was retrieved from.
+		 */
+		IMemoryBlockExtension fMemoryBlock;
+		/**
+		 * Whether all bytes of the page are readable.
+		 */
+		boolean fReadable;
+	}
+
+	private final IMemoryBlockRetrieval fRetrieval;
+	private final IDebugTarget fDebugTarget;
+	private final int fAddressableSize;
+	private final MemoryRefreshCoordinator fCoordinator = new MemoryRefreshCoordinator(this);
+
+	private final LinkedHashMap<BigInteger, Page> fPages = new LinkedHashMap<BigInteger, Page>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<BigInteger, Page> eldest) {
+			return size() > MAX_PAGES;
+		}
+	};
+
+	/**
+	 * Incremented each time the cached pages become stale. Not guarded by
+	 * the cache lock, so that debug events are not blocked by a request to a
+	 * memory block.
+	 */
+	private final AtomicInteger fGeneration = new AtomicInteger();
+
+	/**
+	 * Number of requests to the memory blocks.
+	 */
+	private long fFetchCount;
+
+	private MemoryPageCache(IMemoryBlockRetrieval retrieval, IDebugTarget target, int addressableSize) {
+		fRetrieval = retrieval;
+		fDebugTarget = target;
+		fAddressableSize = addressableSize;
+	}
+
+	/**
+	 * Returns the cache shared by the memory blocks of the retrieval of the
+	 * given memory block, creating it if needed.
+	 * <p>
+	 * Renderings ask for the cache before they install their model proxy,
+	 * so that the cache is notified of debug events before the renderings
+	 * update their content.
+	 * </p>
+	 *
+	 * @param memoryBlock a memory block
+	 * @return the cache or <code>null</code> if the memory block has no
+	 *         retrieval
+	 */
+	public static MemoryPageCache getCache(IMemoryBlockExtension memoryBlock) {
+		IMemoryBlockRetrieval retrieval = memoryBlock.getMemoryBlockRetrieval();
+		if (retrieval == null) {
+			return null;
+		}
+		synchronized (fgCaches) {
+			MemoryPageCache cache = fgCaches.get(retrieval);
+			if (cache == null) {
+				IDebugTarget target = memoryBlock.getDebugTarget();
+				if (target != null && target.isTerminated()) {
+					return null;
+				}
+				int addressableSize;
+				try {
+					addressableSize = memoryBlock.getAddressableSize();
+				} catch (DebugException e) {
+					return null;
+				}
+				cache = new MemoryPageCache(retrieval, target, addressableSize);
+				fgCaches.put(retrieval, cache);
+				if (fgDebugEventListener == null) {
+					fgDebugEventListener = MemoryPageCache::handleDebugEvents;
+					DebugPlugin.getDefault().addDebugEventListener(fgDebugEventListener);
+					fgMemoryBlockListener = new IMemoryBlockListener() {
+						@Override
+						public void memoryBlocksAdded(IMemoryBlock[] memory) {
+						}
+
+						@Override
+						public void memoryBlocksRemoved(IMemoryBlock[] memory) {
+							MemoryPageCache.memoryBlocksRemoved(memory);
+						}
+					};
+					DebugPlugin.getDefault().getMemoryBlockManager().addListener(fgMemoryBlockListener);
+				}
+			}
+			return cache;
+		}
+	}
+
+	private static void handleDebugEvents(DebugEvent[] events) {
+		synchronized (fgCaches) {
+			for (DebugEvent event : events) {
+				Object source = event.getSource();
+				switch (event.getKind()) {
+					case DebugEvent.SUSPEND:
+						if (source instanceof IDebugElement) {
+							IDebugTarget target = ((IDebugElement) source).getDebugTarget();
+							for (MemoryPageCache cache : fgCaches.values()) {
+								if (target != null && target == cache.fDebugTarget) {
+									cache.invalidate();
+								}
+							}
+						}
+						break;
+					case DebugEvent.CHANGE:
+						if (source instanceof IMemoryBlockExtension && event.getDetail() != DebugEvent.STATE) {
+							MemoryPageCache cache = fgCaches.get(((IMemoryBlockExtension) source).getMemoryBlockRetrieval());
+							if (cache != null) {
+								cache.invalidate();
+							}
+						}
+						break;
+					case DebugEvent.TERMINATE:
+						if (source instanceof IDebugTarget) {
+							fgCaches.values().removeIf(cache -> cache.fDebugTarget == source);
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	private static void memoryBlocksRemoved(IMemoryBlock[] memory) {
+		IMemoryBlockManager manager = DebugPlugin.getDefault().getMemoryBlockManager();
+		synchronized (fgCaches) {
+			for (IMemoryBlock block : memory) {
+				if (block instanceof IMemoryBlockExtension) {
+					IMemoryBlockRetrieval retrieval = ((IMemoryBlockExtension) block).getMemoryBlockRetrieval();
+					// release the cache with the last memory block of its retrieval
+					if (retrieval != null && manager.getMemoryBlocks(retrieval).length == 0) {
+						fgCaches.remove(retrieval);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks all cached pages as stale.
+	 */
+	public void invalidate() {
+		fGeneration.incrementAndGet();
+	}
+
+	/**
+	 * Removes all pages from the cache.
+	 */
+	public synchronized void clear() {
+		fPages.clear();
+	}
+
+	/**
+	 * @return the retrieval whose memory is cached
+	 */
+	public IMemoryBlockRetrieval getRetrieval() {
+		return fRetrieval;
+	}
+
+	/**
+	 * @return the coordinator which merges the requests of renderings to this
+	 *         cache
+	 */
+	public MemoryRefreshCoordinator getCoordinator() {
+		return fCoordinator;
+	}
+
+	/**
+	 * @return number of requests made to memory blocks to fill the cache
+	 */
+	public synchronized long getFetchCount() {
+		return fFetchCount;
+	}
+
+	/**
+	 * Returns memory of the given memory block, from the cache where
+	 * possible. Pages which are not cached or stale are retrieved from the
+	 * memory block, consecutive pages in a single request.
+	 *
+	 * @param memoryBlock memory block of the retrieval of this cache
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units number of addressable units to retrieve
+	 * @return a copy of the memory, which the caller may change
+	 * @throws DebugException if unable to retrieve the memory
+	 */
+	public synchronized PackedMemory getMemory(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		if (memoryBlock.getAddressableSize() != fAddressableSize || units <= 0) {
+			// pages are sized for the memory blocks first seen
+			PackedMemory memory = fetch(memoryBlock, address, units);
+			if (!memoryBlock.supportsChangeManagement()) {
+				memory.setFlags((byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED), false);
+			}
+			return memory;
+		}
+
+		// pages retrieved by this request belong to the generation it
+		// started in
+		int generation = fGeneration.get();
+
+		int pageBytes = PAGE_UNITS * fAddressableSize;
+		byte[] values = new byte[(int) (units * fAddressableSize)];
+
+		BigInteger firstPage = address.divide(PAGE_SIZE);
+		int offset = address.subtract(firstPage.multiply(PAGE_SIZE)).intValue() * fAddressableSize;
+		int numPages = (offset + values.length + pageBytes - 1) / pageBytes;
+
+		Page[] pages = new Page[numPages];
+		for (int i = 0; i < numPages; i++) {
+			pages[i] = fPages.get(firstPage.add(BigInteger.valueOf(i)));
+			if (pages[i] != null && !isValid(pages[i], memoryBlock, generation)) {
+				pages[i] = null;
+			}
+		}
+
+		int i = 0;
+		while (i < numPages) {
+			if (pages[i] != null) {
+				i++;
+				continue;
+			}
+			// retrieve the run of missing pages at once
+			int end = i + 1;
+			while (end < numPages && pages[end] == null) {
+				end++;
+			}
+			fetchPages(memoryBlock, firstPage.add(BigInteger.valueOf(i)), generation, pages, i, end);
+			i = end;
+		}
+
+		// keep the flags as a single value if they are the same in all pages
+		byte uniformFlags = pages[0].fMemory.getFlags(0);
+		boolean uniform = true;
+		for (i = 0; i < numPages && uniform; i++) {
+			uniform = pages[i].fMemory.hasUniformFlags() && pages[i].fMemory.getFlags(0) == uniformFlags;
+		}
+		byte[] flags = uniform ? null : new byte[values.length];
+
+		int pos = 0;
+		for (i = 0; i < numPages && pos < values.length; i++) {
+			int start = i == 0 ? offset : 0;
+			int length = Math.min(pageBytes - start, values.length - pos);
+			pages[i].fMemory.copyTo(start, values, flags, pos, length);
+			pos += length;
+		}
+		return uniform ? new PackedMemory(values, uniformFlags) : new PackedMemory(values, flags);
+	}
+
+	/**
+	 * Returns the bytes of the given range which changed since the last
+	 * suspend, as far as they are known from the pages retrieved in the
+	 * current generation. Nothing is retrieved from the memory block.
+	 *
+	 * @param memoryBlock memory block of the retrieval of this cache
+	 * @param address address of the first unit of the range
+	 * @param units number of addressable units in the range
+	 * @return the changed bytes, relative to the start of the range
+	 */
+	public synchronized MemoryChanges getChanges(IMemoryBlockExtension memoryBlock, BigInteger address, long units) {
+		int generation = fGeneration.get();
+		int pageBytes = PAGE_UNITS * fAddressableSize;
+		long length = units * fAddressableSize;
+		if (units <= 0 || length > Integer.MAX_VALUE) {
+			return MemoryChanges.NONE;
+		}
+
+		BigInteger firstPage = address.divide(PAGE_SIZE);
+		int offset = address.subtract(firstPage.multiply(PAGE_SIZE)).intValue() * fAddressableSize;
+		int numPages = (int) ((offset + length + pageBytes - 1) / pageBytes);
+
+		MemoryChanges.Builder builder = new MemoryChanges.Builder();
+		int pos = -offset;
+		for (int i = 0; i < numPages; i++, pos += pageBytes) {
+			Page page = fPages.get(firstPage.add(BigInteger.valueOf(i)));
+			if (page != null && page.fChanges != null && isValid(page, memoryBlock, generation)) {
+				builder.add(page.fChanges, Math.max(0, -pos), (int) Math.min(pageBytes, length - pos), pos);
+			}
+		}
+		return builder.build();
+	}
+
+	private static boolean isValid(Page page, IMemoryBlockExtension memoryBlock, int generation) {
+		return page.fGeneration == generation && (page.fReadable || page.fMemoryBlock == memoryBlock);
+	}
+
+	/**
+	 * Retrieves pages from the memory block and caches them.
+	 *
+	 * @param memoryBlock memory block to retrieve the pages from
+	 * @param pageNumber number of the first page to retrieve
+	 * @param generation generation of the cache the request started in
+	 * @param pages array to store the retrieved pages in
+	 * @param start index of the first page in the array
+	 * @param end index after the last page in the array
+	 */
+	private void fetchPages(IMemoryBlockExtension memoryBlock, BigInteger pageNumber, int generation, Page[] pages, int start, int end) throws DebugException {
+		int pageBytes = PAGE_UNITS * fAddressableSize;
+		PackedMemory memory = fetch(memoryBlock, pageNumber.multiply(PAGE_SIZE), (long) (end - start) * PAGE_UNITS);
+		boolean manageChanges = !memoryBlock.supportsChangeManagement();
+
+		for (int i = start; i < end; i++) {
+			byte[] values = new byte[pageBytes];
+			byte[] flags = new byte[pageBytes];
+			int pos = (i - start) * pageBytes;
+			int available = Math.max(0, Math.min(pageBytes, memory.length() - pos));
+			// bytes the memory block did not return are not readable
+			memory.copyTo(pos, values, flags, 0, available);
+
+			Page page = new Page();
+			page.fMemory = available == pageBytes && memory.hasUniformFlags() ? new PackedMemory(values, flags[0]) : new PackedMemory(values, flags);
+			page.fGeneration = generation;
+			page.fMemoryBlock = memoryBlock;
+			page.fReadable = true;
+			for (int j = 0; j < pageBytes && page.fReadable; j++) {
+				page.fReadable = (flags[j] & MemoryByte.READABLE) != 0;
+			}
+
+			BigInteger key = pageNumber.add(BigInteger.valueOf(i - start));
+			Page old = fPages.get(key);
+			if (old != null) {
+				// compare with the content before the last suspend, also when
+				// the page was retrieved again for another memory block
+				page.fPrevious = old.fGeneration != generation ? old.fMemory : old.fPrevious;
+			}
+			if (page.fPrevious != null) {
+				page.fChanges = MemoryChanges.compute(page.fMemory, page.fPrevious);
+			}
+			if (manageChanges) {
+				// turn off both change and known bits to make sure that the
+				// change bits returned by debug adapters do not take any effect
+				page.fMemory.setFlags((byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED), false);
+				if (page.fChanges != null) {
+					page.fChanges.apply(page.fMemory);
+				}
+			}
+			fPages.put(key, page);
+			pages[i] = page;
+		}
+	}
+
+	private PackedMemory fetch(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		fFetchCount++;
+		return read(memoryBlock, address, units);
+	}
+
+	/**
+	 * Reads memory from the memory block, bypassing any cache.
+	 *
+	 * @param memoryBlock the memory block
+	 * @param address address of the first unit
+	 * @param units number of addressable units
+	 * @return the memory
+	 * @throws DebugException if the memory block fails or returns no memory
+	 */
+	static PackedMemory read(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		PackedMemory memory;
+		if (memoryBlock instanceof IPackedMemoryBlockExtension) {
+			memory = ((IPackedMemoryBlockExtension) memoryBlock).getPackedBytesFromAddress(address, units);
+		} else {
+			MemoryByte[] bytes = memoryBlock.getBytesFromAddress(address, units);
+			memory = bytes == null ? null : PackedMemory.fromMemoryBytes(bytes);
+		}
+		if (memory == null) {
+			throw new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
+		}
+		return memory;
+	}
+
+	/**
+	 * Removes the caches of all retrievals, used by the tests.
+	 */
+	public static void disposeAll() {
+		synchronized (fgCaches) {
+			for (Iterator<MemoryPageCache> iterator = fgCaches.values().iterator(); iterator.hasNext();) {
+				iterator.next().clear();
+				iterator.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.util.Arrays;
+
+import org.eclipse.debug.core.model.MemoryByte;
+
+/**
+ * Finds a byte pattern in memory with the Boyer-Moore-Horspool algorithm.
+ * Matches must only cover readable bytes.
+ *
+ * @since 3.14
+ */
+public class MemoryPatternMatcher {
+
+	private final byte[] fPattern;
+
+	/**
+	 * Distance to shift the pattern by, indexed by the unsigned value of the
+	 * byte aligned with the last byte of the pattern.
+	 */
+	private final int[] fShift = new int[256];
+
+	/**
+	 * @param pattern the bytes to find, must not be empty
+	 */
+	public MemoryPatternMatcher(byte[] pattern) {
+		if (pattern.length == 0) {
+			throw new IllegalArgumentException("empty pattern"); //$NON-NLS-1$
+		}
+		fPattern = pattern.clone();
+		Arrays.fill(fShift, pattern.length);
+		for (int i = 0; i < pattern.length - 1; i++) {
+			fShift[pattern[i] & 0xff] = pattern.length - 1 - i;
+		}
+	}
+
+	/**
+	 * Parses a pattern of hex digits, optionally prefixed with
+	 * <code>0x</code>. Whitespace separates bytes, so <code>"1 2f"</code>
+	 * and <code>"012F"</code> are the same pattern.
+	 *
+	 * @param hex the hex digits
+	 * @return the bytes of the pattern
+	 * @throws NumberFormatException if the string has no hex digits, or other
+	 *             characters
+	 */
+	public static byte[] parseHex(String hex) throws NumberFormatException {
+		String str = hex.trim();
+		if (str.startsWith("0x") || str.startsWith("0X")) { //$NON-NLS-1$ //$NON-NLS-2$
+			str = str.substring(2);
+		}
+		StringBuilder digits = new StringBuilder();
+		for (String token : str.split("\\s+")) { //$NON-NLS-1$
+			if ((token.length() & 1) != 0) {
+				digits.append('0');
+			}
+			digits.append(token);
+		}
+		if (digits.length() == 0) {
+			throw new NumberFormatException(hex);
+		}
+		byte[] bytes = new byte[digits.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int high = Character.digit(digits.charAt(2 * i), 16);
+			int low = Character.digit(digits.charAt(2 * i + 1), 16);
+			if (high < 0 || low < 0) {
+				throw new NumberFormatException(hex);
+			}
+			bytes[i] = (byte) ((high << 4) | low);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the number of bytes of the pattern
+	 */
+	public int length() {
+		return fPattern.length;
+	}
+
+	/**
+	 * Returns the index of the first match which lies within the given range
+	 * of the values and only covers readable bytes.
+	 *
+	 * @param values values of the bytes to search
+	 * @param flags flags of the bytes, or <code>null</code> if all bytes are
+	 *            readable
+	 * @param from index of the first byte to search
+	 * @param to index after the last byte to search
+	 * @return index of the first byte of the match, or -1
+	 */
+	public int indexOf(byte[] values, byte[] flags, int from, int to) {
+		int last = fPattern.length - 1;
+		byte lastByte = fPattern[last];
+		int i = from;
+		while (i + last < to) {
+			byte b = values[i + last];
+			if (b == lastByte && matchesAt(values, flags, i)) {
+				return i;
+			}
+			i += fShift[b & 0xff];
+		}
+		return -1;
+	}
+
+	private boolean matchesAt(byte[] values, byte[] flags, int index) {
+		for (int j = fPattern.length - 2; j >= 0; j--) {
+			if (values[index + j] != fPattern[j]) {
+				return false;
+			}
+		}
+		if (flags != null) {
+			for (int j = 0; j < fPattern.length; j++) {
+				if ((flags[index + j] & MemoryByte.READABLE) == 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
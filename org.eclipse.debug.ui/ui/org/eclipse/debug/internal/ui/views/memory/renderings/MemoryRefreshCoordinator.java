@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+
+/**
+ * Coordinates the requests of all renderings for the memory of one memory
+ * block retrieval, such as the renderings of several panes of the memory view
+ * updating after the same suspend.
+ * <p>
+ * Requests are served one batch at a time. Requests which arrive while a
+ * batch is being read wait for it, and are then served together: requests for
+ * overlapping or adjacent ranges of the same memory block are merged into one
+ * request to the page cache, and each of them is answered with its part of the
+ * result.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class MemoryRefreshCoordinator {
+
+	/**
+	 * A request of a rendering.
+	 */
+	private static class Request {
+		final IMemoryBlockExtension fMemoryBlock;
+		final BigInteger fStart;
+		final BigInteger fEnd;
+		PackedMemory fResult;
+		DebugException fError;
+		boolean fDone;
+
+		Request(IMemoryBlockExtension memoryBlock, BigInteger address, long units) {
+			fMemoryBlock = memoryBlock;
+			fStart = address;
+			fEnd = address.add(BigInteger.valueOf(units));
+		}
+	}
+
+	private final MemoryPageCache fCache;
+
+	/**
+	 * Requests waiting for the next batch, guarded by this coordinator.
+	 */
+	private final List<Request> fPending = new ArrayList<>();
+
+	/**
+	 * Whether a batch is being read.
+	 */
+	private boolean fReading;
+
+	/**
+	 * Number of requests served by the read of another request.
+	 */
+	private long fMergedCount;
+
+	MemoryRefreshCoordinator(MemoryPageCache cache) {
+		fCache = cache;
+	}
+
+	/**
+	 * Returns memory of the given memory block from the page cache, merging
+	 * the request with the pending requests of other renderings.
+	 *
+	 * @param memoryBlock memory block of the retrieval of the cache
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units number of addressable units to retrieve
+	 * @return a copy of the memory, which the caller may change
+	 * @throws DebugException if unable to retrieve the memory
+	 */
+	public PackedMemory getMemory(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		if (units <= 0) {
+			return fCache.getMemory(memoryBlock, address, units);
+		}
+		Request request = new Request(memoryBlock, address, units);
+		List<Request> batch;
+		boolean interrupted = false;
+		synchronized (this) {
+			fPending.add(request);
+			while (fReading && !request.fDone) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (request.fDone) {
+				batch = null;
+			} else {
+				// serve all pending requests, including this one
+				fReading = true;
+				batch = new ArrayList<>(fPending);
+				fPending.clear();
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (batch != null) {
+			try {
+				serve(batch);
+			} finally {
+				synchronized (this) {
+					fReading = false;
+					for (Request served : batch) {
+						served.fDone = true;
+					}
+					notifyAll();
+				}
+			}
+		}
+
+		synchronized (this) {
+			if (request.fError != null) {
+				throw request.fError;
+			}
+			return request.fResult;
+		}
+	}
+
+	/**
+	 * Reads the memory of a batch of requests, one read per run of
+	 * overlapping or adjacent requests of a memory block.
+	 */
+	private void serve(List<Request> batch) {
+		Map<IMemoryBlockExtension, List<Request>> byMemoryBlock = new LinkedHashMap<>();
+		for (Request request : batch) {
+			byMemoryBlock.computeIfAbsent(request.fMemoryBlock, k -> new ArrayList<>()).add(request);
+		}
+		for (List<Request> requests : byMemoryBlock.values()) {
+			requests.sort(Comparator.comparing(r -> r.fStart));
+			int i = 0;
+			while (i < requests.size()) {
+				BigInteger start = requests.get(i).fStart;
+				BigInteger end = requests.get(i).fEnd;
+				int last = i + 1;
+				while (last < requests.size() && requests.get(last).fStart.compareTo(end) <= 0) {
+					end = end.max(requests.get(last).fEnd);
+					last++;
+				}
+				serve(requests.subList(i, last), start, end);
+				i = last;
+			}
+		}
+	}
+
+	private void serve(List<Request> requests, BigInteger start, BigInteger end) {
+		IMemoryBlockExtension memoryBlock = requests.get(0).fMemoryBlock;
+		try {
+			PackedMemory memory = fCache.getMemory(memoryBlock, start, end.subtract(start).longValue());
+			if (requests.size() == 1) {
+				requests.get(0).fResult = memory;
+				return;
+			}
+			int addressableSize = memoryBlock.getAddressableSize();
+			for (Request request : requests) {
+				int offset = request.fStart.subtract(start).intValue() * addressableSize;
+				int length = request.fEnd.subtract(request.fStart).intValue() * addressableSize;
+				request.fResult = memory.slice(offset, length).copy();
+			}
+			synchronized (this) {
+				fMergedCount += requests.size() - 1;
+			}
+		} catch (DebugException e) {
+			for (Request request : requests) {
+				request.fError = e;
+			}
+		} catch (RuntimeException e) {
+			// the waiting requests must not return without a result
+			DebugException error = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, e));
+			for (Request request : requests) {
+				request.fError = error;
+			}
+		}
+	}
+
+	/**
+	 * @return number of requests which were served by the read of another
+	 *         request
+	 */
+	public synchronized long getMergedCount() {
+		return fMergedCount;
+	}
+}
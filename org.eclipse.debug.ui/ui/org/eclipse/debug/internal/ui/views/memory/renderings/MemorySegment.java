@@ -15,22 +15,37 @@
 package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
 
+/**
+ * A line of memory shown by a table rendering. The bytes are stored as
+ * {@link PackedMemory}, memory bytes are only created when asked for.
+ */
 public class MemorySegment extends PlatformObject {
 
 	private BigInteger fAddress;
 	private BigInteger fEndAddress;
-	private MemoryByte[] fBytes;
+	private PackedMemory fMemory;
 	private int fNumAddressableUnits;
 
 	public MemorySegment(BigInteger address, MemoryByte[] bytes, int numAddressableUnits)
+	{
+		this(address, PackedMemory.fromMemoryBytes(bytes), numAddressableUnits);
+	}
+
+	/**
+	 * @param address - address of the line
+	 * @param memory - bytes of the line, not copied
+	 * @param numAddressableUnits - number of addressable units in the line
+	 * @since 3.14
+	 */
+	public MemorySegment(BigInteger address, PackedMemory memory, int numAddressableUnits)
 	{
 		fAddress = address;
-		fBytes = bytes;
+		fMemory = memory;
 		fNumAddressableUnits = numAddressableUnits;
 	}
 
@@ -38,8 +53,28 @@ public class MemorySegment extends PlatformObject {
 		return fAddress;
 	}
 
+	/**
+	 * @return new memory bytes with the values and flags of this line, changes
+	 *         to them are not reflected in this line
+	 */
 	public MemoryByte[] getBytes() {
-		return fBytes;
+		return fMemory.toMemoryBytes(0, fMemory.length());
+	}
+
+	/**
+	 * @return the bytes of this line
+	 * @since 3.14
+	 */
+	public PackedMemory getMemory() {
+		return fMemory;
+	}
+
+	/**
+	 * @return the number of bytes in this line
+	 * @since 3.14
+	 */
+	public int getNumBytes() {
+		return fMemory.length();
 	}
 
 	public int getNumAddressableUnits() {
@@ -65,23 +100,17 @@ public class MemorySegment extends PlatformObject {
 	/**
 	 * @param start - zero-based start offset
 	 * @param length - number of bytes to get
-	 * @return the bytes from start offset to the end.
+	 * @return new memory bytes from start offset to the end.
 	 */
 	public MemoryByte[] getBytes(int start, int length)
 	{
-		if (start < 0)
+		if (start < 0 || length < 0)
 			return new MemoryByte[0];
 
-		if (start + length > fBytes.length)
+		if (start + length > fMemory.length())
 			return new MemoryByte[0];
 
-		ArrayList<MemoryByte> ret = new ArrayList<>();
-
-		for (int i=start; i< start+length; i++)
-		{
-			ret.add(fBytes[i]);
-		}
-		return ret.toArray(new MemoryByte[ret.size()]);
+		return fMemory.toMemoryBytes(start, length);
 	}
 
 }
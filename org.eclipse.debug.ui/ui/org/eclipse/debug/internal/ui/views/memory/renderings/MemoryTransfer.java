@@ -0,0 +1,661 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.DebugUIPlugin;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Exports ranges of extended memory blocks to channels and imports them back,
+ * as raw binary, Intel HEX or Motorola S-records. Memory is read and written
+ * in chunks of {@link #CHUNK_SIZE} bytes, so the size of a range is only
+ * limited by the target.
+ * <p>
+ * Record addresses are byte addresses, i.e. the address of a unit times the
+ * addressable size of the memory block. Bytes which cannot be read are
+ * exported as 0 to binary files, and left out of the records of the other
+ * formats.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class MemoryTransfer {
+
+	/**
+	 * File formats of exported memory.
+	 */
+	public enum Format {
+		/** The values of the bytes, without addresses. */
+		BINARY("bin"), //$NON-NLS-1$
+		/** Intel HEX records, with addresses of up to 32 bits. */
+		INTEL_HEX("hex"), //$NON-NLS-1$
+		/** Motorola S-records, with addresses of up to 32 bits. */
+		S_RECORD("srec"); //$NON-NLS-1$
+
+		private final String fExtension;
+
+		Format(String extension) {
+			fExtension = extension;
+		}
+
+		/**
+		 * @return the usual file extension of the format, without the dot
+		 */
+		public String getExtension() {
+			return fExtension;
+		}
+
+		/**
+		 * Returns the format of a file with the given name, by its
+		 * extension.
+		 *
+		 * @param fileName name of the file
+		 * @return the format, {@link #BINARY} if the extension is not known
+		 */
+		public static Format fromFileName(String fileName) {
+			String name = fileName.toLowerCase(Locale.ENGLISH);
+			if (name.endsWith(".hex") || name.endsWith(".ihex")) { //$NON-NLS-1$ //$NON-NLS-2$
+				return INTEL_HEX;
+			}
+			if (name.endsWith(".srec") || name.endsWith(".s19") || name.endsWith(".s28") || name.endsWith(".s37") || name.endsWith(".mot")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				return S_RECORD;
+			}
+			return BINARY;
+		}
+	}
+
+	/**
+	 * Number of bytes read from or written to the memory block at a time.
+	 */
+	public static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Number of data bytes per record.
+	 */
+	private static final int RECORD_SIZE = 16;
+
+	/**
+	 * Number of characters of the longest record, including the line end.
+	 */
+	private static final int MAX_RECORD_LENGTH = 2 + 2 + 8 + 2 * RECORD_SIZE + 2 + 1;
+
+	/**
+	 * Number of characters of the longest record which can be imported, an
+	 * Intel HEX record of 255 data bytes.
+	 */
+	private static final int MAX_IMPORT_RECORD_LENGTH = 1 + 2 + 4 + 2 + 2 * 255 + 2;
+
+	private static final long MAX_ADDRESS = 0xffffffffL;
+
+	private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+
+	private MemoryTransfer() {
+	}
+
+	/**
+	 * Writes a range of memory to the channel.
+	 *
+	 * @param memoryBlock the memory block to read
+	 * @param startAddress address of the first unit to export
+	 * @param units number of addressable units to export
+	 * @param format format to write
+	 * @param channel channel to write to, not closed by this method
+	 * @param monitor progress monitor, or <code>null</code>
+	 * @throws DebugException if the memory cannot be read, or its addresses
+	 *             cannot be represented in the format
+	 * @throws IOException if writing to the channel fails
+	 */
+	public static void exportMemory(IMemoryBlockExtension memoryBlock, BigInteger startAddress, long units, Format format, WritableByteChannel channel, IProgressMonitor monitor) throws DebugException, IOException {
+		int addressableSize = Math.max(1, memoryBlock.getAddressableSize());
+		int chunkUnits = Math.max(1, CHUNK_SIZE / addressableSize);
+		long chunks = (units + chunkUnits - 1) / chunkUnits;
+		SubMonitor progress = SubMonitor.convert(monitor, (int) Math.min(chunks, Integer.MAX_VALUE));
+
+		RecordWriter writer;
+		switch (format) {
+			case INTEL_HEX:
+				writer = new IntelHexWriter(channel);
+				break;
+			case S_RECORD:
+				// the smallest record type for the last byte address
+				int bits = startAddress.add(BigInteger.valueOf(units)).multiply(BigInteger.valueOf(addressableSize)).subtract(BigInteger.ONE).bitLength();
+				writer = new SRecordWriter(channel, bits <= 16 ? 1 : bits <= 24 ? 2 : 3);
+				break;
+			default:
+				writer = new BinaryWriter(channel);
+				break;
+		}
+
+		byte[] values = new byte[chunkUnits * addressableSize];
+		byte[] flags = new byte[values.length];
+		BigInteger address = startAddress;
+		long remaining = units;
+		while (remaining > 0) {
+			if (progress.isCanceled()) {
+				return;
+			}
+			int chunk = (int) Math.min(remaining, chunkUnits);
+			PackedMemory memory = MemoryPageCache.read(memoryBlock, address, chunk);
+			int length = Math.min(memory.length(), chunk * addressableSize);
+			memory.copyTo(0, values, flags, 0, length);
+			if (length < chunk * addressableSize) {
+				// memory blocks may return less than asked for
+				Arrays.fill(flags, length, chunk * addressableSize, (byte) 0);
+				length = chunk * addressableSize;
+			}
+			writer.write(address.multiply(BigInteger.valueOf(addressableSize)), values, flags, length);
+			address = address.add(BigInteger.valueOf(chunk));
+			remaining -= chunk;
+			progress.worked(1);
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Reads memory from the channel and writes it to the memory block.
+	 *
+	 * @param memoryBlock the memory block to write
+	 * @param format format to read
+	 * @param channel channel to read from, not closed by this method
+	 * @param binaryStartAddress address of the unit to write the first byte
+	 *            of a binary file to, not used by the other formats
+	 * @param monitor progress monitor, or <code>null</code>
+	 * @return the number of bytes written to the memory block
+	 * @throws DebugException if the memory cannot be written, or the input is
+	 *             not valid
+	 * @throws IOException if reading from the channel fails
+	 */
+	public static long importMemory(IMemoryBlockExtension memoryBlock, Format format, ReadableByteChannel channel, BigInteger binaryStartAddress, IProgressMonitor monitor) throws DebugException, IOException {
+		int addressableSize = Math.max(1, memoryBlock.getAddressableSize());
+		long size = channel instanceof SeekableByteChannel ? ((SeekableByteChannel) channel).size() : -1;
+		SubMonitor progress = SubMonitor.convert(monitor, size > 0 ? (int) Math.min((size + CHUNK_SIZE - 1) / CHUNK_SIZE, Integer.MAX_VALUE) : IProgressMonitor.UNKNOWN);
+		MemoryWriter writer = new MemoryWriter(memoryBlock, addressableSize);
+
+		ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+		if (format == Format.BINARY) {
+			BigInteger byteAddress = binaryStartAddress.multiply(BigInteger.valueOf(addressableSize));
+			while (channel.read(buffer) >= 0) {
+				if (progress.isCanceled()) {
+					return writer.fWritten;
+				}
+				if (!buffer.hasRemaining()) {
+					writer.write(byteAddress, buffer.array(), 0, buffer.position());
+					byteAddress = byteAddress.add(BigInteger.valueOf(buffer.position()));
+					buffer.clear();
+					progress.worked(1);
+				}
+			}
+			writer.write(byteAddress, buffer.array(), 0, buffer.position());
+		} else {
+			RecordParser parser = format == Format.INTEL_HEX ? new IntelHexParser(writer) : new SRecordParser(writer);
+			byte[] line = new byte[MAX_IMPORT_RECORD_LENGTH];
+			int lineLength = 0;
+			int lineNumber = 1;
+			while (channel.read(buffer) >= 0 && !parser.fDone) {
+				if (progress.isCanceled()) {
+					return writer.fWritten;
+				}
+				buffer.flip();
+				while (buffer.hasRemaining() && !parser.fDone) {
+					byte b = buffer.get();
+					if (b == '\n' || b == '\r') {
+						if (lineLength > 0) {
+							parser.parse(line, lineLength, lineNumber);
+							lineLength = 0;
+						}
+						if (b == '\n') {
+							lineNumber++;
+						}
+					} else {
+						if (lineLength == line.length) {
+							throw RecordParser.invalidRecord(lineNumber);
+						}
+						line[lineLength++] = b;
+					}
+				}
+				buffer.clear();
+				progress.worked(1);
+			}
+			if (lineLength > 0 && !parser.fDone) {
+				parser.parse(line, lineLength, lineNumber);
+			}
+		}
+		writer.flush();
+		return writer.fWritten;
+	}
+
+	static DebugException newException(String message) {
+		return new DebugException(DebugUIPlugin.newErrorStatus(message, null));
+	}
+
+	/**
+	 * Writes chunks of memory in a format.
+	 */
+	private abstract static class RecordWriter {
+
+		final WritableByteChannel fChannel;
+		final ByteBuffer fBuffer = ByteBuffer.allocate(CHUNK_SIZE);
+
+		RecordWriter(WritableByteChannel channel) {
+			fChannel = channel;
+		}
+
+		/**
+		 * Writes a chunk of memory.
+		 *
+		 * @param byteAddress address of the first byte
+		 * @param values values of the bytes
+		 * @param flags flags of the bytes
+		 * @param length number of bytes
+		 */
+		abstract void write(BigInteger byteAddress, byte[] values, byte[] flags, int length) throws DebugException, IOException;
+
+		/**
+		 * Writes the end of the file and flushes the buffer.
+		 */
+		void finish() throws IOException {
+			flush();
+		}
+
+		void flush() throws IOException {
+			fBuffer.flip();
+			while (fBuffer.hasRemaining()) {
+				fChannel.write(fBuffer);
+			}
+			fBuffer.clear();
+		}
+
+		void ensureRecordSpace() throws IOException {
+			if (fBuffer.remaining() < MAX_RECORD_LENGTH) {
+				flush();
+			}
+		}
+
+		void putHex(int value) {
+			fBuffer.put(HEX_DIGITS[(value >> 4) & 0xf]);
+			fBuffer.put(HEX_DIGITS[value & 0xf]);
+		}
+
+		/**
+		 * Calls {@link #writeRecord(long, byte[], int, int)} for the runs of
+		 * readable bytes of a chunk, split at {@link #RECORD_SIZE} bytes and
+		 * at the given boundary.
+		 */
+		void writeRuns(BigInteger byteAddress, byte[] values, byte[] flags, int length, long boundary) throws DebugException, IOException {
+			if (byteAddress.add(BigInteger.valueOf(length)).compareTo(BigInteger.valueOf(MAX_ADDRESS + 1)) > 0) {
+				throw newException(NLS.bind(DebugUIMessages.MemoryTransfer_Address_out_of_range, byteAddress.toString(16)));
+			}
+			long address = byteAddress.longValue();
+			int i = 0;
+			while (i < length) {
+				if ((flags[i] & MemoryByte.READABLE) == 0) {
+					i++;
+					continue;
+				}
+				int end = i + 1;
+				long limit = Math.min(i + RECORD_SIZE, i + (boundary - ((address + i) % boundary)));
+				while (end < length && end < limit && (flags[end] & MemoryByte.READABLE) != 0) {
+					end++;
+				}
+				ensureRecordSpace();
+				writeRecord(address + i, values, i, end - i);
+				i = end;
+			}
+		}
+
+		/**
+		 * Writes a data record.
+		 */
+		void writeRecord(long address, byte[] values, int index, int length) throws IOException {
+		}
+	}
+
+	private static class BinaryWriter extends RecordWriter {
+
+		BinaryWriter(WritableByteChannel channel) {
+			super(channel);
+		}
+
+		@Override
+		void write(BigInteger byteAddress, byte[] values, byte[] flags, int length) throws IOException {
+			for (int i = 0; i < length; i++) {
+				if ((flags[i] & MemoryByte.READABLE) == 0) {
+					values[i] = 0;
+				}
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(values, 0, length);
+			while (buffer.hasRemaining()) {
+				fChannel.write(buffer);
+			}
+		}
+	}
+
+	private static class IntelHexWriter extends RecordWriter {
+
+		private long fUpperAddress = 0;
+
+		IntelHexWriter(WritableByteChannel channel) {
+			super(channel);
+		}
+
+		@Override
+		void write(BigInteger byteAddress, byte[] values, byte[] flags, int length) throws DebugException, IOException {
+			writeRuns(byteAddress, values, flags, length, 0x10000);
+		}
+
+		@Override
+		void writeRecord(long address, byte[] values, int index, int length) throws IOException {
+			long upper = address >>> 16;
+			if (upper != fUpperAddress) {
+				// extended linear address record
+				fBuffer.put((byte) ':');
+				putHex(2);
+				putHex(0);
+				putHex(0);
+				putHex(4);
+				putHex((int) (upper >> 8));
+				putHex((int) upper);
+				putHex(-(2 + 4 + (int) (upper >> 8) + (int) upper));
+				fBuffer.put((byte) '\n');
+				fUpperAddress = upper;
+				ensureRecordSpace();
+			}
+			int sum = length + (int) ((address >> 8) & 0xff) + (int) (address & 0xff);
+			fBuffer.put((byte) ':');
+			putHex(length);
+			putHex((int) (address >> 8));
+			putHex((int) address);
+			putHex(0);
+			for (int i = index; i < index + length; i++) {
+				putHex(values[i]);
+				sum += values[i] & 0xff;
+			}
+			putHex(-sum);
+			fBuffer.put((byte) '\n');
+		}
+
+		@Override
+		void finish() throws IOException {
+			ensureRecordSpace();
+			fBuffer.put(":00000001FF\n".getBytes(StandardCharsets.US_ASCII)); //$NON-NLS-1$
+			super.finish();
+		}
+	}
+
+	private static class SRecordWriter extends RecordWriter {
+
+		/** Number of address bytes minus 1, which is the data record type. */
+		private final int fType;
+
+		SRecordWriter(WritableByteChannel channel, int type) {
+			super(channel);
+			fType = type;
+			// header record without data
+			putRecord(0, 2, 0, null, 0, 0);
+		}
+
+		@Override
+		void write(BigInteger byteAddress, byte[] values, byte[] flags, int length) throws DebugException, IOException {
+			writeRuns(byteAddress, values, flags, length, MAX_ADDRESS + 1);
+		}
+
+		@Override
+		void writeRecord(long address, byte[] values, int index, int length) {
+			putRecord(fType, fType + 1, address, values, index, length);
+		}
+
+		@Override
+		void finish() throws IOException {
+			ensureRecordSpace();
+			// termination record matching the data records
+			putRecord(10 - fType, fType + 1, 0, null, 0, 0);
+			super.finish();
+		}
+
+		private void putRecord(int type, int addressLength, long address, byte[] values, int index, int length) {
+			int count = addressLength + length + 1;
+			int sum = count;
+			fBuffer.put((byte) 'S');
+			fBuffer.put(HEX_DIGITS[type]);
+			putHex(count);
+			for (int i = addressLength - 1; i >= 0; i--) {
+				int b = (int) (address >> (8 * i)) & 0xff;
+				putHex(b);
+				sum += b;
+			}
+			for (int i = index; i < index + length; i++) {
+				putHex(values[i]);
+				sum += values[i] & 0xff;
+			}
+			putHex(~sum);
+			fBuffer.put((byte) '\n');
+		}
+	}
+
+	/**
+	 * Collects contiguous bytes and writes them to the memory block in chunks.
+	 */
+	private static class MemoryWriter {
+
+		private final IMemoryBlockExtension fMemoryBlock;
+		private final int fAddressableSize;
+		private final byte[] fPending = new byte[CHUNK_SIZE];
+		private BigInteger fPendingAddress;
+		private int fPendingLength;
+		long fWritten;
+
+		MemoryWriter(IMemoryBlockExtension memoryBlock, int addressableSize) {
+			fMemoryBlock = memoryBlock;
+			fAddressableSize = addressableSize;
+		}
+
+		void write(BigInteger byteAddress, byte[] values, int index, int length) throws DebugException {
+			if (fPendingLength > 0 && !fPendingAddress.add(BigInteger.valueOf(fPendingLength)).equals(byteAddress)) {
+				flush();
+			}
+			int i = 0;
+			while (i < length) {
+				if (fPendingLength == 0) {
+					fPendingAddress = byteAddress.add(BigInteger.valueOf(i));
+				}
+				int n = Math.min(length - i, fPending.length - fPendingLength);
+				System.arraycopy(values, index + i, fPending, fPendingLength, n);
+				fPendingLength += n;
+				i += n;
+				if (fPendingLength == fPending.length) {
+					flush();
+				}
+			}
+		}
+
+		void flush() throws DebugException {
+			if (fPendingLength == 0) {
+				return;
+			}
+			BigInteger[] unit = fPendingAddress.divideAndRemainder(BigInteger.valueOf(fAddressableSize));
+			if (unit[1].signum() != 0) {
+				throw newException(NLS.bind(DebugUIMessages.MemoryTransfer_Unaligned_address, fPendingAddress.toString(16)));
+			}
+			BigInteger offset = unit[0].subtract(fMemoryBlock.getBigBaseAddress());
+			byte[] bytes = fPendingLength == fPending.length ? fPending : Arrays.copyOf(fPending, fPendingLength);
+			fMemoryBlock.setValue(offset, bytes);
+			fWritten += fPendingLength;
+			fPendingLength = 0;
+		}
+	}
+
+	/**
+	 * Parses the lines of a record format.
+	 */
+	private abstract static class RecordParser {
+
+		final MemoryWriter fWriter;
+		final byte[] fData = new byte[255];
+		boolean fDone;
+
+		RecordParser(MemoryWriter writer) {
+			fWriter = writer;
+		}
+
+		abstract void parse(byte[] line, int length, int lineNumber) throws DebugException;
+
+		/**
+		 * Returns the value of the two hex digits at the given index.
+		 */
+		static int hexByte(byte[] line, int index, int lineNumber) throws DebugException {
+			int high = Character.digit(line[index], 16);
+			int low = Character.digit(line[index + 1], 16);
+			if (high < 0 || low < 0) {
+				throw invalidRecord(lineNumber);
+			}
+			return (high << 4) | low;
+		}
+
+		static DebugException invalidRecord(int lineNumber) {
+			return newException(NLS.bind(DebugUIMessages.MemoryTransfer_Invalid_record, Integer.toString(lineNumber)));
+		}
+	}
+
+	private static class IntelHexParser extends RecordParser {
+
+		/**
+		 * Byte address which the offsets of data records are relative to, as
+		 * set by the last extended segment or linear address record.
+		 */
+		private long fBaseAddress;
+
+		IntelHexParser(MemoryWriter writer) {
+			super(writer);
+		}
+
+		@Override
+		void parse(byte[] line, int length, int lineNumber) throws DebugException {
+			if (line[0] != ':' || length < 11 || (length & 1) == 0) {
+				throw invalidRecord(lineNumber);
+			}
+			int count = hexByte(line, 1, lineNumber);
+			if (length != 11 + 2 * count) {
+				throw invalidRecord(lineNumber);
+			}
+			int sum = 0;
+			for (int i = 1; i < length; i += 2) {
+				sum += hexByte(line, i, lineNumber);
+			}
+			if ((sum & 0xff) != 0) {
+				throw newException(NLS.bind(DebugUIMessages.MemoryTransfer_Checksum_error, Integer.toString(lineNumber)));
+			}
+			int address = (hexByte(line, 3, lineNumber) << 8) | hexByte(line, 5, lineNumber);
+			int type = hexByte(line, 7, lineNumber);
+			for (int i = 0; i < count; i++) {
+				fData[i] = (byte) hexByte(line, 9 + 2 * i, lineNumber);
+			}
+			switch (type) {
+				case 0:
+					fWriter.write(BigInteger.valueOf(fBaseAddress + address), fData, 0, count);
+					break;
+				case 1:
+					fDone = true;
+					break;
+				case 2:
+					// extended segment address
+					if (count != 2) {
+						throw invalidRecord(lineNumber);
+					}
+					fBaseAddress = (long) (((fData[0] & 0xff) << 8) | (fData[1] & 0xff)) << 4;
+					break;
+				case 4:
+					// extended linear address
+					if (count != 2) {
+						throw invalidRecord(lineNumber);
+					}
+					fBaseAddress = (long) (((fData[0] & 0xff) << 8) | (fData[1] & 0xff)) << 16;
+					break;
+				default:
+					// start addresses
+					break;
+			}
+		}
+	}
+
+	private static class SRecordParser extends RecordParser {
+
+		SRecordParser(MemoryWriter writer) {
+			super(writer);
+		}
+
+		@Override
+		void parse(byte[] line, int length, int lineNumber) throws DebugException {
+			if (line[0] != 'S' || length < 4 || (length & 1) != 0) {
+				throw invalidRecord(lineNumber);
+			}
+			int type = Character.digit(line[1], 10);
+			int count = hexByte(line, 2, lineNumber);
+			if (type < 0 || length != 4 + 2 * count) {
+				throw invalidRecord(lineNumber);
+			}
+			int sum = 0;
+			for (int i = 2; i < length; i += 2) {
+				sum += hexByte(line, i, lineNumber);
+			}
+			if ((sum & 0xff) != 0xff) {
+				throw newException(NLS.bind(DebugUIMessages.MemoryTransfer_Checksum_error, Integer.toString(lineNumber)));
+			}
+			int addressLength;
+			switch (type) {
+				case 1:
+				case 2:
+				case 3:
+					addressLength = type + 1;
+					break;
+				case 7:
+				case 8:
+				case 9:
+					fDone = true;
+					return;
+				default:
+					// header and count records
+					return;
+			}
+			if (count < addressLength + 1) {
+				throw invalidRecord(lineNumber);
+			}
+			long address = 0;
+			for (int i = 0; i < addressLength; i++) {
+				address = (address << 8) | hexByte(line, 4 + 2 * i, lineNumber);
+			}
+			int dataLength = count - addressLength - 1;
+			for (int i = 0; i < dataLength; i++) {
+				fData[i] = (byte) hexByte(line, 4 + 2 * (addressLength + i), lineNumber);
+			}
+			fWriter.write(BigInteger.valueOf(address), fData, 0, dataLength);
+		}
+	}
+}
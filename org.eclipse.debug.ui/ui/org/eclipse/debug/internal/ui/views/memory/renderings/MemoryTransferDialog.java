@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.internal.ui.DebugUIMessages;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryTransfer.Format;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.TrayDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * Asks for the file, format and address range to export memory to, or to
+ * import memory from.
+ *
+ * @since 3.14
+ */
+public class MemoryTransferDialog extends TrayDialog {
+
+	private static String lastFile = ""; //$NON-NLS-1$
+
+	private final boolean fExport;
+	private Text fFileText;
+	private Combo fFormatCombo;
+	private Text fAddressText;
+	private Text fLengthText;
+
+	private String fFile;
+	private Format fFormat;
+	private BigInteger fAddress;
+	private long fLength;
+
+	/**
+	 * @param parentShell
+	 * @param export whether to ask for an export rather than an import
+	 * @param address initial start address
+	 * @param length initial number of units to export
+	 */
+	public MemoryTransferDialog(Shell parentShell, boolean export, BigInteger address, long length) {
+		super(parentShell);
+		setShellStyle(getShellStyle() | SWT.RESIZE);
+		fExport = export;
+		fAddress = address;
+		fLength = length;
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite comp = (Composite) super.createDialogArea(parent);
+		comp.setLayout(new GridLayout(3, false));
+
+		new Label(comp, SWT.NONE).setText(DebugUIMessages.MemoryTransferDialog_File);
+		fFileText = new Text(comp, SWT.BORDER);
+		GridData fileLayout = new GridData(SWT.FILL, SWT.CENTER, true, false);
+		fileLayout.widthHint = 280;
+		fFileText.setLayoutData(fileLayout);
+		fFileText.setText(lastFile);
+		fFileText.addModifyListener(e -> {
+			fFormatCombo.select(Format.fromFileName(fFileText.getText()).ordinal());
+			validate();
+		});
+		Button browseButton = new Button(comp, SWT.PUSH);
+		browseButton.setText(DebugUIMessages.MemoryTransferDialog_Browse);
+		browseButton.addListener(SWT.Selection, e -> browse());
+
+		new Label(comp, SWT.NONE).setText(DebugUIMessages.MemoryTransferDialog_Format);
+		fFormatCombo = new Combo(comp, SWT.READ_ONLY);
+		fFormatCombo.setItems(new String[] {
+				DebugUIMessages.MemoryTransferDialog_Binary, DebugUIMessages.MemoryTransferDialog_Intel_hex, DebugUIMessages.MemoryTransferDialog_S_record });
+		fFormatCombo.select(Format.fromFileName(lastFile).ordinal());
+		fFormatCombo.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		fFormatCombo.addListener(SWT.Selection, e -> validate());
+
+		new Label(comp, SWT.NONE).setText(DebugUIMessages.MemoryTransferDialog_Start_address);
+		fAddressText = new Text(comp, SWT.BORDER);
+		fAddressText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+		fAddressText.setText(fAddress.toString(16).toUpperCase());
+		fAddressText.addModifyListener(e -> validate());
+
+		if (fExport) {
+			new Label(comp, SWT.NONE).setText(DebugUIMessages.MemoryTransferDialog_Length);
+			fLengthText = new Text(comp, SWT.BORDER);
+			fLengthText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+			fLengthText.setText(Long.toString(fLength));
+			fLengthText.addModifyListener(e -> validate());
+		}
+
+		return comp;
+	}
+
+	@Override
+	protected void configureShell(Shell newShell) {
+		super.configureShell(newShell);
+
+		newShell.setText(fExport ? DebugUIMessages.MemoryTransferDialog_Export : DebugUIMessages.MemoryTransferDialog_Import);
+	}
+
+	@Override
+	protected Control createButtonBar(Composite parent) {
+		Control ret = super.createButtonBar(parent);
+		validate();
+		return ret;
+	}
+
+	private void browse() {
+		FileDialog dialog = new FileDialog(getShell(), fExport ? SWT.SAVE : SWT.OPEN);
+		dialog.setFilterExtensions(new String[] {
+				"*.bin", "*.hex;*.ihex", "*.srec;*.s19;*.s28;*.s37;*.mot", "*.*" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		dialog.setFileName(fFileText.getText());
+		dialog.setOverwrite(fExport);
+		String file = dialog.open();
+		if (file != null) {
+			fFileText.setText(file);
+		}
+	}
+
+	/**
+	 * Enables OK if the input is complete and valid, and the start address
+	 * is needed for the selected format.
+	 */
+	private void validate() {
+		Button okButton = getButton(IDialogConstants.OK_ID);
+		if (okButton == null) {
+			return;
+		}
+		Format format = Format.values()[fFormatCombo.getSelectionIndex()];
+		fAddressText.setEnabled(fExport || format == Format.BINARY);
+		boolean valid = fFileText.getText().trim().length() > 0;
+		try {
+			if (fAddressText.isEnabled()) {
+				valid &= new BigInteger(parseHex(fAddressText.getText()), 16).signum() >= 0;
+			}
+			if (fLengthText != null) {
+				valid &= Long.parseLong(fLengthText.getText().trim()) > 0;
+			}
+		} catch (NumberFormatException e) {
+			valid = false;
+		}
+		okButton.setEnabled(valid);
+	}
+
+	private static String parseHex(String str) {
+		String hex = str.trim();
+		if (hex.startsWith("0x") || hex.startsWith("0X")) { //$NON-NLS-1$ //$NON-NLS-2$
+			hex = hex.substring(2);
+		}
+		return hex;
+	}
+
+	@Override
+	protected void okPressed() {
+		fFile = fFileText.getText().trim();
+		lastFile = fFile;
+		fFormat = Format.values()[fFormatCombo.getSelectionIndex()];
+		if (fAddressText.isEnabled()) {
+			fAddress = new BigInteger(parseHex(fAddressText.getText()), 16);
+		}
+		if (fLengthText != null) {
+			fLength = Long.parseLong(fLengthText.getText().trim());
+		}
+		super.okPressed();
+	}
+
+	/**
+	 * @return the file to export to or import from
+	 */
+	public String getFile() {
+		return fFile;
+	}
+
+	/**
+	 * @return the format of the file
+	 */
+	public Format getFormat() {
+		return fFormat;
+	}
+
+	/**
+	 * @return the address of the first unit to export, or to import a binary
+	 *         file to
+	 */
+	public BigInteger getAddress() {
+		return fAddress;
+	}
+
+	/**
+	 * @return the number of units to export
+	 */
+	public long getLength() {
+		return fLength;
+	}
+}
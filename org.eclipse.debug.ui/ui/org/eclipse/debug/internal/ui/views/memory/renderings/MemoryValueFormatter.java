@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.model.MemoryByte;
+
+/**
+ * Formats the cells of the integer and hex renderings.
+ * <p>
+ * Units of up to 8 bytes are assembled into a <code>long</code> in either
+ * endianess and formatted into a per thread <code>char[]</code> buffer, so
+ * the only object created per cell is the resulting string. Only units wider
+ * than 8 bytes are converted through {@link BigInteger}.
+ * </p>
+ *
+ * @since 3.14
+ */
+public final class MemoryValueFormatter {
+
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of bytes assembled into a <code>long</code>.
+	 */
+	private static final int MAX_PRIMITIVE_SIZE = 8;
+
+	private static final ThreadLocal<char[]> fgBuffer = ThreadLocal.withInitial(() -> new char[64]);
+
+	private MemoryValueFormatter() {
+	}
+
+	/**
+	 * Assembles the values of the given bytes into a <code>long</code>.
+	 *
+	 * @param data bytes to assemble
+	 * @param offset index of the first byte
+	 * @param size number of bytes, at most 8
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the value of the bytes, zero-extended to 64 bits
+	 */
+	public static long toLong(MemoryByte[] data, int offset, int size, int endianess) {
+		long value = 0;
+		if (endianess == RenderingsUtil.LITTLE_ENDIAN) {
+			for (int i = offset + size - 1; i >= offset; i--) {
+				value = (value << 8) | (data[i].getValue() & 0xff);
+			}
+		} else {
+			for (int i = offset; i < offset + size; i++) {
+				value = (value << 8) | (data[i].getValue() & 0xff);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Assembles the given bytes into a <code>long</code>.
+	 *
+	 * @param data bytes to assemble
+	 * @param offset index of the first byte
+	 * @param size number of bytes, at most 8
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the value of the bytes, zero-extended to 64 bits
+	 */
+	public static long toLong(byte[] data, int offset, int size, int endianess) {
+		long value = 0;
+		if (endianess == RenderingsUtil.LITTLE_ENDIAN) {
+			for (int i = offset + size - 1; i >= offset; i--) {
+				value = (value << 8) | (data[i] & 0xff);
+			}
+		} else {
+			for (int i = offset; i < offset + size; i++) {
+				value = (value << 8) | (data[i] & 0xff);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Formats the values of the given bytes as a signed decimal number.
+	 *
+	 * @param data bytes of the number
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the decimal number
+	 */
+	public static String formatSigned(MemoryByte[] data, int endianess) {
+		if (data.length > MAX_PRIMITIVE_SIZE) {
+			return RenderingsUtil.convertByteArrayToSignedBigInt(getValues(data), endianess, data.length).toString();
+		}
+		int shift = 64 - data.length * 8;
+		return formatDecimal((toLong(data, 0, data.length, endianess) << shift) >> shift, false);
+	}
+
+	/**
+	 * Formats the given bytes as a signed decimal number.
+	 *
+	 * @param data bytes of the number
+	 * @param offset index of the first byte
+	 * @param size number of bytes
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the decimal number
+	 */
+	public static String formatSigned(byte[] data, int offset, int size, int endianess) {
+		if (size > MAX_PRIMITIVE_SIZE) {
+			return RenderingsUtil.convertByteArrayToSignedBigInt(copyOf(data, offset, size), endianess, size).toString();
+		}
+		int shift = 64 - size * 8;
+		return formatDecimal((toLong(data, offset, size, endianess) << shift) >> shift, false);
+	}
+
+	/**
+	 * Formats the values of the given bytes as an unsigned decimal number.
+	 *
+	 * @param data bytes of the number
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the decimal number
+	 */
+	public static String formatUnsigned(MemoryByte[] data, int endianess) {
+		if (data.length > MAX_PRIMITIVE_SIZE) {
+			return RenderingsUtil.convertByteArrayToUnsignedBigInt(getValues(data), endianess, data.length).toString();
+		}
+		return formatDecimal(toLong(data, 0, data.length, endianess), true);
+	}
+
+	/**
+	 * Formats the given bytes as an unsigned decimal number.
+	 *
+	 * @param data bytes of the number
+	 * @param offset index of the first byte
+	 * @param size number of bytes
+	 * @param endianess {@link RenderingsUtil#BIG_ENDIAN} or
+	 *            {@link RenderingsUtil#LITTLE_ENDIAN}
+	 * @return the decimal number
+	 */
+	public static String formatUnsigned(byte[] data, int offset, int size, int endianess) {
+		if (size > MAX_PRIMITIVE_SIZE) {
+			return RenderingsUtil.convertByteArrayToUnsignedBigInt(copyOf(data, offset, size), endianess, size).toString();
+		}
+		return formatDecimal(toLong(data, offset, size, endianess), true);
+	}
+
+	/**
+	 * Formats the values of the given bytes as upper case hex digits, two per
+	 * byte. Bytes which are not readable are shown as the padded string.
+	 *
+	 * @param data bytes to format
+	 * @param reverse whether to format the bytes from last to first
+	 * @param paddedStr string for bytes which are not readable
+	 * @return the hex digits
+	 */
+	public static String formatHex(MemoryByte[] data, boolean reverse, String paddedStr) {
+		String padding = paddedStr.toUpperCase();
+		char[] buf = getBuffer(data.length * Math.max(2, padding.length()));
+		int pos = 0;
+		for (int i = 0; i < data.length; i++) {
+			MemoryByte memByte = data[reverse ? data.length - 1 - i : i];
+			if (memByte.isReadable()) {
+				int value = memByte.getValue() & 0xff;
+				buf[pos++] = HEX_DIGITS[value >>> 4];
+				buf[pos++] = HEX_DIGITS[value & 0xf];
+			} else {
+				padding.getChars(0, padding.length(), buf, pos);
+				pos += padding.length();
+			}
+		}
+		return new String(buf, 0, pos);
+	}
+
+	/**
+	 * Returns the given string repeated.
+	 *
+	 * @param str string to repeat
+	 * @param count number of repetitions
+	 * @return the repeated string
+	 */
+	public static String repeat(String str, int count) {
+		char[] buf = getBuffer(str.length() * count);
+		for (int i = 0; i < count; i++) {
+			str.getChars(0, str.length(), buf, i * str.length());
+		}
+		return new String(buf, 0, str.length() * count);
+	}
+
+	/**
+	 * Formats a number in decimal.
+	 *
+	 * @param value the number
+	 * @param unsigned whether to interpret the number as unsigned 64-bit
+	 *            number
+	 * @return the decimal number
+	 */
+	static String formatDecimal(long value, boolean unsigned) {
+		char[] buf = fgBuffer.get();
+		int pos = buf.length;
+		long v = value;
+		if (unsigned && v < 0) {
+			// split off the last digit so the rest fits into a signed long
+			long quotient = (v >>> 1) / 5;
+			buf[--pos] = (char) ('0' + (v - quotient * 10));
+			v = quotient;
+		}
+		// count in negative numbers, which also cover Long.MIN_VALUE
+		boolean negative = v < 0;
+		if (!negative) {
+			v = -v;
+		}
+		do {
+			buf[--pos] = (char) ('0' - (v % 10));
+			v /= 10;
+		} while (v != 0);
+		if (negative) {
+			buf[--pos] = '-';
+		}
+		return new String(buf, pos, buf.length - pos);
+	}
+
+	private static char[] getBuffer(int length) {
+		char[] buf = fgBuffer.get();
+		if (buf.length < length) {
+			buf = new char[Math.max(length, buf.length * 2)];
+			fgBuffer.set(buf);
+		}
+		return buf;
+	}
+
+	private static byte[] getValues(MemoryByte[] data) {
+		byte[] values = new byte[data.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = data[i].getValue();
+		}
+		return values;
+	}
+
+	private static byte[] copyOf(byte[] data, int offset, int size) {
+		byte[] values = new byte[size];
+		System.arraycopy(data, offset, values, 0, size);
+		return values;
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.PackedMemory;
+
+/**
+ * The lines of memory a continuously scrolling rendering shows: the visible
+ * lines and a margin of lines above and below them. Only these lines are
+ * kept, so the memory used does not depend on the size of the address space.
+ * Lines are numbered from the start address of the memory block.
+ * <p>
+ * The lines are read through the {@link MemoryPageCache} of the memory block,
+ * so scrolling back and forth and renderings of the same memory share the
+ * memory retrieved.
+ * </p>
+ *
+ * @since 3.14
+ */
+public class MemoryWindow {
+
+	private final IMemoryBlockExtension fMemoryBlock;
+	private final int fBytesPerLine;
+	private final int fUnitsPerLine;
+	private final int fMargin;
+
+	private final BigInteger fStartAddress;
+	private final BigInteger fEndAddress;
+	private final long fLineCount;
+
+	private int fVisibleLines = 1;
+
+	/**
+	 * First line of the buffer and the memory of its lines, guarded by this
+	 * window.
+	 */
+	private long fBufferLine;
+	private PackedMemory fBuffer;
+
+	/**
+	 * @param memoryBlock the memory block to show
+	 * @param unitsPerLine number of addressable units per line
+	 * @param margin number of lines kept above and below the visible lines
+	 * @throws DebugException if the memory block fails to tell its address
+	 *             range
+	 */
+	public MemoryWindow(IMemoryBlockExtension memoryBlock, int unitsPerLine, int margin) throws DebugException {
+		fMemoryBlock = memoryBlock;
+		fUnitsPerLine = unitsPerLine;
+		fBytesPerLine = unitsPerLine * memoryBlock.getAddressableSize();
+		fMargin = margin;
+
+		BigInteger start = memoryBlock.getMemoryBlockStartAddress();
+		if (start == null) {
+			start = BigInteger.ZERO;
+		}
+		BigInteger end = memoryBlock.getMemoryBlockEndAddress();
+		if (end == null) {
+			end = BigInteger.ONE.shiftLeft(memoryBlock.getAddressSize() * 8).subtract(BigInteger.ONE);
+		}
+		fEndAddress = end;
+		BigInteger unitsPerLineBig = BigInteger.valueOf(unitsPerLine);
+		fStartAddress = start.subtract(start.mod(unitsPerLineBig));
+		BigInteger lines = end.subtract(fStartAddress).divide(unitsPerLineBig).add(BigInteger.ONE);
+		fLineCount = lines.bitLength() < 63 ? lines.longValue() : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return the number of lines of the address range of the memory block
+	 */
+	public long getLineCount() {
+		return fLineCount;
+	}
+
+	/**
+	 * @return number of bytes of each line
+	 */
+	public int getBytesPerLine() {
+		return fBytesPerLine;
+	}
+
+	/**
+	 * @param lines number of lines the rendering shows
+	 */
+	public synchronized void setVisibleLines(int lines) {
+		fVisibleLines = Math.max(1, lines);
+	}
+
+	/**
+	 * @return number of lines the rendering shows
+	 */
+	public synchronized int getVisibleLines() {
+		return fVisibleLines;
+	}
+
+	/**
+	 * Returns the first line to show so that the given line is shown and the
+	 * visible lines lie within the address range.
+	 *
+	 * @param line a line
+	 * @return the top line
+	 */
+	public synchronized long clampTopLine(long line) {
+		return Math.max(0, Math.min(line, fLineCount - fVisibleLines));
+	}
+
+	/**
+	 * @param address an address
+	 * @return whether the address lies within the address range of the memory
+	 *         block
+	 */
+	public boolean contains(BigInteger address) {
+		return address.compareTo(fStartAddress) >= 0 && address.compareTo(fEndAddress) <= 0;
+	}
+
+	/**
+	 * @param address an address
+	 * @return the line containing the address
+	 */
+	public long getLine(BigInteger address) {
+		BigInteger line = address.subtract(fStartAddress).divide(BigInteger.valueOf(fUnitsPerLine));
+		return Math.max(0, Math.min(line.bitLength() < 63 ? line.longValue() : Long.MAX_VALUE, fLineCount - 1));
+	}
+
+	/**
+	 * @param line a line
+	 * @return the address of the first unit of the line
+	 */
+	public BigInteger getAddress(long line) {
+		return fStartAddress.add(BigInteger.valueOf(line).multiply(BigInteger.valueOf(fUnitsPerLine)));
+	}
+
+	/**
+	 * Returns whether the lines shown from the given top line are in memory.
+	 *
+	 * @param topLine first line shown
+	 * @return whether the visible lines can be shown without reading memory
+	 */
+	public synchronized boolean isLoaded(long topLine) {
+		return fBuffer != null && topLine >= fBufferLine && (topLine + fVisibleLines - fBufferLine) * fBytesPerLine <= fBuffer.length();
+	}
+
+	/**
+	 * Returns whether the margin around the lines shown from the given top
+	 * line is in memory, or whether it should be read ahead of scrolling.
+	 *
+	 * @param topLine first line shown
+	 * @return whether the margin is loaded
+	 */
+	public synchronized boolean isMarginLoaded(long topLine) {
+		long first = Math.max(0, topLine - fMargin / 2);
+		long last = Math.min(fLineCount, topLine + fVisibleLines + fMargin / 2);
+		return fBuffer != null && first >= fBufferLine && (last - fBufferLine) * fBytesPerLine <= fBuffer.length();
+	}
+
+	/**
+	 * Reads the lines shown from the given top line and the margin around
+	 * them, replacing the lines kept before.
+	 *
+	 * @param topLine first line shown
+	 * @throws DebugException if the memory cannot be read
+	 */
+	public void load(long topLine) throws DebugException {
+		long first;
+		long last;
+		synchronized (this) {
+			first = Math.max(0, topLine - fMargin);
+			last = Math.min(fLineCount, topLine + fVisibleLines + fMargin);
+		}
+		BigInteger address = getAddress(first);
+		long units = (last - first) * fUnitsPerLine;
+		PackedMemory memory;
+		MemoryPageCache cache = MemoryPageCache.getCache(fMemoryBlock);
+		if (cache != null) {
+			memory = cache.getCoordinator().getMemory(fMemoryBlock, address, units);
+		} else {
+			memory = MemoryPageCache.read(fMemoryBlock, address, units);
+		}
+		synchronized (this) {
+			fBufferLine = first;
+			fBuffer = memory;
+		}
+	}
+
+	/**
+	 * Returns the memory of a line if it is kept.
+	 *
+	 * @param line a line
+	 * @return the memory of the line, or <code>null</code> if it is not in
+	 *         memory
+	 */
+	public synchronized PackedMemory getMemory(long line) {
+		if (fBuffer == null || line < fBufferLine) {
+			return null;
+		}
+		long offset = (line - fBufferLine) * fBytesPerLine;
+		if (offset + fBytesPerLine > fBuffer.length()) {
+			return null;
+		}
+		return fBuffer.slice((int) offset, fBytesPerLine);
+	}
+}
@@ -79,32 +79,7 @@ public class RenderingsUtil {
 			array = fillArray(array, 8, endianess);
 		}
 
-		BigInteger value = new BigInteger("0"); //$NON-NLS-1$
-		if (endianess == RenderingsUtil.LITTLE_ENDIAN)
-		{
-			for (int i=0; i< 8; i++)
-			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft(i*8);
-				value = value.or(b);
-			}
-		}
-		else
-		{
-			for (int i=0; i< 8; i++)
-			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft((7-i)*8);
-				value = value.or(b);
-			}
-		}
-		return value;
+		return toUnsignedBigInteger(array, 8, endianess);
 	}
 
 	/**
@@ -198,32 +173,7 @@ public class RenderingsUtil {
 			array = fillArray(array, 16, endianess);
 		}
 
-		BigInteger value = new BigInteger("0"); //$NON-NLS-1$
-		if (endianess == RenderingsUtil.LITTLE_ENDIAN)
-		{
-			for (int i=0; i< 16; i++)
-			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft(i*8);
-				value = value.or(b);
-			}
-		}
-		else
-		{
-			for (int i=0; i< 16; i++)
-			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft((15-i)*8);
-				value = value.or(b);
-			}
-		}
-		return value;
+		return toUnsignedBigInteger(array, 16, endianess);
 	}
 
 	static public BigInteger convertByteArrayToUnsignedBigInt(byte[] array, int endianess, int arraySize)
@@ -233,32 +183,32 @@ public class RenderingsUtil {
 			array = fillArray(array, arraySize, endianess);
 		}
 
-		BigInteger value = new BigInteger("0"); //$NON-NLS-1$
+		return toUnsignedBigInteger(array, arraySize, endianess);
+	}
+
+	/**
+	 * Builds a non-negative big integer from the first bytes of the array in a
+	 * single step.
+	 * @param array
+	 * @param size number of bytes to use
+	 * @param endianess
+	 * @return result of the conversion in BigInteger
+	 */
+	static private BigInteger toUnsignedBigInteger(byte[] array, int size, int endianess)
+	{
+		byte[] magnitude = new byte[size];
 		if (endianess == RenderingsUtil.LITTLE_ENDIAN)
 		{
-			for (int i=0; i< arraySize; i++)
+			for (int i=0; i< size; i++)
 			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft(i*8);
-				value = value.or(b);
+				magnitude[size-1-i] = array[i];
 			}
 		}
 		else
 		{
-			for (int i=0; i< arraySize; i++)
-			{
-				byte[] temp = new byte[1];
-				temp[0] = array[i];
-				BigInteger b = new BigInteger(temp);
-				b = b.and(new BigInteger("ff", 16)); //$NON-NLS-1$
-				b = b.shiftLeft((arraySize-1-i)*8);
-				value = value.or(b);
-			}
+			System.arraycopy(array, 0, magnitude, 0, size);
 		}
-		return value;
+		return new BigInteger(1, magnitude);
 	}
 
 	/**
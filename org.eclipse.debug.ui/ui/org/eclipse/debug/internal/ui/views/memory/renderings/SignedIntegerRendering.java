@@ -37,41 +37,6 @@ public class SignedIntegerRendering extends AbstractIntegerRendering {
 		super(renderingId);
 	}
 
-	private String convertToString(byte[] byteArray, int columnSize, int endianess)
-	{
-		String ret;
-		long result = 0;
-
-		switch (columnSize) {
-		case 1:
-			result = byteArray[0];
-			break;
-		case 2:
-			result = RenderingsUtil.convertByteArrayToShort(byteArray, endianess);
-			break;
-		case 4:
-			result = RenderingsUtil.convertByteArrayToInt(byteArray, endianess);
-			break;
-		case 8:
-			result = RenderingsUtil.convertByteArrayToLong(byteArray, endianess);
-			break;
-		case 16:
-		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToSignedBigInt(byteArray, endianess);
-			return bigRet.toString();
-		}
-		default:
-		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToSignedBigInt(byteArray, endianess, columnSize);
-			return bigRet.toString();
-		}
-		}
-
-		ret = Long.valueOf(result).toString();
-
-		return ret;
-	}
-
 	private byte[] convertToBytes(int colSize, String newValue, int endianess)
 	{
 		try {
@@ -153,16 +118,9 @@ public class SignedIntegerRendering extends AbstractIntegerRendering {
 
 		if (invalid)
 		{
-			StringBuilder strBuf = new StringBuilder();
-			for (int i=0; i<data.length; i++)
-			{
-				strBuf.append(paddedStr);
-			}
-			return strBuf.toString();
+			return MemoryValueFormatter.repeat(paddedStr, data.length);
 		}
 
-		int columnSize = getBytesPerColumn();
-
 		// if the user has not set an endianess to the rendering
 		// take default endianess from bytes
 		int endianess = getDisplayEndianess();
@@ -170,23 +128,12 @@ public class SignedIntegerRendering extends AbstractIntegerRendering {
 			endianess = getBytesEndianess(data);
 		}
 
-		byte[] byteArray = new byte[data.length];
-		for (int i=0; i<byteArray.length;i ++)
-		{
-			byteArray[i] = data[i].getValue();
-		}
-
 		// if endianess is unknown, do not render, just return padded string
 		if (RenderingsUtil.ENDIANESS_UNKNOWN == endianess)
 		{
-			StringBuilder strBuf = new StringBuilder();
-			for (int i=0; i<byteArray.length; i++)
-			{
-				strBuf.append(paddedStr);
-			}
-			return strBuf.toString();
+			return MemoryValueFormatter.repeat(paddedStr, data.length);
 		}
-		return convertToString(byteArray, columnSize, endianess);
+		return MemoryValueFormatter.formatSigned(data, endianess);
 	}
 
 	@Override
@@ -29,7 +29,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
-import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemory;
 import org.eclipse.debug.internal.ui.memory.provisional.AbstractAsyncTableRendering;
 import org.eclipse.debug.internal.ui.memory.provisional.MemoryViewPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.AsynchronousTableViewer;
@@ -193,21 +193,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 
 				if (oldSegment != null) {
 					if (oldSegment.getNumAddressableUnits() == newSegment.getNumAddressableUnits()) {
-						MemoryByte[] newBytes = newSegment.getBytes();
-						MemoryByte[] oldBytes = oldSegment.getBytes();
-
-						for (int i = 0; i < newBytes.length; i++) {
-							newBytes[i].setHistoryKnown(true);
-
-							if (newBytes[i].isReadable() != oldBytes[i].isReadable()) {
-								newBytes[i].setChanged(true);
-								continue;
-							}
-
-							if (newBytes[i].isReadable() && oldBytes[i].isReadable() && (newBytes[i].getValue() != oldBytes[i].getValue())) {
-								newBytes[i].setChanged(true);
-							}
-						}
+						markChanges(newSegment.getMemory(), oldSegment.getMemory());
 					}
 				}
 			}
@@ -215,6 +201,14 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 		return newElements;
 	}
 
+	/**
+	 * Marks the history of all new bytes as known, and the bytes whose
+	 * readability or value differ from the old bytes as changed.
+	 */
+	static void markChanges(PackedMemory newBytes, PackedMemory oldBytes) {
+		MemoryChanges.compute(newBytes, oldBytes).apply(newBytes);
+	}
+
 	@Override
 	public void clearCache() {
 		fCache.clear();
@@ -257,7 +251,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
+		PackedMemory bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -294,7 +288,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
+		PackedMemory bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -317,23 +311,31 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 		add(newSegments);
 	}
 
-	private MemoryByte[] convertSegmentsToBytes(MemorySegment[] segments) {
-		ArrayList<MemoryByte> toReturn = new ArrayList<>();
+	private PackedMemory convertSegmentsToBytes(MemorySegment[] segments) {
+		int length = 0;
 		for (MemorySegment segment : segments) {
-			MemoryByte[] temp = segment.getBytes();
-			Collections.addAll(toReturn, temp);
+			length += segment.getNumBytes();
 		}
-		return toReturn.toArray(new MemoryByte[0]);
+		byte[] values = new byte[length];
+		byte[] flags = new byte[length];
+		int idx = 0;
+		for (MemorySegment segment : segments) {
+			PackedMemory temp = segment.getMemory();
+			temp.copyTo(0, values, flags, idx, temp.length());
+			idx += temp.length();
+		}
+		return new PackedMemory(values, flags);
 	}
 
-	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, MemoryByte[] bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
+	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, PackedMemory bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
 
 		Assert.isTrue(bytesPerLine > 0);
 		Assert.isTrue(numAddressableUnitPerLine > 0);
 
 		ArrayList<MemorySegment> segments = new ArrayList<>();
-		MemoryByte[] temp = bytes;
 
+		// number of bytes to prepend and append, these bytes are not readable
+		int numBytesBefore = 0;
 		if (alignAddress) {
 			BigInteger alignedAddress = MemoryViewUtil.alignToBoundary(address, numAddressableUnitPerLine);
 
@@ -346,42 +348,27 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 				// do not want to have negative addresses
 				if (tempAddress.compareTo(BigInteger.ZERO) >= 0) {
 					address = alignedAddress;
-					int numBytesNeeded = unitsToSetBack.intValue() * addressableSize;
-					temp = new MemoryByte[bytes.length + numBytesNeeded];
-
-					for (int i = 0; i < numBytesNeeded; i++) {
-						temp[i] = new MemoryByte();
-						temp[i].setReadable(false);
-						temp[i].setWritable(false);
-						temp[i].setEndianessKnown(false);
-					}
-
-					System.arraycopy(bytes, 0, temp, numBytesNeeded, bytes.length);
-					bytes = temp;
+					numBytesBefore = unitsToSetBack.intValue() * addressableSize;
 				}
 			}
 		}
 
-		if (bytes.length % bytesPerLine != 0) {
-			int numBytesNeeded = bytesPerLine - (bytes.length % bytesPerLine);
-			temp = new MemoryByte[bytes.length + numBytesNeeded];
-			System.arraycopy(bytes, 0, temp, 0, bytes.length);
+		int length = numBytesBefore + bytes.length();
+		int numBytesAfter = 0;
+		if (length % bytesPerLine != 0) {
+			numBytesAfter = bytesPerLine - (length % bytesPerLine);
+		}
 
-			for (int i = bytes.length; i < temp.length; i++) {
-				temp[i] = new MemoryByte();
-				temp[i].setReadable(false);
-				temp[i].setWritable(false);
-				temp[i].setEndianessKnown(false);
-			}
-			bytes = temp;
+		if (numBytesBefore > 0 || numBytesAfter > 0) {
+			byte[] values = new byte[length + numBytesAfter];
+			byte[] flags = new byte[length + numBytesAfter];
+			bytes.copyTo(0, values, flags, numBytesBefore, bytes.length());
+			bytes = new PackedMemory(values, flags);
 		}
 
 		int idx = 0;
-		while (idx < bytes.length && (idx + bytesPerLine) <= bytes.length) {
-			MemoryByte[] newBytes = new MemoryByte[bytesPerLine];
-			System.arraycopy(bytes, idx, newBytes, 0, bytesPerLine);
-
-			MemorySegment segment = new MemorySegment(address, newBytes, numAddressableUnitPerLine);
+		while (idx < bytes.length() && (idx + bytesPerLine) <= bytes.length()) {
+			MemorySegment segment = new MemorySegment(address, bytes.slice(idx, bytesPerLine), numAddressableUnitPerLine);
 			segments.add(segment);
 
 			address = address.add(BigInteger.valueOf(numAddressableUnitPerLine));
@@ -32,42 +32,6 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 		super(renderingId);
 	}
 
-	private String convertToString(byte[] byteArray, int columnSize, int endianess)
-	{
-		String ret;
-		long result = 0;
-
-		switch (columnSize) {
-		case 1:
-			result = byteArray[0];
-			result &= 0xff;
-			break;
-		case 2:
-			result = RenderingsUtil.convertByteArrayToInt(byteArray, endianess);
-			break;
-		case 4:
-			result = RenderingsUtil.convertByteArrayToLong(byteArray, endianess);
-			break;
-		case 8:
-			BigInteger value = RenderingsUtil.convertByteArrayToUnsignedLong(byteArray, endianess);
-			return value.toString();
-		case 16:
-		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess);
-			return bigRet.toString();
-		}
-		default:
-		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess, columnSize);
-			return bigRet.toString();
-		}
-		}
-
-		ret = Long.valueOf(result).toString();
-
-		return ret;
-	}
-
 	private byte[] convertToBytes(int colSize, String newValue, int endianess)
 	{
 		try {
@@ -139,38 +103,21 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 
 		if (invalid)
 		{
-			StringBuilder strBuf = new StringBuilder();
-			for (int i=0; i<data.length; i++)
-			{
-				strBuf.append(paddedStr);
-			}
-			return strBuf.toString();
+			return MemoryValueFormatter.repeat(paddedStr, data.length);
 		}
 
-		int columnSize = getBytesPerColumn();
 		int endianess = getDisplayEndianess();
 		if (endianess == RenderingsUtil.ENDIANESS_UNKNOWN) {
 			endianess = getBytesEndianess(data);
 		}
 
-		byte[] byteArray = new byte[data.length];
-		for (int i=0; i<byteArray.length;i ++)
-		{
-			byteArray[i] = data[i].getValue();
-		}
-
 		// if endianess is unknown, do not render, just return padded string
 		if (RenderingsUtil.ENDIANESS_UNKNOWN == endianess)
 		{
-			StringBuilder strBuf = new StringBuilder();
-			for (int i=0; i<byteArray.length; i++)
-			{
-				strBuf.append(paddedStr);
-			}
-			return strBuf.toString();
+			return MemoryValueFormatter.repeat(paddedStr, data.length);
 		}
 
-		return convertToString(byteArray, columnSize, endianess);
+		return MemoryValueFormatter.formatUnsigned(data, endianess);
 	}
 
 	@Override
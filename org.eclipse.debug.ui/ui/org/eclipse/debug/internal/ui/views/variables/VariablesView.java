@@ -61,6 +61,7 @@ import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerInputReque
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerInputUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdate;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IViewerUpdateListener;
+import org.eclipse.debug.internal.ui.viewers.model.provisional.PrefetchPolicy;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.TreeModelViewer;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.ViewerInputService;
 import org.eclipse.debug.internal.ui.views.DebugModelPresentationContext;
@@ -631,6 +632,8 @@ public class VariablesView extends AbstractDebugView implements IDebugContextLis
 
 		int style = getViewerStyle();
 		fPresentationContext = new DebugModelPresentationContext(getPresentationContextId(), this, fModelPresentation);
+		// large arrays and collections are scrolled, retrieve their elements ahead of time
+		fPresentationContext.setProperty(PrefetchPolicy.PROP_PREFETCH_POLICY, PrefetchPolicy.DEFAULT);
 		final TreeModelViewer variablesViewer = new TreeModelViewer(parent, style, fPresentationContext);
 
 		variablesViewer.getControl().addFocusListener(new FocusAdapter() {
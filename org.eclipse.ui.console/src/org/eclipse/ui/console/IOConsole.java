@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@
 package org.eclipse.ui.console;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -401,6 +402,96 @@ public class IOConsole extends TextConsole {
 		partitioner.setCarriageReturnAsControlCharacter(carriageReturnAsControlCharacter);
 	}
 
+	/**
+	 * Check if console currently interprets ANSI escape sequences in console
+	 * output.
+	 *
+	 * @return <code>true</code> if console interprets ANSI escape sequences
+	 * @since 3.10
+	 */
+	public boolean isHandleAnsiEscapeSequences() {
+		return partitioner.isHandleAnsiEscapeSequences();
+	}
+
+	/**
+	 * Enable or disable interpretation of ANSI escape sequences in console
+	 * output. If enabled escape sequences are removed from the output and
+	 * Select Graphic Rendition (SGR) sequences are used to color and style the
+	 * output. Other escape sequences are removed without further
+	 * interpretation.
+	 * <p>
+	 * The setting only affects output appended after it was changed.
+	 * </p>
+	 *
+	 * @param handleAnsiEscapeSequences interpret ANSI escape sequences if
+	 *                                  <code>true</code>
+	 * @since 3.10
+	 */
+	public void setHandleAnsiEscapeSequences(boolean handleAnsiEscapeSequences) {
+		partitioner.setHandleAnsiEscapeSequences(handleAnsiEscapeSequences);
+	}
+
+	/**
+	 * Returns the output rate above which console output is summarized.
+	 *
+	 * @return the output rate in characters per second above which output is
+	 *         summarized or a value &lt;= 0 if output is not limited
+	 * @see #setOutputRateLimit(int, int)
+	 * @since 3.10
+	 */
+	public int getOutputRateLimit() {
+		return partitioner.getOutputRateLimit();
+	}
+
+	/**
+	 * Returns the number of most recent output lines this console shows while
+	 * output is summarized.
+	 *
+	 * @return the number of lines shown while output rate exceeds the limit
+	 * @see #setOutputRateLimit(int, int)
+	 * @since 3.10
+	 */
+	public int getOutputRateLimitRetainedLines() {
+		return partitioner.getOutputRateLimitRetainedLines();
+	}
+
+	/**
+	 * Limits the rate at which output is appended to this console. If connected
+	 * output streams receive more than <code>charactersPerSecond</code> characters
+	 * per second the console switches to a summarizing mode. In this mode only
+	 * the last <code>retainedLines</code> lines are periodically shown together
+	 * with a note how much output was suppressed. The console returns to normal
+	 * output once the rate drops below the limit.
+	 * <p>
+	 * Use {@link #setOutputFile(File)} to keep the complete output.
+	 * </p>
+	 *
+	 * @param charactersPerSecond the output rate above which output is summarized
+	 *                            or a value &lt;= 0 to disable rate limiting
+	 * @param retainedLines       number of most recent lines to show while output
+	 *                            is summarized
+	 * @since 3.10
+	 */
+	public void setOutputRateLimit(int charactersPerSecond, int retainedLines) {
+		partitioner.setOutputRateLimit(charactersPerSecond, retainedLines);
+	}
+
+	/**
+	 * Sets a file which receives all output written to this console from now on.
+	 * The file receives the complete output even if the console summarizes output
+	 * due to the {@link #setOutputRateLimit(int, int) output rate limit}. The file
+	 * is written using this console's {@link #getCharset() charset} and closed
+	 * once all streams of this console are closed.
+	 *
+	 * @param file the file to write output to or <code>null</code> to stop
+	 *             writing output to a file
+	 * @throws IOException if the file cannot be opened for writing
+	 * @since 3.10
+	 */
+	public void setOutputFile(File file) throws IOException {
+		partitioner.setOutputFile(file);
+	}
+
 	/**
 	 * Registers a stream that will be managed by this console.
 	 *
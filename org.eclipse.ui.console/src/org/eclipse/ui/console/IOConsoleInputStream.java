@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -162,8 +162,8 @@ public class IOConsoleInputStream extends InputStream {
 			newData = text.getBytes();
 		}
 
-		while(input.length-size < newData.length) {
-			growArray();
+		if (input.length - size < newData.length) {
+			growArray(size + newData.length);
 		}
 
 		if (size == 0) { //inPointer == outPointer
@@ -189,10 +189,13 @@ public class IOConsoleInputStream extends InputStream {
 	}
 
 	/**
-	 * Enlarges the buffer.
+	 * Enlarges the buffer. The buffer grows at least by a factor of two so that
+	 * appending large amounts of input takes amortized linear time.
+	 *
+	 * @param minCapacity the minimum required size of the buffer
 	 */
-	private void growArray() {
-		byte[] newInput = new byte[input.length+1024];
+	private void growArray(int minCapacity) {
+		byte[] newInput = new byte[Math.max(minCapacity, input.length * 2)];
 		if (outPointer < inPointer) {
 			System.arraycopy(input, outPointer, newInput, 0, size);
 		} else {
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * Removes ANSI escape sequences from console output and interprets the SGR
+ * (Select Graphic Rendition) sequences among them.
+ * <p>
+ * One parser is used per output stream. Its state is kept between calls to
+ * {@link #parse(CharSequence, SegmentHandler)} so escape sequences may be split
+ * across multiple chunks of output. Supported are CSI sequences (of which only
+ * SGR is interpreted, all others are removed) and OSC sequences (removed). An
+ * escape character followed by any other character removes both.
+ * </p>
+ * <p>
+ * Not thread safe.
+ * </p>
+ */
+public class AnsiEscapeParser {
+
+	/** Receives the text between escape sequences. */
+	@FunctionalInterface
+	public interface SegmentHandler {
+		/**
+		 * Called for a non-empty part of the parsed text which contains no escape
+		 * sequences.
+		 *
+		 * @param text  the parsed text
+		 * @param start start offset (inclusive) of the segment in text
+		 * @param end   end offset (exclusive) of the segment in text
+		 * @param style the style of this segment or <code>null</code> for default
+		 *              style
+		 */
+		void segment(CharSequence text, int start, int end, AnsiStyle style);
+	}
+
+	private static final char ESC = '\u001b';
+	private static final char BEL = '\u0007';
+	/**
+	 * Maximum length of a CSI sequence. Longer sequences are considered
+	 * malformed and parsing returns to normal text.
+	 */
+	private static final int MAX_CSI_LENGTH = 64;
+	/**
+	 * Maximum length of an OSC sequence. Longer sequences are considered
+	 * malformed and parsing returns to normal text.
+	 */
+	private static final int MAX_OSC_LENGTH = 4096;
+
+	private enum State {
+		TEXT, ESCAPE, CSI, OSC, OSC_ESCAPE
+	}
+
+	private final AnsiStyle.Palette palette;
+
+	private State state = State.TEXT;
+	/** Parameter and intermediate characters of the current CSI sequence. */
+	private final StringBuilder csi = new StringBuilder();
+	/** Number of characters consumed by the current OSC sequence. */
+	private int oscLength;
+
+	private int foreground = AnsiStyle.DEFAULT_COLOR;
+	private int background = AnsiStyle.DEFAULT_COLOR;
+	private int fontStyle = SWT.NORMAL;
+	private boolean underline;
+	private boolean strikeout;
+	private boolean inverse;
+	/** Cached style for current attributes. */
+	private AnsiStyle style;
+
+	/**
+	 * Create a new parser.
+	 *
+	 * @param palette palette used to create styles
+	 */
+	public AnsiEscapeParser(AnsiStyle.Palette palette) {
+		this.palette = palette;
+	}
+
+	/**
+	 * Get the style applied to text following the escape sequences parsed so
+	 * far.
+	 *
+	 * @return the current style or <code>null</code> for default style
+	 */
+	public AnsiStyle getStyle() {
+		return style;
+	}
+
+	/**
+	 * Parse the given text. Escape sequences are removed and the remaining text
+	 * is reported to the handler in segments of equal style.
+	 *
+	 * @param text    text to parse
+	 * @param handler receiver for the text without escape sequences
+	 */
+	public void parse(CharSequence text, SegmentHandler handler) {
+		int segmentStart = 0;
+		final int length = text.length();
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			switch (state) {
+			case TEXT:
+				if (c == ESC) {
+					if (i > segmentStart) {
+						handler.segment(text, segmentStart, i, style);
+					}
+					state = State.ESCAPE;
+				}
+				break;
+			case ESCAPE:
+				if (c == '[') {
+					csi.setLength(0);
+					state = State.CSI;
+				} else if (c == ']') {
+					oscLength = 0;
+					state = State.OSC;
+				} else {
+					state = State.TEXT;
+					segmentStart = i + 1;
+				}
+				break;
+			case CSI:
+				if (c >= 0x40 && c <= 0x7e) {
+					if (c == 'm') {
+						applySgr(csi);
+					}
+					state = State.TEXT;
+					segmentStart = i + 1;
+				} else if (c >= 0x20 && c <= 0x3f && csi.length() < MAX_CSI_LENGTH) {
+					csi.append(c);
+				} else {
+					// malformed sequence; continue with current char as text
+					state = State.TEXT;
+					segmentStart = i;
+					i--;
+				}
+				break;
+			case OSC:
+				if (c == BEL) {
+					state = State.TEXT;
+					segmentStart = i + 1;
+				} else if (c == ESC) {
+					state = State.OSC_ESCAPE;
+				} else if (++oscLength > MAX_OSC_LENGTH) {
+					state = State.TEXT;
+					segmentStart = i;
+				}
+				break;
+			case OSC_ESCAPE:
+				// ESC \ terminates the sequence. Any other escape aborts it and
+				// is processed as new escape sequence.
+				if (c == '\\') {
+					state = State.TEXT;
+					segmentStart = i + 1;
+				} else {
+					state = State.ESCAPE;
+					i--;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		if (state == State.TEXT && length > segmentStart) {
+			handler.segment(text, segmentStart, length, style);
+		}
+	}
+
+	/**
+	 * Reset all graphic attributes to default.
+	 */
+	public void resetStyle() {
+		foreground = AnsiStyle.DEFAULT_COLOR;
+		background = AnsiStyle.DEFAULT_COLOR;
+		fontStyle = SWT.NORMAL;
+		underline = false;
+		strikeout = false;
+		inverse = false;
+		style = null;
+	}
+
+	/**
+	 * Interpret the parameters of an SGR sequence.
+	 *
+	 * @param params the sequence parameters
+	 */
+	private void applySgr(CharSequence params) {
+		if (params.length() > 0 && (params.charAt(0) < '0' || params.charAt(0) > ';')) {
+			// private sequence (e.g. "\e[>4m"); not a graphic rendition
+			return;
+		}
+		final int[] values = parseParameters(params);
+		for (int i = 0; i < values.length; i++) {
+			final int value = values[i];
+			switch (value) {
+			case 0:
+				resetStyle();
+				break;
+			case 1:
+				fontStyle |= SWT.BOLD;
+				break;
+			case 3:
+				fontStyle |= SWT.ITALIC;
+				break;
+			case 4:
+				underline = true;
+				break;
+			case 7:
+				inverse = true;
+				break;
+			case 9:
+				strikeout = true;
+				break;
+			case 22:
+				fontStyle &= ~SWT.BOLD;
+				break;
+			case 23:
+				fontStyle &= ~SWT.ITALIC;
+				break;
+			case 24:
+				underline = false;
+				break;
+			case 27:
+				inverse = false;
+				break;
+			case 29:
+				strikeout = false;
+				break;
+			case 38:
+			case 48:
+				final int[] color = new int[1];
+				i = parseExtendedColor(values, i + 1, color);
+				if (value == 38) {
+					foreground = color[0];
+				} else {
+					background = color[0];
+				}
+				break;
+			case 39:
+				foreground = AnsiStyle.DEFAULT_COLOR;
+				break;
+			case 49:
+				background = AnsiStyle.DEFAULT_COLOR;
+				break;
+			default:
+				if (value >= 30 && value <= 37) {
+					foreground = AnsiStyle.Palette.getIndexedColor(value - 30);
+				} else if (value >= 40 && value <= 47) {
+					background = AnsiStyle.Palette.getIndexedColor(value - 40);
+				} else if (value >= 90 && value <= 97) {
+					foreground = AnsiStyle.Palette.getIndexedColor(value - 90 + 8);
+				} else if (value >= 100 && value <= 107) {
+					background = AnsiStyle.Palette.getIndexedColor(value - 100 + 8);
+				}
+				// other attributes are not supported and ignored
+				break;
+			}
+		}
+		updateStyle();
+	}
+
+	/**
+	 * Parse an extended color specification (<code>5;n</code> or
+	 * <code>2;r;g;b</code>) following SGR 38 or 48.
+	 *
+	 * @param values the SGR parameters
+	 * @param index  index of the color type parameter
+	 * @param color  array to receive the parsed color
+	 * @return index of the last consumed parameter
+	 */
+	private static int parseExtendedColor(int[] values, int index, int[] color) {
+		color[0] = AnsiStyle.DEFAULT_COLOR;
+		if (index >= values.length) {
+			return index - 1;
+		}
+		if (values[index] == 5 && index + 1 < values.length) {
+			color[0] = AnsiStyle.Palette.getIndexedColor(values[index + 1]);
+			return index + 1;
+		}
+		if (values[index] == 2 && index + 3 < values.length) {
+			color[0] = (clamp(values[index + 1]) << 16) | (clamp(values[index + 2]) << 8) | clamp(values[index + 3]);
+			return index + 3;
+		}
+		return values.length - 1;
+	}
+
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+
+	/**
+	 * Split SGR parameters. Parameters are separated by <code>;</code> or
+	 * <code>:</code>. Missing parameters are treated as 0.
+	 *
+	 * @param params the parameter string
+	 * @return the parameter values
+	 */
+	private static int[] parseParameters(CharSequence params) {
+		int count = 1;
+		for (int i = 0; i < params.length(); i++) {
+			final char c = params.charAt(i);
+			if (c == ';' || c == ':') {
+				count++;
+			}
+		}
+		final int[] values = new int[count];
+		int index = 0;
+		for (int i = 0; i < params.length(); i++) {
+			final char c = params.charAt(i);
+			if (c == ';' || c == ':') {
+				index++;
+			} else if (c >= '0' && c <= '9') {
+				values[index] = Math.min(values[index] * 10 + (c - '0'), 0xffff);
+			}
+		}
+		return values;
+	}
+
+	private void updateStyle() {
+		final int fg = inverse ? background : foreground;
+		final int bg = inverse ? foreground : background;
+		style = palette.getStyle(fg, bg, fontStyle, underline, strikeout);
+	}
+}
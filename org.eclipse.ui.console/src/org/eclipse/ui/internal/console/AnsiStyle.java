@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Text style selected by ANSI SGR (Select Graphic Rendition) escape sequences
+ * in console output.
+ * <p>
+ * Instances are immutable and created by a {@link Palette} which ensures there
+ * is only one instance for each combination of attributes. Styles can therefore
+ * be compared by identity.
+ * </p>
+ */
+public final class AnsiStyle {
+
+	/** Value for a color attribute which uses the stream's default color. */
+	public static final int DEFAULT_COLOR = -1;
+
+	/** The foreground color or <code>null</code> to use the stream color. */
+	private final Color foreground;
+	/** The background color or <code>null</code> to use no background. */
+	private final Color background;
+	/** Combination of {@link SWT#BOLD} and {@link SWT#ITALIC}. */
+	private final int fontStyle;
+	private final boolean underline;
+	private final boolean strikeout;
+
+	private AnsiStyle(Color foreground, Color background, int fontStyle, boolean underline, boolean strikeout) {
+		this.foreground = foreground;
+		this.background = background;
+		this.fontStyle = fontStyle;
+		this.underline = underline;
+		this.strikeout = strikeout;
+	}
+
+	/**
+	 * Create a style range with this style. Attributes not set by this style are
+	 * taken from the given defaults.
+	 *
+	 * @param offset           offset of the style range
+	 * @param length           length of the style range
+	 * @param defaultColor     the foreground color to use if this style does not
+	 *                         set one
+	 * @param defaultFontStyle font style combined with this style's font style
+	 * @return the new style range
+	 */
+	public StyleRange getStyleRange(int offset, int length, Color defaultColor, int defaultFontStyle) {
+		final StyleRange range = new StyleRange(offset, length, foreground != null ? foreground : defaultColor,
+				background, defaultFontStyle | fontStyle);
+		range.underline = underline;
+		range.strikeout = strikeout;
+		return range;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(40);
+		sb.append("AnsiStyle ["); //$NON-NLS-1$
+		sb.append("fg=").append(foreground != null ? foreground.getRGB() : null); //$NON-NLS-1$
+		sb.append(", bg=").append(background != null ? background.getRGB() : null); //$NON-NLS-1$
+		sb.append(", font=").append(fontStyle); //$NON-NLS-1$
+		if (underline) {
+			sb.append(", underline"); //$NON-NLS-1$
+		}
+		if (strikeout) {
+			sb.append(", strikeout"); //$NON-NLS-1$
+		}
+		sb.append("]"); //$NON-NLS-1$
+		return sb.toString();
+	}
+
+	/**
+	 * Creates and caches {@link AnsiStyle}s and the colors they use. Colors are
+	 * owned by the palette and released on {@link #dispose()}.
+	 * <p>
+	 * Colors stay in use by the text already shown, so they cannot be released
+	 * earlier. To bound their number, once the palette holds
+	 * {@link #MAX_COLORS} colors further 24-bit colors are replaced by the
+	 * nearest color of the 256 color palette.
+	 * </p>
+	 * <p>
+	 * Must only be used from the UI thread.
+	 * </p>
+	 */
+	public static final class Palette {
+		/** RGB values of the 16 basic ANSI colors (normal and bright). */
+		private static final int[] BASIC_COLORS = { 0x000000, 0xcd0000, 0x00cd00, 0xcdcd00, 0x0000ee, 0xcd00cd,
+				0x00cdcd, 0xe5e5e5, 0x7f7f7f, 0xff0000, 0x00ff00, 0xffff00, 0x5c5cff, 0xff00ff, 0x00ffff,
+				0xffffff };
+
+		/**
+		 * Number of colors after which 24-bit colors are approximated by
+		 * indexed colors.
+		 */
+		public static final int MAX_COLORS = 512;
+
+		/** RGB values of the 256 indexed colors, sorted. */
+		private static final int[] INDEXED_COLORS = new int[256];
+
+		static {
+			for (int i = 0; i < INDEXED_COLORS.length; i++) {
+				INDEXED_COLORS[i] = getIndexedColor(i);
+			}
+			Arrays.sort(INDEXED_COLORS);
+		}
+
+		private final Display display;
+		private final Map<Integer, Color> colors = new HashMap<>();
+		private final Map<StyleKey, AnsiStyle> styles = new HashMap<>();
+
+		/**
+		 * Create a new palette.
+		 *
+		 * @param display the display to create colors for
+		 */
+		public Palette(Display display) {
+			this.display = display;
+		}
+
+		/**
+		 * Get the style for the given attributes.
+		 *
+		 * @param foregroundRgb foreground color as 0xRRGGBB value or
+		 *                      {@link AnsiStyle#DEFAULT_COLOR}
+		 * @param backgroundRgb background color as 0xRRGGBB value or
+		 *                      {@link AnsiStyle#DEFAULT_COLOR}
+		 * @param fontStyle     combination of {@link SWT#BOLD} and
+		 *                      {@link SWT#ITALIC}
+		 * @param underline     whether text is underlined
+		 * @param strikeout     whether text is struck out
+		 * @return the style or <code>null</code> if all attributes are default
+		 */
+		public AnsiStyle getStyle(int foregroundRgb, int backgroundRgb, int fontStyle, boolean underline,
+				boolean strikeout) {
+			if (foregroundRgb == DEFAULT_COLOR && backgroundRgb == DEFAULT_COLOR && fontStyle == SWT.NORMAL
+					&& !underline && !strikeout) {
+				return null;
+			}
+			final int foreground = limitColor(foregroundRgb);
+			final int background = limitColor(backgroundRgb);
+			final StyleKey key = new StyleKey(foreground, background,
+					fontStyle | (underline ? StyleKey.UNDERLINE : 0) | (strikeout ? StyleKey.STRIKEOUT : 0));
+			return styles.computeIfAbsent(key, k -> new AnsiStyle(getColor(foreground), getColor(background),
+					fontStyle, underline, strikeout));
+		}
+
+		/**
+		 * Returns the color to use for the given color, which is the nearest
+		 * indexed color if the palette is full and the color is not an indexed
+		 * color or already known.
+		 */
+		private int limitColor(int rgb) {
+			if (rgb == DEFAULT_COLOR || colors.size() < MAX_COLORS || colors.containsKey(rgb)
+					|| Arrays.binarySearch(INDEXED_COLORS, rgb) >= 0) {
+				return rgb;
+			}
+			int nearest = INDEXED_COLORS[0];
+			int nearestDistance = Integer.MAX_VALUE;
+			for (int indexed : INDEXED_COLORS) {
+				final int red = ((indexed >> 16) & 0xff) - ((rgb >> 16) & 0xff);
+				final int green = ((indexed >> 8) & 0xff) - ((rgb >> 8) & 0xff);
+				final int blue = (indexed & 0xff) - (rgb & 0xff);
+				final int distance = red * red + green * green + blue * blue;
+				if (distance < nearestDistance) {
+					nearest = indexed;
+					nearestDistance = distance;
+				}
+			}
+			return nearest;
+		}
+
+		/**
+		 * @return number of colors created by this palette
+		 */
+		public int getColorCount() {
+			return colors.size();
+		}
+
+		/**
+		 * Get the RGB value of an indexed color from the 256 color palette.
+		 *
+		 * @param index the color index; 0-15 are the basic colors, 16-231 a 6x6x6
+		 *              color cube and 232-255 a grayscale ramp
+		 * @return the color as 0xRRGGBB value or {@link AnsiStyle#DEFAULT_COLOR}
+		 *         if index is invalid
+		 */
+		public static int getIndexedColor(int index) {
+			if (index < 0 || index > 255) {
+				return DEFAULT_COLOR;
+			}
+			if (index < 16) {
+				return BASIC_COLORS[index];
+			}
+			if (index < 232) {
+				final int cube = index - 16;
+				return (cubeLevel(cube / 36) << 16) | (cubeLevel((cube / 6) % 6) << 8) | cubeLevel(cube % 6);
+			}
+			final int gray = 8 + (index - 232) * 10;
+			return (gray << 16) | (gray << 8) | gray;
+		}
+
+		private static int cubeLevel(int level) {
+			return level == 0 ? 0 : 55 + level * 40;
+		}
+
+		private Color getColor(int rgb) {
+			if (rgb == DEFAULT_COLOR) {
+				return null;
+			}
+			return colors.computeIfAbsent(rgb,
+					k -> new Color(display, (rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff));
+		}
+
+		/**
+		 * Release all colors created by this palette. Styles created by this
+		 * palette must not be used afterwards.
+		 */
+		public void dispose() {
+			for (Color color : colors.values()) {
+				color.dispose();
+			}
+			colors.clear();
+			styles.clear();
+		}
+	}
+
+	/**
+	 * Key to cache styles by their attributes.
+	 */
+	private static final class StyleKey {
+		static final int UNDERLINE = 1 << 8;
+		static final int STRIKEOUT = 1 << 9;
+
+		private final int foreground;
+		private final int background;
+		private final int flags;
+
+		StyleKey(int foreground, int background, int flags) {
+			this.foreground = foreground;
+			this.background = background;
+			this.flags = flags;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(foreground, background, flags);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof StyleKey)) {
+				return false;
+			}
+			final StyleKey other = (StyleKey) obj;
+			return foreground == other.foreground && background == other.background && flags == other.flags;
+		}
+	}
+}
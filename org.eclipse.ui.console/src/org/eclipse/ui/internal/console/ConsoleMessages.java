@@ -75,4 +75,6 @@ public class ConsoleMessages extends NLS {
 	public static String PatternMatchListenerExtension_5;
 
 	public static String UpdatingConsoleState;
+
+	public static String IOConsolePartitioner_outputSuppressed;
 }
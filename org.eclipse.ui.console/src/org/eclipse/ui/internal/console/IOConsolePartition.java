@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2019 IBM Corporation and others.
+ * Copyright (c) 2004, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,6 +49,21 @@ public class IOConsolePartition implements ITypedRegion {
 	private IOConsoleOutputStream outputStream;
 	private IOConsoleInputStream inputStream;
 
+	/**
+	 * Style of this partition's content set by ANSI escape sequences or
+	 * <code>null</code> to use the stream's style. Always <code>null</code> for
+	 * input partitions.
+	 */
+	private AnsiStyle style;
+
+	/**
+	 * Style range of this partition for the stream color and font style it was
+	 * created with, copied for each request of the partition's style.
+	 */
+	private StyleRange styleRange;
+	private Color styleRangeColor;
+	private int styleRangeFontStyle;
+
 	/**
 	 * Partition of console output.
 	 *
@@ -62,6 +77,19 @@ public class IOConsolePartition implements ITypedRegion {
 		this.readOnly = true;
 	}
 
+	/**
+	 * Partition of styled console output.
+	 *
+	 * @param offset       offset where this partition starts
+	 * @param outputStream source stream for this partition
+	 * @param style        style of this partition's content or <code>null</code>
+	 *                     to use the stream's style
+	 */
+	IOConsolePartition(int offset, IOConsoleOutputStream outputStream, AnsiStyle style) {
+		this(offset, outputStream);
+		this.style = style;
+	}
+
 	/**
 	 * Partition of console input.
 	 *
@@ -148,7 +176,22 @@ public class IOConsolePartition implements ITypedRegion {
 	 * @return style range for this partition
 	 */
 	public StyleRange getStyleRange(int rangeOffset, int rangeLength) {
-		return new StyleRange(rangeOffset, rangeLength, getColor(), null, getFontStyle());
+		final Color color = getColor();
+		final int fontStyle = getFontStyle();
+		if (styleRange == null || styleRangeColor != color || styleRangeFontStyle != fontStyle) {
+			// the stream's style may change at any time
+			if (style != null) {
+				styleRange = style.getStyleRange(0, 0, color, fontStyle);
+			} else {
+				styleRange = new StyleRange(0, 0, color, null, fontStyle);
+			}
+			styleRangeColor = color;
+			styleRangeFontStyle = fontStyle;
+		}
+		final StyleRange range = new StyleRange(styleRange);
+		range.start = rangeOffset;
+		range.length = rangeLength;
+		return range;
 	}
 
 	/**
@@ -256,6 +299,30 @@ public class IOConsolePartition implements ITypedRegion {
 		return outputStream == out;
 	}
 
+	/**
+	 * Test if this partition belongs to the given output stream and has the
+	 * given style, i.e. if output with this style can be added to this
+	 * partition.
+	 *
+	 * @param out        the output stream to test or <code>null</code>
+	 * @param otherStyle the style to test or <code>null</code>
+	 * @return <code>true</code> if this partition belongs to output stream and
+	 *         has the given style
+	 */
+	boolean belongsTo(IOConsoleOutputStream out, AnsiStyle otherStyle) {
+		return outputStream == out && style == otherStyle;
+	}
+
+	/**
+	 * Returns the style of this partition's content set by ANSI escape
+	 * sequences.
+	 *
+	 * @return the style or <code>null</code> if content uses the stream's style
+	 */
+	AnsiStyle getAnsiStyle() {
+		return style;
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder sb = new StringBuilder(40);
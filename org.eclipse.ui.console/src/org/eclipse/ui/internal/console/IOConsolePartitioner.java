@@ -21,12 +21,20 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.console;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -46,6 +54,7 @@ import org.eclipse.jface.text.MultiStringMatcher;
 import org.eclipse.jface.text.MultiStringMatcher.Match;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TypedRegion;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.console.ConsolePlugin;
@@ -173,6 +182,43 @@ public class IOConsolePartitioner
 	 */
 	private int outputOffset = 0;
 
+	/**
+	 * Output rate in characters per second above which console output is
+	 * summarized instead of fully appended to the document. Rate limiting is
+	 * disabled if value is not positive.
+	 */
+	private int outputRateLimit = -1;
+	/**
+	 * Number of most recent output lines which are still appended to the document
+	 * while output is summarized.
+	 */
+	private int outputRateLimitRetainedLines = 0;
+	/**
+	 * Summarizes output while the output rate exceeds {@link #outputRateLimit}.
+	 * Must only be accessed while holding the {@link #pendingPartitions} lock.
+	 */
+	private final OutputRateLimiter rateLimiter = new OutputRateLimiter();
+	/**
+	 * If not <code>null</code> all output received by this partitioner is
+	 * additionally written to this writer. Must only be accessed while holding the
+	 * {@link #pendingPartitions} lock.
+	 */
+	private Writer outputFileWriter;
+
+	/** Whether ANSI escape sequences in output are interpreted. */
+	private volatile boolean handleAnsiEscapeSequences;
+	/**
+	 * Escape sequence parser for each output stream. Only accessed from
+	 * {@link QueueProcessingJob} and <code>null</code> if escape sequences are
+	 * not interpreted.
+	 */
+	private Map<IOConsoleOutputStream, AnsiEscapeParser> ansiParsers;
+	/**
+	 * Creates and owns the styles and colors used for ANSI styled output. Must
+	 * only be accessed while holding the {@link #partitions} lock.
+	 */
+	private AnsiStyle.Palette ansiPalette;
+
 	/**
 	 * Create new partitioner for an {@link IOConsole}.
 	 * <p>
@@ -217,6 +263,8 @@ public class IOConsolePartitioner
 		synchronized (pendingPartitions) {
 			pendingPartitions.clear();
 			pendingSize = 0;
+			rateLimiter.reset();
+			closeOutputFile();
 			pendingPartitions.notifyAll();
 		}
 		synchronized (partitions) {
@@ -226,6 +274,16 @@ public class IOConsolePartitioner
 			document = null;
 			inputPartitions = null;
 			partitions.clear();
+			ansiParsers = null;
+			if (ansiPalette != null) {
+				// colors may still be in use by a viewer painting the old content
+				final AnsiStyle.Palette palette = ansiPalette;
+				ansiPalette = null;
+				final Display display = ConsolePlugin.getStandardDisplay();
+				if (display != null && !display.isDisposed()) {
+					display.asyncExec(palette::dispose);
+				}
+			}
 		}
 	}
 
@@ -285,7 +343,10 @@ public class IOConsolePartitioner
 			// check if pending data is queued
 			final boolean morePending;
 			synchronized (pendingPartitions) {
-				morePending = !pendingPartitions.isEmpty();
+				morePending = !pendingPartitions.isEmpty() || rateLimiter.hasRetainedOutput();
+				if (!morePending) {
+					closeOutputFile();
+				}
 			}
 			if (morePending) {
 				queueJob.schedule();
@@ -445,6 +506,7 @@ public class IOConsolePartitioner
 		synchronized (pendingPartitions) {
 			pendingPartitions.clear();
 			pendingSize = 0;
+			rateLimiter.reset();
 		}
 		synchronized (partitions) {
 			trimJob.setTrimOffset(document.getLength());
@@ -665,7 +727,8 @@ public class IOConsolePartitioner
 				inputPartitions.add(newPartition);
 			}
 		} else {
-			newPartition = new IOConsolePartition(offset, existingPartition.getOutputStream());
+			newPartition = new IOConsolePartition(offset, existingPartition.getOutputStream(),
+					existingPartition.getAnsiStyle());
 		}
 		newPartition.setLength((existingPartition.getOffset() + existingPartition.getLength()) - offset);
 		existingPartition.setLength(offset - existingPartition.getOffset());
@@ -691,14 +754,18 @@ public class IOConsolePartitioner
 			return;
 		}
 		synchronized (pendingPartitions) {
-			final PendingPartition lastPending = pendingPartitions.size() > 0
-					? pendingPartitions.get(pendingPartitions.size() - 1)
-					: null;
-			if (lastPending != null && lastPending.stream == stream) {
-				lastPending.append(s);
-			} else {
-				pendingPartitions.add(new PendingPartition(stream, s));
+			writeOutputFile(s);
+			if (outputRateLimit > 0 && !rateLimiter.accept(stream, s, System.currentTimeMillis())) {
+				// output is summarized; ensure the retained lines show up even if the
+				// stream stays silent from now on
+				if (!pendingPartitions.isEmpty()) {
+					queueJob.schedule();
+				} else if (queueJob.getState() == Job.NONE) {
+					queueJob.schedule(OutputRateLimiter.SUMMARY_INTERVAL);
+				}
+				return;
 			}
+			addPendingOutput(stream, s);
 
 			if (pendingSize > 1000) {
 				queueJob.schedule();
@@ -724,6 +791,24 @@ public class IOConsolePartitioner
 		}
 	}
 
+	/**
+	 * Add output to {@link #pendingPartitions}. Caller must hold the
+	 * {@link #pendingPartitions} lock.
+	 *
+	 * @param stream the stream the output belongs to
+	 * @param s      the output to append
+	 */
+	private void addPendingOutput(IOConsoleOutputStream stream, CharSequence s) {
+		final PendingPartition lastPending = pendingPartitions.size() > 0
+				? pendingPartitions.get(pendingPartitions.size() - 1)
+				: null;
+		if (lastPending != null && lastPending.stream == stream) {
+			lastPending.append(s);
+		} else {
+			pendingPartitions.add(new PendingPartition(stream, s));
+		}
+	}
+
 	/**
 	 * Holds data until updateJob can be run and the document can be updated.
 	 */
@@ -731,17 +816,241 @@ public class IOConsolePartitioner
 		StringBuilder text = new StringBuilder(8192);
 		IOConsoleOutputStream stream;
 
-		PendingPartition(IOConsoleOutputStream stream, String text) {
+		PendingPartition(IOConsoleOutputStream stream, CharSequence text) {
 			this.stream = stream;
 			append(text);
 		}
 
-		void append(String moreText) {
+		void append(CharSequence moreText) {
 			text.append(moreText);
 			pendingSize += moreText.length();
 		}
 	}
 
+	/**
+	 * Limits the amount of output appended to the document if output is produced
+	 * faster than {@link #outputRateLimit}. While the rate is exceeded only the
+	 * last {@link #outputRateLimitRetainedLines} lines are periodically appended
+	 * to the document together with a note how much output was suppressed.
+	 * <p>
+	 * Not thread safe. Must only be used while holding the
+	 * {@link #pendingPartitions} lock.
+	 * </p>
+	 */
+	private class OutputRateLimiter {
+		/** Length of the interval in milliseconds the output rate is measured. */
+		private static final int RATE_INTERVAL = 1000;
+		/**
+		 * Interval in milliseconds in which retained output is appended to the
+		 * document while output is summarized.
+		 */
+		static final int SUMMARY_INTERVAL = 500;
+		/**
+		 * Maximum length of a single retained line. If exceeded the beginning of the
+		 * line is suppressed.
+		 */
+		private static final int MAX_RETAINED_LINE_LENGTH = 4096;
+
+		/** Start time of the current rate measuring interval. */
+		private long intervalStart;
+		/** Number of characters received in the current rate measuring interval. */
+		private long intervalLength;
+		/** <code>true</code> while output is summarized. */
+		private boolean summarizing;
+		/** Time when retained output was last appended to the document. */
+		private long lastSummary;
+		/** The most recent output lines received while summarizing. */
+		private final ArrayDeque<RetainedLine> retainedLines = new ArrayDeque<>();
+		/** Number of lines suppressed since last summary. */
+		private long suppressedLines;
+		/** Number of characters suppressed since last summary. */
+		private long suppressedChars;
+		/** The stream which received the last suppressed output. */
+		private IOConsoleOutputStream suppressedStream;
+
+		/**
+		 * Update output rate and check if output should be appended to the document.
+		 * If not the output is retained or counted as suppressed.
+		 *
+		 * @param stream the stream which received the output
+		 * @param text   the received output
+		 * @param now    current time in milliseconds
+		 * @return <code>true</code> if output should be appended to the document
+		 *         as usual
+		 */
+		boolean accept(IOConsoleOutputStream stream, String text, long now) {
+			updateInterval(now);
+			intervalLength += text.length();
+			if (!summarizing && intervalLength > outputRateLimit) {
+				summarizing = true;
+				lastSummary = now;
+			}
+			if (!summarizing) {
+				return true;
+			}
+			retain(stream, text);
+			if (now - lastSummary >= SUMMARY_INTERVAL) {
+				summarize(now);
+			}
+			return false;
+		}
+
+		/**
+		 * Append retained output to the document if summary interval elapsed, all
+		 * streams are closed or output rate dropped below the limit.
+		 *
+		 * @param now current time in milliseconds
+		 */
+		void poll(long now) {
+			updateInterval(now);
+			if (hasRetainedOutput() && (streamsClosed || !summarizing || now - lastSummary >= SUMMARY_INTERVAL)) {
+				summarize(now);
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if retained or suppressed output was not yet
+		 *         reported to the document
+		 */
+		boolean hasRetainedOutput() {
+			return !retainedLines.isEmpty() || suppressedChars > 0;
+		}
+
+		/** Discard all retained output and reset rate measurement. */
+		void reset() {
+			retainedLines.clear();
+			suppressedLines = 0;
+			suppressedChars = 0;
+			suppressedStream = null;
+			summarizing = false;
+			intervalStart = 0;
+			intervalLength = 0;
+		}
+
+		/**
+		 * Start a new rate measuring interval if the current one has elapsed. Stop
+		 * summarizing if the rate of the elapsed interval was below the limit.
+		 *
+		 * @param now current time in milliseconds
+		 */
+		private void updateInterval(long now) {
+			if (now - intervalStart >= RATE_INTERVAL) {
+				if (summarizing && intervalLength <= outputRateLimit) {
+					summarizing = false;
+					summarize(now);
+				}
+				intervalStart = now;
+				intervalLength = 0;
+			}
+		}
+
+		/**
+		 * Remember output and suppress the oldest retained lines if there are more
+		 * than {@link #outputRateLimitRetainedLines}.
+		 *
+		 * @param stream the stream which received the output
+		 * @param text   the received output
+		 */
+		private void retain(IOConsoleOutputStream stream, String text) {
+			int lineStart = 0;
+			while (lineStart < text.length()) {
+				final int newline = text.indexOf('\n', lineStart);
+				final int lineEnd = newline >= 0 ? newline + 1 : text.length();
+				RetainedLine line = retainedLines.peekLast();
+				if (line == null || line.complete || line.stream != stream) {
+					line = new RetainedLine(stream);
+					retainedLines.add(line);
+				}
+				line.text.append(text, lineStart, lineEnd);
+				line.complete = newline >= 0;
+				final int overflow = line.text.length() - MAX_RETAINED_LINE_LENGTH;
+				if (overflow > 0) {
+					line.text.delete(0, overflow);
+					suppress(stream, overflow, false);
+				}
+				lineStart = lineEnd;
+			}
+			while (retainedLines.size() > outputRateLimitRetainedLines) {
+				final RetainedLine suppressed = retainedLines.removeFirst();
+				suppress(suppressed.stream, suppressed.text.length(), suppressed.complete);
+			}
+		}
+
+		private void suppress(IOConsoleOutputStream stream, int length, boolean completeLine) {
+			suppressedStream = stream;
+			suppressedChars += length;
+			if (completeLine) {
+				suppressedLines++;
+			}
+		}
+
+		/**
+		 * Append a note about suppressed output and all retained lines to the
+		 * pending partitions.
+		 *
+		 * @param now current time in milliseconds
+		 */
+		void summarize(long now) {
+			lastSummary = now;
+			if (suppressedChars > 0) {
+				addPendingOutput(suppressedStream,
+						NLS.bind(ConsoleMessages.IOConsolePartitioner_outputSuppressed,
+								Long.valueOf(suppressedLines), Long.valueOf(suppressedChars))
+								+ System.lineSeparator());
+				suppressedLines = 0;
+				suppressedChars = 0;
+				suppressedStream = null;
+			}
+			for (RetainedLine line : retainedLines) {
+				addPendingOutput(line.stream, line.text);
+			}
+			retainedLines.clear();
+		}
+	}
+
+	/** A (possibly incomplete) output line retained by {@link OutputRateLimiter}. */
+	private static class RetainedLine {
+		final IOConsoleOutputStream stream;
+		final StringBuilder text = new StringBuilder();
+		boolean complete;
+
+		RetainedLine(IOConsoleOutputStream stream) {
+			this.stream = stream;
+		}
+	}
+
+	/**
+	 * Write output to {@link #outputFileWriter} if set. Caller must hold the
+	 * {@link #pendingPartitions} lock.
+	 *
+	 * @param s the output to write
+	 */
+	private void writeOutputFile(String s) {
+		if (outputFileWriter != null) {
+			try {
+				outputFileWriter.write(s);
+			} catch (IOException e) {
+				log(e);
+				closeOutputFile();
+			}
+		}
+	}
+
+	/**
+	 * Close {@link #outputFileWriter} if set. Caller must hold the
+	 * {@link #pendingPartitions} lock.
+	 */
+	private void closeOutputFile() {
+		if (outputFileWriter != null) {
+			try {
+				outputFileWriter.close();
+			} catch (IOException e) {
+				log(e);
+			}
+			outputFileWriter = null;
+		}
+	}
+
 	/**
 	 * Updates the document and partitioning structure. Will append everything
 	 * received from output streams that is available before finishing.
@@ -757,6 +1066,11 @@ public class IOConsolePartitioner
 		private StringBuilder content;
 		/** The offset in document where to apply the next replace. */
 		private int nextWriteOffset;
+		/**
+		 * The style for content currently partitioned or <code>null</code> to use
+		 * the stream's style.
+		 */
+		private AnsiStyle outputStyle;
 
 		QueueProcessingJob() {
 			super("IOConsole Updater"); //$NON-NLS-1$
@@ -783,7 +1097,7 @@ public class IOConsolePartitioner
 		@Override
 		public boolean shouldRun() {
 			synchronized (pendingPartitions) {
-				final boolean shouldRun = pendingPartitions.size() > 0;
+				final boolean shouldRun = pendingPartitions.size() > 0 || rateLimiter.hasRetainedOutput();
 				return shouldRun;
 			}
 		}
@@ -796,6 +1110,10 @@ public class IOConsolePartitioner
 			final List<PendingPartition> pendingCopy;
 			final int size;
 			synchronized (pendingPartitions) {
+				rateLimiter.poll(System.currentTimeMillis());
+				if (rateLimiter.hasRetainedOutput()) {
+					schedule(OutputRateLimiter.SUMMARY_INTERVAL);
+				}
 				pendingCopy = new ArrayList<>(pendingPartitions);
 				size = pendingSize;
 				pendingPartitions.clear();
@@ -813,8 +1131,9 @@ public class IOConsolePartitioner
 		 * Apply content collected in pending partitions to document and update
 		 * partitioning structure.
 		 * <p>
-		 * This method is also responsible to interpret control characters if enabled
-		 * (see {@link #isHandleControlCharacters()}).
+		 * This method is also responsible to interpret control characters and ANSI
+		 * escape sequences if enabled (see {@link #isHandleControlCharacters()} and
+		 * {@link #isHandleAnsiEscapeSequences()}).
 		 * </p>
 		 *
 		 * @param pendingCopy the pending partitions to process
@@ -836,127 +1155,160 @@ public class IOConsolePartitioner
 			atOutputPartition = null;
 			atOutputPartitionIndex = -1;
 
+			final boolean interpretAnsi = handleAnsiEscapeSequences;
+			if (!interpretAnsi && ansiParsers != null) {
+				ansiParsers = null;
+			}
 			for (PendingPartition pending : pendingCopy) {
-				// create matcher to find control characters in pending content (if enabled)
-				final Matcher controlCharacterMatcher = controlPattern != null ? controlPattern.matcher(pending.text)
-						: null;
-
-				for (int textOffset = 0; textOffset < pending.text.length();) {
-					// Process pending content in chunks.
-					// Processing is primary split on control characters since there interpretation
-					// is easier if all content changes before are already applied.
-					// Additional processing splits may result while overwriting existing output and
-					// overwrite overlaps partitions.
-					final boolean foundControlCharacter;
-					final int partEnd;
-					if (controlCharacterMatcher != null && controlCharacterMatcher.find()) {
-						if (ASSERT) {
-							// check used pattern. Assert it matches only sequences of same characters.
-							final String match = controlCharacterMatcher.group();
-							Assert.isTrue(match.length() > 0);
-							final char matchedChar = match.charAt(0);
-							for (char c : match.toCharArray()) {
-								Assert.isTrue(c == matchedChar);
-							}
-						}
-						partEnd = controlCharacterMatcher.start();
-						foundControlCharacter = true;
-					} else {
-						partEnd = pending.text.length();
-						foundControlCharacter = false;
-					}
+				if (interpretAnsi) {
+					// escape sequences are removed and interpreted only once when output is
+					// appended; the resulting styles are stored in the partitions
+					getAnsiParser(pending.stream).parse(pending.text, (text, start, end, style) -> {
+						outputStyle = style;
+						applyStreamOutput(pending.stream, text, start, end, controlPattern);
+					});
+				} else {
+					outputStyle = null;
+					applyStreamOutput(pending.stream, pending.text, 0, pending.text.length(), controlPattern);
+				}
+			}
+			applyOutputToDocument(content.toString(), nextWriteOffset, replaceLength);
+			content = null;
+		}
 
-					partititonContent(pending.stream, pending.text, textOffset, partEnd);
-					textOffset = partEnd;
+		/**
+		 * Apply a part of pending content from one output stream to document and
+		 * partitioning. Interprets control characters if enabled.
+		 *
+		 * @param stream         the stream which appended the content
+		 * @param text           the content to apply. Depending on given offsets only
+		 *                       a part of text is applied.
+		 * @param start          the start offset (inclusive) within text to apply
+		 * @param end            the end offset (exclusive) within text to apply
+		 * @param controlPattern pattern to find control characters or
+		 *                       <code>null</code> if control characters are not
+		 *                       interpreted
+		 */
+		private void applyStreamOutput(IOConsoleOutputStream stream, CharSequence text, int start, int end,
+				Pattern controlPattern) {
+			// create matcher to find control characters in pending content (if enabled)
+			final Matcher controlCharacterMatcher = controlPattern != null
+					? controlPattern.matcher(text).region(start, end)
+					: null;
 
-					// finished processing of regular content before control characters
-					// now interpret control characters if any
-					if (controlCharacterMatcher != null && foundControlCharacter) {
-						// at first update console document since it is easier to interpret control
-						// characters on an up-to-date document and partitioning
-						applyOutputToDocument(content.toString(), nextWriteOffset, replaceLength);
-						content.setLength(0);
-						replaceLength = 0;
+			for (int textOffset = start; textOffset < end;) {
+				// Process pending content in chunks.
+				// Processing is primary split on control characters since there interpretation
+				// is easier if all content changes before are already applied.
+				// Additional processing splits may result while overwriting existing output and
+				// overwrite overlaps partitions.
+				final boolean foundControlCharacter;
+				final int partEnd;
+				if (controlCharacterMatcher != null && controlCharacterMatcher.find()) {
+					if (ASSERT) {
+						// check used pattern. Assert it matches only sequences of same characters.
+						final String match = controlCharacterMatcher.group();
+						Assert.isTrue(match.length() > 0);
+						final char matchedChar = match.charAt(0);
+						for (char c : match.toCharArray()) {
+							Assert.isTrue(c == matchedChar);
+						}
+					}
+					partEnd = controlCharacterMatcher.start();
+					foundControlCharacter = true;
+				} else {
+					partEnd = end;
+					foundControlCharacter = false;
+				}
 
-						final String controlCharacterMatch = controlCharacterMatcher.group();
-						final char controlCharacter = controlCharacterMatch.charAt(0);
-						final int outputLineStartOffset = findOutputLineStartOffset(outputOffset);
-						switch (controlCharacter) {
-						case '\b':
-							// move virtual output cursor one step back for each \b
-							// but stop at current line start and skip any input partitions
-							int backStepCount = controlCharacterMatch.length();
-							if (partitions.size() == 0) {
-								outputOffset = 0;
-								break;
+				partititonContent(stream, text, textOffset, partEnd);
+				textOffset = partEnd;
+
+				// finished processing of regular content before control characters
+				// now interpret control characters if any
+				if (controlCharacterMatcher != null && foundControlCharacter) {
+					// at first update console document since it is easier to interpret control
+					// characters on an up-to-date document and partitioning
+					applyOutputToDocument(content.toString(), nextWriteOffset, replaceLength);
+					content.setLength(0);
+					replaceLength = 0;
+
+					final String controlCharacterMatch = controlCharacterMatcher.group();
+					final char controlCharacter = controlCharacterMatch.charAt(0);
+					final int outputLineStartOffset = findOutputLineStartOffset(outputOffset);
+					switch (controlCharacter) {
+					case '\b':
+						// move virtual output cursor one step back for each \b
+						// but stop at current line start and skip any input partitions
+						int backStepCount = controlCharacterMatch.length();
+						if (partitions.size() == 0) {
+							outputOffset = 0;
+							break;
+						}
+						if (atOutputPartition == null) {
+							atOutputPartitionIndex = partitions.size() - 1;
+							atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
+						}
+						while (backStepCount > 0 && outputOffset > outputLineStartOffset) {
+							if (atOutputPartition != null && isInputPartition(atOutputPartition)) {
+								do {
+									outputOffset = atOutputPartition.getOffset() - 1;
+									atOutputPartitionIndex--;
+									atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
+								} while (atOutputPartition != null && isInputPartition(atOutputPartition));
+								backStepCount--;
 							}
 							if (atOutputPartition == null) {
-								atOutputPartitionIndex = partitions.size() - 1;
-								atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
-							}
-							while (backStepCount > 0 && outputOffset > outputLineStartOffset) {
-								if (atOutputPartition != null && isInputPartition(atOutputPartition)) {
-									do {
-										outputOffset = atOutputPartition.getOffset() - 1;
-										atOutputPartitionIndex--;
-										atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
-									} while (atOutputPartition != null && isInputPartition(atOutputPartition));
-									backStepCount--;
-								}
-								if (atOutputPartition == null) {
-									outputOffset = 0;
-									break;
-								}
-								final int backSteps = Math.min(outputOffset - atOutputPartition.getOffset(),
-										backStepCount);
-								outputOffset -= backSteps;
-								backStepCount -= backSteps;
-								atOutputPartitionIndex--;
-								atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
+								outputOffset = 0;
+								break;
 							}
-							outputOffset = Math.max(outputOffset, outputLineStartOffset);
-							nextWriteOffset = outputOffset;
-							break;
-
-						case '\r':
-							// move virtual output cursor to start of output line
-							outputOffset = outputLineStartOffset;
-							atOutputPartitionIndex = -1;
-							atOutputPartition = null;
-							nextWriteOffset = outputOffset;
-							break;
+							final int backSteps = Math.min(outputOffset - atOutputPartition.getOffset(),
+									backStepCount);
+							outputOffset -= backSteps;
+							backStepCount -= backSteps;
+							atOutputPartitionIndex--;
+							atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
+						}
+						outputOffset = Math.max(outputOffset, outputLineStartOffset);
+						nextWriteOffset = outputOffset;
+						break;
 
-						case '\f':
-						case '\u000b': // \v
-							// Vertical tab does not override existing content. It will introduce a newline
-							// (at the end of current line even if output offset is inside the line) and
-							// indent the new line dependent on current output offset.
-							int indention = outputOffset - outputLineStartOffset;
-							final int vtabCount = controlCharacterMatch.length();
-							final StringBuilder vtab = new StringBuilder(indention + vtabCount);
-							for (int i = 0; i < vtabCount; i++) {
-								vtab.append(System.lineSeparator());
-							}
-							for (int i = 0; i < indention; i++) {
-								vtab.append(' ');
-							}
-							outputOffset = document.getLength();
-							nextWriteOffset = outputOffset;
-							partititonContent(pending.stream, vtab, 0, vtab.length());
-							break;
+					case '\r':
+						// move virtual output cursor to start of output line
+						outputOffset = outputLineStartOffset;
+						atOutputPartitionIndex = -1;
+						atOutputPartition = null;
+						nextWriteOffset = outputOffset;
+						break;
 
-						default:
-							// should never happen as long as the used regex pattern is valid
-							log(IStatus.ERROR, "No implementation to handle control character 0x" //$NON-NLS-1$
-									+ Integer.toHexString(controlCharacter));
-							break;
+					case '\f':
+					case '\u000b': // \v
+						// Vertical tab does not override existing content. It will introduce a newline
+						// (at the end of current line even if output offset is inside the line) and
+						// indent the new line dependent on current output offset.
+						int indention = outputOffset - outputLineStartOffset;
+						final int vtabCount = controlCharacterMatch.length();
+						final StringBuilder vtab = new StringBuilder(indention + vtabCount);
+						for (int i = 0; i < vtabCount; i++) {
+							vtab.append(System.lineSeparator());
 						}
-						textOffset = controlCharacterMatcher.end();
+						for (int i = 0; i < indention; i++) {
+							vtab.append(' ');
+						}
+						outputOffset = document.getLength();
+						nextWriteOffset = outputOffset;
+						partititonContent(stream, vtab, 0, vtab.length());
+						break;
+
+					default:
+						// should never happen as long as the used regex pattern is valid
+						log(IStatus.ERROR, "No implementation to handle control character 0x" //$NON-NLS-1$
+								+ Integer.toHexString(controlCharacter));
+						break;
 					}
+					textOffset = controlCharacterMatcher.end();
 				}
 			}
-			applyOutputToDocument(content.toString(), nextWriteOffset, replaceLength);
-			content = null;
 		}
 
 		/**
@@ -993,9 +1345,9 @@ public class IOConsolePartitioner
 							Assert.isTrue(atOutputPartitionIndex == findPartitionCandidate(outputOffset - 1));
 						}
 					}
-					if (atOutputPartition == null || !atOutputPartition.belongsTo(stream)) {
+					if (atOutputPartition == null || !atOutputPartition.belongsTo(stream, outputStyle)) {
 						// no partitions yet or last partition is incompatible to reuse -> add new one
-						atOutputPartition = new IOConsolePartition(outputOffset, stream);
+						atOutputPartition = new IOConsolePartition(outputOffset, stream, outputStyle);
 						partitions.add(atOutputPartition);
 						atOutputPartitionIndex = partitions.size() - 1;
 					}
@@ -1011,7 +1363,7 @@ public class IOConsolePartitioner
 						atOutputPartitionIndex = findPartitionCandidate(outputOffset);
 						atOutputPartition = getPartitionByIndex(atOutputPartitionIndex);
 						if (atOutputPartition == null) {
-							atOutputPartition = new IOConsolePartition(outputOffset, stream);
+							atOutputPartition = new IOConsolePartition(outputOffset, stream, outputStyle);
 							atOutputPartitionIndex++;
 							partitions.add(atOutputPartitionIndex, atOutputPartition);
 						}
@@ -1036,7 +1388,7 @@ public class IOConsolePartitioner
 							atOutputPartition.getLength() - (outputOffset - atOutputPartition.getOffset()));
 					Assert.isTrue(chunkLength > 0); // do not remove since it can prevent an infinity loop
 
-					if (!atOutputPartition.belongsTo(stream)) {
+					if (!atOutputPartition.belongsTo(stream, outputStyle)) {
 						// new output is from other stream then overwritten output
 
 						// Note: this implementation ignores the possibility to reuse the partition
@@ -1057,8 +1409,8 @@ public class IOConsolePartitioner
 							atOutputPartition = splitPartition(outputOffset);
 							atOutputPartitionIndex++;
 						}
-						if (outputPartition == null || !outputPartition.belongsTo(stream)) {
-							outputPartition = new IOConsolePartition(outputOffset, stream);
+						if (outputPartition == null || !outputPartition.belongsTo(stream, outputStyle)) {
+							outputPartition = new IOConsolePartition(outputOffset, stream, outputStyle);
 							partitions.add(atOutputPartitionIndex, outputPartition);
 							atOutputPartitionIndex++;
 						}
@@ -1406,6 +1758,119 @@ public class IOConsolePartitioner
 		setHandleControlCharacters(isHandleControlCharacters());
 	}
 
+	/**
+	 * Check if console currently interprets ANSI escape sequences.
+	 *
+	 * @return <code>true</code> if console interprets ANSI escape sequences
+	 * @see IOConsole#isHandleAnsiEscapeSequences()
+	 * @since 3.10
+	 */
+	public boolean isHandleAnsiEscapeSequences() {
+		return handleAnsiEscapeSequences;
+	}
+
+	/**
+	 * Enable or disable interpretation of ANSI escape sequences in console
+	 * output. If enabled escape sequences are removed from output and SGR
+	 * (Select Graphic Rendition) sequences are used to style the output. The
+	 * setting only affects output appended after it was changed.
+	 *
+	 * @param handleAnsiEscapeSequences interpret ANSI escape sequences if
+	 *                                  <code>true</code>
+	 * @see IOConsole#setHandleAnsiEscapeSequences(boolean)
+	 * @since 3.10
+	 */
+	public void setHandleAnsiEscapeSequences(boolean handleAnsiEscapeSequences) {
+		this.handleAnsiEscapeSequences = handleAnsiEscapeSequences;
+	}
+
+	/**
+	 * Get the escape sequence parser for an output stream. Must only be called
+	 * from UI thread while holding the {@link #partitions} lock.
+	 *
+	 * @param stream the output stream
+	 * @return the stream's parser
+	 */
+	private AnsiEscapeParser getAnsiParser(IOConsoleOutputStream stream) {
+		if (ansiPalette == null) {
+			ansiPalette = new AnsiStyle.Palette(Display.getCurrent());
+		}
+		if (ansiParsers == null) {
+			ansiParsers = new HashMap<>();
+		}
+		return ansiParsers.computeIfAbsent(stream, s -> new AnsiEscapeParser(ansiPalette));
+	}
+
+	/**
+	 * Get the output rate limit.
+	 *
+	 * @return the output rate in characters per second above which output is
+	 *         summarized or a value &lt;= 0 if output is not limited
+	 * @see IOConsole#getOutputRateLimit()
+	 * @since 3.10
+	 */
+	public int getOutputRateLimit() {
+		return outputRateLimit;
+	}
+
+	/**
+	 * Get the number of lines shown while output is summarized.
+	 *
+	 * @return the number of most recent lines appended to the document while
+	 *         output rate exceeds the limit
+	 * @see IOConsole#getOutputRateLimitRetainedLines()
+	 * @since 3.10
+	 */
+	public int getOutputRateLimitRetainedLines() {
+		return outputRateLimitRetainedLines;
+	}
+
+	/**
+	 * Set output rate limit. If output is received faster than the given rate only
+	 * the last <code>retainedLines</code> lines are periodically appended to the
+	 * document together with a note about the amount of suppressed output.
+	 *
+	 * @param charactersPerSecond the output rate above which output is summarized
+	 *                            or a value &lt;= 0 to disable rate limiting
+	 * @param retainedLines       number of most recent lines to show while output
+	 *                            is summarized
+	 * @see IOConsole#setOutputRateLimit(int, int)
+	 * @since 3.10
+	 */
+	public void setOutputRateLimit(int charactersPerSecond, int retainedLines) {
+		synchronized (pendingPartitions) {
+			// flush output retained so far, it would be lost on reset
+			if (rateLimiter.hasRetainedOutput()) {
+				rateLimiter.summarize(System.currentTimeMillis());
+				queueJob.schedule();
+			}
+			rateLimiter.reset();
+			outputRateLimit = charactersPerSecond;
+			outputRateLimitRetainedLines = Math.max(retainedLines, 0);
+		}
+	}
+
+	/**
+	 * Set a file which receives all output appended to this partitioner. The file
+	 * receives the complete output even if output is summarized due to the output
+	 * rate limit. A previously set file is closed.
+	 *
+	 * @param file the file to write output to or <code>null</code> to stop
+	 *             writing output to file
+	 * @throws IOException if file cannot be opened for writing
+	 * @see IOConsole#setOutputFile(File)
+	 * @since 3.10
+	 */
+	public void setOutputFile(File file) throws IOException {
+		synchronized (pendingPartitions) {
+			closeOutputFile();
+			if (file != null) {
+				outputFileWriter = new BufferedWriter(
+						new OutputStreamWriter(new FileOutputStream(file), console.getCharset()), 65536);
+			}
+		}
+	}
+
 	/**
 	 * Get a partition by its index. Safe from out of bounds exceptions.
 	 *